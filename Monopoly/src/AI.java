@@ -5,39 +5,158 @@ public class AI extends Player{
      * This is the AI class it is identical to the player class the reasoning for it is so the model can
      * differentiate between a player and an AI and handle them differently.
      *
-     * @param name
+     * @attribute strategy the Strategy making the AI's decisions
      */
+    private Strategy strategy;
 
+    /**
+     * Default constructor for an AI that plays the DefaultStrategy.
+     * @param name
+     */
     public AI(String name) {
+        this(name, new DefaultStrategy());
+    }
+
+    /**
+     * Constructor for an AI that plays the given strategy.
+     * @param name
+     * @param strategy the Strategy making the AI's decisions
+     */
+    public AI(String name, Strategy strategy) {
         super(name);
+        this.strategy = strategy;
+    }
+
+    /**
+     * Getter for strategy.
+     */
+    public Strategy getStrategy() {
+        return strategy;
     }
 
     /**
-     * This method handles the AI logic of a turn, the logic is very simple as the AI will attempt to buy
-     * whatever they land on.
+     * Setter for strategy.
+     */
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * This method handles the AI logic of a turn, the strategy decides whether the AI pays to leave jail, whether
+     * it buys the property it lands on and which houses and hotels it builds at the end of its move.
+     * The view may be null when the game is played headless.
+     * The time spent on the turn is recorded as an AIDecisionEvent.
      *
      * Created and documented by Matthew Belanger - 101144323
      * Refactored and enhanced by Nathan MacDiarmid - 101098993
      */
     public void AITurn(MonopolyModel model, MonopolyView view){
+        AIDecisionEvent event = AIDecisionEvent.enabled() ? new AIDecisionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        boolean successfulBuy = false;
+
+        if (move(model) && strategy.buy(model, this, model.getBoard().getProperty(model.getPlayer().getPosition()))) {
+            successfulBuy = buyHere(model, view);
+        }
+
+        build(model);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.player = this.getName();
+                event.square = this.getPosition();
+                event.bought = successfulBuy;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Plays the first half of the AI's turn, the strategy decides whether to pay to leave jail, then the AI rolls,
+     * moves, collects $200 for passing Go and pays any rent.
+     * @return whether the AI can buy the square it landed on
+     */
+    boolean move(MonopolyModel model) {
+        GameObserver observer = model.getGameObserver();
+        if (this.getJailed() && this.getMoney() > Jail.FINE && strategy.leaveJail(model, this)) {
+            ((Jail) model.getBoard().getProperty(this.getPosition())).payFine(this);
+            if (observer != null) {
+                observer.finePaid(this, Jail.FINE);
+            }
+        }
+
         int AIRollValue = model.roll();
+        boolean moves = !model.getPlayer().getJailed();
         model.getPlayer().addPosition(AIRollValue);
+        if (moves && observer != null) {
+            observer.playerMoved(this, this.getPosition(), AIRollValue);
+        }
         model.setUtilityRent(AIRollValue);
         model.goToJail();
 
         if(model.getPlayer().getPositionTracker() >= 32) {
             model.getPlayer().addMoney(200);
+            if (observer != null) {
+                observer.salaryPaid(this, 200);
+            }
         }
 
-        if (model.checkProperty()) {
-            boolean successfulBuy = model.buyProperty(JOptionPane.YES_OPTION);
-            if(successfulBuy){
-                if (model.getBoard().getProperty(model.getPlayer().getPosition()) instanceof Railroad) {
-                    model.setRailroadRent();
-                }
+        return model.checkProperty();
+    }
+
+    /**
+     * Buys the square the AI is on, updating the railroad rents and telling the view if there is one.
+     * @return whether the AI could afford the square
+     */
+    boolean buyHere(MonopolyModel model, MonopolyView view) {
+        boolean successfulBuy = model.buyProperty(JOptionPane.YES_OPTION);
+        if(successfulBuy){
+            if (model.getBoard().getProperty(model.getPlayer().getPosition()) instanceof Railroad) {
+                model.setRailroadRent();
+            }
+            if (view != null) {
                 view.AIBuy(model.getPlayer().getName(), model.getBoard().getProperty(model.getPlayer().getPosition()).getName());
             }
         }
+        return successfulBuy;
+    }
+
+    /**
+     * Builds the houses and then the hotels the strategy asks for, a request that isn't allowed ends the building.
+     */
+    private void build(MonopolyModel model) {
+        GameObserver observer = model.getGameObserver();
+        Property property = strategy.buildHouse(model, this);
+        while (property != null && property.getOwner() == this && canHaveBuildings(property)
+                && !property.hasHouse() && this.getMoney() >= HOUSECOST) {
+            this.buyHouse(property.getName());
+            if (observer != null) {
+                observer.buildingBought(this, model.getBoard().getProperties().indexOf(property), HOUSECOST, false);
+            }
+            property = strategy.buildHouse(model, this);
+        }
+
+        property = strategy.buildHotel(model, this);
+        while (property != null && property.getOwner() == this && canHaveBuildings(property)
+                && property.hasHouse() && !property.hasHotel() && this.getMoney() >= HOTELCOST) {
+            this.buyHotel(property.getName());
+            if (observer != null) {
+                observer.buildingBought(this, model.getBoard().getProperties().indexOf(property), HOTELCOST, true);
+            }
+            property = strategy.buildHotel(model, this);
+        }
+    }
+
+    /**
+     * Checks if houses and hotels can be built on a property, they can't be built on Railroads or Utilities.
+     * @param property a property the AI owns
+     * @return whether the property can have a house or hotel
+     */
+    static boolean canHaveBuildings(Property property) {
+        return !(property instanceof Railroad) && !(property instanceof Utilities);
     }
 
 }
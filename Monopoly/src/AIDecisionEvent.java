@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("monopoly.AIDecision")
+@Label("AI Decision")
+@Category("Monopoly")
+@Description("Time an AI player spends deciding and playing its turn in AI.AITurn")
+@StackTrace(false)
+@Threshold("0 ms")
+public class AIDecisionEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted by AI.AITurn, the event duration is the decision time.
+     *
+     * @attribute player the name of the AI
+     * @attribute square the position the AI ended its move on
+     * @attribute bought whether the AI bought the property it landed on
+     */
+    @Label("Player")
+    String player;
+
+    @Label("Square")
+    int square;
+
+    @Label("Bought")
+    boolean bought;
+
+    private static final EventType TYPE = EventType.getEventType(AIDecisionEvent.class);
+
+    /**
+     * Returns whether the event is being recorded. It is checked before the event is created so a game that is
+     * not being recorded allocates no events, whether or not the JIT has compiled the caller yet.
+     */
+    static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BankruptcyRisk {
+    /**
+     * The BankruptcyRisk class
+     *
+     * Works out the exact probability that a player goes bankrupt (ends a turn with no money) within their next
+     * turns, by dynamic programming over the square they are on and their cash rather than by playing games.
+     *
+     * A player is in one of the squares of the board or in jail having tried to roll doubles one to three times.
+     * On each turn they roll two dice, collect $200 when they pass Go and pay the rent of the square they land on
+     * if someone else owns it. Cash is counted in buckets of $10, rent is rounded up and cash down, so the risk is
+     * never understated. The table is computed backwards from the last turn and holds the risk for every square and
+     * amount of cash at once, so it is only recomputed when the rent the player faces changes, which happens when a
+     * property is bought or built on. Any other turn only needs a lookup. Tables are kept by seat rather than by
+     * player, a table only depends on the rents so it stays valid for whoever sits in the seat next game.
+     *
+     * Income from rent other players pay and the fine for leaving jail early are left out.
+     *
+     * @attribute turns how many of the player's turns ahead the risk covers
+     * @attribute tables the last table computed for each seat
+     */
+    private static final int BUCKET = 10;
+    private static final int SALARY = 200;
+    private static final int JAILTRIES = 3;
+    private static final int UTILITYROLLS = 12;
+
+    private final int turns;
+    private final List<Table> tables;
+
+    /**
+     * The risk table of one player and the rent it was computed for.
+     */
+    private static class Table {
+        int[] rent;
+        int levels;
+        double[] risk;
+    }
+
+    /**
+     * Constructor for BankruptcyRisk, no tables are computed until a risk is asked for.
+     * @param turns how many of the player's turns ahead the risk covers
+     */
+    public BankruptcyRisk(int turns) {
+        this.turns = turns;
+        this.tables = new ArrayList<>();
+    }
+
+    /**
+     * Getter for the number of turns the risk covers.
+     * @return how many of the player's turns ahead the risk covers
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Returns the probability that the player goes bankrupt within the next turns.
+     * @param board the board of the game
+     * @param seat the index of the player's seat in the game
+     * @param player the player, they must still be in the game
+     * @return the probability of going bankrupt, between 0 and 1
+     */
+    public double getRisk(Board board, int seat, Player player) {
+        if (player.getMoney() <= 0) {
+            return 1;
+        }
+        int size = board.getProperties().size();
+        while (tables.size() <= seat) {
+            tables.add(null);
+        }
+        Table table = tables.get(seat);
+        if (table == null || table.rent.length != size) {
+            table = new Table();
+            table.rent = new int[size];
+            tables.set(seat, table);
+            compute(board, table, rents(board, player, new int[size]));
+        }
+        else {
+            int[] rent = rents(board, player, new int[size]);
+            if (!Arrays.equals(rent, table.rent)) {
+                compute(board, table, rent);
+            }
+        }
+
+        int state = player.getPosition();
+        Jail jail = jail(board);
+        if (player.getJailed() && jail != null) {
+            state = size + Math.max(0, Math.min(JAILTRIES - 1, jail.getTurnsJailed(player) - 1));
+        }
+        int cash = Math.min(player.getMoney() / BUCKET, table.levels - 1);
+        return table.risk[state * table.levels + cash];
+    }
+
+    /**
+     * Fills in the rent the player pays on each square, utilities are given as a negative multiplier of the roll.
+     */
+    private static int[] rents(Board board, Player player, int[] rent) {
+        for (int i = 0; i < rent.length; i++) {
+            Property property = board.getProperty(i);
+            Player owner = property.getOwner();
+            if (owner == null || owner == player) {
+                rent[i] = 0;
+            }
+            else if (property instanceof Utilities) {
+                rent[i] = owner.getAmountOfUtilities() >= 2 ? -10 : -4;
+            }
+            else {
+                rent[i] = property.getRent();
+            }
+        }
+        return rent;
+    }
+
+    private static Jail jail(Board board) {
+        for (int i = 0; i < board.getProperties().size(); i++) {
+            if (board.getProperty(i) instanceof Jail) {
+                return (Jail) board.getProperty(i);
+            }
+        }
+        return null;
+    }
+
+    private static int jailSquare(Board board) {
+        for (int i = 0; i < board.getProperties().size(); i++) {
+            if (board.getProperty(i) instanceof Jail) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int goToJailSquare(Board board) {
+        for (int i = 0; i < board.getProperties().size(); i++) {
+            if (board.getProperty(i) instanceof GoToJail) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the risk table for the given rents. States 0 to size-1 are players on that square, state size+k is a
+     * player in jail who has tried to roll doubles k+1 times.
+     */
+    private void compute(Board board, Table table, int[] rent) {
+        System.arraycopy(rent, 0, table.rent, 0, rent.length);
+        int size = rent.length;
+        int states = size + JAILTRIES;
+        int jail = jailSquare(board);
+        int goToJail = goToJailSquare(board);
+
+        // nobody can lose more than the highest rent each turn, so more cash than that many turns of it is safe
+        int most = 0;
+        for (int i = 0; i < size; i++) {
+            most = Math.max(most, rent[i] < 0 ? -rent[i] * UTILITYROLLS : rent[i]);
+        }
+        int levels = (most + BUCKET - 1) / BUCKET * turns + 2;
+
+        // the moves out of each free square: where the player ends up, the change in cash buckets and the chance
+        int[][] target = new int[states][];
+        int[][] change = new int[states][];
+        double[][] chance = new double[states][];
+        for (int position = 0; position < size; position++) {
+            target[position] = new int[22];
+            change[position] = new int[22];
+            chance[position] = new double[22];
+            int move = 0;
+            for (int roll = 2; roll <= 12; roll++) {
+                int doubles = roll % 2 == 0 ? 1 : 0;
+                int square = (position + roll) % size;
+                int paid = rent[square] < 0 ? -rent[square] * roll : rent[square];
+                int money = (position + roll >= size ? SALARY : 0) - paid;
+                int delta = Math.floorDiv(money, BUCKET);
+                double ways = 6 - Math.abs(roll - 7);
+                if (square == goToJail) {
+                    // the first try at doubles is made with the roll that landed on Go To Jail
+                    target[position][move] = jail;
+                    change[position][move] = delta;
+                    chance[position][move++] = doubles / 36.0;
+                    target[position][move] = size;
+                    change[position][move] = delta;
+                    chance[position][move++] = (ways - doubles) / 36.0;
+                }
+                else {
+                    target[position][move] = square;
+                    change[position][move] = delta;
+                    chance[position][move++] = ways / 36.0;
+                }
+            }
+            target[position] = Arrays.copyOf(target[position], move);
+            change[position] = Arrays.copyOf(change[position], move);
+            chance[position] = Arrays.copyOf(chance[position], move);
+        }
+        for (int tries = 1; tries <= JAILTRIES; tries++) {
+            int state = size + tries - 1;
+            if (tries == JAILTRIES) {
+                target[state] = new int[] {jail};
+                change[state] = new int[] {0};
+                chance[state] = new double[] {1};
+            }
+            else {
+                target[state] = new int[] {jail, state + 1};
+                change[state] = new int[] {0, 0};
+                chance[state] = new double[] {1.0 / 6, 5.0 / 6};
+            }
+        }
+
+        double[] risk = new double[states * levels];
+        double[] next = new double[states * levels];
+        for (int turn = 0; turn < turns; turn++) {
+            for (int state = 0; state < states; state++) {
+                int[] to = target[state];
+                int[] delta = change[state];
+                double[] p = chance[state];
+                for (int cash = 0; cash < levels; cash++) {
+                    double value = 0;
+                    for (int move = 0; move < to.length; move++) {
+                        int after = cash + delta[move];
+                        if (delta[move] < 0 && after <= 0) {
+                            value += p[move];
+                        }
+                        else {
+                            value += p[move] * risk[to[move] * levels + Math.min(after, levels - 1)];
+                        }
+                    }
+                    next[state * levels + cash] = value;
+                }
+            }
+            double[] swap = risk;
+            risk = next;
+            next = swap;
+        }
+        table.levels = levels;
+        table.risk = risk;
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BankruptcyRiskTest {
+    /**
+     * These tests verify the bankruptcy risk against risks that can be worked out by hand.
+     */
+    private Board board;
+    private Player player;
+    private Player owner;
+
+    @BeforeEach
+    public void init() {
+        board = new Board(0);
+        player = new Player("Player");
+        owner = new Player("Owner");
+        owner.setMoney(100000);
+    }
+
+    /**
+     * This test verifies that a player who can't land on anyone else's property can't go bankrupt, and that a
+     * player with no money already has.
+     */
+    @Test
+    public void noRentTest() {
+        BankruptcyRisk risk = new BankruptcyRisk(10);
+        owner.buy(board.getProperty(6));
+        assertEquals(0, risk.getRisk(board, 0, player), 1e-12);
+        player.setMoney(0);
+        assertEquals(1, risk.getRisk(board, 0, player), 1e-12);
+    }
+
+    /**
+     * This test verifies the risk of landing on one expensive property from Go, a roll of 6 comes up 5 times in 36
+     * and in two turns it can also be reached as 2 then 4, 3 then 3 or 4 then 2.
+     */
+    @Test
+    public void oneSquareTest() {
+        owner.buy(board.getProperty(6));
+        board.getProperty(6).updateRent(1000);
+        player.setMoney(100);
+
+        assertEquals(5.0 / 36, new BankruptcyRisk(1).getRisk(board, 0, player), 1e-12);
+        assertEquals(5.0 / 36 + 10.0 / 1296, new BankruptcyRisk(2).getRisk(board, 0, player), 1e-12);
+    }
+
+    /**
+     * This test verifies that the table is recomputed when the rent changes.
+     */
+    @Test
+    public void rentChangeTest() {
+        BankruptcyRisk risk = new BankruptcyRisk(1);
+        owner.buy(board.getProperty(6));
+        player.setMoney(100);
+        assertEquals(0, risk.getRisk(board, 0, player), 1e-12);
+        board.getProperty(6).updateRent(1000);
+        assertEquals(5.0 / 36, risk.getRisk(board, 0, player), 1e-12);
+    }
+
+    /**
+     * This test verifies that a new player in a seat gets the risk of their own rents and money, and that seats
+     * are kept apart.
+     */
+    @Test
+    public void seatTest() {
+        BankruptcyRisk risk = new BankruptcyRisk(1);
+        owner.buy(board.getProperty(6));
+        board.getProperty(6).updateRent(1000);
+        player.setMoney(100);
+        assertEquals(5.0 / 36, risk.getRisk(board, 0, player), 1e-12);
+
+        Player next = new Player("Next");
+        next.setMoney(100000);
+        assertEquals(0, risk.getRisk(board, 0, next), 1e-12);
+        assertEquals(0, risk.getRisk(board, 0, owner), 1e-12);
+        assertEquals(0, risk.getRisk(board, 3, next), 1e-12);
+        assertEquals(5.0 / 36, risk.getRisk(board, 1, player), 1e-12);
+    }
+}
@@ -3,11 +3,14 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class Board{
 
@@ -31,6 +34,7 @@ public class Board{
     private final static String CANADABOARD = "Boards/CanadaBoard.xml";
     private final static String EUROPEBOARD = "Boards/EuropeBoard.xml";
     private final static String WORLDBOARD = "Boards/WorldBoard.xml";
+    private final static ConcurrentMap<Integer, Board> PROTOTYPES = new ConcurrentHashMap<>();
 
 
 
@@ -47,6 +51,58 @@ public class Board{
 
     }
 
+    /**
+     * Creates a board with new properties that are the same as the squares of another board, nobody owns them.
+     * @param other the board to copy
+     */
+    private Board(Board other) {
+        this.boardType = other.boardType;
+        this.properties = new ArrayList<>();
+        Jail jail = null;
+        for (int i = 0; i < other.properties.size(); i++) {
+            if (other.properties.get(i) instanceof Jail) {
+                jail = new Jail("Jail", 0, 0);
+            }
+        }
+        for (int i = 0; i < other.properties.size(); i++) {
+            Property square = other.properties.get(i);
+            Property property;
+            if (square instanceof Go) {
+                property = new Go(square.getName(), square.getCost(), square.getBaseRent());
+            }
+            else if (square instanceof Jail) {
+                property = jail;
+            }
+            else if (square instanceof GoToJail) {
+                property = new GoToJail(square.getName(), square.getCost(), square.getBaseRent(), jail);
+            }
+            else if (square instanceof FreeParking) {
+                property = new FreeParking(square.getName(), square.getCost(), square.getBaseRent());
+            }
+            else if (square instanceof Utilities) {
+                property = new Utilities(square.getName(), square.getCost(), square.getBaseRent());
+            }
+            else if (square instanceof Railroad) {
+                property = new Railroad(square.getName(), square.getCost(), square.getBaseRent());
+            }
+            else {
+                property = new Property(square.getName(), square.getCost(), square.getBaseRent());
+            }
+            // some constructors change the name, the XML handler sets it afterwards too
+            property.setName(square.getName());
+            this.properties.add(property);
+        }
+    }
+
+    /**
+     * Returns a new board of a type without reading its XML file, the file is only read the first time a type is
+     * asked for and later boards are copied from that one.
+     * @param boardType the type of board
+     */
+    public static Board copyOf(int boardType) {
+        return new Board(PROTOTYPES.computeIfAbsent(boardType, Board::new));
+    }
+
     /**
      * Basic setter for the properties and boardType
      * @param b
@@ -68,6 +124,15 @@ public class Board{
         return boardType;
     }
 
+    /**
+     * Resets every property on the board for a new game.
+     */
+    public void reset() {
+        for (int i = 0; i < this.properties.size(); i++) {
+            this.properties.get(i).reset();
+        }
+    }
+
     /**
      * Default getter for a specific property in property list
      * @param position the int index of a property
@@ -86,11 +151,7 @@ public class Board{
      * Created and documented by Matthew Belanger - 101144323
      */
     private String tabGenerator(int tabs){
-        String s = "";
-        for(int i = 0; i < tabs; i++){
-            s += "\t";
-        }
-        return s;
+        return "\t".repeat(tabs);
     }
 
     /**
@@ -113,11 +174,14 @@ public class Board{
 
     /**
      * Allows different types of board to be imported from XML files.
+     * Each import is recorded as a BoardLoadEvent.
      * @param boardType the selection made by the user.
      *
      * Created and documented by Nathan MacDiarmid - 101098993
      */
     private void importXMLBoard(int boardType) {
+        BoardLoadEvent event = new BoardLoadEvent();
+        event.begin();
         SAXParserFactory factory = SAXParserFactory.newInstance();
         String filename = null;
 
@@ -150,6 +214,15 @@ public class Board{
 
             setBoard(boardType, properties);
 
+            event.end();
+            if (event.shouldCommit()) {
+                event.boardType = boardType;
+                event.file = filename;
+                event.bytes = new File(filename).length();
+                event.squares = properties.size();
+                event.commit();
+            }
+
         } catch (ParserConfigurationException | SAXException | IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,37 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("monopoly.BoardLoad")
+@Label("Board Load")
+@Category({"Monopoly", "Persistence"})
+@Description("A board parsed from one of the Boards xml files")
+@StackTrace(true)
+@Threshold("0 ms")
+public class BoardLoadEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted when Board imports its xml file, the event duration is the load time.
+     *
+     * @attribute boardType the type of board loaded
+     * @attribute file the xml file the board was read from
+     * @attribute bytes the size of the xml file
+     * @attribute squares the number of squares read
+     */
+    @Label("Board Type")
+    int boardType;
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Squares")
+    int squares;
+}
@@ -0,0 +1,182 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class BuildingOptimizer {
+    /**
+     * The BuildingOptimizer class
+     *
+     * Chooses which houses and hotels a player should build to earn the most expected rent without spending more
+     * than a budget. Every street the player owns is one group of a knapsack, it can get nothing, a house, a house
+     * and a hotel or, if it already has a house, a hotel. Costs are counted in units of the largest amount that
+     * divides the house and hotel costs so the table stays small.
+     *
+     * @attribute table the landing probabilities of the board
+     * @attribute horizon the most opponent turns a building may take to pay for itself
+     * @attribute houses the properties to build a house on, in the order to build them
+     * @attribute hotels the properties to build a hotel on, in the order to build them
+     * @attribute income the expected rent the chosen buildings add per opponent turn
+     * @attribute cost the money the chosen buildings cost
+     */
+    private static final int UNIT = gcd(Player.HOUSECOST, Player.HOTELCOST);
+
+    private LandingProbabilities table;
+    private int horizon;
+    private List<Property> houses;
+    private List<Property> hotels;
+    private double income;
+    private int cost;
+
+    /**
+     * Constructor for the BuildingOptimizer, it suggests no buildings until optimize is called.
+     * @param table the landing probabilities of the board the player is on
+     */
+    public BuildingOptimizer(LandingProbabilities table) {
+        this.table = table;
+        this.horizon = Integer.MAX_VALUE;
+        this.houses = new ArrayList<>();
+        this.hotels = new ArrayList<>();
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Sets the most opponent turns a building may take to pay for itself, buildings that take longer are never
+     * suggested.
+     * @param horizon the most opponent turns, Integer.MAX_VALUE to allow any building that earns rent
+     */
+    public void setHorizon(int horizon) {
+        this.horizon = horizon;
+    }
+
+    /**
+     * Chooses the buildings with the most expected rent that cost at most the budget.
+     * @param board the board the player is on
+     * @param player the player that builds
+     * @param budget the most money to spend
+     * @param opponents the number of opponents that can land on the buildings
+     */
+    public void optimize(Board board, Player player, int budget, int opponents) {
+        houses.clear();
+        hotels.clear();
+        income = 0;
+        cost = 0;
+
+        List<Property> streets = new ArrayList<>();
+        List<Integer> squares = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < player.getPropertiesOwned().size(); i++) {
+            Property property = player.getPropertiesOwned().get(i);
+            if (AI.canHaveBuildings(property) && !property.hasHotel()) {
+                streets.add(property);
+                squares.add(board.getProperties().indexOf(property));
+                total += property.hasHouse() ? Player.HOTELCOST : Player.HOUSECOST + Player.HOTELCOST;
+            }
+        }
+        int capacity = Math.min(Math.max(0, budget), total) / UNIT;
+        if (streets.isEmpty() || capacity == 0) {
+            return;
+        }
+
+        // choice[g][c] is what street g gets in the best plan for the first g + 1 streets costing at most c units:
+        // 0 nothing, 1 a house or, on a street with a house, a hotel, 2 a house and a hotel
+        double[] best = new double[capacity + 1];
+        byte[][] choice = new byte[streets.size()][capacity + 1];
+        for (int g = 0; g < streets.size(); g++) {
+            Property property = streets.get(g);
+            int square = squares.get(g);
+            int oneCost;
+            double oneIncome;
+            if (property.hasHouse()) {
+                oneCost = Player.HOTELCOST / UNIT;
+                oneIncome = worthIt(Player.HOTELCOST, table.getHotelRent(square), opponents);
+            }
+            else {
+                oneCost = Player.HOUSECOST / UNIT;
+                oneIncome = worthIt(Player.HOUSECOST, table.getHouseRent(square), opponents);
+            }
+            int twoCost = (Player.HOUSECOST + Player.HOTELCOST) / UNIT;
+            double twoIncome = property.hasHouse() || oneIncome == 0 ? 0
+                    : worthIt(Player.HOUSECOST + Player.HOTELCOST, table.getHouseRent(square) + table.getHotelRent(square), opponents);
+
+            for (int c = capacity; c >= 0; c--) {
+                double value = best[c];
+                byte chosen = 0;
+                if (oneIncome > 0 && c >= oneCost && best[c - oneCost] + oneIncome > value) {
+                    value = best[c - oneCost] + oneIncome;
+                    chosen = 1;
+                }
+                if (twoIncome > 0 && c >= twoCost && best[c - twoCost] + twoIncome > value) {
+                    value = best[c - twoCost] + twoIncome;
+                    chosen = 2;
+                }
+                best[c] = value;
+                choice[g][c] = chosen;
+            }
+        }
+
+        int c = capacity;
+        for (int g = streets.size() - 1; g >= 0; g--) {
+            Property property = streets.get(g);
+            if (choice[g][c] == 2) {
+                houses.add(0, property);
+                hotels.add(0, property);
+                c -= (Player.HOUSECOST + Player.HOTELCOST) / UNIT;
+                cost += Player.HOUSECOST + Player.HOTELCOST;
+            }
+            else if (choice[g][c] == 1 && property.hasHouse()) {
+                hotels.add(0, property);
+                c -= Player.HOTELCOST / UNIT;
+                cost += Player.HOTELCOST;
+            }
+            else if (choice[g][c] == 1) {
+                houses.add(0, property);
+                c -= Player.HOUSECOST / UNIT;
+                cost += Player.HOUSECOST;
+            }
+        }
+        income = best[capacity];
+    }
+
+    /**
+     * Returns the expected rent a building earns from every opponent per turn, or 0 if it doesn't pay for itself
+     * within the horizon.
+     */
+    private double worthIt(int buildingCost, double rent, int opponents) {
+        double earned = rent * opponents;
+        return earned > 0 && buildingCost <= earned * horizon ? earned : 0;
+    }
+
+    /**
+     * Getter for the houses chosen by the last call to optimize.
+     * @return the properties to build a house on, in the order to build them
+     */
+    public List<Property> getHouses() {
+        return houses;
+    }
+
+    /**
+     * Getter for the hotels chosen by the last call to optimize.
+     * @return the properties to build a hotel on, in the order to build them
+     */
+    public List<Property> getHotels() {
+        return hotels;
+    }
+
+    /**
+     * Getter for the income of the chosen buildings.
+     * @return the expected rent the chosen buildings add per opponent turn
+     */
+    public double getIncome() {
+        return income;
+    }
+
+    /**
+     * Getter for the cost of the chosen buildings.
+     * @return the money the chosen buildings cost, at most the budget
+     */
+    public int getCost() {
+        return cost;
+    }
+}
@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BuildingOptimizerTest {
+    /**
+     * These tests verify that the BuildingOptimizer finds the buildings with the most expected rent within a budget.
+     */
+    private Board board;
+    private LandingProbabilities table;
+    private Player player;
+
+    @BeforeEach
+    public void init() {
+        board = new Board(0);
+        table = LandingProbabilities.forBoard(board);
+        player = new Player("Player");
+        player.setMoney(100000);
+        player.buy(board.getProperty(1));
+        player.buy(board.getProperty(2));
+        player.buy(board.getProperty(13));
+        player.buy(board.getProperty(14));
+    }
+
+    /**
+     * This test verifies that the plan matches the best plan found by trying every combination of buildings.
+     */
+    @Test
+    public void bestPlanTest() {
+        int[] squares = {1, 2, 13, 14};
+        for (int budget = 0; budget <= 600; budget += 50) {
+            BuildingOptimizer optimizer = new BuildingOptimizer(table);
+            optimizer.optimize(board, player, budget, 3);
+
+            // every street gets 0 nothing, 1 a house or 2 a house and a hotel
+            double bestIncome = 0;
+            for (int plan = 0; plan < 81; plan++) {
+                int cost = 0;
+                double income = 0;
+                for (int i = 0, p = plan; i < squares.length; i++, p /= 3) {
+                    if (p % 3 >= 1) {
+                        cost += Player.HOUSECOST;
+                        income += table.getHouseRent(squares[i]) * 3;
+                    }
+                    if (p % 3 == 2) {
+                        cost += Player.HOTELCOST;
+                        income += table.getHotelRent(squares[i]) * 3;
+                    }
+                }
+                if (cost <= budget) {
+                    bestIncome = Math.max(bestIncome, income);
+                }
+            }
+            assertEquals(bestIncome, optimizer.getIncome(), 1e-9);
+            assertTrue(optimizer.getCost() <= budget);
+            for (int i = 0; i < optimizer.getHotels().size(); i++) {
+                assertTrue(optimizer.getHouses().contains(optimizer.getHotels().get(i)));
+            }
+        }
+    }
+
+    /**
+     * This test verifies that a street with a house is only offered a hotel and a street with a hotel nothing.
+     */
+    @Test
+    public void existingBuildingsTest() {
+        player.buyHouse(board.getProperty(1).getName());
+        player.buyHouse(board.getProperty(2).getName());
+        player.buyHotel(board.getProperty(2).getName());
+        BuildingOptimizer optimizer = new BuildingOptimizer(table);
+        optimizer.optimize(board, player, 1000, 3);
+        assertFalse(optimizer.getHouses().contains(board.getProperty(1)));
+        assertTrue(optimizer.getHotels().contains(board.getProperty(1)));
+        assertFalse(optimizer.getHouses().contains(board.getProperty(2)));
+        assertFalse(optimizer.getHotels().contains(board.getProperty(2)));
+    }
+}
@@ -0,0 +1,151 @@
+public class ComparisonResult {
+    /**
+     * The ComparisonResult class
+     *
+     * The result of a StrategyComparison. The score of each strategy is its equity in a game: 1 for a win, 0 when it
+     * is eliminated and its share of the net worth still in the game when the game hits the turn cap.
+     *
+     * Games played with the same seed are a group, the difference between the strategies is measured on each group
+     * so the standard error reflects the common random numbers, antithetic dice and seat rotation that were used.
+     * The independent standard error is what the same number of independent games would have given, the ratio of the
+     * two variances is how many times fewer games the comparison needed.
+     *
+     * @attribute games the number of games played by each strategy
+     * @attribute sumA the sum of the scores of strategy A
+     * @attribute sumSquaresA the sum of the squared scores of strategy A
+     * @attribute sumB the sum of the scores of strategy B
+     * @attribute sumSquaresB the sum of the squared scores of strategy B
+     * @attribute groups the number of seed groups
+     * @attribute sumDifference the sum of the mean difference of each group
+     * @attribute sumSquaresDifference the sum of the squared mean difference of each group
+     */
+    private long games;
+    private double sumA;
+    private double sumSquaresA;
+    private double sumB;
+    private double sumSquaresB;
+    private long groups;
+    private double sumDifference;
+    private double sumSquaresDifference;
+
+    /**
+     * Records the score of each strategy in one game.
+     */
+    public void recordGame(double scoreA, double scoreB) {
+        this.games++;
+        this.sumA += scoreA;
+        this.sumSquaresA += scoreA * scoreA;
+        this.sumB += scoreB;
+        this.sumSquaresB += scoreB * scoreB;
+    }
+
+    /**
+     * Records the mean difference between the strategies over the games of one seed group.
+     */
+    public void recordGroup(double meanDifference) {
+        this.groups++;
+        this.sumDifference += meanDifference;
+        this.sumSquaresDifference += meanDifference * meanDifference;
+    }
+
+    /**
+     * Adds another ComparisonResult to this one.
+     */
+    public void merge(ComparisonResult other) {
+        this.games += other.games;
+        this.sumA += other.sumA;
+        this.sumSquaresA += other.sumSquaresA;
+        this.sumB += other.sumB;
+        this.sumSquaresB += other.sumSquaresB;
+        this.groups += other.groups;
+        this.sumDifference += other.sumDifference;
+        this.sumSquaresDifference += other.sumSquaresDifference;
+    }
+
+    /**
+     * Returns the sample variance from a count, sum and sum of squares.
+     */
+    private static double variance(long n, double sum, double sumSquares) {
+        if (n < 2) {
+            return 0;
+        }
+        double mean = sum / n;
+        return Math.max(0, (sumSquares - n * mean * mean) / (n - 1));
+    }
+
+    /**
+     * Getter for the number of games played by each strategy.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Getter for the number of seed groups.
+     */
+    public long getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns the mean score of strategy A.
+     */
+    public double getMeanA() {
+        return games == 0 ? 0 : sumA / games;
+    }
+
+    /**
+     * Returns the mean score of strategy B.
+     */
+    public double getMeanB() {
+        return games == 0 ? 0 : sumB / games;
+    }
+
+    /**
+     * Returns how much better strategy A scored than strategy B.
+     */
+    public double getMeanDifference() {
+        return groups == 0 ? 0 : sumDifference / groups;
+    }
+
+    /**
+     * Returns the standard error of the mean difference using the seed groups.
+     */
+    public double getStandardError() {
+        return groups == 0 ? 0 : Math.sqrt(variance(groups, sumDifference, sumSquaresDifference) / groups);
+    }
+
+    /**
+     * Returns the standard error the mean difference would have had with independent games.
+     */
+    public double getIndependentStandardError() {
+        if (games == 0) {
+            return 0;
+        }
+        return Math.sqrt((variance(games, sumA, sumSquaresA) + variance(games, sumB, sumSquaresB)) / games);
+    }
+
+    /**
+     * Returns how many times fewer games the comparison needed than independent games for the same confidence
+     * interval.
+     */
+    public double getVarianceReduction() {
+        double standardError = getStandardError();
+        if (standardError == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double independent = getIndependentStandardError();
+        return (independent * independent) / (standardError * standardError);
+    }
+
+    /**
+     * Overrides the toString() default method to output a summary of the comparison.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d games: A=%.4f B=%.4f difference=%.4f +/- %.4f (95%%), independent +/- %.4f, "
+                        + "variance reduction %.1fx",
+                games, getMeanA(), getMeanB(), getMeanDifference(), 1.96 * getStandardError(),
+                1.96 * getIndependentStandardError(), getVarianceReduction());
+    }
+}
@@ -0,0 +1,32 @@
+public class DefaultStrategy implements Strategy {
+    /**
+     * The DefaultStrategy class
+     *
+     * The original AI, it buys whatever it lands on, never builds and waits in jail.
+     */
+
+    @Override
+    public String getName() {
+        return "default";
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        return false;
+    }
+
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        return true;
+    }
+
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        return null;
+    }
+
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        return null;
+    }
+}
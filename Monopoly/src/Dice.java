@@ -1,3 +1,5 @@
+import java.util.concurrent.ThreadLocalRandom;
+
 public class Dice {
     /**
     This is the dice that will be used to roll and move players
@@ -8,19 +10,64 @@ public class Dice {
     @attribute dice1 is random int between 1 and 6
     @attribute dice2 is a random int between 1 and 6
     @attribute doubles is the boolean expression of whether dice1 and dice2 are equal.
+    @attribute state is the state of the random number generator, the dice are a splitmix64 stream so the same
+    seed always rolls the same sequence
+    @attribute antithetic is whether every die is mirrored (7 minus the value), used to pair each game with an
+    antithetic game when simulating
 
     Created and documented by Nathan MacDiarmid - 101098993 and Mehedi Mostofa - 101154128
      */
     private int dice1;
     private int dice2;
     private boolean doubles;
+    private long state;
+    private boolean antithetic;
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
 
     /**
      * Default constructor for Dice class
      */
     public Dice() {
-        this.dice1 = (int) (Math.random()*(6) + 1);
-        this.dice2 = (int) (Math.random()*(6) + 1);
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Constructor for Dice that always rolls the same sequence for the same seed.
+     * @param seed the seed of the dice
+     */
+    public Dice(long seed) {
+        this.state = seed;
+        this.dice1 = nextDie();
+        this.dice2 = nextDie();
+    }
+
+    /**
+     * Restarts the dice sequence from a seed.
+     * @param seed the seed of the dice
+     */
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Setter for antithetic, when set every die rolls 7 minus the value it would otherwise roll.
+     * @param antithetic whether the dice are mirrored
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Rolls one die from the splitmix64 stream.
+     * @return a random int between 1 and 6
+     */
+    private int nextDie() {
+        long z = (this.state += GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        int die = (int) (((z >>> 32) * 6) >>> 32) + 1;
+        return this.antithetic ? 7 - die : die;
     }
 
     /**
@@ -30,8 +77,8 @@ public class Dice {
      * Created and documented by Mehedi Mostofa - 101154128
      */
     public int roll() {
-        this.dice1 = (int) (Math.random()*(6) + 1);
-        this.dice2 = (int) (Math.random()*(6) + 1);
+        this.dice1 = nextDie();
+        this.dice2 = nextDie();
         checkDoubles();
 
         return dice1 + dice2;
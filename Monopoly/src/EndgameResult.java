@@ -0,0 +1,53 @@
+public class EndgameResult {
+    /**
+     * The EndgameResult class
+     *
+     * The best decision an EndgameSolver found for the current player and their chance of winning if both players
+     * play the best decisions from then on.
+     *
+     * @attribute winProbability the current player's chance of winning
+     * @attribute buy whether the player should buy the square they are on
+     * @attribute build the square the player should build a house or hotel on, or -1 to build nothing
+     * @attribute nodes the number of turns the search looked at
+     * @attribute hits the number of turns the search found already solved in its table
+     */
+    private final double winProbability;
+    private final boolean buy;
+    private final int build;
+    private final long nodes;
+    private final long hits;
+
+    public EndgameResult(double winProbability, boolean buy, int build, long nodes, long hits) {
+        this.winProbability = winProbability;
+        this.buy = buy;
+        this.build = build;
+        this.nodes = nodes;
+        this.hits = hits;
+    }
+
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    public boolean isBuy() {
+        return buy;
+    }
+
+    public int getBuild() {
+        return build;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("win %.1f%%, %s, %s (%d turns searched, %d from the table)", 100 * winProbability,
+                buy ? "buy" : "don't buy", build < 0 ? "build nothing" : "build on square " + build, nodes, hits);
+    }
+}
@@ -0,0 +1,540 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+public class EndgameSolver {
+    /**
+     * The EndgameSolver class
+     *
+     * Solves games that are down to two players with a bounded depth expectimax search. The search alternates the
+     * two players' turns: a player in jail may pay the fine, the dice are a chance node, then the player decides
+     * whether to buy the square they landed on and whether to build a house or hotel. A player that ends a turn
+     * with no money loses. When the depth runs out the position is scored by each player's share of the net worth.
+     *
+     * The value of the start of every turn is memoized in an OffHeapTable under a hash of the whole position, so
+     * positions reached by different orders of moves are only searched once and the table size is capped by the
+     * memory given to the solver. The root moves and the dice that follow them are searched in parallel on a
+     * thread for every processor, sharing the table.
+     *
+     * The search follows the rules MonopolyModel plays by: passing Go and being sent to jail across Go pay $200,
+     * rent is the base rent plus $10 for a house and $30 for a hotel, railroads charge by how many the owner has,
+     * utilities charge 4 or 10 times the roll and jail is left on doubles or after three tries.
+     * To keep the search small a player only considers building on their best few streets.
+     *
+     * @attribute table the memoized turn values
+     * @attribute depth the number of turns searched after the current one
+     * @attribute workers the threads the root is searched on
+     * @attribute nodes the number of turns searched by the last solve
+     * @attribute hits the number of turns found in the table by the last solve
+     */
+    private static final int DEFAULTDEPTH = 4;
+    private static final int SALARY = 200;
+    private static final int BUILDCHOICES = 3;
+    private static final int HOUSERENT = 10;
+    private static final int HOTELRENT = 30;
+    private static final int MAXJAILTRIES = 3;
+    private static final int[] RAILROADRENT = {0, 25, 50, 100, 200};
+    private static final int[] UTILITYMULTIPLIER = {0, 4, 10};
+    private static final int STREET = 1;
+    private static final int RAILROAD = 2;
+    private static final int UTILITY = 3;
+    private static final int GOTOJAIL = 4;
+
+    // every outcome of two dice, the total and whether it is doubles, with its chance
+    private static final int[] ROLLTOTAL = new int[17];
+    private static final boolean[] ROLLDOUBLES = new boolean[17];
+    private static final double[] ROLLCHANCE = new double[17];
+
+    static {
+        int outcome = 0;
+        for (int total = 2; total <= 12; total++) {
+            int ways = 6 - Math.abs(total - 7);
+            if (total % 2 == 0) {
+                ROLLTOTAL[outcome] = total;
+                ROLLDOUBLES[outcome] = true;
+                ROLLCHANCE[outcome++] = 1.0 / 36;
+                ways--;
+            }
+            if (ways > 0) {
+                ROLLTOTAL[outcome] = total;
+                ROLLCHANCE[outcome++] = ways / 36.0;
+            }
+        }
+    }
+
+    private final OffHeapTable table;
+    private int depth;
+    private final ExecutorService workers;
+    private final LongAdder nodes;
+    private final LongAdder hits;
+
+    /**
+     * The board the search is played on.
+     */
+    private static class Rules {
+        long salt;
+        int size;
+        int jail;
+        int[] kind;
+        int[] cost;
+        int[] rent;
+        double[] landing;
+    }
+
+    /**
+     * A two player position at the start of a turn or during it.
+     */
+    static class State {
+        final int[] position = new int[2];
+        final boolean[] jailed = new boolean[2];
+        final int[] jailTries = new int[2];
+        final int[] cash = new int[2];
+        byte[] owner;
+        byte[] buildings;
+        int toMove;
+
+        State(int size) {
+            owner = new byte[size];
+            buildings = new byte[size];
+            Arrays.fill(owner, (byte) -1);
+        }
+
+        State copy() {
+            State copy = new State(0);
+            System.arraycopy(position, 0, copy.position, 0, 2);
+            System.arraycopy(jailed, 0, copy.jailed, 0, 2);
+            System.arraycopy(jailTries, 0, copy.jailTries, 0, 2);
+            System.arraycopy(cash, 0, copy.cash, 0, 2);
+            copy.owner = owner.clone();
+            copy.buildings = buildings.clone();
+            copy.toMove = toMove;
+            return copy;
+        }
+
+        /**
+         * Returns a 64 bit hash of the position and the search depth left.
+         */
+        long hash(int depth, long salt) {
+            long owners = 0;
+            long built = 0;
+            for (int i = 0; i < owner.length; i++) {
+                owners = owners << 2 | (owner[i] + 1);
+                built = built << 2 | buildings[i];
+            }
+            long players = 0;
+            for (int p = 0; p < 2; p++) {
+                players = players << 5 | position[p];
+                players = players << 3 | (jailed[p] ? jailTries[p] + 1 : 0);
+                players = players << 20 | Math.min(cash[p], (1 << 20) - 1);
+            }
+            players = players << 1 | toMove;
+            long h = mix(owners) ^ mix(built + 0x9E3779B97F4A7C15L) ^ mix(players * 31 + depth) ^ salt;
+            return h == 0 ? 1 : h;
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * Creates a solver whose table uses at most the given memory.
+     * @param memoryCap the most bytes of direct memory the table may use
+     */
+    public EndgameSolver(long memoryCap) {
+        this(memoryCap, Runtime.getRuntime().availableProcessors());
+    }
+
+    public EndgameSolver(long memoryCap, int threads) {
+        this.table = new OffHeapTable(memoryCap);
+        this.depth = DEFAULTDEPTH;
+        this.nodes = new LongAdder();
+        this.hits = new LongAdder();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "endgame-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Setter for the number of turns searched after the current one.
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public OffHeapTable getTable() {
+        return table;
+    }
+
+    /**
+     * Reads the rules of a board into arrays the search can use.
+     */
+    private static Rules rules(Board board) {
+        Rules rules = new Rules();
+        rules.salt = State.mix(board.getBoardType() + 1);
+        rules.size = board.getProperties().size();
+        rules.kind = new int[rules.size];
+        rules.cost = new int[rules.size];
+        rules.rent = new int[rules.size];
+        rules.landing = new double[rules.size];
+        LandingProbabilities landing = LandingProbabilities.forBoard(board);
+        for (int i = 0; i < rules.size; i++) {
+            Property property = board.getProperty(i);
+            rules.cost[i] = property.getCost();
+            rules.rent[i] = property.getRent() - (property.hasHotel() ? HOTELRENT : property.hasHouse() ? HOUSERENT : 0);
+            rules.landing[i] = landing.getLanding(i);
+            if (property instanceof Jail) {
+                rules.jail = i;
+            }
+            else if (property instanceof GoToJail) {
+                rules.kind[i] = GOTOJAIL;
+            }
+            else if (property instanceof Railroad) {
+                rules.kind[i] = RAILROAD;
+            }
+            else if (property instanceof Utilities) {
+                rules.kind[i] = UTILITY;
+            }
+            else if (property.getCost() > 0) {
+                rules.kind[i] = STREET;
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Reads the position of a two player game in the middle of the current player's turn, after they have moved.
+     */
+    static State state(MonopolyModel model) {
+        if (model.getPlayers().size() != 2) {
+            throw new IllegalArgumentException("The endgame solver needs a game with two players left");
+        }
+        Board board = model.getBoard();
+        State state = new State(board.getProperties().size());
+        Jail jail = null;
+        for (int i = 0; i < board.getProperties().size(); i++) {
+            Property property = board.getProperty(i);
+            state.owner[i] = (byte) model.getPlayers().indexOf(property.getOwner());
+            state.buildings[i] = (byte) (property.hasHotel() ? 2 : property.hasHouse() ? 1 : 0);
+            if (property instanceof Jail) {
+                jail = (Jail) property;
+            }
+        }
+        for (int p = 0; p < 2; p++) {
+            Player player = model.getPlayers().get(p);
+            state.position[p] = player.getPosition();
+            state.cash[p] = player.getMoney();
+            state.jailed[p] = player.getJailed();
+            state.jailTries[p] = jail == null ? 0 : Math.min(MAXJAILTRIES, jail.getTurnsJailed(player));
+        }
+        state.toMove = model.getPlayers().indexOf(model.getPlayer());
+        return state;
+    }
+
+    /**
+     * Solves the current player's decisions. The player has moved and paid any rent, they can buy the square they
+     * are on if it is for sale and build a house or hotel, then the game is searched for the given depth.
+     * @param model a game with two players left
+     * @param canBuy whether the player may still buy the square they are on
+     * @return the best decision and the current player's chance of winning, or null if the thread was interrupted
+     * @throws IllegalStateException if the search failed
+     */
+    public EndgameResult solve(MonopolyModel model, boolean canBuy) {
+        nodes.reset();
+        hits.reset();
+        Rules rules = rules(model.getBoard());
+        State root = state(model);
+        int player = root.toMove;
+        if (root.cash[player] <= 0) {
+            return new EndgameResult(0, false, -1, 0, 0);
+        }
+
+        List<State> options = new ArrayList<>();
+        List<int[]> moves = new ArrayList<>();
+        decisions(rules, root, canBuy, options, moves);
+
+        // search every root decision and every roll of the opponent that follows in parallel
+        List<Future<Double>> futures = new ArrayList<>();
+        for (int o = 0; o < options.size(); o++) {
+            State child = options.get(o);
+            // the dice the player rolled this turn aren't known, so a player in jail stays there
+            endTurn(child, false);
+            for (int fine = 0; fine < 2; fine++) {
+                if (fine == 1 && !canPayFine(child)) {
+                    continue;
+                }
+                for (int outcome = 0; outcome < ROLLTOTAL.length; outcome++) {
+                    boolean payFine = fine == 1;
+                    int roll = outcome;
+                    futures.add(workers.submit(() -> roll(rules, child, payFine, roll, depth)));
+                }
+            }
+        }
+
+        double[] values = new double[options.size()];
+        int next = 0;
+        try {
+            for (int o = 0; o < options.size(); o++) {
+                State child = options.get(o);
+                double stay = 0;
+                for (int outcome = 0; outcome < ROLLTOTAL.length; outcome++) {
+                    stay += ROLLCHANCE[outcome] * futures.get(next++).get();
+                }
+                double value = stay;
+                if (canPayFine(child)) {
+                    double pay = 0;
+                    for (int outcome = 0; outcome < ROLLTOTAL.length; outcome++) {
+                        pay += ROLLCHANCE[outcome] * futures.get(next++).get();
+                    }
+                    value = child.toMove == 0 ? Math.max(stay, pay) : Math.min(stay, pay);
+                }
+                values[o] = value;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            for (int i = next; i < futures.size(); i++) {
+                futures.get(i).cancel(true);
+            }
+            throw new IllegalStateException("The endgame search failed", e.getCause());
+        }
+
+        int best = 0;
+        for (int o = 1; o < options.size(); o++) {
+            if (player == 0 ? values[o] > values[best] : values[o] < values[best]) {
+                best = o;
+            }
+        }
+        double win = player == 0 ? values[best] : 1 - values[best];
+        return new EndgameResult(win, moves.get(best)[0] == 1, moves.get(best)[1], nodes.sum(), hits.sum());
+    }
+
+    private static boolean canPayFine(State state) {
+        return state.jailed[state.toMove] && state.cash[state.toMove] > Jail.FINE;
+    }
+
+    /**
+     * Returns player 0's chance of winning from the start of a turn.
+     */
+    private double turn(Rules rules, State state, int depth) {
+        if (depth == 0) {
+            return evaluate(rules, state);
+        }
+        long key = state.hash(depth, rules.salt);
+        long data = table.get(key);
+        if (data != 0) {
+            hits.increment();
+            return Double.longBitsToDouble(data);
+        }
+        nodes.increment();
+
+        double stay = 0;
+        for (int outcome = 0; outcome < ROLLTOTAL.length; outcome++) {
+            stay += ROLLCHANCE[outcome] * roll(rules, state, false, outcome, depth);
+        }
+        double value = stay;
+        if (canPayFine(state)) {
+            double pay = 0;
+            for (int outcome = 0; outcome < ROLLTOTAL.length; outcome++) {
+                pay += ROLLCHANCE[outcome] * roll(rules, state, true, outcome, depth);
+            }
+            value = state.toMove == 0 ? Math.max(stay, pay) : Math.min(stay, pay);
+        }
+        // a value of exactly 0 can't be stored, the smallest positive double stands in for it
+        table.put(key, Double.doubleToRawLongBits(value == 0 ? Double.MIN_VALUE : value));
+        return value;
+    }
+
+    /**
+     * Returns player 0's chance of winning after the player to move rolls the given outcome.
+     */
+    private double roll(Rules rules, State start, boolean payFine, int outcome, int depth) {
+        State state = start.copy();
+        int p = state.toMove;
+        int total = ROLLTOTAL[outcome];
+        if (payFine) {
+            state.cash[p] -= Jail.FINE;
+            state.jailed[p] = false;
+            state.jailTries[p] = 0;
+        }
+
+        boolean canBuy = false;
+        if (!state.jailed[p]) {
+            int square = (state.position[p] + total) % rules.size;
+            boolean passedGo = state.position[p] + total >= rules.size;
+            state.position[p] = square;
+            if (rules.kind[square] == GOTOJAIL) {
+                passedGo |= square + GoToJail.GOTOJAILSPACES >= rules.size;
+                state.position[p] = rules.jail;
+                state.jailed[p] = true;
+                state.jailTries[p] = 0;
+            }
+            else if (state.owner[square] == 1 - p) {
+                int rent = rent(rules, state, square, total);
+                state.cash[p] -= rent;
+                state.cash[1 - p] += rent;
+            }
+            else {
+                canBuy = state.owner[square] < 0 && rules.kind[square] != 0;
+            }
+            if (passedGo) {
+                state.cash[p] += SALARY;
+            }
+        }
+        if (state.cash[p] <= 0) {
+            return p == 0 ? 0 : 1;
+        }
+
+        List<State> options = new ArrayList<>();
+        decisions(rules, state, canBuy, options, null);
+        double best = p == 0 ? 0 : 1;
+        for (int o = 0; o < options.size(); o++) {
+            State option = options.get(o);
+            endTurn(option, ROLLDOUBLES[outcome]);
+            double value = turn(rules, option, depth - 1);
+            best = p == 0 ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    /**
+     * Finishes the turn of the player to move, a player in jail gets out on doubles or after their last try.
+     */
+    private static void endTurn(State state, boolean doubles) {
+        int p = state.toMove;
+        if (state.jailed[p]) {
+            if (state.jailTries[p] >= MAXJAILTRIES || doubles) {
+                state.jailed[p] = false;
+                state.jailTries[p] = 0;
+            }
+            else {
+                state.jailTries[p]++;
+            }
+        }
+        state.toMove = 1 - p;
+    }
+
+    /**
+     * Returns the rent for landing on an owned square.
+     */
+    private static int rent(Rules rules, State state, int square, int total) {
+        int owner = state.owner[square];
+        if (rules.kind[square] == RAILROAD || rules.kind[square] == UTILITY) {
+            int count = 0;
+            for (int i = 0; i < rules.size; i++) {
+                if (state.owner[i] == owner && rules.kind[i] == rules.kind[square]) {
+                    count++;
+                }
+            }
+            if (rules.kind[square] == RAILROAD) {
+                return RAILROADRENT[Math.min(count, RAILROADRENT.length - 1)];
+            }
+            return total * UTILITYMULTIPLIER[Math.min(count, UTILITYMULTIPLIER.length - 1)];
+        }
+        if (state.buildings[square] == 2) {
+            return rules.rent[square] + HOTELRENT;
+        }
+        if (state.buildings[square] == 1) {
+            return rules.rent[square] + HOUSERENT;
+        }
+        return rules.rent[square];
+    }
+
+    /**
+     * Lists the positions the player to move can choose between: buying the square they are on or not, and then
+     * building nothing or one house or hotel on one of their best streets. No choice may leave them without money.
+     * @param moves if not null, gets whether each choice buys and the square it builds on or -1
+     */
+    private static void decisions(Rules rules, State state, boolean canBuy, List<State> options, List<int[]> moves) {
+        int p = state.toMove;
+        int square = state.position[p];
+        for (int buy = 0; buy < 2; buy++) {
+            State bought = state;
+            if (buy == 1) {
+                if (!canBuy || state.cash[p] - rules.cost[square] <= 0) {
+                    continue;
+                }
+                bought = state.copy();
+                bought.owner[square] = (byte) p;
+                bought.cash[p] -= rules.cost[square];
+            }
+            options.add(buy == 1 ? bought : bought.copy());
+            if (moves != null) {
+                moves.add(new int[] {buy, -1});
+            }
+
+            // the streets where a building earns the most for its cost, best first
+            int[] streets = new int[BUILDCHOICES];
+            double[] earns = new double[BUILDCHOICES];
+            int found = 0;
+            for (int i = 0; i < rules.size; i++) {
+                if (bought.owner[i] != p || rules.kind[i] != STREET || bought.buildings[i] == 2) {
+                    continue;
+                }
+                int cost = bought.buildings[i] == 0 ? Player.HOUSECOST : Player.HOTELCOST;
+                double earn = rules.landing[i] * (bought.buildings[i] == 0 ? HOUSERENT : HOTELRENT - HOUSERENT) / cost;
+                if (bought.cash[p] - cost <= 0 || (found == BUILDCHOICES && earn <= earns[found - 1])) {
+                    continue;
+                }
+                int k = found < BUILDCHOICES ? found++ : found - 1;
+                for (; k > 0 && earns[k - 1] < earn; k--) {
+                    streets[k] = streets[k - 1];
+                    earns[k] = earns[k - 1];
+                }
+                streets[k] = i;
+                earns[k] = earn;
+            }
+            for (int k = 0; k < found; k++) {
+                State built = bought.copy();
+                int street = streets[k];
+                built.cash[p] -= built.buildings[street] == 0 ? Player.HOUSECOST : Player.HOTELCOST;
+                built.buildings[street]++;
+                options.add(built);
+                if (moves != null) {
+                    moves.add(new int[] {buy, street});
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores a position the search stops at by player 0's share of the net worth.
+     */
+    private static double evaluate(Rules rules, State state) {
+        double[] worth = new double[2];
+        for (int p = 0; p < 2; p++) {
+            worth[p] = Math.max(0, state.cash[p]);
+        }
+        for (int i = 0; i < rules.size; i++) {
+            if (state.owner[i] >= 0) {
+                worth[state.owner[i]] += rules.cost[i]
+                        + (state.buildings[i] >= 1 ? Player.HOUSECOST : 0)
+                        + (state.buildings[i] == 2 ? Player.HOTELCOST : 0);
+            }
+        }
+        double total = worth[0] + worth[1];
+        return total == 0 ? 0.5 : worth[0] / total;
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndgameSolverTest {
+    /**
+     * These tests verify the off heap table and the endgame solver on two player games.
+     */
+    private MonopolyModel model;
+    private EndgameSolver solver;
+
+    @BeforeEach
+    public void init() {
+        model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        solver = new EndgameSolver(1 << 20, 2);
+        solver.setDepth(2);
+    }
+
+    /**
+     * This test verifies that the table returns what was put in it and misses for other keys.
+     */
+    @Test
+    public void tableTest() {
+        OffHeapTable table = new OffHeapTable(1 << 16);
+        assertEquals(1 << 16, table.getBytes());
+        table.put(12345, 678);
+        assertEquals(678, table.get(12345));
+        assertEquals(0, table.get(12345 + (1 << 12)));
+        table.put(12345 + (1 << 12), 9);
+        assertEquals(0, table.get(12345));
+        table.clear();
+        assertEquals(0, table.get(12345 + (1 << 12)));
+    }
+
+    /**
+     * This test verifies that the second solve of the same position comes from the table and agrees with the first.
+     */
+    @Test
+    public void memoTest() {
+        model.getPlayer().addPosition(1);
+        EndgameResult first = solver.solve(model, true);
+        EndgameResult second = solver.solve(model, true);
+        assertTrue(first.getNodes() > 0);
+        assertEquals(0, second.getNodes());
+        assertEquals(first.getWinProbability(), second.getWinProbability(), 1e-12);
+        assertTrue(first.getWinProbability() > 0.3 && first.getWinProbability() < 0.7);
+    }
+
+    /**
+     * This test verifies that a player who can't survive the opponent's next turn has a low chance of winning
+     * and that a player who ran out of money has lost.
+     */
+    @Test
+    public void losingTest() {
+        Player opponent = model.getPlayers().get(1);
+        opponent.setMoney(100000);
+        for (int i = 8; i <= 20; i++) {
+            opponent.buy(model.getBoard().getProperty(i));
+        }
+        model.getPlayer().setMoney(1);
+        assertTrue(solver.solve(model, false).getWinProbability() < 0.2);
+        model.getPlayer().setMoney(0);
+        assertEquals(0, solver.solve(model, false).getWinProbability(), 1e-12);
+    }
+}
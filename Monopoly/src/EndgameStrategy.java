@@ -0,0 +1,124 @@
+public class EndgameStrategy implements Strategy {
+    /**
+     * The EndgameStrategy class
+     *
+     * Plays like the ROIStrategy until only two players are left, then asks an EndgameSolver for the best buying
+     * and building decisions. All AIs playing this strategy share one solver so its table, which lives outside
+     * the heap, is only allocated once.
+     *
+     * The solver plans one building per turn, so it is asked once per turn and its building is handed to the AI
+     * through buildHouse or buildHotel, whichever it is. The answer is kept while the AI is on the same turn of the
+     * same game and has either not built or built just that building.
+     *
+     * @attribute roi the strategy played before the endgame and for leaving jail
+     * @attribute solvedModel the game the last building was solved for
+     * @attribute solvedAI the AI the last building was solved for
+     * @attribute solvedTurn the turn the last building was solved for
+     * @attribute solvedPosition the square the AI was on when the building was solved
+     * @attribute solvedMoney the money the AI had when the building was solved
+     * @attribute solvedBuild the property the solver builds on that turn, or null to build nothing
+     * @attribute solvedHotel whether the building is a hotel rather than a house
+     */
+    private static final long MEMORYCAP = 64L << 20;
+    private static final int DEPTH = 2;
+
+    private final Strategy roi = new ROIStrategy();
+    private MonopolyModel solvedModel;
+    private AI solvedAI;
+    private int solvedTurn;
+    private int solvedPosition;
+    private int solvedMoney;
+    private Property solvedBuild;
+    private boolean solvedHotel;
+
+    /**
+     * Holds the shared solver, it is created the first time an endgame is reached.
+     */
+    private static class Solver {
+        static final EndgameSolver SOLVER = new EndgameSolver(MEMORYCAP);
+
+        static {
+            SOLVER.setDepth(DEPTH);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "endgame";
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        return roi.leaveJail(model, ai);
+    }
+
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        if (model.getPlayers().size() != 2) {
+            return roi.buy(model, ai, property);
+        }
+        EndgameResult result = Solver.SOLVER.solve(model, true);
+        return result != null && result.isBuy();
+    }
+
+    /**
+     * Returns the property the solver builds on if it has no house yet.
+     */
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        if (model.getPlayers().size() != 2) {
+            return roi.buildHouse(model, ai);
+        }
+        Property property = solvedBuild(model, ai);
+        return property != null && !solvedHotel && !property.hasHouse() ? property : null;
+    }
+
+    /**
+     * Returns the property the solver builds on if it has a house but no hotel.
+     */
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        if (model.getPlayers().size() != 2) {
+            return roi.buildHotel(model, ai);
+        }
+        Property property = solvedBuild(model, ai);
+        return property != null && solvedHotel && !property.hasHotel() ? property : null;
+    }
+
+    /**
+     * Returns the property the solver builds on this turn, the solver is only asked the first time in a turn.
+     */
+    private Property solvedBuild(MonopolyModel model, AI ai) {
+        if (!solvedThisTurn(model, ai)) {
+            EndgameResult result = Solver.SOLVER.solve(model, false);
+            solvedModel = model;
+            solvedAI = ai;
+            solvedTurn = model.getTurnCount();
+            solvedPosition = ai.getPosition();
+            solvedMoney = ai.getMoney();
+            solvedBuild = result == null || result.getBuild() < 0 ? null
+                    : model.getBoard().getProperty(result.getBuild());
+            solvedHotel = solvedBuild != null && solvedBuild.hasHouse();
+        }
+        return solvedBuild;
+    }
+
+    /**
+     * Checks if the last building was solved for this turn and nothing but that building has happened since.
+     */
+    private boolean solvedThisTurn(MonopolyModel model, AI ai) {
+        if (model != solvedModel || ai != solvedAI || model.getTurnCount() != solvedTurn
+                || ai.getPosition() != solvedPosition) {
+            return false;
+        }
+        int spent = solvedMoney - ai.getMoney();
+        if (spent == 0) {
+            return true;
+        }
+        if (solvedBuild == null) {
+            return false;
+        }
+        return solvedHotel ? spent == Player.HOTELCOST && solvedBuild.hasHotel()
+                : spent == Player.HOUSECOST && solvedBuild.hasHouse();
+    }
+}
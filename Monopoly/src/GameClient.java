@@ -0,0 +1,172 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameClient implements Closeable {
+    /**
+     * The GameClient class
+     *
+     * A connection to a GameServer that sends one command at a time and waits for the reply. Running the class
+     * load tests a server: it creates many sessions of a person against an AI, then a number of connections each
+     * play their share of the sessions, picking a session at random for every move so most sessions sit idle
+     * between commands. The time from sending each command to reading its reply is recorded and the quantiles are
+     * printed at the end.
+     *
+     * @attribute socket the connection to the server
+     * @attribute in reads the replies
+     * @attribute out writes the commands
+     * @attribute latencies the nanoseconds each command took, from sending it to reading the reply
+     */
+    private static final int DEFAULTSESSIONS = 10000;
+    private static final int DEFAULTCONNECTIONS = 32;
+    private static final int DEFAULTCOMMANDS = 10000;
+    private static final int STATEODDS = 4;
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private final QuantileSketch latencies;
+
+    /**
+     * Connects to a server.
+     * @param host the host the server runs on
+     * @param port the port the server listens on
+     */
+    public GameClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        this.latencies = new QuantileSketch();
+    }
+
+    /**
+     * Sends a command and returns the reply.
+     */
+    public String send(String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        latencies.record(System.nanoTime() - start);
+        if (reply == null) {
+            throw new IOException("The server closed the connection");
+        }
+        return reply;
+    }
+
+    /**
+     * Getter for the latencies of the commands sent so far.
+     */
+    public QuantileSketch getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Creates sessions of a person named P against an AI and returns their ids.
+     */
+    private List<Long> createSessions(int sessions) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            long id = Long.parseLong(send("create " + (i % 4)).substring(3));
+            send("join " + id + " P");
+            send("join " + id + " AI default");
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * Plays random sessions, one command after another, the person always buys what they can.
+     */
+    private void play(List<Long> ids, int commands, long seed) throws IOException {
+        Random random = new Random(seed);
+        for (int i = 0; i < commands; i++) {
+            long id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(STATEODDS) == 0) {
+                send("state " + id);
+            }
+            else if (send("roll " + id + " P").endsWith(" buy")) {
+                if (send("buy " + id + " P").startsWith("ERROR")) {
+                    send("pass " + id + " P");
+                }
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Load tests a server.
+     * @param args host, port, sessions, connections and commands per connection, all but the port can be left out
+     */
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 5150;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULTSESSIONS;
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULTCONNECTIONS;
+        int commands = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULTCOMMANDS;
+
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        List<GameClient> clients = new ArrayList<>();
+        try {
+            List<Future<List<Long>>> created = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                GameClient client = new GameClient(host, port);
+                clients.add(client);
+                int share = sessions / connections + (c < sessions % connections ? 1 : 0);
+                created.add(pool.submit(() -> client.createSessions(share)));
+            }
+            List<List<Long>> ids = new ArrayList<>();
+            for (Future<List<Long>> future : created) {
+                ids.add(future.get());
+            }
+            System.out.println("Created " + sessions + " sessions");
+
+            List<Future<?>> played = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                GameClient client = clients.get(c);
+                client.getLatencies().clear();
+                List<Long> share = ids.get(c);
+                long seed = c;
+                played.add(pool.submit(() -> {
+                    client.play(share, commands, seed);
+                    return null;
+                }));
+            }
+            QuantileSketch latencies = new QuantileSketch();
+            for (int c = 0; c < connections; c++) {
+                played.get(c).get();
+                latencies.merge(clients.get(c).getLatencies());
+            }
+            System.out.printf("%d commands: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n", latencies.getCount(),
+                    latencies.getQuantile(0.5) / 1e3, latencies.getQuantile(0.99) / 1e3,
+                    latencies.getQuantile(0.999) / 1e3, latencies.getMax() / 1e3);
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            for (GameClient client : clients) {
+                client.close();
+            }
+            pool.shutdown();
+        }
+    }
+}
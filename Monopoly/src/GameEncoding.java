@@ -0,0 +1,138 @@
+public class GameEncoding {
+    /**
+     * The GameEncoding class
+     *
+     * Turns a game into the flat arrays learned agents read, from the point of view of one player whose turn it
+     * is and who has just moved. Every value is a float written into a buffer the caller owns, so encoding a game
+     * doesn't allocate.
+     *
+     * The observation holds, for every square, whether the player or an opponent owns it and whether it has a
+     * house or hotel, then for every seat, starting with the player and going in turn order, whether they are
+     * still playing, their money, net worth, position and whether they are in jail, then the square the player
+     * is on and the board type. Money is divided by the starting money.
+     *
+     * The actions are 0 to end the turn, 1 to buy the square the player is on and 2 plus a square to build the
+     * next house or hotel on that square.
+     */
+    static final int SQUARES = 32;
+    static final int SEATS = 4;
+    static final int BOARDS = 4;
+    private static final int SQUAREFEATURES = 4;
+    private static final int SEATFEATURES = 5;
+    static final int OBSERVATIONSIZE = SQUARES * SQUAREFEATURES + SEATS * SEATFEATURES + SQUARES + BOARDS;
+
+    static final int PASS = 0;
+    static final int BUY = 1;
+    static final int BUILD = 2;
+    static final int ACTIONS = BUILD + SQUARES;
+
+    private static final float MONEY = 1500f;
+
+    /**
+     * Returns where the flag of a square being owned by the player is in the observation.
+     */
+    static int ownedIndex(int square) {
+        return square * SQUAREFEATURES;
+    }
+
+    /**
+     * Returns where the flag of a square having a house is in the observation.
+     */
+    static int houseIndex(int square) {
+        return square * SQUAREFEATURES + 2;
+    }
+
+    /**
+     * Returns where the flag of a square having a hotel is in the observation.
+     */
+    static int hotelIndex(int square) {
+        return square * SQUAREFEATURES + 3;
+    }
+
+    /**
+     * Returns where the money of the player the game is seen by is in the observation.
+     */
+    static int moneyIndex() {
+        return SQUARES * SQUAREFEATURES + 1;
+    }
+
+    /**
+     * Returns where the jail flag of the player the game is seen by is in the observation.
+     */
+    static int jailedIndex() {
+        return SQUARES * SQUAREFEATURES + 4;
+    }
+
+    /**
+     * Returns the value of an amount of money in the observation.
+     */
+    static float money(int amount) {
+        return amount / MONEY;
+    }
+
+    /**
+     * Writes the observation of the game for a player.
+     * @param model the game
+     * @param player the player the game is seen by
+     * @param out the buffer to write to
+     * @param offset where the observation starts in the buffer
+     */
+    public static void encode(MonopolyModel model, Player player, float[] out, int offset) {
+        Board board = model.getBoard();
+        int o = offset;
+        for (int i = 0; i < SQUARES; i++) {
+            Property property = board.getProperty(i);
+            Player owner = property.getOwner();
+            out[o++] = owner == player ? 1 : 0;
+            out[o++] = owner != null && owner != player ? 1 : 0;
+            out[o++] = property.hasHouse() ? 1 : 0;
+            out[o++] = property.hasHotel() ? 1 : 0;
+        }
+
+        int seats = model.getSeats().size();
+        int first = model.getSeats().indexOf(player);
+        for (int k = 0; k < SEATS; k++) {
+            Player seat = k < seats ? model.getSeats().get((first + k) % seats) : null;
+            boolean playing = seat != null && model.getPlayers().contains(seat);
+            out[o++] = playing ? 1 : 0;
+            out[o++] = playing ? seat.getMoney() / MONEY : 0;
+            out[o++] = playing ? seat.getNetWorth() / MONEY : 0;
+            out[o++] = playing ? seat.getPosition() / (float) SQUARES : 0;
+            out[o++] = playing && seat.getJailed() ? 1 : 0;
+        }
+
+        for (int i = 0; i < SQUARES; i++) {
+            out[o++] = player.getPosition() == i ? 1 : 0;
+        }
+        for (int i = 0; i < BOARDS; i++) {
+            out[o++] = board.getBoardType() == i ? 1 : 0;
+        }
+    }
+
+    /**
+     * Writes which actions the player can take.
+     * @param model the game
+     * @param player the player deciding
+     * @param canBuy whether the square the player is on is for sale
+     * @param out the buffer to write to
+     * @param offset where the mask starts in the buffer
+     */
+    public static void mask(MonopolyModel model, Player player, boolean canBuy, boolean[] out, int offset) {
+        Board board = model.getBoard();
+        out[offset + PASS] = true;
+        out[offset + BUY] = canBuy && player.getMoney() >= board.getProperty(player.getPosition()).getCost();
+        for (int i = 0; i < SQUARES; i++) {
+            out[offset + BUILD + i] = canBuild(board.getProperty(i), player);
+        }
+    }
+
+    /**
+     * Checks if the player can build the next house or hotel on a property.
+     */
+    static boolean canBuild(Property property, Player player) {
+        if (property.getOwner() != player || !AI.canHaveBuildings(property) || property.hasHotel()) {
+            return false;
+        }
+        return player.getMoney() >= (property.hasHouse() ? Player.HOTELCOST : Player.HOUSECOST);
+    }
+}
@@ -0,0 +1,633 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameEventStore {
+    /**
+     * The GameEventStore class
+     *
+     * Keeps every event of simulated games in memory, column by column, so questions like "the rent collected on
+     * Glengarry by turn on the Carleton board" are answered by scanning a few columns instead of grepping logs. Each
+     * event has a game, turn, seat, square, amount and type: rent paid, a seat eliminated or winning, a move with the
+     * roll as its amount, the Go salary, the jail fine, being sent to jail, and a property, house or hotel bought with
+     * its price. Events are written by a Recorder, one for each thread playing games, that fills a segment of
+     * SEGMENTEVENTS events and then seals it: every column of the segment is stored as its smallest value and the
+     * difference to it packed in as few bits as the largest difference needs, which keeps an event in about 5 bytes
+     * instead of 48.
+     *
+     * Squares are dictionary encoded per board: the square column holds the position of the square, the names of
+     * the squares of each board are kept once, and a query for a square by name looks up its position on the board
+     * of each segment.
+     *
+     * Queries filter on ranges of columns, group by a column cut into buckets and return a QuantileSketch of a
+     * column for each group, which gives its count, sum, mean and quantiles. Segments are scanned in parallel and
+     * a segment none of whose events can match is skipped using the smallest and largest value of its columns.
+     *
+     * @attribute segments the sealed segments
+     * @attribute threads the number of threads scanning segments in a query
+     */
+    public static final int GAME = 0;
+    public static final int TURN = 1;
+    public static final int SEAT = 2;
+    public static final int SQUARE = 3;
+    public static final int AMOUNT = 4;
+    public static final int TYPE = 5;
+    static final int COLUMNS = 6;
+
+    public static final int RENT = 0;
+    public static final int ELIMINATED = 1;
+    public static final int WON = 2;
+    public static final int MOVED = 3;
+    public static final int SALARY = 4;
+    public static final int JAILED = 5;
+    public static final int FINE = 6;
+    public static final int BOUGHT = 7;
+    public static final int HOUSE = 8;
+    public static final int HOTEL = 9;
+
+    static final int SEGMENTEVENTS = 1 << 16;
+
+    private static final Map<Integer, String[]> SQUARENAMES = new ConcurrentHashMap<>();
+
+    private final List<Segment> segments;
+    private int threads;
+
+    /**
+     * Default constructor for an empty GameEventStore.
+     */
+    public GameEventStore() {
+        this.segments = new ArrayList<>();
+        this.threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Setter for the number of threads scanning segments in a query.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Returns a new Recorder writing the events of the games played by a model, only one thread may use it.
+     * @param model the model playing the games
+     * @param next the observer the events are passed on to, it can be null
+     */
+    public Recorder recorder(MonopolyModel model, GameObserver next) {
+        return new Recorder(model, next);
+    }
+
+    /**
+     * Returns a new query over every event in the store.
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Returns the number of events in the sealed segments.
+     */
+    public synchronized long getEvents() {
+        long events = 0;
+        for (Segment segment : this.segments) {
+            events += segment.events;
+        }
+        return events;
+    }
+
+    /**
+     * Returns the number of bytes the packed columns of the sealed segments take.
+     */
+    public synchronized long getBytes() {
+        long bytes = 0;
+        for (Segment segment : this.segments) {
+            for (PackedColumn column : segment.columns) {
+                bytes += column.words.length * 8L;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the names of the squares of a board, the dictionary of the square column.
+     */
+    static String[] squaresOf(int boardType) {
+        return SQUARENAMES.computeIfAbsent(boardType, type -> {
+            Board board = Board.copyOf(type);
+            String[] names = new String[board.getProperties().size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = board.getProperty(i).getName();
+            }
+            return names;
+        });
+    }
+
+    private synchronized void add(Segment segment) {
+        this.segments.add(segment);
+    }
+
+    private synchronized List<Segment> sealed() {
+        return new ArrayList<>(this.segments);
+    }
+
+    public class Recorder implements GameObserver {
+        /**
+         * The Recorder class
+         *
+         * Writes the events of the games played by one model into the store. Events are kept in plain arrays until
+         * SEGMENTEVENTS of them have been written, then they are packed into a segment, so recording an event never
+         * allocates and headless turns stay allocation free.
+         *
+         * @attribute model the model playing the games
+         * @attribute next the observer the events are passed on to, it can be null
+         * @attribute game the number of the game being played
+         * @attribute values the events not sealed yet, column by column
+         * @attribute events the number of events not sealed yet
+         */
+        private final MonopolyModel model;
+        private final GameObserver next;
+        private long game;
+        private final long[][] values;
+        private int events;
+
+        private Recorder(MonopolyModel model, GameObserver next) {
+            this.model = model;
+            this.next = next;
+            this.values = new long[COLUMNS][SEGMENTEVENTS];
+        }
+
+        /**
+         * Setter for the number of the game the next events belong to.
+         */
+        public void setGame(long game) {
+            this.game = game;
+        }
+
+        private void record(int type, Player player, int square, int amount) {
+            long[][] values = this.values;
+            values[GAME][this.events] = this.game;
+            values[TURN][this.events] = this.model.getTurnCount();
+            values[SEAT][this.events] = this.model.getSeats().indexOf(player);
+            values[SQUARE][this.events] = square;
+            values[AMOUNT][this.events] = amount;
+            values[TYPE][this.events] = type;
+            if (++this.events == SEGMENTEVENTS) {
+                flush();
+            }
+        }
+
+        @Override
+        public void rentPaid(Player payer, Player owner, int square, int amount) {
+            record(RENT, payer, square, amount);
+            if (this.next != null) {
+                this.next.rentPaid(payer, owner, square, amount);
+            }
+        }
+
+        @Override
+        public void playerEliminated(Player player, int turn) {
+            record(ELIMINATED, player, player.getPosition(), 0);
+            if (this.next != null) {
+                this.next.playerEliminated(player, turn);
+            }
+        }
+
+        @Override
+        public void playerWon(Player player, int turn) {
+            record(WON, player, player.getPosition(), player.getMoney());
+            if (this.next != null) {
+                this.next.playerWon(player, turn);
+            }
+        }
+
+        @Override
+        public void playerMoved(Player player, int square, int roll) {
+            record(MOVED, player, square, roll);
+            if (this.next != null) {
+                this.next.playerMoved(player, square, roll);
+            }
+        }
+
+        @Override
+        public void salaryPaid(Player player, int amount) {
+            record(SALARY, player, player.getPosition(), amount);
+            if (this.next != null) {
+                this.next.salaryPaid(player, amount);
+            }
+        }
+
+        @Override
+        public void playerJailed(Player player, int square) {
+            record(JAILED, player, square, 0);
+            if (this.next != null) {
+                this.next.playerJailed(player, square);
+            }
+        }
+
+        @Override
+        public void finePaid(Player player, int amount) {
+            record(FINE, player, player.getPosition(), amount);
+            if (this.next != null) {
+                this.next.finePaid(player, amount);
+            }
+        }
+
+        @Override
+        public void propertyBought(Player player, int square, int cost) {
+            record(BOUGHT, player, square, cost);
+            if (this.next != null) {
+                this.next.propertyBought(player, square, cost);
+            }
+        }
+
+        @Override
+        public void buildingBought(Player player, int square, int cost, boolean hotel) {
+            record(hotel ? HOTEL : HOUSE, player, square, cost);
+            if (this.next != null) {
+                this.next.buildingBought(player, square, cost, hotel);
+            }
+        }
+
+        /**
+         * Seals the events written so far into a segment of the store.
+         */
+        public void flush() {
+            if (this.events == 0) {
+                return;
+            }
+            PackedColumn[] columns = new PackedColumn[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                columns[column] = PackedColumn.pack(this.values[column], this.events);
+            }
+            add(new Segment(this.model.getBoard().getBoardType(), this.events, columns));
+            this.events = 0;
+        }
+    }
+
+    public class Query {
+        /**
+         * The Query class
+         *
+         * A scan over the store built up with filters and a grouping, run() answers it. Filters on the same
+         * column all have to match.
+         *
+         * @attribute boardType only events on this board match, -1 for any board
+         * @attribute square only events on a square with this name match, null for any square
+         * @attribute filters the column, smallest and largest value of each range filter
+         * @attribute groupColumn the column events are grouped by, -1 to put every event in group 0
+         * @attribute bucket the width of a group, an event is in the group of its value divided by the bucket
+         */
+        private int boardType;
+        private String square;
+        private final List<long[]> filters;
+        private int groupColumn;
+        private long bucket;
+
+        private Query() {
+            this.boardType = -1;
+            this.filters = new ArrayList<>();
+            this.groupColumn = -1;
+            this.bucket = 1;
+        }
+
+        /**
+         * Only keeps the events on a board.
+         */
+        public Query board(int boardType) {
+            this.boardType = boardType;
+            return this;
+        }
+
+        /**
+         * Only keeps the events of a type.
+         */
+        public Query type(int type) {
+            return where(TYPE, type, type);
+        }
+
+        /**
+         * Only keeps the events on the square with a name.
+         */
+        public Query square(String name) {
+            this.square = name;
+            return this;
+        }
+
+        /**
+         * Only keeps the events with a value of a column in a range.
+         * @param column the column
+         * @param min the smallest value kept
+         * @param max the largest value kept
+         */
+        public Query where(int column, long min, long max) {
+            this.filters.add(new long[]{column, min, max});
+            return this;
+        }
+
+        /**
+         * Groups the events by a column, the group of an event is its value divided by the bucket.
+         */
+        public Query groupBy(int column, long bucket) {
+            this.groupColumn = column;
+            this.bucket = bucket;
+            return this;
+        }
+
+        /**
+         * Scans the store.
+         * @param column the column whose values are recorded for each group
+         * @return a sketch of the values of the column for each group, by group
+         */
+        public SortedMap<Long, QuantileSketch> run(int column) throws InterruptedException, ExecutionException {
+            List<Segment> segments = sealed();
+            AtomicInteger nextSegment = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<SortedMap<Long, QuantileSketch>>> results = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    Callable<SortedMap<Long, QuantileSketch>> worker = () -> {
+                        Scan scan = new Scan(column);
+                        int segment;
+                        while ((segment = nextSegment.getAndIncrement()) < segments.size()) {
+                            scan.scan(segments.get(segment));
+                        }
+                        return scan.groups;
+                    };
+                    results.add(executor.submit(worker));
+                }
+                SortedMap<Long, QuantileSketch> groups = new TreeMap<>();
+                for (Future<SortedMap<Long, QuantileSketch>> result : results) {
+                    for (Map.Entry<Long, QuantileSketch> group : result.get().entrySet()) {
+                        QuantileSketch sketch = groups.get(group.getKey());
+                        if (sketch == null) {
+                            groups.put(group.getKey(), group.getValue());
+                        } else {
+                            sketch.merge(group.getValue());
+                        }
+                    }
+                }
+                return groups;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private class Scan {
+            /**
+             * The Scan class
+             *
+             * The scan of one thread. The column of the first filter is read whole and the events it keeps are
+             * listed in a selection, every other column is only read for the events still selected, so a query for
+             * one square reads little more than the square column. The groups a segment can hold are looked up once
+             * per segment rather than once per event.
+             *
+             * @attribute column the column whose values are recorded
+             * @attribute selection the events of the segment that match the filters checked so far
+             * @attribute groups the sketch of each group
+             * @attribute segmentGroups the sketch of each group the segment being scanned can hold
+             */
+            private final int column;
+            private final int[] selection;
+            private final SortedMap<Long, QuantileSketch> groups;
+            private QuantileSketch[] segmentGroups;
+
+            private Scan(int column) {
+                this.column = column;
+                this.selection = new int[SEGMENTEVENTS];
+                this.groups = new TreeMap<>();
+                this.segmentGroups = new QuantileSketch[0];
+            }
+
+            private void scan(Segment segment) {
+                if (boardType >= 0 && segment.boardType != boardType) {
+                    return;
+                }
+                long[][] ranges = new long[filters.size() + (square == null ? 0 : 1)][];
+                int filterCount = 0;
+                if (square != null) {
+                    int position = positionOf(segment.boardType, square);
+                    if (position < 0) {
+                        return;
+                    }
+                    // a square is the filter that keeps the fewest events, so it is checked first
+                    ranges[filterCount++] = new long[]{SQUARE, position, position};
+                }
+                for (long[] filter : filters) {
+                    ranges[filterCount++] = filter;
+                }
+                for (long[] range : ranges) {
+                    PackedColumn packed = segment.columns[(int) range[0]];
+                    if (range[2] < packed.min || range[1] > packed.max) {
+                        return;
+                    }
+                }
+
+                int[] selection = this.selection;
+                int selected = 0;
+                if (filterCount == 0) {
+                    for (int event = 0; event < segment.events; event++) {
+                        selection[selected++] = event;
+                    }
+                } else {
+                    selected = segment.columns[(int) ranges[0][0]].select(ranges[0][1], ranges[0][2], segment.events,
+                            selection);
+                }
+                for (int i = 1; i < filterCount; i++) {
+                    PackedColumn packed = segment.columns[(int) ranges[i][0]];
+                    long min = ranges[i][1];
+                    long max = ranges[i][2];
+                    int kept = 0;
+                    for (int j = 0; j < selected; j++) {
+                        long value = packed.get(selection[j]);
+                        if (value >= min && value <= max) {
+                            selection[kept++] = selection[j];
+                        }
+                    }
+                    selected = kept;
+                }
+
+                PackedColumn values = segment.columns[this.column];
+                PackedColumn keys = groupColumn < 0 ? null : segment.columns[groupColumn];
+                long firstGroup = keys == null ? 0 : Math.floorDiv(keys.min, bucket);
+                long groupCount = keys == null ? 1 : Math.floorDiv(keys.max, bucket) - firstGroup + 1;
+                if (groupCount > SEGMENTEVENTS) {
+                    // more groups than events, look each one up
+                    for (int j = 0; j < selected; j++) {
+                        this.groups.computeIfAbsent(Math.floorDiv(keys.get(selection[j]), bucket),
+                                key -> new QuantileSketch()).record(values.get(selection[j]));
+                    }
+                    return;
+                }
+                if (this.segmentGroups.length < groupCount) {
+                    this.segmentGroups = new QuantileSketch[(int) groupCount];
+                }
+                QuantileSketch[] segmentGroups = this.segmentGroups;
+                Arrays.fill(segmentGroups, 0, (int) groupCount, null);
+                for (int j = 0; j < selected; j++) {
+                    int event = selection[j];
+                    int group = keys == null ? 0 : (int) (Math.floorDiv(keys.get(event), bucket) - firstGroup);
+                    QuantileSketch sketch = segmentGroups[group];
+                    if (sketch == null) {
+                        sketch = this.groups.computeIfAbsent(firstGroup + group, key -> new QuantileSketch());
+                        segmentGroups[group] = sketch;
+                    }
+                    sketch.record(values.get(event));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the square with a name on a board, -1 if there is none.
+     */
+    private static int positionOf(int boardType, String name) {
+        String[] squares = squaresOf(boardType);
+        for (int i = 0; i < squares.length; i++) {
+            if (squares[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static class Segment {
+        /**
+         * The Segment class
+         *
+         * Up to SEGMENTEVENTS events of games played on one board, column by column.
+         *
+         * @attribute boardType the board the games were played on
+         * @attribute events the number of events
+         * @attribute columns the packed values of each column
+         */
+        private final int boardType;
+        private final int events;
+        private final PackedColumn[] columns;
+
+        private Segment(int boardType, int events, PackedColumn[] columns) {
+            this.boardType = boardType;
+            this.events = events;
+            this.columns = columns;
+        }
+    }
+
+    static class PackedColumn {
+        /**
+         * The PackedColumn class
+         *
+         * The values of a column of a segment, each stored as its difference to the smallest value in bits
+         * bits. A column whose values are all the same takes no words at all.
+         *
+         * @attribute min the smallest value
+         * @attribute max the largest value
+         * @attribute bits the number of bits of each value
+         * @attribute words the packed values
+         */
+        final long min;
+        final long max;
+        private final int bits;
+        private final long[] words;
+
+        private PackedColumn(long min, long max, int bits, long[] words) {
+            this.min = min;
+            this.max = max;
+            this.bits = bits;
+            this.words = words;
+        }
+
+        /**
+         * Packs the first count values of an array.
+         */
+        static PackedColumn pack(long[] values, int count) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            int bits = 64 - Long.numberOfLeadingZeros(max - min);
+            long[] words = new long[(int) (((long) count * bits + 63) / 64)];
+            for (int i = 0; i < count && bits > 0; i++) {
+                long value = values[i] - min;
+                long bit = (long) i * bits;
+                int word = (int) (bit >>> 6);
+                int offset = (int) (bit & 63);
+                words[word] |= value << offset;
+                if (offset + bits > 64) {
+                    words[word + 1] |= value >>> (64 - offset);
+                }
+            }
+            return new PackedColumn(min, max, bits, words);
+        }
+
+        /**
+         * Returns the value of an event.
+         */
+        long get(int event) {
+            if (this.bits == 0) {
+                return this.min;
+            }
+            long bit = (long) event * this.bits;
+            int word = (int) (bit >>> 6);
+            int offset = (int) (bit & 63);
+            long value = this.words[word] >>> offset;
+            if (offset + this.bits > 64) {
+                value |= this.words[word + 1] << (64 - offset);
+            }
+            return this.min + (value & (this.bits == 64 ? -1L : (1L << this.bits) - 1));
+        }
+
+        /**
+         * Lists the events whose value is in a range.
+         * @param min the smallest value kept
+         * @param max the largest value kept
+         * @param count the number of events
+         * @param selection the events kept are written to it
+         * @return the number of events kept
+         */
+        int select(long min, long max, int count, int[] selection) {
+            int selected = 0;
+            if (this.bits == 0) {
+                if (this.min >= min && this.min <= max) {
+                    for (int event = 0; event < count; event++) {
+                        selection[selected++] = event;
+                    }
+                }
+                return selected;
+            }
+            // compare the packed differences so no value has to be rebuilt, the range is cut to the values of the
+            // column first so the differences can't overflow, they are unsigned when the column spans every long
+            if (min > this.max || max < this.min || min > max) {
+                return 0;
+            }
+            long low = Math.max(min, this.min) - this.min;
+            long high = Math.min(max, this.max) - this.min;
+            int bits = this.bits;
+            long mask = bits == 64 ? -1L : (1L << bits) - 1;
+            long[] words = this.words;
+            long bit = 0;
+            for (int event = 0; event < count; event++, bit += bits) {
+                int word = (int) (bit >>> 6);
+                int offset = (int) (bit & 63);
+                long value = words[word] >>> offset;
+                if (offset + bits > 64) {
+                    value |= words[word + 1] << (64 - offset);
+                }
+                value &= mask;
+                if (Long.compareUnsigned(value, low) >= 0 && Long.compareUnsigned(value, high) <= 0) {
+                    selection[selected++] = event;
+                }
+            }
+            return selected;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEventStoreTest {
+    /**
+     * These tests verify that the columns of a GameEventStore give back the values written and that queries
+     * answer the same as the statistics of the games.
+     */
+
+    /**
+     * This test verifies that packed columns of every width give back their values.
+     */
+    @Test
+    public void packTest() {
+        Random random = new Random(3);
+        long[] values = new long[1000];
+        for (int bits = 0; bits <= 63; bits += 7) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = -5 + (bits == 0 ? 0 : random.nextLong() >>> (64 - bits));
+            }
+            GameEventStore.PackedColumn column = GameEventStore.PackedColumn.pack(values, values.length);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], column.get(i));
+            }
+        }
+    }
+
+    /**
+     * This test verifies that a range reaching past the values of a column selects the events in it, even when the
+     * column or the range spans every long.
+     */
+    @Test
+    public void selectTest() {
+        long[] values = {Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE};
+        GameEventStore.PackedColumn column = GameEventStore.PackedColumn.pack(values, values.length);
+        int[] selection = new int[values.length];
+        assertEquals(5, column.select(Long.MIN_VALUE, Long.MAX_VALUE, values.length, selection));
+        assertEquals(3, column.select(-1, Long.MAX_VALUE - 1, values.length, selection));
+        assertArrayEquals(new int[]{1, 2, 3}, Arrays.copyOf(selection, 3));
+        assertEquals(1, column.select(Long.MAX_VALUE, Long.MAX_VALUE, values.length, selection));
+        assertEquals(4, selection[0]);
+
+        long[] small = {10, 12, 14};
+        GameEventStore.PackedColumn narrow = GameEventStore.PackedColumn.pack(small, small.length);
+        assertEquals(3, narrow.select(Long.MIN_VALUE, Long.MAX_VALUE, small.length, selection));
+        assertEquals(2, narrow.select(Long.MIN_VALUE, 12, small.length, selection));
+        assertEquals(0, narrow.select(15, Long.MAX_VALUE, small.length, selection));
+    }
+
+    /**
+     * This test verifies that the rent on every square of the Carleton board, counted by a query, is the rent
+     * counted by the statistics, and that a square can be asked for by name.
+     */
+    @Test
+    public void rentTest() throws Exception {
+        GameEventStore store = new GameEventStore();
+        store.setThreads(2);
+        Simulator simulator = new Simulator(0, 3, 500);
+        simulator.setMaxTurns(300);
+        simulator.setThreads(2);
+        simulator.setEvents(store);
+        SimulationStatistics statistics = simulator.run();
+
+        SortedMap<Long, QuantileSketch> rent = store.query().board(0).type(GameEventStore.RENT)
+                .groupBy(GameEventStore.SQUARE, 1).run(GameEventStore.AMOUNT);
+        for (int square = 0; square < GameEventStore.squaresOf(0).length; square++) {
+            QuantileSketch sketch = rent.get((long) square);
+            double total = statistics.getRentPerSquare(square).getMean() * statistics.getGames();
+            assertEquals(total, sketch == null ? 0 : sketch.getMean() * sketch.getCount(), 0.5);
+        }
+
+        SortedMap<Long, QuantileSketch> wins = store.query().type(GameEventStore.WON)
+                .groupBy(GameEventStore.SEAT, 1).run(GameEventStore.AMOUNT);
+        for (int seat = 0; seat < 3; seat++) {
+            QuantileSketch sketch = wins.get((long) seat);
+            assertEquals(statistics.getWins(seat), sketch == null ? 0 : sketch.getCount());
+        }
+
+        String name = GameEventStore.squaresOf(0)[1];
+        SortedMap<Long, QuantileSketch> byTurn = store.query().board(0).type(GameEventStore.RENT).square(name)
+                .groupBy(GameEventStore.TURN, 50).run(GameEventStore.AMOUNT);
+        long count = 0;
+        for (QuantileSketch sketch : byTurn.values()) {
+            count += sketch.getCount();
+        }
+        assertEquals(rent.get(1L).getCount(), count);
+        assertTrue(store.query().board(1).run(GameEventStore.AMOUNT).isEmpty());
+    }
+
+    /**
+     * This test verifies that the moves, buys and buildings of the AIs are recorded with their rolls and prices.
+     */
+    @Test
+    public void turnEventsTest() throws Exception {
+        GameEventStore store = new GameEventStore();
+        store.setThreads(2);
+        Simulator simulator = new Simulator(0, 3, 50);
+        simulator.setMaxTurns(300);
+        simulator.setThreads(1);
+        simulator.setEvents(store);
+        simulator.run();
+
+        QuantileSketch moves = store.query().type(GameEventStore.MOVED).run(GameEventStore.AMOUNT).get(0L);
+        assertTrue(moves.getCount() > 0);
+        assertTrue(moves.getQuantile(0) >= 2 && moves.getQuantile(1) <= 12);
+
+        Board board = new Board(0);
+        SortedMap<Long, QuantileSketch> bought = store.query().type(GameEventStore.BOUGHT)
+                .groupBy(GameEventStore.SQUARE, 1).run(GameEventStore.AMOUNT);
+        assertFalse(bought.isEmpty());
+        for (Long square : bought.keySet()) {
+            assertEquals(board.getProperty(square.intValue()).getCost(), bought.get(square).getMean(), 0.0001);
+        }
+        assertEquals(0, store.query().type(GameEventStore.SALARY).where(GameEventStore.AMOUNT, 0, 199)
+                .run(GameEventStore.AMOUNT).size());
+    }
+}
@@ -0,0 +1,88 @@
+public interface GameObserver {
+    /**
+     * The GameObserver interface
+     *
+     * An observer is told about the outcome of a game as it is played, it is how headless games report what
+     * happened without a view. Implementations are called on the thread playing the game and should not allocate
+     * so headless turns stay allocation free.
+     *
+     * Rent, eliminations and the winner are reported for every game. Moves, the Go salary, fines, buying and
+     * building are reported for the turns of AIs, which are the turns simulated games play. Observers that only
+     * want the outcome can leave those out.
+     */
+
+    /**
+     * Called when a player pays rent to the owner of the square they landed on.
+     * @param payer the player paying rent
+     * @param owner the player receiving the rent
+     * @param square the position of the property on the board
+     * @param amount the amount of rent paid
+     */
+    void rentPaid(Player payer, Player owner, int square, int amount);
+
+    /**
+     * Called when a player goes bankrupt and is removed from the game.
+     * @param player the player that was eliminated
+     * @param turn the number of turns played in the game, including the eliminated player's turn
+     */
+    void playerEliminated(Player player, int turn);
+
+    /**
+     * Called when only one player is left.
+     * @param player the player that won
+     * @param turn the number of turns played in the game
+     */
+    void playerWon(Player player, int turn);
+
+    /**
+     * Called when an AI has rolled and moved.
+     * @param player the player that moved
+     * @param square the position the player moved to
+     * @param roll the value rolled
+     */
+    default void playerMoved(Player player, int square, int roll) {
+    }
+
+    /**
+     * Called when an AI collects the salary for passing Go.
+     * @param player the player paid
+     * @param amount the salary
+     */
+    default void salaryPaid(Player player, int amount) {
+    }
+
+    /**
+     * Called when a player is sent to jail.
+     * @param player the player sent to jail
+     * @param square the position of the jail
+     */
+    default void playerJailed(Player player, int square) {
+    }
+
+    /**
+     * Called when an AI pays the fine to leave jail.
+     * @param player the player leaving jail
+     * @param amount the fine
+     */
+    default void finePaid(Player player, int amount) {
+    }
+
+    /**
+     * Called when a player buys the property they landed on.
+     * @param player the player buying the property
+     * @param square the position of the property on the board
+     * @param cost the price paid
+     */
+    default void propertyBought(Player player, int square, int cost) {
+    }
+
+    /**
+     * Called when an AI builds a house or a hotel.
+     * @param player the player building
+     * @param square the position of the property on the board
+     * @param cost the price paid
+     * @param hotel whether a hotel was built instead of a house
+     */
+    default void buildingBought(Player player, int square, int cost, boolean hotel) {
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.List;
+
+public final class GameResult {
+    /**
+     * The GameResult class
+     *
+     * The outcome of one headless game as it leaves the Simulator for the output pipeline. Every field is final and
+     * the net worth array is never handed out, so a result can be passed between the threads of the pipeline
+     * without a lock.
+     *
+     * @attribute game the number of the game in the SeedSchedule
+     * @attribute turns the number of turns played
+     * @attribute winner the seat that won, -1 if nobody won
+     * @attribute stalemate whether the game was stopped as a stalemate
+     * @attribute adjudicated whether the game was won on net worth
+     * @attribute netWorth the net worth of each seat at the end of the game, 0 for seats that went bankrupt
+     */
+    private final long game;
+    private final int turns;
+    private final int winner;
+    private final boolean stalemate;
+    private final boolean adjudicated;
+    private final int[] netWorth;
+
+    /**
+     * Copies the outcome of a game that just ended, it must be called by the thread playing the game.
+     * @param game the number of the game
+     * @param model the game
+     * @param statistics the statistics that observed the game
+     */
+    public GameResult(long game, MonopolyModel model, SimulationStatistics statistics) {
+        List<Player> seats = model.getSeats();
+        this.game = game;
+        this.turns = model.getTurnCount();
+        this.winner = statistics.getGameWinner();
+        this.stalemate = statistics.isGameStalemate();
+        this.adjudicated = statistics.isGameAdjudicated();
+        this.netWorth = new int[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            Player seat = seats.get(i);
+            this.netWorth[i] = model.getPlayers().contains(seat) ? seat.getNetWorth() : 0;
+        }
+    }
+
+    /**
+     * Creates a result from its fields, the array is copied.
+     */
+    public GameResult(long game, int turns, int winner, boolean stalemate, boolean adjudicated, int[] netWorth) {
+        this.game = game;
+        this.turns = turns;
+        this.winner = winner;
+        this.stalemate = stalemate;
+        this.adjudicated = adjudicated;
+        this.netWorth = netWorth.clone();
+    }
+
+    /**
+     * Getter for game.
+     */
+    public long getGame() {
+        return game;
+    }
+
+    /**
+     * Getter for turns.
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Getter for winner.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Getter for stalemate.
+     */
+    public boolean isStalemate() {
+        return stalemate;
+    }
+
+    /**
+     * Getter for adjudicated.
+     */
+    public boolean isAdjudicated() {
+        return adjudicated;
+    }
+
+    /**
+     * Returns the number of seats.
+     */
+    public int getSeats() {
+        return netWorth.length;
+    }
+
+    /**
+     * Returns the net worth of a seat at the end of the game.
+     */
+    public int getNetWorth(int seat) {
+        return netWorth[seat];
+    }
+}
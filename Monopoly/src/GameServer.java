@@ -0,0 +1,388 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameServer {
+    /**
+     * The GameServer class
+     *
+     * Hosts many games at once in one JVM and plays them for clients that connect on localhost. Clients send one
+     * command per line and get one line back:
+     *
+     *   create [board]                          starts a session, the reply is its id
+     *   join <session> <name> [strategy]        adds a person, or an AI playing the strategy
+     *   roll <session> <name>                   rolls on the player's turn, "buy" at the end means buy or pass
+     *   buy <session> <name>                    buys the property the player landed on
+     *   pass <session> <name>                   doesn't buy it
+     *   build <session> <name> house|hotel <property>
+     *   state <session>                         whose turn it is, the turns played and each player's money and position
+     *   watch <session>                         streams the game to a spectator
+     *
+     * Every reply starts with OK or ERROR. Each game is a GameSession, an actor that runs its commands one at a time
+     * on a small shared pool of threads, so idle sessions don't use a thread and games never need locks. A
+     * connection can send commands to any session, so a few connections can drive thousands of sessions.
+     *
+     * Sessions that haven't had a command for idleMillis are hibernated into a SessionArena outside of the heap,
+     * so the heap only holds the games being played however many sessions are hosted.
+     *
+     * The state of a session that isn't hibernated is read from its last GameSnapshot by the connection's own
+     * thread, so watching a game never waits behind the moves being played in it.
+     *
+     * After the reply to watch the connection only carries the game, in the binary frames of SnapshotDelta, and is
+     * closed once the game is over.
+     *
+     * With a SessionStore every change to a game is saved to disk in the background and the sessions in the store
+     * are hosted again when the server starts.
+     *
+     * @attribute port the port the server listens on, 0 picks a free port
+     * @attribute sessions the sessions by id
+     * @attribute nextId the id of the next session
+     * @attribute games runs the sessions' commands
+     * @attribute connections reads and answers the connections
+     * @attribute serverSocket accepts connections, null until the server is started
+     * @attribute sockets the open connections
+     * @attribute arena stores the hibernated games
+     * @attribute sweeper hibernates the idle sessions
+     * @attribute idleMillis how long a session is idle before it is hibernated
+     * @attribute store saves the games, it can be null
+     */
+    private static final int DEFAULTPORT = 5150;
+    private static final long DEFAULTIDLEMILLIS = 60000;
+
+    private final int port;
+    private final ConcurrentMap<Long, GameSession> sessions;
+    private final AtomicLong nextId;
+    private final ExecutorService games;
+    private final ExecutorService connections;
+    private ServerSocket serverSocket;
+    private final Set<Socket> sockets;
+    private final SessionArena arena;
+    private final ScheduledExecutorService sweeper;
+    private long idleMillis;
+    private SessionStore store;
+
+    /**
+     * Creates a server, it doesn't listen until it is started.
+     * @param port the port to listen on, 0 picks a free port
+     */
+    public GameServer(int port) {
+        this.port = port;
+        this.sessions = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong(1);
+        this.sockets = ConcurrentHashMap.newKeySet();
+        this.arena = new SessionArena();
+        this.idleMillis = DEFAULTIDLEMILLIS;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.games = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "game");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Setter for how long a session is idle before it is hibernated, it must be set before the server is started.
+     */
+    public void setIdleMillis(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Setter for the store the games are saved to, it must be set before the server is started.
+     */
+    public void setStore(SessionStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Starts listening on localhost and accepting connections, the sessions in the store are hosted first.
+     */
+    public void start() throws IOException {
+        if (store != null) {
+            for (Map.Entry<Long, byte[]> entry : store.load().entrySet()) {
+                GameSession session = GameSession.readFrom(entry.getKey(), ByteBuffer.wrap(entry.getValue()), games, arena, store);
+                sessions.put(session.getId(), session);
+                nextId.set(Math.max(nextId.get(), session.getId() + 1));
+            }
+            store.start();
+        }
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        connections.execute(this::accept);
+        long period = Math.max(1, idleMillis / 2);
+        sweeper.scheduleWithFixedDelay(this::sweep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hibernates the sessions that have been idle for idleMillis.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        for (GameSession session : sessions.values()) {
+            session.hibernateIfIdle(now, idleNanos);
+        }
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of sessions being hosted.
+     */
+    public int getSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the number of sessions that are hibernated.
+     */
+    public int getHibernated() {
+        return arena.getUsed();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones, the store is closed too.
+     */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        sweeper.shutdownNow();
+        connections.shutdownNow();
+        games.shutdown();
+        if (store != null) {
+            try {
+                games.awaitTermination(1, TimeUnit.SECONDS);
+                store.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                try {
+                    connections.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    // the server was stopped while the connection was being accepted
+                    sockets.remove(socket);
+                    socket.close();
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the commands of one connection until it is closed.
+     */
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().startsWith("watch") && watch(line.trim().split("\\s+"), socket, out)) {
+                    return;
+                }
+                out.write(execute(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                e.printStackTrace();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    /**
+     * Streams a session to the connection until the game is over or the connection is closed. The frames waiting
+     * for the spectator are written together with one flush.
+     * @return whether the connection was used for the stream, false if the command was refused and the connection
+     * can carry on with commands
+     */
+    private boolean watch(String[] words, Socket socket, Writer out) throws IOException, InterruptedException {
+        if (!words[0].equals("watch")) {
+            return false;
+        }
+        GameSession session = words.length < 2 ? null : find(words[1]);
+        if (session == null) {
+            return false;
+        }
+        SpectatorFeed.Subscription subscription;
+        try {
+            subscription = session.watch().get();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return false;
+        }
+        try (subscription) {
+            out.write("OK watching\n");
+            out.flush();
+            OutputStream stream = new BufferedOutputStream(socket.getOutputStream());
+            while (!socket.isClosed()) {
+                byte[] frame = subscription.poll(1, TimeUnit.SECONDS);
+                while (frame != null && frame != SpectatorFeed.END) {
+                    stream.write(frame);
+                    frame = subscription.poll();
+                }
+                stream.flush();
+                if (frame == SpectatorFeed.END) {
+                    return true;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Runs one command line and returns the reply.
+     */
+    String execute(String line) {
+        String[] words = line.trim().split("\\s+");
+        if (words[0].equals("create")) {
+            return create(words);
+        }
+        if (words.length < 2) {
+            return "ERROR usage: " + words[0] + " <session> ...";
+        }
+        GameSession session = find(words[1]);
+        if (session == null) {
+            return "ERROR no session " + words[1];
+        }
+        GameSnapshot snapshot = session.getSnapshot();
+        if (words[0].equals("state") && snapshot != null) {
+            return GameSession.describe(snapshot);
+        }
+
+        String[] command = new String[words.length - 1];
+        command[0] = words[0];
+        System.arraycopy(words, 2, command, 1, words.length - 2);
+        try {
+            return session.send(command).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "ERROR interrupted";
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            return "ERROR " + e.getCause();
+        }
+    }
+
+    /**
+     * Returns the session with the given id, or null if there isn't one.
+     */
+    private GameSession find(String id) {
+        try {
+            return sessions.get(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String create(String[] words) {
+        int boardType = 0;
+        if (words.length > 1) {
+            try {
+                boardType = Integer.parseInt(words[1]);
+            } catch (NumberFormatException e) {
+                return "ERROR unknown board " + words[1];
+            }
+        }
+        if (boardType < 0 || boardType > 3) {
+            return "ERROR unknown board " + boardType;
+        }
+        GameSession session = new GameSession(nextId.getAndIncrement(), boardType, games, arena, store);
+        try {
+            session.save().join();
+        } catch (CompletionException e) {
+            e.printStackTrace();
+            return "ERROR the game could not be saved";
+        }
+        sessions.put(session.getId(), session);
+        return "OK " + session.getId();
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     * @param args the port to listen on, how long sessions are idle before they are hibernated, in milliseconds,
+     * and the file to save the games to, all can be left out
+     */
+    public static void main(String[] args) {
+        GameServer server = new GameServer(args.length > 0 ? Integer.parseInt(args[0]) : DEFAULTPORT);
+        if (args.length > 1) {
+            server.setIdleMillis(Long.parseLong(args[1]));
+        }
+        try {
+            if (args.length > 2) {
+                server.setStore(new SessionStore(args[2]));
+            }
+            server.start();
+            System.out.println("Listening on port " + server.getPort());
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
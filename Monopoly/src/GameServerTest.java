@@ -0,0 +1,149 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServerTest {
+    /**
+     * These tests verify that the GameServer plays games for clients over its line protocol.
+     */
+    private GameServer server;
+    private GameClient client;
+
+    @BeforeEach
+    public void init() throws IOException {
+        server = new GameServer(0);
+        server.start();
+        client = new GameClient("localhost", server.getPort());
+    }
+
+    @AfterEach
+    public void close() throws IOException {
+        client.close();
+        server.stop();
+    }
+
+    /**
+     * This test verifies that a person can join a session, roll and pass while an AI plays the other turns.
+     */
+    @Test
+    public void playTest() throws IOException {
+        String id = client.send("create 0").substring(3);
+        assertEquals("OK 1", client.send("join " + id + " P"));
+        assertEquals("OK 2", client.send("join " + id + " AI roi"));
+        assertTrue(client.send("buy " + id + " P").startsWith("ERROR"));
+
+        for (int turn = 0; turn < 20 && client.send("state " + id).startsWith("OK P"); turn++) {
+            String reply = client.send("roll " + id + " P");
+            assertTrue(reply.startsWith("OK"), reply);
+            if (reply.endsWith(" buy")) {
+                assertTrue(client.send("roll " + id + " P").startsWith("ERROR"));
+                assertTrue(client.send("pass " + id + " P").startsWith("OK"));
+            }
+        }
+        assertTrue(client.send("join " + id + " Late").startsWith("ERROR"));
+        assertTrue(client.send("state " + id).contains("AI:"));
+    }
+
+    /**
+     * This test verifies that commands for sessions that don't exist are refused.
+     */
+    @Test
+    public void unknownSessionTest() throws IOException {
+        assertTrue(client.send("state 99").startsWith("ERROR"));
+        assertTrue(client.send("roll x P").startsWith("ERROR"));
+        assertTrue(client.send("create 7").startsWith("ERROR"));
+        assertEquals(0, server.getSessions());
+    }
+
+    /**
+     * This test verifies that idle sessions are hibernated and carry on where they left off on the next command.
+     */
+    @Test
+    public void hibernateTest() throws Exception {
+        server.stop();
+        server = new GameServer(0);
+        server.setIdleMillis(100);
+        server.start();
+        client.close();
+        client = new GameClient("localhost", server.getPort());
+
+        String id = client.send("create 1").substring(3);
+        client.send("join " + id + " P");
+        client.send("join " + id + " AI roi");
+        for (int turn = 0; turn < 10; turn++) {
+            if (client.send("roll " + id + " P").endsWith(" buy") && client.send("buy " + id + " P").startsWith("ERROR")) {
+                client.send("pass " + id + " P");
+            }
+        }
+        String state = client.send("state " + id);
+        for (int wait = 0; wait < 400 && server.getHibernated() == 0; wait++) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, server.getHibernated());
+        assertEquals(state, client.send("state " + id));
+        assertEquals(0, server.getHibernated());
+    }
+
+    /**
+     * This test verifies that a server with a SessionStore hosts its games again after a restart.
+     */
+    @Test
+    public void restartTest() throws Exception {
+        File file = File.createTempFile("sessions", ".log");
+        file.deleteOnExit();
+        server.stop();
+        server = new GameServer(0);
+        server.setStore(new SessionStore(file.getPath()));
+        server.start();
+        client.close();
+        client = new GameClient("localhost", server.getPort());
+
+        String id = client.send("create 2").substring(3);
+        client.send("join " + id + " P");
+        client.send("join " + id + " AI roi");
+        for (int turn = 0; turn < 10; turn++) {
+            if (client.send("roll " + id + " P").endsWith(" buy") && client.send("buy " + id + " P").startsWith("ERROR")) {
+                client.send("pass " + id + " P");
+            }
+        }
+        String state = client.send("state " + id);
+        client.close();
+        server.stop();
+
+        server = new GameServer(0);
+        server.setStore(new SessionStore(file.getPath()));
+        server.start();
+        client = new GameClient("localhost", server.getPort());
+        assertEquals(state, client.send("state " + id));
+        assertFalse(id.equals(client.send("create 2").substring(3)));
+    }
+
+    /**
+     * This test verifies that a spectator is streamed the game as it is played.
+     */
+    @Test
+    public void watchTest() throws IOException {
+        String id = client.send("create 3").substring(3);
+        client.send("join " + id + " P");
+        client.send("join " + id + " AI roi");
+        assertThrows(IOException.class, () -> new SpectatorClient("localhost", server.getPort(), 99));
+
+        try (SpectatorClient spectator = new SpectatorClient("localhost", server.getPort(), Long.parseLong(id))) {
+            assertEquals(client.send("state " + id), GameSession.describe(spectator.next()));
+            for (int turn = 0; turn < 10; turn++) {
+                if (client.send("roll " + id + " P").endsWith(" buy") && client.send("buy " + id + " P").startsWith("ERROR")) {
+                    client.send("pass " + id + " P");
+                }
+                String state = client.send("state " + id);
+                while (!state.equals(GameSession.describe(spectator.getSnapshot()))) {
+                    assertNotNull(spectator.next());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,550 @@
+import javax.swing.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GameSession {
+    /**
+     * The GameSession class
+     *
+     * One game hosted by the GameServer. A session is an actor: commands are put in its mailbox and run one at a
+     * time, in order, on a thread of the server's pool, so the MonopolyModel is only ever used by one thread at a
+     * time without any locks. A session only holds a thread while it has commands to run, so thousands of idle
+     * sessions cost nothing but their memory.
+     *
+     * Players join the session by name, a player joined with a strategy is an AI. The game starts with the first
+     * roll. A player rolls on their turn and, when they land on a property for sale, buys it or passes, which ends
+     * their turn. The AIs then play until it is a person's turn again.
+     *
+     * A session that has been idle for a while can be hibernated: its game is written in the compact form of
+     * MonopolyModel.writeTo() to a SessionArena outside of the heap and the Board, Player and Property objects are
+     * dropped. The next command reads the game back, which takes microseconds, so the heap and the garbage
+     * collector only see the sessions that are being played.
+     *
+     * After every command that changes the game the session publishes a GameSnapshot, so the state of the game
+     * can be read by any thread without going through the mailbox. A hibernated session drops its snapshot to keep
+     * the heap small and its state is read through the mailbox instead.
+     *
+     * Spectators watch the game through a SpectatorFeed, which is given every snapshot and sends them what
+     * changed. A session with spectators isn't hibernated.
+     *
+     * With a SessionStore every command that changes the game saves it, the store writes it to disk in the
+     * background.
+     *
+     * @attribute id the number the session is known by
+     * @attribute boardType the board the game is played on
+     * @attribute model the game, null while the session is hibernated
+     * @attribute snapshot the state of the game after the last command, null while the session is hibernated
+     * @attribute feed streams the game to its spectators, null until someone watches
+     * @attribute arena stores the game while the session is hibernated
+     * @attribute slot the arena slot of the hibernated game
+     * @attribute strategies the strategy of each player of the hibernated game, null for people
+     * @attribute lastUsed when the last command was run, from System.nanoTime()
+     * @attribute hibernated whether the game is in the arena
+     * @attribute executor runs the session's commands
+     * @attribute mailbox the commands waiting to be run
+     * @attribute scheduled whether the session is waiting to run or running on the executor
+     * @attribute started whether the first roll has been made, no one can join afterwards
+     * @attribute awaitingBuy whether the player whose turn it is has to buy or pass before the turn ends
+     */
+    static final int MAXPLAYERS = 4;
+    static final int MAXNAME = 32;
+    private static final int BATCH = 32;
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(SessionArena.SLOTBYTES[SessionArena.SLOTBYTES.length - 1]));
+
+    private final long id;
+    private final int boardType;
+    private MonopolyModel model;
+    private volatile GameSnapshot snapshot;
+    private SpectatorFeed feed;
+    private final SessionArena arena;
+    private long slot;
+    private List<Strategy> strategies;
+    private volatile long lastUsed;
+    private volatile boolean hibernated;
+    private final SessionStore store;
+    private final Executor executor;
+    private final Queue<Runnable> mailbox;
+    private final AtomicBoolean scheduled;
+    private boolean started;
+    private boolean awaitingBuy;
+
+    /**
+     * Creates an empty session.
+     * @param id the number the session is known by
+     * @param boardType the board the game is played on
+     * @param executor runs the session's commands
+     * @param arena stores the game while the session is hibernated
+     * @param store saves the game after every change, it can be null
+     */
+    public GameSession(long id, int boardType, Executor executor, SessionArena arena, SessionStore store) {
+        this(id, boardType, new MonopolyModel(Board.copyOf(boardType), new ArrayList<>(), 0), executor, arena, store);
+    }
+
+    private GameSession(long id, int boardType, MonopolyModel model, Executor executor, SessionArena arena,
+                        SessionStore store) {
+        this.id = id;
+        this.boardType = boardType;
+        this.model = model;
+        this.model.setPublishing(true);
+        this.snapshot = model.getSnapshot();
+        this.executor = executor;
+        this.arena = arena;
+        this.store = store;
+        this.mailbox = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+        this.lastUsed = System.nanoTime();
+    }
+
+    /**
+     * Writes the session for a SessionStore: the board type, whether the game has started and is waiting for a
+     * buy, the strategy of each player, empty for people, and then the game in the form of MonopolyModel.writeTo().
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.put((byte) boardType);
+        buffer.put((byte) ((started ? 1 : 0) | (awaitingBuy ? 2 : 0)));
+        buffer.put((byte) model.getPlayers().size());
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            Player player = model.getPlayers().get(i);
+            byte[] name = (player instanceof AI ? ((AI) player).getStrategy().getName() : "").getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) name.length);
+            buffer.put(name);
+        }
+        model.writeTo(buffer);
+    }
+
+    /**
+     * Reads a session written by writeTo().
+     * @param id the number the session is known by
+     * @param buffer the buffer to read from
+     * @param executor runs the session's commands
+     * @param arena stores the game while the session is hibernated
+     * @param store saves the game after every change, it can be null
+     */
+    static GameSession readFrom(long id, ByteBuffer buffer, Executor executor, SessionArena arena, SessionStore store) {
+        int boardType = buffer.get();
+        int flags = buffer.get();
+        int players = buffer.get();
+        List<Strategy> strategies = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            byte[] name = new byte[buffer.get()];
+            buffer.get(name);
+            strategies.add(name.length == 0 ? null : Strategy.forName(new String(name, StandardCharsets.UTF_8)));
+        }
+        MonopolyModel model = MonopolyModel.readFrom(buffer, Board.copyOf(boardType), strategies);
+        GameSession session = new GameSession(id, boardType, model, executor, arena, store);
+        session.started = (flags & 1) != 0;
+        session.awaitingBuy = (flags & 2) != 0;
+        return session;
+    }
+
+    /**
+     * Saves the game to the store, if there is one. A save that fails is tried again by the store in its next
+     * window, so a command doesn't wait for its save.
+     * @return completes once the game is on disk, it fails if the store's write failed
+     */
+    CompletableFuture<Void> save() {
+        if (store == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ByteBuffer buffer = SCRATCH.get();
+        buffer.clear();
+        writeTo(buffer);
+        buffer.flip();
+        return store.save(id, buffer);
+    }
+
+    /**
+     * Getter for id.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the state of the game after the last command, it can be called from any thread without waiting for
+     * the session.
+     * @return the snapshot, null while the session is hibernated
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Puts a command in the session's mailbox.
+     * @param command the words of the command, starting with its name, the session id is left out
+     * @return the reply to the command, it completes once the command has run
+     */
+    public CompletableFuture<String> send(String[] command) {
+        CompletableFuture<String> reply = new CompletableFuture<>();
+        mailbox.add(() -> reply.complete(handle(command)));
+        schedule();
+        return reply;
+    }
+
+    /**
+     * Adds a spectator to the game.
+     * @return the spectator's frames, the first is the whole game, it completes once the session has added it
+     */
+    public CompletableFuture<SpectatorFeed.Subscription> watch() {
+        CompletableFuture<SpectatorFeed.Subscription> subscription = new CompletableFuture<>();
+        mailbox.add(() -> {
+            if (hibernated) {
+                wake();
+            }
+            if (feed == null) {
+                feed = new SpectatorFeed();
+                model.setSnapshotListener(feed::publish);
+                feed.publish(model.getSnapshot());
+            }
+            subscription.complete(feed.subscribe());
+        });
+        schedule();
+        return subscription;
+    }
+
+    /**
+     * Hibernates the session if it has been idle for a while, the game is stored by the session's own thread.
+     * @param now the time from System.nanoTime()
+     * @param idleNanos how long the session must have been idle
+     */
+    public void hibernateIfIdle(long now, long idleNanos) {
+        if (!hibernated && now - lastUsed > idleNanos) {
+            mailbox.add(() -> {
+                if (!hibernated && System.nanoTime() - lastUsed > idleNanos
+                        && (feed == null || feed.getSpectators() == 0)) {
+                    hibernate();
+                }
+            });
+            schedule();
+        }
+    }
+
+    /**
+     * Returns whether the game is stored in the arena.
+     */
+    public boolean isHibernated() {
+        return hibernated;
+    }
+
+    /**
+     * Writes the game to the arena and drops its objects.
+     */
+    void hibernate() {
+        ByteBuffer buffer = SCRATCH.get();
+        buffer.clear();
+        model.writeTo(buffer);
+        buffer.flip();
+        slot = arena.store(buffer);
+        strategies = new ArrayList<>();
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            Player player = model.getPlayers().get(i);
+            strategies.add(player instanceof AI ? ((AI) player).getStrategy() : null);
+        }
+        model = null;
+        snapshot = null;
+        hibernated = true;
+    }
+
+    /**
+     * Reads the game back from the arena.
+     */
+    private void wake() {
+        model = MonopolyModel.readFrom(arena.load(slot), Board.copyOf(boardType), strategies);
+        if (feed != null) {
+            model.setSnapshotListener(feed::publish);
+        }
+        model.setPublishing(true);
+        snapshot = model.getSnapshot();
+        arena.free(slot);
+        strategies = null;
+        hibernated = false;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Runs the commands in the mailbox, at most BATCH at a time so a busy session doesn't hold on to a thread.
+     */
+    private void drain() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable command = mailbox.poll();
+            if (command == null) {
+                break;
+            }
+            command.run();
+        }
+        scheduled.set(false);
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Runs a command and returns its reply, "OK" followed by the result or "ERROR" followed by the reason.
+     */
+    String handle(String[] command) {
+        if (hibernated) {
+            wake();
+        }
+        lastUsed = System.nanoTime();
+        try {
+            String reply;
+            switch (command[0]) {
+                case "join":
+                    reply = join(command);
+                    break;
+                case "roll":
+                    reply = roll(command);
+                    break;
+                case "buy":
+                    reply = buy(command);
+                    break;
+                case "pass":
+                    reply = pass(command);
+                    break;
+                case "build":
+                    reply = build(command);
+                    break;
+                case "state":
+                    return describe(snapshot);
+                default:
+                    return "ERROR unknown command " + command[0];
+            }
+            if (reply.startsWith("OK")) {
+                model.publish();
+                snapshot = model.getSnapshot();
+                save();
+            }
+            return reply;
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return "ERROR " + e;
+        }
+    }
+
+    /**
+     * join name [strategy], adds a person or, with a strategy, an AI.
+     */
+    private String join(String[] command) {
+        if (command.length < 2) {
+            return "ERROR usage: join <session> <name> [strategy]";
+        }
+        if (started) {
+            return "ERROR the game has started";
+        }
+        if (model.getPlayers().size() >= MAXPLAYERS) {
+            return "ERROR the game is full";
+        }
+        if (command[1].length() > MAXNAME) {
+            return "ERROR names can't be longer than " + MAXNAME + " characters";
+        }
+        if (find(command[1]) != null) {
+            return "ERROR " + command[1] + " has already joined";
+        }
+        if (command.length > 2) {
+            model.addAI(new AI(command[1], Strategy.forName(command[2])));
+        }
+        else {
+            model.addPlayer(command[1]);
+        }
+        return "OK " + model.getPlayers().size();
+    }
+
+    private Player find(String name) {
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            if (model.getPlayers().get(i).getName().equals(name)) {
+                return model.getPlayers().get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns why the named player can't act now, or null if it is their turn.
+     */
+    private String notTurn(String[] command) {
+        if (command.length < 2) {
+            return "ERROR usage: " + command[0] + " <session> <name>";
+        }
+        if (!started) {
+            return "ERROR the game hasn't started";
+        }
+        if (model.isGameOver()) {
+            return "ERROR the game is over";
+        }
+        if (!model.getPlayer().getName().equals(command[1])) {
+            return "ERROR it is " + model.getPlayer().getName() + "'s turn";
+        }
+        return null;
+    }
+
+    /**
+     * roll name, moves the player, the reply is the roll and the new position followed by "buy" when the player
+     * has to buy or pass.
+     */
+    private String roll(String[] command) {
+        if (!started && command.length > 1 && model.getPlayers().size() >= 2) {
+            started = true;
+            playAIs();
+        }
+        String error = notTurn(command);
+        if (error != null) {
+            return error;
+        }
+        if (awaitingBuy) {
+            return "ERROR buy or pass first";
+        }
+
+        Player player = model.getPlayer();
+        int roll = model.roll();
+        player.addPosition(roll);
+        model.setUtilityRent(roll);
+        model.goToJail();
+        if (player.getPositionTracker() >= 32) {
+            player.addMoney(200);
+        }
+
+        String reply = "OK " + roll + " " + player.getPosition();
+        if (model.checkProperty()) {
+            awaitingBuy = true;
+            return reply + " buy";
+        }
+        endTurn();
+        return reply;
+    }
+
+    /**
+     * buy name, buys the property the player landed on and ends their turn.
+     */
+    private String buy(String[] command) {
+        String error = notTurn(command);
+        if (error != null) {
+            return error;
+        }
+        if (!awaitingBuy) {
+            return "ERROR nothing to buy";
+        }
+        Property property = model.getBoard().getProperty(model.getPlayer().getPosition());
+        if (!model.buyProperty(JOptionPane.YES_OPTION)) {
+            return "ERROR not enough money";
+        }
+        if (property instanceof Railroad) {
+            model.setRailroadRent();
+        }
+        endTurn();
+        return "OK " + property.getName();
+    }
+
+    /**
+     * pass name, doesn't buy the property the player landed on and ends their turn.
+     */
+    private String pass(String[] command) {
+        String error = notTurn(command);
+        if (error != null) {
+            return error;
+        }
+        if (!awaitingBuy) {
+            return "ERROR nothing to buy";
+        }
+        endTurn();
+        return "OK";
+    }
+
+    /**
+     * build name house|hotel property, builds on one of the player's properties during their turn.
+     */
+    private String build(String[] command) {
+        String error = notTurn(command);
+        if (error != null) {
+            return error;
+        }
+        if (command.length < 4) {
+            return "ERROR usage: build <session> <name> house|hotel <property>";
+        }
+        String name = String.join(" ", Arrays.copyOfRange(command, 3, command.length));
+        Player player = model.getPlayer();
+        Property property = null;
+        for (int i = 0; i < player.getPropertiesOwned().size(); i++) {
+            if (player.getPropertiesOwned().get(i).getName().equals(name)) {
+                property = player.getPropertiesOwned().get(i);
+            }
+        }
+        if (property == null || !AI.canHaveBuildings(property)) {
+            return "ERROR can't build on " + name;
+        }
+        if (command[2].equals("house")) {
+            if (property.hasHouse() || player.getMoney() < Player.HOUSECOST) {
+                return "ERROR can't build a house on " + name;
+            }
+            player.buyHouse(name);
+        }
+        else if (command[2].equals("hotel")) {
+            if (!property.hasHouse() || property.hasHotel() || player.getMoney() < Player.HOTELCOST) {
+                return "ERROR can't build a hotel on " + name;
+            }
+            player.buyHotel(name);
+        }
+        else {
+            return "ERROR build a house or a hotel";
+        }
+        return "OK " + player.getMoney();
+    }
+
+    /**
+     * state, the reply is the player whose turn it is, the number of turns played and every player's name, money
+     * and position.
+     * @param snapshot the state of the game
+     */
+    static String describe(GameSnapshot snapshot) {
+        if (snapshot.getPlayers() == 0) {
+            return "OK - 0";
+        }
+        StringBuilder reply = new StringBuilder("OK ");
+        reply.append(snapshot.getName(snapshot.getPlayerTurn())).append(' ').append(snapshot.getTurnCount());
+        for (int i = 0; i < snapshot.getPlayers(); i++) {
+            reply.append(' ').append(snapshot.getName(i)).append(':').append(snapshot.getMoney(i)).append(':')
+                    .append(snapshot.getPosition(i));
+        }
+        return reply.toString();
+    }
+
+    /**
+     * Ends the current player's turn and lets the AIs play until it is a person's turn.
+     */
+    private void endTurn() {
+        awaitingBuy = false;
+        model.finishTurn();
+        playAIs();
+    }
+
+    /**
+     * Plays the AIs' turns until it is a person's turn, the game is over or there are no people left.
+     */
+    private void playAIs() {
+        while (!model.isGameOver() && model.getPlayer() instanceof AI && hasPeople()) {
+            model.playAITurn();
+        }
+    }
+
+    private boolean hasPeople() {
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            if (!(model.getPlayers().get(i) instanceof AI)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.List;
+
+public final class GameSnapshot {
+    /**
+     * The GameSnapshot class
+     *
+     * An immutable copy of the state of a MonopolyModel at the end of a turn. Every field is final and every array
+     * is copied from the game and never handed out, so once a snapshot has been published any thread can read it
+     * without a lock and never sees half of a turn, such as money paid without the property changing hands.
+     *
+     * Players are in turn order and only the players still in the game are included. Squares are in board order.
+     *
+     * @attribute turnCount the number of turns played
+     * @attribute playerTurn the index of the player whose turn it is
+     * @attribute names the name of each player
+     * @attribute money the money of each player
+     * @attribute positions the square each player is on
+     * @attribute jailed whether each player is in jail
+     * @attribute ai whether each player is an AI
+     * @attribute owners the index of the player who owns each square, -1 if no one does
+     * @attribute buildings what is built on each square, NONE, HOUSE or HOTEL
+     * @attribute rents the rent of each square
+     */
+    public static final int NONE = 0;
+    public static final int HOUSE = 1;
+    public static final int HOTEL = 2;
+
+    private final int turnCount;
+    private final int playerTurn;
+    private final String[] names;
+    private final int[] money;
+    private final int[] positions;
+    private final boolean[] jailed;
+    private final boolean[] ai;
+    private final int[] owners;
+    private final int[] buildings;
+    private final int[] rents;
+
+    /**
+     * Copies the state of a game, it must be called by the thread playing the game.
+     * @param model the game to copy
+     */
+    public GameSnapshot(MonopolyModel model) {
+        List<Player> players = model.getPlayers();
+        this.turnCount = model.getTurnCount();
+        this.playerTurn = model.playerTurn;
+        this.names = new String[players.size()];
+        this.money = new int[players.size()];
+        this.positions = new int[players.size()];
+        this.jailed = new boolean[players.size()];
+        this.ai = new boolean[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            this.names[i] = player.getName();
+            this.money[i] = player.getMoney();
+            this.positions[i] = player.getPosition();
+            this.jailed[i] = player.getJailed();
+            this.ai[i] = player instanceof AI;
+        }
+
+        List<Property> properties = model.getBoard().getProperties();
+        this.owners = new int[properties.size()];
+        this.buildings = new int[properties.size()];
+        this.rents = new int[properties.size()];
+        for (int i = 0; i < properties.size(); i++) {
+            Property property = properties.get(i);
+            this.owners[i] = property.getOwner() == null ? -1 : players.indexOf(property.getOwner());
+            this.buildings[i] = property.hasHotel() ? HOTEL : property.hasHouse() ? HOUSE : NONE;
+            this.rents[i] = property.getRent();
+        }
+    }
+
+    /**
+     * Creates a snapshot from arrays that are never changed afterwards, it is how SnapshotDelta rebuilds the
+     * snapshots of a game it is sent.
+     */
+    GameSnapshot(int turnCount, int playerTurn, String[] names, int[] money, int[] positions, boolean[] jailed,
+                 boolean[] ai, int[] owners, int[] buildings, int[] rents) {
+        this.turnCount = turnCount;
+        this.playerTurn = playerTurn;
+        this.names = names;
+        this.money = money;
+        this.positions = positions;
+        this.jailed = jailed;
+        this.ai = ai;
+        this.owners = owners;
+        this.buildings = buildings;
+        this.rents = rents;
+    }
+
+    /**
+     * Getter for turnCount.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Returns the index of the player whose turn it is.
+     */
+    public int getPlayerTurn() {
+        return playerTurn;
+    }
+
+    /**
+     * Returns the number of players still in the game.
+     */
+    public int getPlayers() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of squares on the board.
+     */
+    public int getSquares() {
+        return owners.length;
+    }
+
+    /**
+     * Getter for the name of a player.
+     */
+    public String getName(int player) {
+        return names[player];
+    }
+
+    /**
+     * Getter for the money of a player.
+     */
+    public int getMoney(int player) {
+        return money[player];
+    }
+
+    /**
+     * Getter for the square a player is on.
+     */
+    public int getPosition(int player) {
+        return positions[player];
+    }
+
+    /**
+     * Checks if a player is in jail.
+     */
+    public boolean isJailed(int player) {
+        return jailed[player];
+    }
+
+    /**
+     * Checks if a player is an AI.
+     */
+    public boolean isAI(int player) {
+        return ai[player];
+    }
+
+    /**
+     * Returns the index of the player who owns a square, -1 if no one does.
+     */
+    public int getOwner(int square) {
+        return owners[square];
+    }
+
+    /**
+     * Returns what is built on a square, NONE, HOUSE or HOTEL.
+     */
+    public int getBuildings(int square) {
+        return buildings[square];
+    }
+
+    /**
+     * Getter for the rent of a square.
+     */
+    public int getRent(int square) {
+        return rents[square];
+    }
+
+    /**
+     * Checks if the game is over.
+     * @return whether only one player is left
+     */
+    public boolean isGameOver() {
+        return names.length <= 1;
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+    /**
+     * These tests verify that a MonopolyModel publishes immutable snapshots that other threads can read.
+     */
+    private final static int TURNS = 20_000;
+
+    private static MonopolyModel newGame() {
+        MonopolyModel model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        model.addAI("AI3");
+        return model;
+    }
+
+    /**
+     * This test verifies that a snapshot describes the game when it was published and doesn't change as the game
+     * is played on.
+     */
+    @Test
+    public void immutableTest() {
+        MonopolyModel model = newGame();
+        assertNull(model.getSnapshot());
+        model.setPublishing(true);
+        for (int i = 0; i < 50; i++) {
+            model.playAITurn();
+        }
+        GameSnapshot snapshot = model.getSnapshot();
+        assertEquals(50, snapshot.getTurnCount());
+        assertEquals(model.getPlayers().size(), snapshot.getPlayers());
+        int money = snapshot.getMoney(0);
+        for (int square = 0; square < snapshot.getSquares(); square++) {
+            Player owner = model.getBoard().getProperty(square).getOwner();
+            assertEquals(owner == null ? -1 : model.getPlayers().indexOf(owner), snapshot.getOwner(square));
+        }
+
+        for (int i = 0; i < 50 && !model.isGameOver(); i++) {
+            model.playAITurn();
+        }
+        assertTrue(model.getSnapshot() != snapshot);
+        assertEquals(50, snapshot.getTurnCount());
+        assertEquals(money, snapshot.getMoney(0));
+    }
+
+    /**
+     * This test verifies that a thread reading snapshots while the game is played only ever sees whole turns, in
+     * order, with every square owned by a player of the same snapshot.
+     */
+    @Test
+    public void concurrentReadTest() throws InterruptedException {
+        MonopolyModel model = newGame();
+        model.setPublishing(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reader = new Thread(() -> {
+            int lastTurn = -1;
+            while (!done.get() && failure.get() == null) {
+                GameSnapshot snapshot = model.getSnapshot();
+                if (snapshot.getTurnCount() < lastTurn) {
+                    failure.set("turn " + snapshot.getTurnCount() + " after turn " + lastTurn);
+                }
+                for (int square = 0; square < snapshot.getSquares(); square++) {
+                    if (snapshot.getOwner(square) >= snapshot.getPlayers()) {
+                        failure.set("square " + square + " owned by a player who isn't in the game");
+                    }
+                }
+                lastTurn = snapshot.getTurnCount();
+            }
+        });
+        reader.start();
+        for (int i = 0; i < TURNS && !model.isGameOver(); i++) {
+            model.playAITurn();
+        }
+        done.set(true);
+        reader.join();
+        assertNull(failure.get());
+    }
+}
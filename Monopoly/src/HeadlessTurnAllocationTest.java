@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessTurnAllocationTest {
+    /**
+     * This test enforces the allocation budget of a headless AI turn. Once the game has warmed up a full AI turn,
+     * including restarting the game when it ends, must not allocate at all so large simulations put no pressure on
+     * the garbage collector.
+     */
+    private static MonopolyModel model;
+    private final static int CARLETON = 0;
+    private final static int WARMUPTURNS = 100_000;
+    private final static int WARMUPROUNDS = 50;
+    private final static int QUIETROUNDS = 3;
+    private final static int MEASUREDTURNS = 1_000_000;
+    private final static long ALLOCATIONBUDGET = 0;
+
+    /**
+     * This method initializes the MonopolyModel with four AI players and no view.
+     */
+    @BeforeEach
+    public void initEach() {
+        model = new MonopolyModel(CARLETON);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        model.addAI("AI3");
+        model.addAI("AI4");
+    }
+
+    /**
+     * Plays the given number of headless AI turns, starting a new game whenever one ends.
+     */
+    private void playTurns(int turns) {
+        for (int i = 0; i < turns; i++) {
+            if (model.isGameOver()) {
+                model.reset();
+            }
+            model.playAITurn();
+        }
+    }
+
+    /**
+     * This test verifies that a million AI turns allocate nothing on the current thread in steady state.
+     */
+    @Test
+    public void headlessTurnIsAllocationFree() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up until the JIT has compiled the turn, i.e. rounds of turns allocate nothing and no compilation
+        // finishes during them. Queuing a method for C2 resolves the string constants of its class on the thread
+        // that queued it, so a class first compiled while the turns are measured would be charged to the turn
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        int quiet = 0;
+        for (int round = 0; round < WARMUPROUNDS && quiet < QUIETROUNDS; round++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            long compiling = jit.getTotalCompilationTime();
+            playTurns(WARMUPTURNS);
+            boolean allocated = threads.getCurrentThreadAllocatedBytes() - start != 0;
+            quiet = allocated || jit.getTotalCompilationTime() != compiling ? 0 : quiet + 1;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        playTurns(MEASUREDTURNS);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(allocated <= ALLOCATIONBUDGET, allocated + " bytes allocated over " + MEASUREDTURNS + " turns");
+    }
+
+    /**
+     * This test verifies that reset starts a new game with every player back at the start.
+     */
+    @Test
+    public void resetTest() {
+        playTurns(1000);
+        model.reset();
+
+        assertEquals(4, model.getPlayers().size());
+        assertEquals("AI1", model.getPlayer().getName());
+        for (Player player : model.getPlayers()) {
+            assertEquals(1500, player.getMoney());
+            assertEquals(0, player.getPosition());
+            assertTrue(player.getPropertiesOwned().isEmpty());
+            assertFalse(player.getJailed());
+        }
+        for (Property property : model.getBoard().getProperties()) {
+            assertNull(property.getOwner());
+        }
+        assertEquals(25, model.getBoard().getProperty(3).getRent());
+    }
+}
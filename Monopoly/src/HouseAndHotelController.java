@@ -34,7 +34,15 @@ public class HouseAndHotelController implements ActionListener {
 
             JPanel mainPanel = new JPanel();
             mainPanel.add(new JLabel("<html> Enter the name of the property" + model.getPlayer().getPropertiesForController()));
+            BuildingOptimizer optimizer = suggest();
+            mainPanel.add(new JLabel(suggestionText(optimizer)));
             JTextField getProperty = new JTextField(10);
+            if (!optimizer.getHouses().isEmpty()) {
+                getProperty.setText(optimizer.getHouses().get(0).getName());
+            }
+            else if (!optimizer.getHotels().isEmpty()) {
+                getProperty.setText(optimizer.getHotels().get(0).getName());
+            }
             mainPanel.add(getProperty);
 
             int result = JOptionPane.showOptionDialog(null, mainPanel, "Buy House or Hotel", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, null);
@@ -98,4 +106,37 @@ public class HouseAndHotelController implements ActionListener {
             }
         }
     }
+
+    /**
+     * Finds the houses and hotels that earn the current player the most expected rent while keeping enough money
+     * to pay the highest rent on the board.
+     * @return the optimizer holding the suggested houses and hotels
+     */
+    private BuildingOptimizer suggest() {
+        LandingProbabilities table = LandingProbabilities.forBoard(model.getBoard());
+        BuildingOptimizer optimizer = new BuildingOptimizer(table);
+        optimizer.optimize(model.getBoard(), model.getPlayer(), model.getPlayer().getMoney() - table.getMaxRent(),
+                Math.max(1, model.getPlayers().size() - 1));
+        return optimizer;
+    }
+
+    /**
+     * Describes the suggested houses and hotels for the dialog.
+     * @param optimizer the optimizer holding the suggestions
+     * @return the suggestion text
+     */
+    private String suggestionText(BuildingOptimizer optimizer) {
+        if (optimizer.getHouses().isEmpty() && optimizer.getHotels().isEmpty()) {
+            return "<html>Suggested: nothing, keep your money for rent";
+        }
+        StringBuilder text = new StringBuilder("<html>Suggested for $" + optimizer.getCost() + ":");
+        for (int i = 0; i < optimizer.getHouses().size(); i++) {
+            text.append("<br>House on ").append(optimizer.getHouses().get(i).getName());
+        }
+        for (int i = 0; i < optimizer.getHotels().size(); i++) {
+            text.append("<br>Hotel on ").append(optimizer.getHotels().get(i).getName());
+        }
+        text.append(String.format("<br>About $%.2f more rent per round", optimizer.getIncome()));
+        return text.toString();
+    }
 }
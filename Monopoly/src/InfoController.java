@@ -10,21 +10,39 @@ public class InfoController implements ActionListener {
      */
 
     MonopolyModel model;
+    private final BankruptcyRisk risk;
+    private static final int RISKTURNS = 10;
 
     public InfoController(MonopolyModel model) {
             this.model = model;
+            this.risk = new BankruptcyRisk(RISKTURNS);
         }
 
     /**
      * This method will create a JOptionPane when the "Player info" button is pressed.
-     * It shows the current player's Name , Properties Owned.
+     * It shows the current player's Name , Properties Owned and the chance of each player going bankrupt soon.
      *
      * Created and documented by Mehedi Mostofa - 101154128 and Matthew Belanger 101144323
      */
 
     @Override
     public void actionPerformed(ActionEvent e) {
-        JOptionPane.showMessageDialog(null, "<html>" + model.getPlayer().toString() + "<br>" + model.getPlayer().getProperties());
+        JOptionPane.showMessageDialog(null, "<html>" + model.getPlayer().toString() + "<br>" + model.getPlayer().getProperties()
+                + "<br><br>" + getRisks());
+    }
+
+    /**
+     * Lists the chance of each player going bankrupt within their next turns.
+     * @return the risks as html
+     */
+    private String getRisks() {
+        StringBuilder s = new StringBuilder("Chance of going bankrupt in the next " + risk.getTurns() + " turns:");
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            Player player = model.getPlayers().get(i);
+            double chance = risk.getRisk(model.getBoard(), model.getSeats().indexOf(player), player);
+            s.append(String.format("<br>%s: %.1f%%", player.getName(), 100 * chance));
+        }
+        return s.toString();
     }
 }
 
@@ -6,6 +6,7 @@ public class Jail extends Property{
 
     private final List<Player> jailedPlayers;
     private final int[] jailedTurns = {0, 0, 0, 0};
+    static final int FINE = 50;
     /**
      * Default constructor for Jail
      *
@@ -55,6 +56,74 @@ public class Jail extends Property{
         jailedTurns[playerIndex]++;
     }
 
+    /**
+     * This method lets a player pay the fine to leave jail before they roll.
+     * @param player the player leaving jail
+     */
+    public void payFine(Player player) {
+        int playerIndex = jailedPlayers.indexOf(player);
+
+        player.addMoney(-FINE);
+        player.setJailed(false);
+        jailedPlayers.remove(player);
+        if (playerIndex >= 0) {
+            jailedTurns[playerIndex] = 0;
+        }
+    }
+
+    /**
+     * Returns the players in jail, in the order they were sent there.
+     */
+    List<Player> getJailedPlayers() {
+        return jailedPlayers;
+    }
+
+    /**
+     * Returns the turns counted for each place in the list of jailed players, places past the end of the list keep
+     * the count of the last player that was there.
+     */
+    int[] getJailedTurns() {
+        return jailedTurns;
+    }
+
+    /**
+     * Returns how many turns a player has tried to roll doubles in jail, 0 if they aren't in jail.
+     * @param player the player in jail
+     */
+    public int getTurnsJailed(Player player) {
+        int playerIndex = jailedPlayers.indexOf(player);
+        return playerIndex < 0 ? 0 : jailedTurns[playerIndex];
+    }
+
+    /**
+     * Resets the Jail for a new game, nobody is in jail.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        jailedPlayers.clear();
+        Arrays.fill(jailedTurns, 0);
+    }
+
+    /**
+     * Copies who is in the Jail of another game and how long they have been there.
+     * @param other the Jail in the other game
+     * @param players the players of this game
+     * @param otherPlayers the players of the other game, in the same order, players that have left the other game
+     * are left out
+     */
+    public void copyFrom(Jail other, List<Player> players, List<Player> otherPlayers) {
+        jailedPlayers.clear();
+        Arrays.fill(jailedTurns, 0);
+        for (int i = 0; i < other.jailedPlayers.size(); i++) {
+            int player = otherPlayers.indexOf(other.jailedPlayers.get(i));
+            if (player >= 0) {
+                jailedTurns[jailedPlayers.size()] = other.jailedTurns[i];
+                jailedPlayers.add(players.get(player));
+            }
+        }
+    }
+
     /**
      * Override toString() method
      * Displays Property information in String format
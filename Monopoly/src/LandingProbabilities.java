@@ -0,0 +1,208 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class LandingProbabilities {
+    /**
+     * The LandingProbabilities class
+     *
+     * A lookup table of how often a player lands on each square of a board, computed once per board from the
+     * movement rules of the game and then shared by every AI playing on that board.
+     *
+     * A player's turn is a Markov chain: they are either free on a square or in jail having already tried to roll
+     * doubles one, two or three times. A free player moves by the roll of two dice, landing on Go To Jail sends
+     * them to jail where they leave when they roll doubles or after their third try. The stationary distribution of
+     * the chain gives the expected number of times a player lands on each square per turn.
+     *
+     * The expected rent of each square per opponent turn is precomputed from the board's rents so an AI can value
+     * a property, house or hotel with a few array reads.
+     *
+     * @attribute landing the expected number of landings on each square per turn
+     * @attribute expectedRent the expected rent each street earns per opponent turn, without houses or hotels
+     * @attribute houseRent the extra rent a house earns per opponent turn
+     * @attribute hotelRent the extra rent a hotel earns per opponent turn
+     * @attribute maxRent the most rent any square on the board can charge
+     */
+    private final double[] landing;
+    private final double[] expectedRent;
+    private final double[] houseRent;
+    private final double[] hotelRent;
+    private final int maxRent;
+
+    private static final int[] RAILROADRENT = {0, 25, 50, 100, 200};
+    private static final int[] UTILITYMULTIPLIER = {0, 4, 10};
+    private static final double AVERAGEROLL = 7;
+    private static final int MAXROLL = 12;
+    private static final int HOUSERENT = 10;
+    private static final int HOTELRENT = 30;
+    private static final int JAILTRIES = 3;
+    private static final int ITERATIONS = 1000;
+    private static final double PRECISION = 1e-12;
+
+    private static final ConcurrentMap<Integer, LandingProbabilities> BOARDS = new ConcurrentHashMap<>();
+
+    /**
+     * Computes the table for a board.
+     * @param board the board
+     */
+    LandingProbabilities(Board board) {
+        int size = board.getProperties().size();
+        int goToJail = -1;
+        for (int i = 0; i < size; i++) {
+            if (board.getProperty(i) instanceof GoToJail) {
+                goToJail = i;
+            }
+        }
+        int jail = goToJail < 0 ? -1 : (goToJail + GoToJail.GOTOJAILSPACES) % size;
+
+        this.landing = computeLanding(size, goToJail, jail);
+        this.expectedRent = new double[size];
+        this.houseRent = new double[size];
+        this.hotelRent = new double[size];
+        int most = 0;
+        for (int i = 0; i < size; i++) {
+            Property property = board.getProperty(i);
+            if (property instanceof Railroad) {
+                most = Math.max(most, RAILROADRENT[RAILROADRENT.length - 1]);
+            }
+            else if (property instanceof Utilities) {
+                most = Math.max(most, MAXROLL * UTILITYMULTIPLIER[UTILITYMULTIPLIER.length - 1]);
+            }
+            else if (property.getCost() > 0) {
+                this.expectedRent[i] = landing[i] * property.getBaseRent();
+                this.houseRent[i] = landing[i] * HOUSERENT;
+                this.hotelRent[i] = landing[i] * (HOTELRENT - HOUSERENT);
+                most = Math.max(most, property.getBaseRent() + HOTELRENT);
+            }
+        }
+        this.maxRent = most;
+    }
+
+    /**
+     * Returns the table of a board, it is computed the first time a board type is asked for.
+     * @param board the board
+     */
+    public static LandingProbabilities forBoard(Board board) {
+        return BOARDS.computeIfAbsent(board.getBoardType(), type -> new LandingProbabilities(board));
+    }
+
+    /**
+     * Returns the probability of rolling each total with two dice, and of that total being doubles.
+     */
+    private static double[][] rolls() {
+        double[][] rolls = new double[2][13];
+        for (int d1 = 1; d1 <= 6; d1++) {
+            for (int d2 = 1; d2 <= 6; d2++) {
+                rolls[0][d1 + d2] += 1.0 / 36;
+                if (d1 == d2) {
+                    rolls[1][d1 + d2] += 1.0 / 36;
+                }
+            }
+        }
+        return rolls;
+    }
+
+    /**
+     * Finds the stationary distribution of the turn Markov chain by power iteration and returns the expected
+     * landings per turn on each square. States 0 to size-1 are free players, state size+k is a player in jail
+     * who has tried to roll doubles k+1 times.
+     */
+    private static double[] computeLanding(int size, int goToJail, int jail) {
+        double[][] rolls = rolls();
+        int states = size + JAILTRIES;
+        double[] distribution = new double[states];
+        distribution[0] = 1;
+
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            double[] next = new double[states];
+            for (int position = 0; position < size; position++) {
+                if (distribution[position] == 0) {
+                    continue;
+                }
+                for (int roll = 2; roll <= 12; roll++) {
+                    int square = (position + roll) % size;
+                    if (square == goToJail) {
+                        // the first try at doubles is made with the roll that landed on Go To Jail
+                        next[jail] += distribution[position] * rolls[1][roll];
+                        next[size] += distribution[position] * (rolls[0][roll] - rolls[1][roll]);
+                    }
+                    else {
+                        next[square] += distribution[position] * rolls[0][roll];
+                    }
+                }
+            }
+            for (int tries = 1; tries <= JAILTRIES; tries++) {
+                double inJail = distribution[size + tries - 1];
+                if (tries == JAILTRIES) {
+                    next[jail] += inJail;
+                }
+                else {
+                    next[jail] += inJail / 6;
+                    next[size + tries] += inJail * 5 / 6;
+                }
+            }
+
+            double change = 0;
+            for (int i = 0; i < states; i++) {
+                change += Math.abs(next[i] - distribution[i]);
+            }
+            distribution = next;
+            if (change < PRECISION) {
+                break;
+            }
+        }
+
+        double[] landing = new double[size];
+        for (int position = 0; position < size; position++) {
+            for (int roll = 2; roll <= 12; roll++) {
+                landing[(position + roll) % size] += distribution[position] * rolls[0][roll];
+            }
+        }
+        return landing;
+    }
+
+    /**
+     * Returns the expected number of landings on a square per turn.
+     */
+    public double getLanding(int square) {
+        return landing[square];
+    }
+
+    /**
+     * Returns the expected rent a square earns per opponent turn, railroad and utility rent depends on how many
+     * the owner has.
+     * @param board the board the table was computed for
+     * @param square the position of the square
+     * @param owned the number of railroads or utilities the owner would have, ignored for other squares
+     */
+    public double getExpectedRent(Board board, int square, int owned) {
+        Property property = board.getProperty(square);
+        if (property instanceof Railroad) {
+            return landing[square] * RAILROADRENT[Math.min(owned, RAILROADRENT.length - 1)];
+        }
+        if (property instanceof Utilities) {
+            return landing[square] * AVERAGEROLL * UTILITYMULTIPLIER[Math.min(owned, UTILITYMULTIPLIER.length - 1)];
+        }
+        return expectedRent[square];
+    }
+
+    /**
+     * Returns the extra rent a house earns per opponent turn.
+     */
+    public double getHouseRent(int square) {
+        return houseRent[square];
+    }
+
+    /**
+     * Returns the extra rent a hotel earns per opponent turn.
+     */
+    public double getHotelRent(int square) {
+        return hotelRent[square];
+    }
+
+    /**
+     * Returns the most rent any square on the board can charge.
+     */
+    public int getMaxRent() {
+        return maxRent;
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandingProbabilitiesTest {
+    /**
+     * These tests verify the landing probabilities computed for the boards.
+     */
+
+    /**
+     * This test verifies that every square can be landed on and that a player lands on some square most turns.
+     */
+    @Test
+    public void landingTest() {
+        LandingProbabilities table = LandingProbabilities.forBoard(new Board(0));
+        double total = 0;
+        for (int i = 0; i < 32; i++) {
+            assertTrue(table.getLanding(i) > 0);
+            total += table.getLanding(i);
+        }
+        assertTrue(total > 0.9 && total <= 1.0);
+        assertSame(table, LandingProbabilities.forBoard(new Board(0)));
+    }
+
+    /**
+     * This test verifies that houses and hotels earn more the more often a square is landed on.
+     */
+    @Test
+    public void buildingRentTest() {
+        LandingProbabilities table = LandingProbabilities.forBoard(new Board(1));
+        assertEquals(table.getLanding(1) * 10, table.getHouseRent(1), 1e-12);
+        assertEquals(table.getLanding(1) * 20, table.getHotelRent(1), 1e-12);
+        assertTrue(table.getMaxRent() >= 200);
+    }
+
+    /**
+     * This test verifies that the table only depends on the board type, not on the houses and hotels built on the
+     * board it is first computed from.
+     */
+    @Test
+    public void builtBoardTest() {
+        Board board = new Board(0);
+        board.getProperty(1).setHasHotel(true);
+        board.getProperty(3).setHasHouse(true);
+        LandingProbabilities built = new LandingProbabilities(board);
+        LandingProbabilities fresh = new LandingProbabilities(new Board(0));
+
+        assertEquals(fresh.getExpectedRent(board, 1, 0), built.getExpectedRent(board, 1, 0), 1e-12);
+        assertEquals(fresh.getExpectedRent(board, 3, 0), built.getExpectedRent(board, 3, 0), 1e-12);
+        assertEquals(fresh.getMaxRent(), built.getMaxRent());
+    }
+}
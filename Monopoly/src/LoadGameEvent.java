@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("monopoly.LoadGame")
+@Label("Load Game")
+@Category({"Monopoly", "Persistence"})
+@Description("A game imported from the save files by MonopolyModel.importFromXmlFile")
+@StackTrace(true)
+@Threshold("0 ms")
+public class LoadGameEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted by MonopolyModel.importFromXmlFile, the event duration is the load time.
+     *
+     * @attribute bytes the total size of the three save files
+     * @attribute players the number of players loaded
+     */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Players")
+    int players;
+}
@@ -0,0 +1,275 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+public class MonopolyEnvironment {
+    /**
+     * The MonopolyEnvironment class
+     *
+     * A batch of headless games for training learned agents. In every game the agent plays the first seat against
+     * AI opponents, and each step is one turn of the agent: the environment plays until the agent has rolled and
+     * moved, the agent picks an action from GameEncoding and the environment finishes the turn and plays the
+     * opponents until the agent's next move.
+     *
+     * Observations, action masks, rewards and done flags are written into flat arrays the caller owns, game g
+     * uses the slice starting at g times the size of one game's data. The reward of a step is the change in the
+     * agent's equity (StrategyComparison.equity), so the rewards of a game add up to its final equity less its
+     * equity at the start. A game that ends is restarted at once with the next seed and the observation is the start
+     * of the new game. Actions the mask doesn't allow end the turn.
+     *
+     * The games are split into one chunk per thread and the chunks are stepped in parallel.
+     *
+     * @attribute games the games in the batch
+     * @attribute boardType the board the games are played on
+     * @attribute players the number of players in each game, including the agent
+     * @attribute threads the number of threads stepping games
+     * @attribute maxTurns games are ended after this many turns
+     * @attribute opponent creates the AIs in the other seats
+     * @attribute seed the seed the batch was reset with
+     * @attribute workers the threads the chunks are stepped on
+     * @attribute chunks the task stepping each chunk of games
+     * @attribute actions, observations, masks, rewards and dones are the caller's buffers for the current step
+     */
+    private static final int DEFAULTMAXTURNS = 1000;
+
+    private final Game[] games;
+    private final int boardType;
+    private final int players;
+    private int threads;
+    private int maxTurns;
+    private Function<String, AI> opponent;
+    private long seed;
+    private ExecutorService workers;
+    private List<Callable<Void>> chunks;
+
+    private int[] actions;
+    private float[] observations;
+    private boolean[] masks;
+    private float[] rewards;
+    private boolean[] dones;
+
+    /**
+     * One game of the batch and where the agent is in it.
+     */
+    private static class Game {
+        MonopolyModel model;
+        AI agent;
+        long episode;
+        boolean canBuy;
+        double equity;
+    }
+
+    /**
+     * Default constructor for MonopolyEnvironment, the opponents are the default AI.
+     * @param boardType the board the games are played on
+     * @param players the number of players in each game, including the agent (2-4)
+     * @param games the number of games in the batch
+     */
+    public MonopolyEnvironment(int boardType, int players, int games) {
+        if (players < 2 || players > GameEncoding.SEATS) {
+            throw new IllegalArgumentException("Invalid number of players, must be between 2 to 4 players");
+        }
+        this.boardType = boardType;
+        this.players = players;
+        this.games = new Game[games];
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.maxTurns = DEFAULTMAXTURNS;
+        this.opponent = AI::new;
+    }
+
+    /**
+     * Setter for the number of threads, it has to be set before the first reset.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Setter for the number of turns after which a game ends.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Setter for the AI playing in the other seats, it has to be set before the first reset.
+     */
+    public void setOpponent(Function<String, AI> opponent) {
+        this.opponent = opponent;
+    }
+
+    public int getGames() {
+        return games.length;
+    }
+
+    /**
+     * Starts every game of the batch again.
+     * @param seed the seed of the first game, the others follow on from it
+     * @param observations receives GameEncoding.OBSERVATIONSIZE floats for each game
+     * @param masks receives GameEncoding.ACTIONS flags for each game
+     */
+    public void reset(long seed, float[] observations, boolean[] masks) {
+        if (chunks == null) {
+            create();
+        }
+        this.seed = seed;
+        this.actions = null;
+        this.observations = observations;
+        this.masks = masks;
+        this.rewards = null;
+        this.dones = null;
+        run();
+    }
+
+    /**
+     * Plays one turn of the agent in every game.
+     * @param actions the action of the agent in each game
+     * @param observations receives GameEncoding.OBSERVATIONSIZE floats for each game
+     * @param masks receives GameEncoding.ACTIONS flags for each game
+     * @param rewards receives the reward of each game
+     * @param dones receives whether each game ended, and was restarted
+     */
+    public void step(int[] actions, float[] observations, boolean[] masks, float[] rewards, boolean[] dones) {
+        if (chunks == null) {
+            throw new IllegalStateException("The environment has to be reset before it is stepped");
+        }
+        this.actions = actions;
+        this.observations = observations;
+        this.masks = masks;
+        this.rewards = rewards;
+        this.dones = dones;
+        run();
+    }
+
+    /**
+     * Creates the games and the threads that step them.
+     */
+    private void create() {
+        for (int g = 0; g < games.length; g++) {
+            Game game = new Game();
+            game.model = new MonopolyModel(boardType);
+            game.agent = new AI("Agent");
+            game.model.addAI(game.agent);
+            for (int i = 1; i < players; i++) {
+                game.model.addAI(opponent.apply("AI" + i));
+            }
+            games[g] = game;
+        }
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "environment");
+            thread.setDaemon(true);
+            return thread;
+        });
+        chunks = new ArrayList<>();
+        int size = (games.length + threads - 1) / threads;
+        for (int start = 0; start < games.length; start += size) {
+            int from = start;
+            int to = Math.min(games.length, start + size);
+            chunks.add(() -> {
+                for (int g = from; g < to; g++) {
+                    if (actions == null) {
+                        games[g].episode = 0;
+                        start(g);
+                    }
+                    else {
+                        step(g);
+                    }
+                    write(g);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Steps every chunk on the worker threads and waits for them.
+     * @throws IllegalStateException if a game failed, the caller's buffers are then only partly written
+     */
+    private void run() {
+        try {
+            List<Future<Void>> futures = workers.invokeAll(chunks);
+            for (int i = 0; i < futures.size(); i++) {
+                futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A game of the environment failed", e.getCause());
+        }
+    }
+
+    /**
+     * Starts the next episode of a game, the first seat rotates so the agent doesn't always go first.
+     */
+    private void start(int g) {
+        Game game = games[g];
+        game.model.reset((int) (game.episode % players));
+        game.model.getDice().setSeed(seed + g + game.episode * games.length);
+        game.equity = StrategyComparison.equity(game.model, game.agent);
+        advance(game);
+    }
+
+    /**
+     * Takes the agent's action, finishes its turn and plays on to its next move, restarting the game if it ends.
+     */
+    private void step(int g) {
+        Game game = games[g];
+        int action = actions[g];
+        AI agent = game.agent;
+        if (action == GameEncoding.BUY && game.canBuy) {
+            agent.buyHere(game.model, null);
+        }
+        else if (action >= GameEncoding.BUILD && action < GameEncoding.ACTIONS) {
+            Property property = game.model.getBoard().getProperty(action - GameEncoding.BUILD);
+            if (GameEncoding.canBuild(property, agent)) {
+                if (property.hasHouse()) {
+                    agent.buyHotel(property.getName());
+                }
+                else {
+                    agent.buyHouse(property.getName());
+                }
+            }
+        }
+        game.model.finishTurn();
+        advance(game);
+
+        double equity = StrategyComparison.equity(game.model, agent);
+        rewards[g] = (float) (equity - game.equity);
+        game.equity = equity;
+        dones[g] = done(game);
+        if (dones[g]) {
+            game.episode++;
+            start(g);
+        }
+    }
+
+    /**
+     * Plays the opponents until the agent has moved on its next turn or the game is done.
+     */
+    private void advance(Game game) {
+        MonopolyModel model = game.model;
+        while (!done(game) && model.getPlayer() != game.agent) {
+            model.playAITurn();
+        }
+        game.canBuy = !done(game) && game.agent.move(model);
+    }
+
+    private boolean done(Game game) {
+        return game.model.isGameOver() || game.model.getTurnCount() >= maxTurns
+                || !game.model.getPlayers().contains(game.agent);
+    }
+
+    /**
+     * Writes the observation and action mask of a game.
+     */
+    private void write(int g) {
+        Game game = games[g];
+        GameEncoding.encode(game.model, game.agent, observations, g * GameEncoding.OBSERVATIONSIZE);
+        GameEncoding.mask(game.model, game.agent, game.canBuy, masks, g * GameEncoding.ACTIONS);
+    }
+}
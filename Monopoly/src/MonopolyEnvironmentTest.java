@@ -0,0 +1,168 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonopolyEnvironmentTest {
+    /**
+     * These tests verify that the environment plays its games the same way for the same seed and that the masks
+     * and rewards follow the games.
+     */
+    private static final int GAMES = 8;
+    private static final int EPISODETURNS = 60;
+
+    /**
+     * Plays a batch for a number of steps, buying whenever the mask allows it, and returns the observations.
+     */
+    private float[] play(long seed, int steps, double[] totals) {
+        MonopolyEnvironment environment = new MonopolyEnvironment(0, 3, GAMES);
+        environment.setThreads(2);
+        environment.setMaxTurns(300);
+        float[] observations = new float[GAMES * GameEncoding.OBSERVATIONSIZE];
+        boolean[] masks = new boolean[GAMES * GameEncoding.ACTIONS];
+        float[] rewards = new float[GAMES];
+        boolean[] dones = new boolean[GAMES];
+        int[] actions = new int[GAMES];
+
+        environment.reset(seed, observations, masks);
+        for (int step = 0; step < steps; step++) {
+            for (int g = 0; g < GAMES; g++) {
+                assertTrue(masks[g * GameEncoding.ACTIONS + GameEncoding.PASS]);
+                actions[g] = masks[g * GameEncoding.ACTIONS + GameEncoding.BUY] ? GameEncoding.BUY : GameEncoding.PASS;
+            }
+            environment.step(actions, observations, masks, rewards, dones);
+            for (int g = 0; g < GAMES; g++) {
+                totals[g] += rewards[g];
+            }
+        }
+        return observations;
+    }
+
+    /**
+     * This test verifies that two batches with the same seed play the same games.
+     */
+    @Test
+    public void seedTest() {
+        float[] first = play(42, 50, new double[GAMES]);
+        float[] second = play(42, 50, new double[GAMES]);
+        assertTrue(Arrays.equals(first, second));
+        assertFalse(Arrays.equals(first, play(43, 50, new double[GAMES])));
+    }
+
+    /**
+     * This test verifies that the rewards of a game add up to the change in the agent's equity, which is between
+     * -1 and 1.
+     */
+    @Test
+    public void rewardTest() {
+        double[] totals = new double[GAMES];
+        play(7, 100, totals);
+        for (int g = 0; g < GAMES; g++) {
+            assertTrue(totals[g] >= -1 - 1e-4 && totals[g] <= 1 + 1e-4);
+        }
+    }
+
+    /**
+     * This test verifies that the rewards of the first episode of each game add up to the agent's equity at the end
+     * of the episode less its equity at the start. The episode is replayed on its own game to find both.
+     */
+    @Test
+    public void episodeRewardTest() {
+        MonopolyEnvironment environment = new MonopolyEnvironment(0, 2, GAMES);
+        environment.setThreads(2);
+        environment.setMaxTurns(EPISODETURNS);
+        float[] observations = new float[GAMES * GameEncoding.OBSERVATIONSIZE];
+        boolean[] masks = new boolean[GAMES * GameEncoding.ACTIONS];
+        float[] rewards = new float[GAMES];
+        boolean[] dones = new boolean[GAMES];
+        int[] actions = new int[GAMES];
+        double[] totals = new double[GAMES];
+        int[] steps = new int[GAMES];
+
+        environment.reset(11, observations, masks);
+        for (int step = 1; step <= EPISODETURNS; step++) {
+            for (int g = 0; g < GAMES; g++) {
+                actions[g] = masks[g * GameEncoding.ACTIONS + GameEncoding.BUY] ? GameEncoding.BUY : GameEncoding.PASS;
+            }
+            environment.step(actions, observations, masks, rewards, dones);
+            for (int g = 0; g < GAMES; g++) {
+                if (steps[g] == 0) {
+                    totals[g] += rewards[g];
+                    steps[g] = dones[g] ? step : 0;
+                }
+            }
+        }
+
+        for (int g = 0; g < GAMES; g++) {
+            assertTrue(steps[g] > 0);
+            assertEquals(replay(11 + g, steps[g]), totals[g], 1e-4);
+        }
+    }
+
+    /**
+     * This test verifies that a game failing on a worker thread fails the step instead of leaving stale data in the
+     * caller's buffers.
+     */
+    @Test
+    public void failureTest() {
+        MonopolyEnvironment environment = new MonopolyEnvironment(0, 2, GAMES);
+        environment.setThreads(2);
+        environment.setOpponent(name -> new AI(name, new DefaultStrategy() {
+            @Override
+            public boolean buy(MonopolyModel model, AI ai, Property property) {
+                throw new UnsupportedOperationException("broken opponent");
+            }
+        }));
+        float[] observations = new float[GAMES * GameEncoding.OBSERVATIONSIZE];
+        boolean[] masks = new boolean[GAMES * GameEncoding.ACTIONS];
+        int[] actions = new int[GAMES];
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+            environment.reset(3, observations, masks);
+            for (int step = 0; step < EPISODETURNS; step++) {
+                environment.step(actions, observations, masks, new float[GAMES], new boolean[GAMES]);
+            }
+        });
+        assertEquals(UnsupportedOperationException.class, e.getCause().getClass());
+    }
+
+    /**
+     * Plays the first episode of a game of two the way the environment does, buying whenever the agent can, and
+     * returns the agent's equity after the given number of steps less its equity at the start.
+     */
+    private static double replay(long seed, int steps) {
+        MonopolyModel model = new MonopolyModel(0);
+        AI agent = new AI("Agent");
+        model.addAI(agent);
+        model.addAI(new AI("AI1"));
+        model.reset(0);
+        model.getDice().setSeed(seed);
+        double start = StrategyComparison.equity(model, agent);
+
+        boolean canBuy = advance(model, agent);
+        for (int step = 0; step < steps; step++) {
+            if (canBuy && agent.getMoney() >= model.getBoard().getProperty(agent.getPosition()).getCost()) {
+                agent.buyHere(model, null);
+            }
+            model.finishTurn();
+            canBuy = advance(model, agent);
+        }
+        assertTrue(model.getTurnCount() >= EPISODETURNS || !model.getPlayers().contains(agent) || model.isGameOver());
+        return StrategyComparison.equity(model, agent) - start;
+    }
+
+    /**
+     * Plays the opponent until the agent has moved, returns whether the agent can buy the square it is on.
+     */
+    private static boolean advance(MonopolyModel model, AI agent) {
+        while (!over(model, agent) && model.getPlayer() != agent) {
+            model.playAITurn();
+        }
+        return !over(model, agent) && agent.move(model);
+    }
+
+    private static boolean over(MonopolyModel model, AI agent) {
+        return model.isGameOver() || model.getTurnCount() >= EPISODETURNS || !model.getPlayers().contains(agent);
+    }
+}
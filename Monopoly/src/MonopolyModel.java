@@ -5,8 +5,11 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MonopolyModel{
     /**
@@ -21,13 +24,26 @@ public class MonopolyModel{
      * players that are currently playing
      * @attribute die type Dice is the die that will be used for the game
      * @attribute playerTurn type int is used to determine whose turn it is
-     * @attribute MonopolyView this is the GUI class
+     * @attribute MonopolyView this is the GUI class, it is null when the game is played headless
+     * @attribute seats type List<Player> every player that started the game, used to reset it
+     * @attribute observer type GameObserver is told about rent, buying, jail, eliminations and the winner, it can be
+     * null
+     * @attribute turnCount type int is the number of turns played in the current game
+     * @attribute publishing type boolean is whether a GameSnapshot is published at the end of every turn
+     * @attribute snapshot type GameSnapshot is the last published state, other threads can read it at any time
+     * @attribute snapshotListener type Consumer<GameSnapshot> is given every published snapshot, it can be null
      */
     private final Board board;
     private final List<Player> players;
+    private final List<Player> seats;
     private final Dice die;
     int playerTurn;
     private MonopolyView view;
+    private GameObserver observer;
+    private int turnCount;
+    private boolean publishing;
+    private volatile GameSnapshot snapshot;
+    private Consumer<GameSnapshot> snapshotListener;
     private final static String SAVEBOARDFILE = "SaveFiles/saveBoard.xml";
     private final static String SAVEPLAYERSFILE = "SaveFiles/savePlayers.xml";
     private final static String OTHERINFOFILE = "SaveFiles/otherInfo.xml";
@@ -43,6 +59,7 @@ public class MonopolyModel{
         this.board = new Board(boardType);
         this.die = new Dice();
         this.players = new ArrayList<>();
+        this.seats = new ArrayList<>();
         this.playerTurn = 0;
     }
 
@@ -56,6 +73,7 @@ public class MonopolyModel{
     public MonopolyModel(Board b, ArrayList<Player> p, int pTurn){
         this.board = b;
         this.players = p;
+        this.seats = new ArrayList<>(p);
         this.playerTurn = pTurn;
         this.die = new Dice();
     }
@@ -81,6 +99,41 @@ public class MonopolyModel{
         view = mv;
     }
 
+    /**
+     *  Setter for the GameObserver.
+     */
+    public void addGameObserver(GameObserver go){
+        observer = go;
+    }
+
+    /**
+     * Getter for the GameObserver, AIs tell it about their moves and building, it can be null.
+     */
+    GameObserver getGameObserver() {
+        return observer;
+    }
+
+    /**
+     * Getter for the players that started the game, including players that have been eliminated.
+     */
+    public List<Player> getSeats() {
+        return seats;
+    }
+
+    /**
+     * Getter for the dice.
+     */
+    public Dice getDice() {
+        return die;
+    }
+
+    /**
+     * Getter for the number of turns played in the current game.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
     /**
      * This method is called if a player goes bankrupt, it first removes all the players ownerships and
      * then removes the player from the game.
@@ -171,7 +224,13 @@ public class MonopolyModel{
      */
     public boolean buyProperty(int selection) {
         if (selection == JOptionPane.YES_OPTION) {
-            return this.getPlayer().buy(this.board.getProperty(this.getPlayer().getPosition()));
+            Property property = this.board.getProperty(this.getPlayer().getPosition());
+            if (!this.getPlayer().buy(property)) {
+                return false;
+            }
+            if (observer != null) {
+                observer.propertyBought(this.getPlayer(), this.getPlayer().getPosition(), property.getCost());
+            }
         }
         return true;
     }
@@ -184,8 +243,21 @@ public class MonopolyModel{
      * Refactored by Nathan MacDiarmid - 101098993
      */
     public void payRent(){
+        RentEvent event = RentEvent.enabled() ? new RentEvent() : null;
         this.board.getProperty(this.getPlayer().getPosition()).getOwner().addMoney(this.board.getProperty(this.getPlayer().getPosition()).getRent());
         this.getPlayer().rent(this.board.getProperty(this.getPlayer().getPosition()));
+
+        if (observer != null) {
+            observer.rentPaid(this.getPlayer(), this.getPropertyOwner(), this.getPlayer().getPosition(),
+                    this.board.getProperty(this.getPlayer().getPosition()).getRent());
+        }
+
+        if (event != null && event.shouldCommit()) {
+            event.square = this.getPlayer().getPosition();
+            event.property = this.board.getProperty(event.square).getName();
+            event.amount = this.board.getProperty(event.square).getRent();
+            event.commit();
+        }
     }
 
     /**
@@ -195,7 +267,9 @@ public class MonopolyModel{
      * Created and documented by Nathan MacDiarmid - 101098993
      */
     public void addPlayer(String name) {
-        players.add(new Player(name));
+        Player player = new Player(name);
+        players.add(player);
+        seats.add(player);
     }
 
     /**
@@ -205,7 +279,16 @@ public class MonopolyModel{
      * Created and documented by Matthew Belanger - 101144323
      */
     public void addAI(String name) {
-        players.add(new AI(name));
+        addAI(new AI(name));
+    }
+
+    /**
+     * This method adds an AI that has already been created to the list of players, it allows different
+     * kinds of AI to play the game.
+     */
+    public void addAI(AI ai) {
+        players.add(ai);
+        seats.add(ai);
     }
 
     /**
@@ -238,9 +321,11 @@ public class MonopolyModel{
      */
     public void setRailroadRent() {
         int railroads;
-        for (Player p : players) {
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
             railroads = p.getAmountofRailroads();
-            for (Property pr : p.getPropertiesArray()) {
+            for (int j = 0; j < p.getPropertiesArray().size(); j++) {
+                Property pr = p.getPropertiesArray().get(j);
                 if (pr instanceof Railroad) {
                     pr.updateRent(railroads);
                 }
@@ -258,9 +343,11 @@ public class MonopolyModel{
      */
     public void setUtilityRent(int roll) {
         int utility;
-        for (Player p : players) {
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
             utility = p.getAmountOfUtilities();
-            for (Property pr : p.getPropertiesArray()) {
+            for (int j = 0; j < p.getPropertiesArray().size(); j++) {
+                Property pr = p.getPropertiesArray().get(j);
                 if (pr instanceof Utilities) {
                     if (utility == 1) {
                         pr.updateRent(roll*4);
@@ -281,6 +368,9 @@ public class MonopolyModel{
     public void goToJail() {
         if (this.board.getProperty(this.getPlayer().getPosition()) instanceof GoToJail) {
             ((GoToJail) this.board.getProperty(this.getPlayer().getPosition())).goToJail(this.getPlayer());
+            if (observer != null) {
+                observer.playerJailed(this.getPlayer(), this.getPlayer().getPosition());
+            }
         }
     }
 
@@ -315,6 +405,8 @@ public class MonopolyModel{
      * This method handles the logic behind a player turn, it will be called by view and will increment the player position
      * check the property the player is on as well as the players money and if someone has won. Finally it will change the turn
      * to the next player and then update the view.
+     * Every turn is recorded as a TurnEvent, the event is only created and the phases only timed while it is being
+     * recorded.
      * @param rollValue
      *
      * Created and documented by Matthew Belanger - 101144323 , Tao Lufula - 101164153
@@ -323,6 +415,17 @@ public class MonopolyModel{
     public void playTurn(int rollValue){
 
         do {
+            boolean timed = TurnEvent.enabled();
+            TurnEvent event = timed ? new TurnEvent() : null;
+            long phaseStart = 0;
+            if (timed) {
+                event.begin();
+                event.player = this.getPlayer().getName();
+                event.ai = this.getPlayer() instanceof AI;
+                event.boardType = this.board.getBoardType();
+                phaseStart = System.nanoTime();
+            }
+
             if(this.getPlayer() instanceof AI){
                 ((AI) this.getPlayer()).AITurn(this, view);
             }
@@ -333,30 +436,207 @@ public class MonopolyModel{
                 this.goToJail();
             }
 
+            if (timed) {
+                long now = System.nanoTime();
+                event.moveTime = now - phaseStart;
+                phaseStart = now;
+            }
+
             this.inJail();
 
             this.getPlayer().updatePositionTracker();
 
-            if (getPlayer().getMoney() <= 0) {
+            if (timed) {
+                long now = System.nanoTime();
+                event.jailTime = now - phaseStart;
+                phaseStart = now;
+            }
+
+            this.endTurn();
+
+            if (timed) {
+                event.settleTime = System.nanoTime() - phaseStart;
+                event.commit();
+            }
+
+        }while(this.getPlayer() instanceof AI && !this.isGameOver());
+    }
+
+    /**
+     * This method plays a single AI turn without a view, it is used when AI only games are played headless.
+     * The turn is allocation free once the game has warmed up so large numbers of games can be played without
+     * putting pressure on the garbage collector.
+     *
+     * The player whose turn it is must be an AI.
+     */
+    public void playAITurn(){
+        ((AI) this.getPlayer()).AITurn(this, view);
+
+        this.inJail();
+
+        this.getPlayer().updatePositionTracker();
+
+        this.endTurn();
+    }
+
+    /**
+     * This method finishes the current players turn, it removes the player if they are bankrupt, checks if someone
+     * has won and then passes the turn to the next player. The view is only notified if there is one.
+     */
+    private void endTurn(){
+        this.turnCount++;
+        if (getPlayer().getMoney() <= 0) {
+            if (view != null) {
                 view.playerEliminated();
-                this.removePlayer();
             }
-            if (this.players.size() == 1) {
+            if (observer != null) {
+                observer.playerEliminated(getPlayer(), this.turnCount);
+            }
+            this.removePlayer();
+        }
+        if (this.players.size() == 1) {
+            if (view != null) {
                 view.playerWin();
             }
-            this.playerTurn = (this.playerTurn + 1) % this.players.size();
+            if (observer != null) {
+                observer.playerWon(this.players.get(0), this.turnCount);
+            }
+        }
+        this.playerTurn = (this.playerTurn + 1) % this.players.size();
+        if (publishing) {
+            this.publish();
+        }
+        if (view != null) {
             view.updateStatus();
+        }
+    }
+
+    /**
+     * Turns publishing a GameSnapshot at the end of every turn on or off, it is off by default so headless turns
+     * stay allocation free. Turning it on publishes the current state straight away.
+     * @param publishing whether to publish snapshots
+     */
+    public void setPublishing(boolean publishing) {
+        this.publishing = publishing;
+        if (publishing) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Publishes a snapshot of the current state. It must be called by the thread playing the game once a change is
+     * complete, the snapshot is written to a volatile field so every thread that reads it afterwards sees all of it.
+     */
+    public void publish() {
+        this.snapshot = new GameSnapshot(this);
+        if (snapshotListener != null) {
+            snapshotListener.accept(this.snapshot);
+        }
+    }
+
+    /**
+     * Sets what is given every published snapshot, it is called on the thread playing the game.
+     * @param snapshotListener the listener, null for none
+     */
+    public void setSnapshotListener(Consumer<GameSnapshot> snapshotListener) {
+        this.snapshotListener = snapshotListener;
+    }
+
+    /**
+     * Returns the last published snapshot, it can be called from any thread.
+     * @return the snapshot, null if none has been published
+     */
+    public GameSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Checks if the game is over.
+     * @return a boolean value whether only one player is left.
+     */
+    public boolean isGameOver(){
+        return this.players.size() <= 1;
+    }
+
+    /**
+     * This method starts a new game on the same board with the same players. All of the existing Board, Player and
+     * Property objects are reused so a headless game can be restarted without allocating.
+     */
+    public void reset(){
+        reset(0);
+    }
 
-        }while(this.getPlayer() instanceof AI);
+    /**
+     * This method starts a new game like reset() but the turn order is rotated so the given seat goes first,
+     * the seats keep their index in getSeats(). Rotating the first seat removes the advantage of going first when
+     * players are compared.
+     * @param firstSeat the index of the seat that goes first
+     */
+    public void reset(int firstSeat){
+        this.board.reset();
+        this.players.clear();
+        for (int i = 0; i < this.seats.size(); i++) {
+            Player player = this.seats.get((i + firstSeat) % this.seats.size());
+            player.reset();
+            this.players.add(player);
+        }
+        this.playerTurn = 0;
+        this.turnCount = 0;
+        if (publishing) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Copies the state of another game on the same type of board into this one so it can be played on without
+     * touching the original. The first players of this game's seats take the places of the players still in the
+     * other game, in turn order, so this game needs at least as many seats.
+     * @param other the game to copy
+     */
+    public void copyFrom(MonopolyModel other) {
+        this.players.clear();
+        for (int i = 0; i < other.players.size(); i++) {
+            Player player = this.seats.get(i);
+            player.copyFrom(other.players.get(i), this.board, other.board);
+            this.players.add(player);
+        }
+        for (int i = 0; i < this.board.getProperties().size(); i++) {
+            Property property = this.board.getProperty(i);
+            Property otherProperty = other.board.getProperty(i);
+            int owner = other.players.indexOf(otherProperty.getOwner());
+            property.copyFrom(otherProperty, owner < 0 ? null : this.players.get(owner));
+            if (property instanceof Jail) {
+                ((Jail) property).copyFrom((Jail) otherProperty, this.players, other.players);
+            }
+        }
+        this.playerTurn = other.playerTurn;
+        this.turnCount = other.turnCount;
+        if (publishing) {
+            this.publish();
+        }
+    }
+
+    /**
+     * Finishes the current players turn after they have moved and made their decisions, the same way playTurn()
+     * does. A copied game can be continued from the middle of a turn with it.
+     */
+    public void finishTurn() {
+        this.goToJail();
+        this.inJail();
+        this.getPlayer().updatePositionTracker();
+        this.endTurn();
     }
 
     /**
      * This method exports the current Monopoly model into multiple xml files, first there is a file to save the board,
      * next is a file to save the players, and finally a file to save the board type and whos turn it is.
+     * The save is recorded as a SaveGameEvent.
      *
      * Created and documented by Matthew Belanger - 101144323
      */
     public void exportToXmlFile(){
+        SaveGameEvent event = new SaveGameEvent();
+        event.begin();
         try {
             Writer w = new FileWriter(SAVEBOARDFILE);
             w.write(this.board.toXML(0));
@@ -379,17 +659,33 @@ public class MonopolyModel{
             w3.write("<BoardType>"+this.board.getBoardType()+"</BoardType>\n");
             w3.write("</OtherInfo>");
             w3.close();
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = saveFilesSize();
+                event.players = this.players.size();
+                event.commit();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns the combined size of the three save files, used when recording save and load events.
+     *
+     * @return the size of the save files in bytes
+     */
+    private static long saveFilesSize() {
+        return new File(SAVEBOARDFILE).length() + new File(SAVEPLAYERSFILE).length() + new File(OTHERINFOFILE).length();
+    }
+
     /**
      * This method imports a saved version of monopolyModel from the saved files using the defined SAX handlers to
      * parse the files. First the board file is parsed and a list of all the properties is returned. Next the player
      * file is parsed and a list of all players is returned. Next all of the properties are assigned their current owner.
      * Finally the other info file is parsed and the player turn and board type is returned. Now that we have all the
-     * required information a new model is created and returned.
+     * required information a new model is created and returned. The load is recorded as a LoadGameEvent.
      *
      * @return a MonopolyModel object
      *
@@ -397,6 +693,8 @@ public class MonopolyModel{
      */
     public static MonopolyModel importFromXmlFile(){
 
+        LoadGameEvent event = new LoadGameEvent();
+        event.begin();
         SAXParserFactory factory = SAXParserFactory.newInstance();
 
         try {
@@ -438,6 +736,13 @@ public class MonopolyModel{
             Board board = new Board(handler3.getBoardType());
             board.setBoard(handler3.getBoardType(), properties);
 
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = saveFilesSize();
+                event.players = players.size();
+                event.commit();
+            }
+
             return new MonopolyModel(board, (ArrayList<Player>) players, handler3.getTurn());
 
         } catch (ParserConfigurationException | SAXException | IOException e) {
@@ -446,4 +751,109 @@ public class MonopolyModel{
         return null;
     }
 
-}
\ No newline at end of file
+    /**
+     * Writes the state of the game in a compact binary form, it is a few hundred bytes where the objects of a game
+     * take many kilobytes. The board type and the AIs' strategies aren't written, they are given back to
+     * readFrom(). The game can't have a view.
+     *
+     * The form is the turn count, whose turn it is and the number of players, then for each player whether they
+     * are an AI, their name, money, position, position tracker, whether they are jailed and the squares they own
+     * in the order they bought them, then the rent and buildings of every square and finally who is in jail.
+     * @param buffer the buffer to write to
+     */
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putInt(this.turnCount);
+        buffer.put((byte) this.playerTurn);
+        buffer.put((byte) this.players.size());
+        for (int i = 0; i < this.players.size(); i++) {
+            Player player = this.players.get(i);
+            byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+            buffer.put((byte) (player instanceof AI ? 1 : 0));
+            buffer.putShort((short) name.length);
+            buffer.put(name);
+            buffer.putInt(player.getMoney());
+            buffer.put((byte) player.getPosition());
+            buffer.put((byte) player.getPositionTracker());
+            buffer.put((byte) (player.getJailed() ? 1 : 0));
+            buffer.put((byte) player.getPropertiesOwned().size());
+            for (int j = 0; j < player.getPropertiesOwned().size(); j++) {
+                buffer.put((byte) this.board.getProperties().indexOf(player.getPropertiesOwned().get(j)));
+            }
+        }
+        Jail jail = null;
+        for (int i = 0; i < this.board.getProperties().size(); i++) {
+            Property property = this.board.getProperty(i);
+            property.writeTo(buffer);
+            if (property instanceof Jail) {
+                jail = (Jail) property;
+            }
+        }
+        if (jail != null) {
+            buffer.put((byte) jail.getJailedPlayers().size());
+            for (int i = 0; i < jail.getJailedPlayers().size(); i++) {
+                buffer.put((byte) this.players.indexOf(jail.getJailedPlayers().get(i)));
+            }
+            for (int i = 0; i < jail.getJailedTurns().length; i++) {
+                buffer.put((byte) jail.getJailedTurns()[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a game written by writeTo().
+     * @param buffer the buffer to read from
+     * @param board a new board of the type the game was played on
+     * @param strategies the strategy of each player, in turn order, null for the players that aren't AIs
+     * @return the game
+     */
+    public static MonopolyModel readFrom(ByteBuffer buffer, Board board, List<Strategy> strategies) {
+        int turnCount = buffer.getInt();
+        int playerTurn = buffer.get();
+        int size = buffer.get();
+        ArrayList<Player> players = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean ai = buffer.get() == 1;
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            Player player = ai ? new AI(new String(name, StandardCharsets.UTF_8), strategies.get(i))
+                    : new Player(new String(name, StandardCharsets.UTF_8));
+            player.setMoney(buffer.getInt());
+            player.setPosition(buffer.get());
+            player.setPositionTracker(buffer.get());
+            player.setJailed(buffer.get() == 1);
+            int owned = buffer.get();
+            for (int j = 0; j < owned; j++) {
+                player.addProperty(board.getProperty(buffer.get()));
+            }
+            players.add(player);
+        }
+        for (int i = 0; i < players.size(); i++) {
+            for (int j = 0; j < players.get(i).getPropertiesOwned().size(); j++) {
+                players.get(i).getPropertiesOwned().get(j).setOwner(players.get(i));
+            }
+        }
+        Jail jail = null;
+        for (int i = 0; i < board.getProperties().size(); i++) {
+            Property property = board.getProperty(i);
+            property.readFrom(buffer);
+            if (property instanceof Jail) {
+                jail = (Jail) property;
+            }
+        }
+        if (jail != null) {
+            int jailed = buffer.get();
+            for (int i = 0; i < jailed; i++) {
+                int player = buffer.get();
+                // players that went bankrupt in jail keep their place in the list
+                jail.getJailedPlayers().add(player < 0 ? new Player() : players.get(player));
+            }
+            for (int i = 0; i < jail.getJailedTurns().length; i++) {
+                jail.getJailedTurns()[i] = buffer.get();
+            }
+        }
+        MonopolyModel model = new MonopolyModel(board, players, playerTurn);
+        model.turnCount = turnCount;
+        return model;
+    }
+
+}
@@ -1,6 +1,10 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MonopolyModelTest {
@@ -392,4 +396,107 @@ public class MonopolyModelTest {
             assertTrue(model.getBoard().getProperties().get(i).getName().equals(model2.getBoard().getProperties().get(i).getName()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * This test verifies that seeded dice always roll the same sequence and that antithetic dice roll the mirror
+     * image of it.
+     */
+    @Test
+    public void seededDiceTest() {
+        Dice dice = new Dice(3110);
+        Dice same = new Dice(3110);
+        Dice mirrored = new Dice(3110);
+        mirrored.setAntithetic(true);
+
+        for (int i = 0; i < 100; i++) {
+            int roll = dice.roll();
+            assertEquals(roll, same.roll());
+            assertEquals(14 - roll, mirrored.roll());
+            assertEquals(dice.isDoubles(), mirrored.isDoubles());
+        }
+    }
+
+    /**
+     * This test verifies that resetting with a first seat rotates the turn order but keeps the seats.
+     */
+    @Test
+    public void resetRotationTest() {
+        model.addPlayer("Player3");
+        model.reset(2);
+
+        assertEquals("Player3", model.getPlayer().getName());
+        assertEquals("Player1", model.getPlayers().get(1).getName());
+        assertEquals("Player1", model.getSeats().get(0).getName());
+    }
+
+    /**
+     * This test verifies that copyFrom copies the game and that playing on the copy leaves the original alone.
+     */
+    @Test
+    public void copyFromTest() {
+        model.getPlayer().addPosition(1);
+        model.getPlayer().buy(model.getBoard().getProperty(1));
+        model.getPlayer().buyHouse(model.getBoard().getProperty(1).getName());
+
+        MonopolyModel copy = new MonopolyModel(CARLETON);
+        copy.addAI("Copy1");
+        copy.addAI("Copy2");
+        copy.copyFrom(model);
+
+        assertEquals(model.getPlayer().getMoney(), copy.getPlayer().getMoney());
+        assertEquals(1, copy.getPlayer().getPosition());
+        assertSame(copy.getPlayer(), copy.getBoard().getProperty(1).getOwner());
+        assertTrue(copy.getBoard().getProperty(1).hasHouse());
+        assertSame(copy.getBoard().getProperty(1), copy.getPlayer().getPropertiesOwned().get(0));
+
+        copy.finishTurn();
+        copy.getPlayer().addMoney(-100);
+        assertEquals("Player1", model.getPlayer().getName());
+        assertEquals(1500, model.getPlayers().get(1).getMoney());
+    }
+
+    /**
+     * This test verifies that a game read back by readFrom is the same as the game that was written.
+     */
+    @Test
+    public void writeToTest() {
+        MonopolyModel game = new MonopolyModel(CARLETON);
+        game.addAI("AI1");
+        game.addPlayer("Player");
+        game.addAI(new AI("AI2", Strategy.forName("roi")));
+        for (int turn = 0; turn < 60 && !game.isGameOver(); turn++) {
+            if (game.getPlayer() instanceof AI) {
+                game.playAITurn();
+            }
+            else {
+                game.getPlayer().addPosition(game.roll());
+                game.finishTurn();
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        game.writeTo(buffer);
+        buffer.flip();
+        List<Strategy> strategies = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            strategies.add(player instanceof AI ? ((AI) player).getStrategy() : null);
+        }
+        MonopolyModel copy = MonopolyModel.readFrom(buffer, Board.copyOf(CARLETON), strategies);
+
+        assertEquals(game.getTurnCount(), copy.getTurnCount());
+        assertEquals(game.getPlayer().getName(), copy.getPlayer().getName());
+        for (int i = 0; i < game.getPlayers().size(); i++) {
+            assertEquals(game.getPlayers().get(i).toString(), copy.getPlayers().get(i).toString());
+            assertEquals(game.getPlayers().get(i) instanceof AI, copy.getPlayers().get(i) instanceof AI);
+        }
+        for (int i = 0; i < game.getBoard().getProperties().size(); i++) {
+            assertEquals(game.getBoard().getProperty(i).toString(), copy.getBoard().getProperty(i).toString());
+        }
+
+        ByteBuffer again = ByteBuffer.allocate(4096);
+        copy.writeTo(again);
+        again.flip();
+        buffer.rewind();
+        assertEquals(buffer, again);
+    }
+}
@@ -18,6 +18,8 @@ public class MonopolyView extends JFrame {
     private final ArrayList<JButton> propertyButtons;
     private final int BOARDLENGTH = 8;
     private static final int BOARDSIZE = 32;
+    private static final long HINTDEADLINE = 150;
+    private final WhatIfEvaluator whatIf = new WhatIfEvaluator();
 
     /**
      * This constructor will set up the GUI as well as initialize all attributes, it will call
@@ -311,8 +313,8 @@ public class MonopolyView extends JFrame {
         passGo();
 
         if (model.checkProperty()) {
-            int input = JOptionPane.showOptionDialog(this, "Would you like to buy this property?"
-                    + "\n" + model.getPropertyInfo(),
+            int input = JOptionPane.showOptionDialog(this, new Object[] {"Would you like to buy this property?"
+                    + "\n" + model.getPropertyInfo(), buyHints()},
                     "Buy Property", JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE,
                     null, null, null);
             if (!model.buyProperty(input)) {
@@ -340,6 +342,33 @@ public class MonopolyView extends JFrame {
 
     }
 
+    /**
+     * Estimates how buying or passing on the current property works out over the next turns. The rollouts are
+     * played off the event thread, the dialog shows up right away and the hints fill in once the short deadline
+     * has passed.
+     * @return the hints for the Buy Property dialog
+     */
+    private JTextArea buyHints() {
+        JTextArea hints = new JTextArea("\nHints: thinking...");
+        hints.setEditable(false);
+        hints.setOpaque(false);
+        whatIf.evaluateLater(model, HINTDEADLINE).thenAccept(results -> SwingUtilities.invokeLater(() -> {
+            StringBuilder text = new StringBuilder("\nHints:");
+            for (int i = 0; i < results.size(); i++) {
+                int action = results.get(i).getAction();
+                if (action == WhatIfEvaluator.BUY || action == WhatIfEvaluator.PASS) {
+                    text.append("\n").append(results.get(i));
+                }
+            }
+            hints.setText(text.toString());
+            Window dialog = SwingUtilities.getWindowAncestor(hints);
+            if (dialog != null) {
+                dialog.pack();
+            }
+        }));
+        return hints;
+    }
+
     /**
      * Creates a JOptionPane displaying what properties the AI bought on their turn.
      *
@@ -452,12 +481,24 @@ public class MonopolyView extends JFrame {
                     model.addPlayer(getName.getText());
                 }
                 else if(result == JOptionPane.NO_OPTION){
-                    model.addAI(getName.getText() + "_AI");
+                    model.addAI(new AI(getName.getText() + "_AI", TimedStrategy.forLiveGame(chooseStrategy())));
                 }
             }
         }
     }
 
+    /**
+     * This method allows players to choose the strategy an AI plays.
+     * @return the name of the chosen strategy, the default strategy if none is chosen
+     */
+    public String chooseStrategy() {
+        Object[] options = Strategy.names().toArray();
+
+        Object choice = JOptionPane.showInputDialog(this, "Choose how the AI plays", "AI Strategy",
+                JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        return choice == null ? new DefaultStrategy().getName() : choice.toString();
+    }
+
     /**
      * Handles the String output when playing different types of boards.
      * @return a String type of the currency for said board.
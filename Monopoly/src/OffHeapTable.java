@@ -0,0 +1,82 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OffHeapTable {
+    /**
+     * The OffHeapTable class
+     *
+     * A fixed size hash table of search results kept in direct memory, outside of the Java heap, so a table of
+     * millions of entries doesn't add to garbage collection. Each entry is 16 bytes, the stored data and the key
+     * XOR the data. Threads read and write entries without locking, a torn entry written by two threads at once
+     * no longer matches its key and is treated as a miss. A new entry always replaces the old one in its slot.
+     *
+     * The memory is split into segments of at most 1 GB since a single direct buffer can't be larger than 2 GB.
+     *
+     * @attribute segments the direct buffers holding the entries
+     * @attribute mask the number of entries minus one, the number of entries is a power of two
+     */
+    private static final int ENTRYBYTES = 16;
+    private static final int SEGMENTSHIFT = 26;
+    private static final long MINIMUMBYTES = 1024;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer[] segments;
+    private final long mask;
+
+    /**
+     * Creates a table using at most the given number of bytes.
+     * @param memoryCap the most bytes of direct memory to use
+     */
+    public OffHeapTable(long memoryCap) {
+        long entries = Long.highestOneBit(Math.max(MINIMUMBYTES, memoryCap) / ENTRYBYTES);
+        long perSegment = Math.min(entries, 1L << SEGMENTSHIFT);
+        this.segments = new ByteBuffer[(int) (entries / perSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) (perSegment * ENTRYBYTES));
+        }
+        this.mask = entries - 1;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory the table uses.
+     */
+    public long getBytes() {
+        return (mask + 1) * ENTRYBYTES;
+    }
+
+    /**
+     * Stores data under a key, data must not be 0.
+     */
+    public void put(long key, long data) {
+        long entry = key & mask;
+        ByteBuffer segment = segments[(int) (entry >>> SEGMENTSHIFT)];
+        int offset = (int) (entry & ((1L << SEGMENTSHIFT) - 1)) * ENTRYBYTES;
+        LONGS.setOpaque(segment, offset, key ^ data);
+        LONGS.setOpaque(segment, offset + 8, data);
+    }
+
+    /**
+     * Returns the data stored under a key, or 0 if there is none.
+     */
+    public long get(long key) {
+        long entry = key & mask;
+        ByteBuffer segment = segments[(int) (entry >>> SEGMENTSHIFT)];
+        int offset = (int) (entry & ((1L << SEGMENTSHIFT) - 1)) * ENTRYBYTES;
+        long check = (long) LONGS.getOpaque(segment, offset);
+        long data = (long) LONGS.getOpaque(segment, offset + 8);
+        return (check ^ data) == key ? data : 0;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        for (int i = 0; i < segments.length; i++) {
+            for (int offset = 0; offset < segments[i].capacity(); offset += 8) {
+                LONGS.setOpaque(segments[i], offset, 0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+public class ParameterizedStrategy implements Strategy {
+    /**
+     * The ParameterizedStrategy class
+     *
+     * A strategy whose decisions are controlled by a vector of parameters so it can be tuned by the StrategyTuner
+     * instead of by hand. The parameters are, in order:
+     *
+     * - CASHRESERVE the money the AI tries to keep after buying a property,
+     * - STREETPREFERENCE, RAILROADPREFERENCE, UTILITYPREFERENCE how much of the cash reserve the AI is willing to
+     *   spend on each type of property, 0 keeps the whole reserve and 1 buys whenever it can afford to,
+     * - HOUSETHRESHOLD the money the AI must have left after buying a house,
+     * - HOTELTHRESHOLD the money the AI must have left after buying a hotel.
+     *
+     * The strategy waits in jail, the parameters were tuned without the option to pay the fine.
+     *
+     * @attribute parameters the parameters of the strategy, null to use the tuned parameters of the board played on
+     */
+    static final int CASHRESERVE = 0;
+    static final int STREETPREFERENCE = 1;
+    static final int RAILROADPREFERENCE = 2;
+    static final int UTILITYPREFERENCE = 3;
+    static final int HOUSETHRESHOLD = 4;
+    static final int HOTELTHRESHOLD = 5;
+    static final int PARAMETERS = 6;
+
+    static final double[] LOWERBOUNDS = {0, 0, 0, 0, 0, 0};
+    static final double[] UPPERBOUNDS = {1500, 1, 1, 1, 2000, 2000};
+
+    /**
+     * The tuned parameters for each board, found with StrategyTuner against three default AIs
+     * (java StrategyTuner 4 25 600 3110). Canada and World have the same costs and rents.
+     */
+    private static final double[][] BOARDDEFAULTS = {
+            {111.0, 0.682, 0.215, 0.811, 452.5, 422.8},
+            {309.5, 0.818, 0.869, 0.719, 532.8, 561.4},
+            {111.6, 0.619, 0.697, 0.749, 486.2, 476.4},
+            {309.5, 0.818, 0.869, 0.719, 532.8, 561.4}
+    };
+
+    private final double[] parameters;
+
+    /**
+     * Default constructor for ParameterizedStrategy, it plays with the tuned parameters of the board.
+     */
+    public ParameterizedStrategy() {
+        this.parameters = null;
+    }
+
+    /**
+     * Constructor for a ParameterizedStrategy with the given parameters.
+     * @param parameters the parameters of the strategy, they are copied
+     */
+    public ParameterizedStrategy(double[] parameters) {
+        if (parameters.length != PARAMETERS) {
+            throw new IllegalArgumentException("A ParameterizedStrategy needs " + PARAMETERS + " parameters");
+        }
+        this.parameters = parameters.clone();
+    }
+
+    /**
+     * Returns the parameters used on the board of the model.
+     */
+    private double[] parameters(MonopolyModel model) {
+        return parameters != null ? parameters : BOARDDEFAULTS[model.getBoard().getBoardType()];
+    }
+
+    @Override
+    public String getName() {
+        return "tuned";
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        return false;
+    }
+
+    /**
+     * Buys the property if the money left afterwards covers the part of the cash reserve the AI keeps for this
+     * type of property.
+     */
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        double[] p = parameters(model);
+        double preference;
+        if (property instanceof Railroad) {
+            preference = p[RAILROADPREFERENCE];
+        }
+        else if (property instanceof Utilities) {
+            preference = p[UTILITYPREFERENCE];
+        }
+        else {
+            preference = p[STREETPREFERENCE];
+        }
+        return ai.getMoney() - property.getCost() >= p[CASHRESERVE] * (1 - preference);
+    }
+
+    /**
+     * Builds a house on the first property without one while the money left afterwards stays above the threshold.
+     */
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        if (ai.getMoney() - Player.HOUSECOST < parameters(model)[HOUSETHRESHOLD]) {
+            return null;
+        }
+        for (int i = 0; i < ai.getPropertiesOwned().size(); i++) {
+            Property property = ai.getPropertiesOwned().get(i);
+            if (AI.canHaveBuildings(property) && !property.hasHouse()) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds a hotel on the first property with a house while the money left afterwards stays above the threshold.
+     */
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        if (ai.getMoney() - Player.HOTELCOST < parameters(model)[HOTELTHRESHOLD]) {
+            return null;
+        }
+        for (int i = 0; i < ai.getPropertiesOwned().size(); i++) {
+            Property property = ai.getPropertiesOwned().get(i);
+            if (AI.canHaveBuildings(property) && property.hasHouse() && !property.hasHotel()) {
+                return property;
+            }
+        }
+        return null;
+    }
+}
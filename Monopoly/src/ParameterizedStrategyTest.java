@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterizedStrategyTest {
+    /**
+     * These tests verify that a ParameterizedStrategy without parameters plays with the tuned parameters of the
+     * board it is on, and that explicit parameters are used on every board.
+     */
+    private final static int STREET = 1;
+
+    /**
+     * Creates a game on a board with the AI in the first seat holding the given money more than the price of the
+     * first street.
+     */
+    private static MonopolyModel newModel(int boardType, AI ai, int moneyOverCost) {
+        MonopolyModel model = new MonopolyModel(boardType);
+        model.addAI(ai);
+        model.addAI("AI2");
+        ai.setMoney(model.getBoard().getProperty(STREET).getCost() + moneyOverCost);
+        return model;
+    }
+
+    /**
+     * This test verifies that the cash reserve kept for streets comes from the tuned parameters of each board:
+     * about $35 on the Carleton board and about $56 on the Canada board.
+     */
+    @Test
+    public void boardDefaultsTest() {
+        AI ai = new AI("Tuned", new ParameterizedStrategy());
+        ParameterizedStrategy strategy = (ParameterizedStrategy) ai.getStrategy();
+
+        MonopolyModel carleton = newModel(0, ai, 30);
+        assertFalse(strategy.buy(carleton, ai, carleton.getBoard().getProperty(STREET)));
+        ai.setMoney(carleton.getBoard().getProperty(STREET).getCost() + 40);
+        assertTrue(strategy.buy(carleton, ai, carleton.getBoard().getProperty(STREET)));
+
+        MonopolyModel canada = newModel(1, ai, 40);
+        assertFalse(strategy.buy(canada, ai, canada.getBoard().getProperty(STREET)));
+        ai.setMoney(canada.getBoard().getProperty(STREET).getCost() + 60);
+        assertTrue(strategy.buy(canada, ai, canada.getBoard().getProperty(STREET)));
+    }
+
+    /**
+     * This test verifies that explicit parameters replace the board defaults, are copied and must be complete.
+     */
+    @Test
+    public void explicitParametersTest() {
+        double[] parameters = {1000, 0, 0, 0, 2000, 2000};
+        AI ai = new AI("Reserved", new ParameterizedStrategy(parameters));
+        ParameterizedStrategy strategy = (ParameterizedStrategy) ai.getStrategy();
+        parameters[0] = 0;
+
+        for (int boardType = 0; boardType < 2; boardType++) {
+            MonopolyModel model = newModel(boardType, ai, 999);
+            assertFalse(strategy.buy(model, ai, model.getBoard().getProperty(STREET)));
+            ai.setMoney(model.getBoard().getProperty(STREET).getCost() + 1000);
+            assertTrue(strategy.buy(model, ai, model.getBoard().getProperty(STREET)));
+            assertNull(strategy.buildHouse(model, ai));
+            assertNull(strategy.buildHotel(model, ai));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new ParameterizedStrategy(new double[3]));
+    }
+}
@@ -24,6 +24,9 @@ public class Player{
     private List<Property> propertiesOwned;
     private boolean jailed;
     private static final int BOARDSIZE = 32;
+    private static final int STARTINGMONEY = 1500;
+    static final int HOUSECOST = 50;
+    static final int HOTELCOST = 100;
 
 
     public Player(){
@@ -42,13 +45,43 @@ public class Player{
      */
     public Player(String name) {
         this.name = name;
-        this.money = 1500;
+        this.money = STARTINGMONEY;
         this.position = 0;
         this.propertiesOwned = new ArrayList<>();
         this.positionTracker = 0;
         boolean jailed = false;
     }
 
+    /**
+     * Resets the Player for a new game, the Player keeps their name and the list of properties is cleared
+     * rather than replaced.
+     */
+    public void reset() {
+        this.money = STARTINGMONEY;
+        this.position = 0;
+        this.positionTracker = 0;
+        this.propertiesOwned.clear();
+        this.jailed = false;
+    }
+
+    /**
+     * Copies the money, position and jail state of a Player in another game, the properties are the ones at the
+     * same squares of this game's board.
+     * @param other the Player in the other game
+     * @param board the board of this game
+     * @param otherBoard the board of the other game
+     */
+    public void copyFrom(Player other, Board board, Board otherBoard) {
+        this.money = other.money;
+        this.position = other.position;
+        this.positionTracker = other.positionTracker;
+        this.jailed = other.jailed;
+        this.propertiesOwned.clear();
+        for (int i = 0; i < other.propertiesOwned.size(); i++) {
+            this.propertiesOwned.add(board.getProperty(otherBoard.getProperties().indexOf(other.propertiesOwned.get(i))));
+        }
+    }
+
     /**
      * Default setter for name.
      * @param name
@@ -241,12 +274,12 @@ public class Player{
      * Created and documented by Matthew Belanger - 101144323
      */
     public String getProperties(){
-        String s = "Properties owned: ";
+        StringBuilder s = new StringBuilder("Properties owned: ");
 
         for(int i = 0; i < this.propertiesOwned.size(); i++){
-            s += "\n" + this.propertiesOwned.get(i).getName();
+            s.append("\n").append(this.propertiesOwned.get(i).getName());
         }
-        return s ;
+        return s.toString();
     }
 
     /**
@@ -257,12 +290,12 @@ public class Player{
      * Created and documented by Matthew Belanger - 101144323
      */
     public String getPropertiesForController(){
-        String s = "";
+        StringBuilder s = new StringBuilder();
 
         for(int i = 0; i < this.propertiesOwned.size(); i++){
-            s += "<br>" + this.propertiesOwned.get(i).getName();
+            s.append("<br>").append(this.propertiesOwned.get(i).getName());
         }
-        return s ;
+        return s.toString();
     }
 
     /**
@@ -288,8 +321,8 @@ public class Player{
      */
     public int getAmountofRailroads() {
         int count = 0;
-        for (Property p: propertiesOwned) {
-            if (p instanceof Railroad) {
+        for (int i = 0; i < propertiesOwned.size(); i++) {
+            if (propertiesOwned.get(i) instanceof Railroad) {
                 count++;
             }
         }
@@ -303,14 +336,33 @@ public class Player{
      */
     public int getAmountOfUtilities() {
         int count = 0;
-        for (Property p: propertiesOwned) {
-            if (p instanceof Utilities) {
+        for (int i = 0; i < propertiesOwned.size(); i++) {
+            if (propertiesOwned.get(i) instanceof Utilities) {
                 count++;
             }
         }
         return count;
     }
 
+    /**
+     * Returns the net worth of the player, their money plus what they paid for their properties, houses and hotels.
+     *
+     * @return the int net worth of the Player
+     */
+    public int getNetWorth() {
+        int worth = this.money;
+        for (int i = 0; i < propertiesOwned.size(); i++) {
+            worth += propertiesOwned.get(i).getCost();
+            if (propertiesOwned.get(i).hasHouse()) {
+                worth += HOUSECOST;
+            }
+            if (propertiesOwned.get(i).hasHotel()) {
+                worth += HOTELCOST;
+            }
+        }
+        return worth;
+    }
+
     /**
      * Getter for the list of properties.
      */
@@ -332,7 +384,7 @@ public class Player{
                propertiesOwned.get(i).setHasHouse(true);
            }
        }
-       this.money -= 50;
+       this.money -= HOUSECOST;
     }
 
     /**
@@ -348,7 +400,7 @@ public class Player{
                 propertiesOwned.get(i).setHasHotel(true);
             }
         }
-        this.money -= 100;
+        this.money -= HOTELCOST;
     }
 
     /**
@@ -360,11 +412,7 @@ public class Player{
      * Created and documented by Matthew Belanger - 101144323
      */
     private String tabGenerator(int tabs){
-        String s = "";
-        for(int i = 0; i < tabs; i++){
-            s += "\t";
-        }
-        return s;
+        return "\t".repeat(tabs);
     }
 
     /**
@@ -378,6 +426,9 @@ public class Player{
     public String toXML(int tabs, boolean isAI) {
         String s = tabGenerator(tabs) + "<Player>\n";
         s += tabGenerator(tabs+1) + "<isAI>" + isAI + "</isAI>\n";
+        if (this instanceof AI) {
+            s += tabGenerator(tabs+1) + "<strategy>" + ((AI) this).getStrategy().getName() + "</strategy>\n";
+        }
         s += tabGenerator(tabs+1) + "<name>" + this.name + "</name>\n";
         s += tabGenerator(tabs+1) + "<money>" + this.money + "</money>\n";
         s += tabGenerator(tabs+1) + "<position>" + this.position + "</position>\n";
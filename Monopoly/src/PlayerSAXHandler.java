@@ -54,6 +54,13 @@ public class PlayerSAXHandler extends DefaultHandler {
                 currentPlayer = new AI("");
             }
         }
+        if (qName.equalsIgnoreCase("strategy") && currentPlayer instanceof AI) {
+            try {
+                ((AI) currentPlayer).setStrategy(TimedStrategy.forLiveGame(currentValue.toString()));
+            } catch (IllegalArgumentException e) {
+                e.printStackTrace();
+            }
+        }
         if (qName.equalsIgnoreCase("name")) {
             currentPlayer.setName(currentValue.toString());
         }
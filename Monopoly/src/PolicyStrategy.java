@@ -0,0 +1,111 @@
+public class PolicyStrategy implements Strategy {
+    /**
+     * The PolicyStrategy class
+     *
+     * A strategy that looks every decision up in the PolicyTable of the board instead of working it out, so a
+     * decision costs one read of memory. It is meant for servers where thousands of AIs play at once. Boards
+     * without a table file are played like the ROIStrategy.
+     *
+     * The opponents and their threat don't change during the AI's turn, so the table's turn key is worked out on
+     * the first decision of a turn and kept for the others.
+     *
+     * @attribute fallback the strategy played on boards without a table
+     * @attribute keyModel the game the turn key was worked out for
+     * @attribute keyAI the AI the turn key was worked out for
+     * @attribute keyTurn the turn the turn key was worked out for
+     * @attribute turnKey the opponents and their threat on that turn
+     */
+    private final Strategy fallback = new ROIStrategy();
+    private MonopolyModel keyModel;
+    private AI keyAI;
+    private int keyTurn;
+    private int turnKey;
+
+    @Override
+    public String getName() {
+        return "policy";
+    }
+
+    /**
+     * Returns the table's turn key for this turn of the AI, it is only worked out on the first decision of a turn.
+     */
+    private int turnKey(MonopolyModel model, AI ai) {
+        if (model != keyModel || ai != keyAI || model.getTurnCount() != keyTurn) {
+            keyModel = model;
+            keyAI = ai;
+            keyTurn = model.getTurnCount();
+            turnKey = PolicyTable.turnKey(model, ai);
+        }
+        return turnKey;
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        PolicyTable table = PolicyTable.forBoard(model.getBoard());
+        if (table == null) {
+            return fallback.leaveJail(model, ai);
+        }
+        return (table.get(ai.getPosition(), ai.getMoney(), 0, turnKey(model, ai)) & PolicyTable.LEAVEJAIL) != 0;
+    }
+
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        PolicyTable table = PolicyTable.forBoard(model.getBoard());
+        if (table == null) {
+            return fallback.buy(model, ai, property);
+        }
+        int square = ai.getPosition();
+        if (model.getBoard().getProperty(square) != property) {
+            square = model.getBoard().getProperties().indexOf(property);
+            if (square < 0) {
+                return false;
+            }
+        }
+        int owned = PolicyTable.owned(ai, property);
+        return (table.get(square, ai.getMoney(), owned, turnKey(model, ai)) & PolicyTable.BUY) != 0;
+    }
+
+    /**
+     * Returns the street the table says to build on that earns the most extra rent, or null if there is none.
+     * @param hotel whether to look for a hotel instead of a house
+     */
+    private Property build(MonopolyModel model, AI ai, boolean hotel) {
+        Board board = model.getBoard();
+        PolicyTable table = PolicyTable.forBoard(board);
+        LandingProbabilities landing = LandingProbabilities.forBoard(board);
+        int key = turnKey(model, ai);
+        int owned = PolicyTable.streets(ai);
+        Property best = null;
+        double bestRent = 0;
+        for (int square = 0; square < board.getProperties().size(); square++) {
+            Property property = board.getProperty(square);
+            if (property.getOwner() != ai || !AI.canHaveBuildings(property) || property.hasHotel()
+                    || property.hasHouse() != hotel) {
+                continue;
+            }
+            int decision = table.get(square, ai.getMoney(), owned, key);
+            double rent = hotel ? landing.getHotelRent(square) : landing.getHouseRent(square);
+            if ((decision & (hotel ? PolicyTable.HOTEL : PolicyTable.HOUSE)) != 0 && rent > bestRent) {
+                best = property;
+                bestRent = rent;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        if (PolicyTable.forBoard(model.getBoard()) == null) {
+            return fallback.buildHouse(model, ai);
+        }
+        return build(model, ai, false);
+    }
+
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        if (PolicyTable.forBoard(model.getBoard()) == null) {
+            return fallback.buildHotel(model, ai);
+        }
+        return build(model, ai, true);
+    }
+}
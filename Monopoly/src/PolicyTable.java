@@ -0,0 +1,299 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class PolicyTable {
+    /**
+     * The PolicyTable class
+     *
+     * The buying and building decisions of a board worked out ahead of time and kept in a file that is mapped into
+     * memory, so an AI decides with a single read instead of a calculation. Many AIs playing at once share the same
+     * pages of memory and the operating system only loads the parts of the file that are used.
+     *
+     * A decision is looked up by a short signature of the game: the square, the AI's money in buckets of
+     * CASHBUCKET, how many properties of the square's kind (streets, railroads or utilities) the AI owns, the
+     * number of opponents and how threatening the opponents are, which is the highest rent they can charge in
+     * thirds of the highest rent on the board. Each signature has one byte whose bits say whether to buy the
+     * square, build a house or a hotel on it and, on the jail, whether to pay the fine. The opponents and their
+     * threat only change between the AI's turns, so they are combined into a turn key once per turn and a decision
+     * only adds the square, money and properties owned to it.
+     *
+     * The decisions follow the rules of the ROIStrategy, a square is bought or built on when it pays for itself
+     * within a horizon, but the money kept back is the rent the opponents can charge now instead of the highest
+     * rent on the board. The tables are written by running this class and read back with forBoard().
+     *
+     * @attribute entries the decisions, one byte per signature
+     */
+    static final int BUY = 1;
+    static final int HOUSE = 2;
+    static final int HOTEL = 4;
+    static final int LEAVEJAIL = 8;
+
+    static final int CASHBUCKET = 50;
+    static final int CASHBUCKETS = 32;
+    static final int OWNEDCOUNTS = 4;
+    static final int OPPONENTS = 3;
+    static final int THREATLEVELS = 4;
+
+    private static final String DIRECTORY = "Policies";
+    private static final int MAGIC = 0x4D4F5054;
+    private static final int HEADERBYTES = 16;
+    private static final int BOARDS = 4;
+    private static final int BUYHORIZON = 200;
+    private static final int BUILDHORIZON = 100;
+    private static final int MAXROLL = 12;
+    private static final int[] UTILITYMULTIPLIER = {0, 4, 10};
+
+    private static final ConcurrentMap<Integer, PolicyTable> TABLES = new ConcurrentHashMap<>();
+    private static final PolicyTable MISSING = new PolicyTable(null);
+
+    private final MappedByteBuffer entries;
+
+    private PolicyTable(MappedByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the table file of a board type.
+     */
+    static String fileName(int boardType) {
+        return DIRECTORY + "/Board" + boardType + ".policy";
+    }
+
+    /**
+     * Returns the number of signatures of a board.
+     */
+    private static int size(int squares) {
+        return squares * CASHBUCKETS * OWNEDCOUNTS * OPPONENTS * THREATLEVELS;
+    }
+
+    /**
+     * Returns the table of a board, the file is mapped the first time a board type is asked for.
+     * @param board the board
+     * @return the table, or null if the board has no table file
+     */
+    public static PolicyTable forBoard(Board board) {
+        PolicyTable table = TABLES.computeIfAbsent(board.getBoardType(), type -> {
+            try {
+                return map(fileName(type), board.getProperties().size());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return MISSING;
+            }
+        });
+        return table == MISSING ? null : table;
+    }
+
+    /**
+     * Maps a table file into memory.
+     * @param path the file written by write()
+     * @param squares the number of squares on the board
+     */
+    static PolicyTable map(String path, int squares) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            if (channel.size() != HEADERBYTES + size(squares)) {
+                throw new IOException("Policy table has the wrong size: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != squares || buffer.getInt(8) != CASHBUCKET
+                    || buffer.getInt(12) != THREATLEVELS) {
+                throw new IOException("Not a policy table for this board: " + path);
+            }
+            return new PolicyTable(buffer);
+        }
+    }
+
+    /**
+     * Returns the decisions of a signature, a combination of BUY, HOUSE, HOTEL and LEAVEJAIL.
+     * @param square the square the decision is about
+     * @param money the AI's money
+     * @param owned the number of properties of the square's kind the AI owns
+     * @param opponents the number of opponents still in the game
+     * @param threat the threat level of the opponents, from threat()
+     */
+    public int get(int square, int money, int owned, int opponents, int threat) {
+        return get(square, money, owned, turnKey(opponents, threat));
+    }
+
+    /**
+     * Returns the decisions of a signature, a combination of BUY, HOUSE, HOTEL and LEAVEJAIL.
+     * @param square the square the decision is about
+     * @param money the AI's money
+     * @param owned the number of properties of the square's kind the AI owns
+     * @param turnKey the opponents and their threat this turn, from turnKey()
+     */
+    public int get(int square, int money, int owned, int turnKey) {
+        return entries.get(HEADERBYTES + index(square, money, owned, turnKey));
+    }
+
+    /**
+     * Returns the part of a signature that stays the same for the whole of a player's turn, the number of
+     * opponents still in the game and how threatening they are.
+     */
+    static int turnKey(MonopolyModel model, Player player) {
+        return turnKey(model.getPlayers().size() - 1, threat(model, player));
+    }
+
+    private static int turnKey(int opponents, int threat) {
+        return (Math.min(Math.max(1, opponents), OPPONENTS) - 1) * THREATLEVELS + threat;
+    }
+
+    private static int index(int square, int money, int owned, int turnKey) {
+        int cash = Math.min(Math.max(0, money) / CASHBUCKET, CASHBUCKETS - 1);
+        int index = square;
+        index = index * CASHBUCKETS + cash;
+        index = index * OWNEDCOUNTS + Math.min(owned, OWNEDCOUNTS - 1);
+        return index * OPPONENTS * THREATLEVELS + turnKey;
+    }
+
+    /**
+     * Returns the number of properties of the same kind as a property, streets, railroads or utilities, that a
+     * player owns.
+     */
+    static int owned(Player player, Property property) {
+        if (property instanceof Railroad) {
+            return player.getAmountofRailroads();
+        }
+        if (property instanceof Utilities) {
+            return player.getAmountOfUtilities();
+        }
+        return streets(player);
+    }
+
+    /**
+     * Returns the number of streets, properties that can have houses and hotels, that a player owns.
+     */
+    static int streets(Player player) {
+        int streets = 0;
+        for (int i = 0; i < player.getPropertiesOwned().size(); i++) {
+            if (AI.canHaveBuildings(player.getPropertiesOwned().get(i))) {
+                streets++;
+            }
+        }
+        return streets;
+    }
+
+    /**
+     * Returns how threatening a player's opponents are, 0 when they charge no rent and otherwise the highest rent
+     * any of them can charge in thirds of the highest rent on the board, rounded up.
+     */
+    static int threat(MonopolyModel model, Player player) {
+        int most = 0;
+        for (int i = 0; i < model.getBoard().getProperties().size(); i++) {
+            Property property = model.getBoard().getProperty(i);
+            Player owner = property.getOwner();
+            if (owner == null || owner == player) {
+                continue;
+            }
+            if (property instanceof Utilities) {
+                most = Math.max(most, MAXROLL * UTILITYMULTIPLIER[Math.min(owner.getAmountOfUtilities(), 2)]);
+            }
+            else {
+                most = Math.max(most, property.getRent());
+            }
+        }
+        return level(most, LandingProbabilities.forBoard(model.getBoard()).getMaxRent());
+    }
+
+    private static int level(int rent, int maxRent) {
+        if (rent <= 0) {
+            return 0;
+        }
+        return Math.min(THREATLEVELS - 1, 1 + (rent - 1) * (THREATLEVELS - 1) / maxRent);
+    }
+
+    /**
+     * Returns the most rent the opponents can charge at a threat level, the money an AI keeps back.
+     */
+    private static int reserve(int threat, int maxRent) {
+        return threat == 0 ? 0 : maxRent * threat / (THREATLEVELS - 1);
+    }
+
+    /**
+     * Works out the decisions of every signature of a board.
+     * @param board the board
+     * @return the decisions, in the order they are stored
+     */
+    static byte[] compute(Board board) {
+        LandingProbabilities table = LandingProbabilities.forBoard(board);
+        int squares = board.getProperties().size();
+        byte[] decisions = new byte[size(squares)];
+        for (int square = 0; square < squares; square++) {
+            Property property = board.getProperty(square);
+            for (int cash = 0; cash < CASHBUCKETS; cash++) {
+                // the least money in the bucket, so the AI never spends more than it was planned for
+                int money = cash * CASHBUCKET;
+                for (int owned = 0; owned < OWNEDCOUNTS; owned++) {
+                    for (int opponents = 1; opponents <= OPPONENTS; opponents++) {
+                        for (int threat = 0; threat < THREATLEVELS; threat++) {
+                            int keep = reserve(threat, table.getMaxRent());
+                            int decision = 0;
+                            if (property instanceof Jail && money - Jail.FINE >= keep && threat == 0) {
+                                decision |= LEAVEJAIL;
+                            }
+                            if (property.getCost() > 0 && money - property.getCost() >= keep) {
+                                double income = table.getExpectedRent(board, square, owned + 1) * opponents;
+                                if (income > 0 && property.getCost() <= income * BUYHORIZON) {
+                                    decision |= BUY;
+                                }
+                            }
+                            if (property.getCost() > 0 && AI.canHaveBuildings(property)) {
+                                if (money - Player.HOUSECOST >= keep
+                                        && Player.HOUSECOST <= table.getHouseRent(square) * opponents * BUILDHORIZON) {
+                                    decision |= HOUSE;
+                                }
+                                if (money - Player.HOTELCOST >= keep
+                                        && Player.HOTELCOST <= table.getHotelRent(square) * opponents * BUILDHORIZON) {
+                                    decision |= HOTEL;
+                                }
+                            }
+                            decisions[index(square, money, owned, turnKey(opponents, threat))] = (byte) decision;
+                        }
+                    }
+                }
+            }
+        }
+        return decisions;
+    }
+
+    /**
+     * Writes the table file of a board.
+     * @param board the board
+     * @param path the file to write
+     */
+    static void write(Board board, String path) throws IOException {
+        File parent = new File(path).getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(board.getProperties().size());
+            out.writeInt(CASHBUCKET);
+            out.writeInt(THREATLEVELS);
+            out.write(compute(board));
+        }
+    }
+
+    /**
+     * Writes the table files of every board into the Policies directory.
+     */
+    public static void main(String[] args) {
+        for (int type = 0; type < BOARDS; type++) {
+            try {
+                write(new Board(type), fileName(type));
+                System.out.println("Wrote " + fileName(type));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicyTableTest {
+    /**
+     * These tests verify that a mapped PolicyTable gives the decisions it was written with.
+     */
+
+    /**
+     * This test verifies that every decision read from the mapped file is the one that was computed.
+     */
+    @Test
+    public void mapTest() throws IOException {
+        Board board = new Board(0);
+        File file = File.createTempFile("policy", ".policy");
+        file.deleteOnExit();
+        PolicyTable.write(board, file.getPath());
+        PolicyTable table = PolicyTable.map(file.getPath(), board.getProperties().size());
+
+        byte[] decisions = PolicyTable.compute(board);
+        int index = 0;
+        for (int square = 0; square < board.getProperties().size(); square++) {
+            for (int cash = 0; cash < PolicyTable.CASHBUCKETS; cash++) {
+                for (int owned = 0; owned < PolicyTable.OWNEDCOUNTS; owned++) {
+                    for (int opponents = 1; opponents <= PolicyTable.OPPONENTS; opponents++) {
+                        for (int threat = 0; threat < PolicyTable.THREATLEVELS; threat++) {
+                            assertEquals(decisions[index++], table.get(square, cash * PolicyTable.CASHBUCKET, owned, opponents, threat));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This test verifies that the AI never buys what it can't afford and keeps more money when the opponents
+     * charge more rent.
+     */
+    @Test
+    public void reserveTest() throws IOException {
+        Board board = new Board(0);
+        File file = File.createTempFile("policy", ".policy");
+        file.deleteOnExit();
+        PolicyTable.write(board, file.getPath());
+        PolicyTable table = PolicyTable.map(file.getPath(), board.getProperties().size());
+
+        Property property = board.getProperty(1);
+        int enough = property.getCost() + PolicyTable.CASHBUCKET - 1;
+        assertEquals(0, table.get(1, property.getCost() - 1, 0, 3, 0) & PolicyTable.BUY);
+        assertTrue((table.get(1, enough, 0, 3, 0) & PolicyTable.BUY) != 0);
+        assertEquals(0, table.get(1, enough, 0, 3, PolicyTable.THREATLEVELS - 1) & PolicyTable.BUY);
+    }
+
+    /**
+     * This test verifies that a decision looked up with the turn key is the one for the game's opponents and threat.
+     */
+    @Test
+    public void turnKeyTest() throws IOException {
+        Board board = new Board(0);
+        File file = File.createTempFile("policy", ".policy");
+        file.deleteOnExit();
+        PolicyTable.write(board, file.getPath());
+        PolicyTable table = PolicyTable.map(file.getPath(), board.getProperties().size());
+
+        MonopolyModel model = new MonopolyModel(board, new ArrayList<>(), 0);
+        AI ai = new AI("AI");
+        model.addAI(ai);
+        model.addAI(new AI("Opponent"));
+        model.addAI(new AI("Other"));
+        Player opponent = model.getPlayers().get(1);
+        board.getProperty(3).setOwner(opponent);
+        opponent.addProperty(board.getProperty(3));
+
+        int key = PolicyTable.turnKey(model, ai);
+        int threat = PolicyTable.threat(model, ai);
+        assertTrue(threat > 0);
+        for (int cash = 0; cash < PolicyTable.CASHBUCKETS; cash++) {
+            int money = cash * PolicyTable.CASHBUCKET;
+            assertEquals(table.get(1, money, 1, 2, threat), table.get(1, money, 1, key));
+        }
+    }
+}
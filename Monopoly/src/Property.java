@@ -1,3 +1,5 @@
+import java.nio.ByteBuffer;
+
 
 public class Property{
     /**
@@ -9,6 +11,7 @@ public class Property{
      * @attribute cost is the int cost of the Property
      * @attribute rent is the int rent cost for the Property
      * @attribute owner is the Player owner of the Property (ie who receives rent)
+     * @attribute baseRent is the int rent the Property starts the game with
      *
      * Created and documented by Nathan MacDiarmid - 101098993
      * Further formatted,assessed code and documentation edited by Mehedi Mostofa - 101154128
@@ -16,6 +19,7 @@ public class Property{
     private String name;
     private int cost;
     private int rent;
+    private int baseRent;
     private Player owner;
     private boolean hasHouse;
     private boolean hasHotel;
@@ -24,6 +28,7 @@ public class Property{
         this.name = "";
         this.cost = 0;
         this.rent = 0;
+        this.baseRent = 0;
         this.owner = null;
         this.hasHouse = false;
         this.hasHotel = false;
@@ -38,6 +43,7 @@ public class Property{
         this.name = name;
         this.cost = cost;
         this.rent = rent;
+        this.baseRent = rent;
         this.owner = null;
         this.hasHouse = false;
         this.hasHotel = false;
@@ -99,6 +105,13 @@ public class Property{
         return this.name;
     }
 
+    /**
+     * Getter for the starting rent, before houses, hotels or owning more railroads.
+     */
+    public int getBaseRent() {
+        return this.baseRent;
+    }
+
     /**
      * Override toString() method
      * Displays Property information in String format
@@ -166,6 +179,48 @@ public class Property{
      */
     public void setRent(int rent) {
         this.rent = rent;
+        this.baseRent = rent;
+    }
+
+    /**
+     * Resets the Property for a new game, it has no owner, no house or hotel and the rent goes back to
+     * the starting rent.
+     */
+    public void reset() {
+        this.owner = null;
+        this.hasHouse = false;
+        this.hasHotel = false;
+        this.rent = this.baseRent;
+    }
+
+    /**
+     * Copies the owner, rent and buildings of the same Property in another game.
+     * @param other the Property in the other game
+     * @param owner the Player in this game that owns the Property, or null
+     */
+    public void copyFrom(Property other, Player owner) {
+        this.owner = owner;
+        this.rent = other.rent;
+        this.hasHouse = other.hasHouse;
+        this.hasHotel = other.hasHotel;
+    }
+
+    /**
+     * Writes the rent and buildings of the Property for MonopolyModel.writeTo().
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putShort((short) this.rent);
+        buffer.put((byte) ((this.hasHouse ? 1 : 0) | (this.hasHotel ? 2 : 0)));
+    }
+
+    /**
+     * Reads the rent and buildings written by writeTo(), the owner is set separately.
+     */
+    void readFrom(ByteBuffer buffer) {
+        this.rent = buffer.getShort();
+        int buildings = buffer.get();
+        this.hasHouse = (buildings & 1) != 0;
+        this.hasHotel = (buildings & 2) != 0;
     }
 
     /**
@@ -177,11 +232,7 @@ public class Property{
      * Created and documented by Matthew Belanger - 101144323
      */
     private String tabGenerator(int tabs){
-        String s = "";
-        for(int i = 0; i < tabs; i++){
-            s += "\t";
-        }
-        return s;
+        return "\t".repeat(tabs);
     }
 
     /**
@@ -0,0 +1,237 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+public class QuantileSketch {
+    /**
+     * The QuantileSketch class
+     *
+     * A streaming histogram in the style of an HDR histogram. Values are counted in log-linear buckets, every power
+     * of two is split into 64 sub buckets so any quantile is reported within 1/64 (about 1.6%) of the true value,
+     * while the sketch uses the same fixed amount of memory no matter how many values are recorded.
+     *
+     * Sketches are not thread safe, each thread records into its own sketch and the sketches are merged at the end.
+     * Recording never allocates.
+     *
+     * Negative values are recorded as 0.
+     *
+     * @attribute counts the number of values recorded in each bucket
+     * @attribute count the total number of values recorded
+     * @attribute sum the sum of all values recorded, used for the mean
+     * @attribute min the smallest value recorded
+     * @attribute max the largest value recorded
+     */
+    private static final int SUBBUCKETBITS = 6;
+    private static final int SUBBUCKETS = 1 << SUBBUCKETBITS;
+    private static final int LINEARBUCKETS = 2 * SUBBUCKETS;
+    private static final int BUCKETS = LINEARBUCKETS + (63 - SUBBUCKETBITS - 1) * SUBBUCKETS;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    /**
+     * Default constructor for an empty QuantileSketch.
+     */
+    public QuantileSketch() {
+        this.counts = new long[BUCKETS];
+        this.count = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Returns the bucket a value is counted in. Values below 128 have a bucket each, above that the
+     * bucket width doubles with every power of two.
+     */
+    static int bucketOf(long value) {
+        if (value < LINEARBUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUBBUCKETBITS;
+        return LINEARBUCKETS + (shift - 1) * SUBBUCKETS + (int) ((value >>> shift) - SUBBUCKETS);
+    }
+
+    /**
+     * Returns the smallest value counted in a bucket.
+     */
+    static long lowestValueIn(int bucket) {
+        if (bucket < LINEARBUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - LINEARBUCKETS) / SUBBUCKETS + 1;
+        long subBucket = (bucket - LINEARBUCKETS) % SUBBUCKETS + SUBBUCKETS;
+        return subBucket << shift;
+    }
+
+    /**
+     * Returns the largest value counted in a bucket.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket + 1 == BUCKETS) {
+            return Long.MAX_VALUE;
+        }
+        return lowestValueIn(bucket + 1) - 1;
+    }
+
+    /**
+     * Records a value.
+     * @param value the value to record
+     */
+    public void record(long value) {
+        recordValues(value, 1);
+    }
+
+    /**
+     * Records the same value a number of times.
+     * @param value the value to record
+     * @param times the number of times it is recorded
+     */
+    public void recordValues(long value, long times) {
+        if (times <= 0) {
+            return;
+        }
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts[bucketOf(value)] += times;
+        this.count += times;
+        this.sum += value * times;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Adds every value recorded in another sketch to this one.
+     * @param other the sketch to merge in, it is not changed
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.count += other.count;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Writes the sketch in a compact binary form that readFrom() reads back, only the buckets that have values are
+     * written so a sketch of game lengths takes a few hundred bytes.
+     * @param out where the sketch is written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(this.count);
+        out.writeLong(this.sum);
+        out.writeLong(this.min);
+        out.writeLong(this.max);
+        int buckets = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (this.counts[i] != 0) {
+                buckets++;
+            }
+        }
+        out.writeShort(buckets);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (this.counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(this.counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a sketch written by writeTo().
+     * @param in where the sketch is read from
+     */
+    public static QuantileSketch readFrom(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.count = in.readLong();
+        sketch.sum = in.readLong();
+        sketch.min = in.readLong();
+        sketch.max = in.readLong();
+        for (int buckets = in.readUnsignedShort(); buckets > 0; buckets--) {
+            sketch.counts[in.readUnsignedShort()] = in.readLong();
+        }
+        return sketch;
+    }
+
+    /**
+     * Removes every value from the sketch.
+     */
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.count = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Returns the value at the given quantile, e.g. 0.5 for the median or 0.99 for the 99th percentile.
+     * The value is within the precision of the bucket it falls in and is never outside of min and max.
+     * @param quantile a double between 0 and 1
+     * @return the value at the quantile, 0 if nothing has been recorded
+     */
+    public long getQuantile(double quantile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * this.count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                long middle = lowestValueIn(i) + (highestValueIn(i) - lowestValueIn(i)) / 2;
+                return Math.max(this.min, Math.min(this.max, middle));
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * Getter for the number of values recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * Getter for the smallest value recorded, 0 if nothing has been recorded.
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : min;
+    }
+
+    /**
+     * Getter for the largest value recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Overrides the toString() default method to output a summary of the distribution.
+     */
+    @Override
+    public String toString() {
+        return "count=" + count +
+                ", mean=" + String.format("%.1f", getMean()) +
+                ", min=" + getMin() +
+                ", p50=" + getQuantile(0.5) +
+                ", p90=" + getQuantile(0.9) +
+                ", p99=" + getQuantile(0.99) +
+                ", max=" + getMax();
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantileSketchTest {
+    /**
+     * These tests verify that the QuantileSketch reports quantiles within its precision and that merged sketches
+     * give the same answers as one sketch that saw every value.
+     */
+
+    /**
+     * This test verifies that small values are counted exactly.
+     */
+    @Test
+    public void exactSmallValuesTest() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 100; i++) {
+            sketch.record(i);
+        }
+        assertEquals(100, sketch.getCount());
+        assertEquals(50, sketch.getQuantile(0.5));
+        assertEquals(99, sketch.getQuantile(0.99));
+        assertEquals(1, sketch.getMin());
+        assertEquals(100, sketch.getMax());
+        assertEquals(50.5, sketch.getMean(), 0.0001);
+    }
+
+    /**
+     * This test verifies that large values are within the relative precision of the sketch.
+     */
+    @Test
+    public void relativePrecisionTest() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 1_000_000; i++) {
+            sketch.record(i);
+        }
+        assertEquals(500_000, sketch.getQuantile(0.5), 500_000 / 64.0);
+        assertEquals(990_000, sketch.getQuantile(0.99), 990_000 / 64.0);
+    }
+
+    /**
+     * This test verifies that every bucket boundary round trips.
+     */
+    @Test
+    public void bucketBoundaryTest() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 2; value *= 3) {
+            int bucket = QuantileSketch.bucketOf(value);
+            assertTrue(QuantileSketch.lowestValueIn(bucket) <= value);
+            assertTrue(QuantileSketch.highestValueIn(bucket) >= value);
+        }
+        assertTrue(QuantileSketch.bucketOf(Long.MAX_VALUE) >= 0);
+    }
+
+    /**
+     * This test verifies that merging sketches is the same as recording into one sketch.
+     */
+    @Test
+    public void mergeTest() {
+        Random random = new Random(3110);
+        QuantileSketch all = new QuantileSketch();
+        QuantileSketch first = new QuantileSketch();
+        QuantileSketch second = new QuantileSketch();
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(5000);
+            all.record(value);
+            if (i % 2 == 0) {
+                first.record(value);
+            }
+            else {
+                second.record(value);
+            }
+        }
+        first.merge(second);
+
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMean(), first.getMean(), 0.0001);
+        assertEquals(all.getQuantile(0.5), first.getQuantile(0.5));
+        assertEquals(all.getQuantile(0.9), first.getQuantile(0.9));
+    }
+}
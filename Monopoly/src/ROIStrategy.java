@@ -0,0 +1,106 @@
+public class ROIStrategy implements Strategy {
+    /**
+     * The ROIStrategy class
+     *
+     * A strategy that invests by expected return. The LandingProbabilities of the board give the expected rent a
+     * property, house or hotel earns from each opponent turn, the AI buys when the property pays for itself within a
+     * horizon and builds the plan of a BuildingOptimizer, always keeping enough money to pay the highest rent on the
+     * board.
+     *
+     * Early in the game, while most of the board is for sale, the AI pays to leave jail so it can keep buying.
+     */
+    private static final int BUYHORIZON = 200;
+    private static final int BUILDHORIZON = 100;
+
+    @Override
+    public String getName() {
+        return "roi";
+    }
+
+    /**
+     * Returns the money the AI keeps after investing, enough to pay the highest rent on the board.
+     */
+    private static int reserve(LandingProbabilities table) {
+        return table.getMaxRent();
+    }
+
+    /**
+     * Returns the number of opponents still in the game.
+     */
+    private static int opponents(MonopolyModel model) {
+        return Math.max(1, model.getPlayers().size() - 1);
+    }
+
+    /**
+     * Pays to leave jail while more than half of the properties on the board are for sale.
+     */
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        int forSale = 0;
+        int properties = 0;
+        for (int i = 0; i < model.getBoard().getProperties().size(); i++) {
+            Property property = model.getBoard().getProperty(i);
+            if (property.getCost() > 0) {
+                properties++;
+                if (property.getOwner() == null) {
+                    forSale++;
+                }
+            }
+        }
+        return 2 * forSale > properties && ai.getMoney() - Jail.FINE >= reserve(LandingProbabilities.forBoard(model.getBoard()));
+    }
+
+    /**
+     * Buys the property if it pays for itself within the buy horizon and the AI keeps its reserve.
+     */
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        LandingProbabilities table = LandingProbabilities.forBoard(model.getBoard());
+        if (ai.getMoney() - property.getCost() < reserve(table)) {
+            return false;
+        }
+        int owned = 1;
+        if (property instanceof Railroad) {
+            owned += ai.getAmountofRailroads();
+        }
+        else if (property instanceof Utilities) {
+            owned += ai.getAmountOfUtilities();
+        }
+        int square = model.getBoard().getProperties().indexOf(property);
+        if (square < 0) {
+            return false;
+        }
+        double income = table.getExpectedRent(model.getBoard(), square, owned) * opponents(model);
+        return income > 0 && property.getCost() <= income * BUYHORIZON;
+    }
+
+    /**
+     * Plans the buildings with the most expected rent that pay for themselves within the build horizon and leave the
+     * AI its reserve.
+     */
+    private static BuildingOptimizer plan(MonopolyModel model, AI ai) {
+        LandingProbabilities table = LandingProbabilities.forBoard(model.getBoard());
+        BuildingOptimizer optimizer = new BuildingOptimizer(table);
+        optimizer.setHorizon(BUILDHORIZON);
+        optimizer.optimize(model.getBoard(), ai, ai.getMoney() - reserve(table), opponents(model));
+        return optimizer;
+    }
+
+    /**
+     * Builds the first house of the best building plan.
+     */
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        BuildingOptimizer optimizer = plan(model, ai);
+        return optimizer.getHouses().isEmpty() ? null : optimizer.getHouses().get(0);
+    }
+
+    /**
+     * Builds the first hotel of the best building plan.
+     */
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        BuildingOptimizer optimizer = plan(model, ai);
+        return optimizer.getHotels().isEmpty() ? null : optimizer.getHotels().get(0);
+    }
+}
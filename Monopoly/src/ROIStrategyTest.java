@@ -0,0 +1,29 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ROIStrategyTest {
+    /**
+     * These tests verify the decisions of the ROIStrategy.
+     */
+
+    /**
+     * This test verifies that the strategy values the property it is asked about rather than the square the AI is
+     * standing on, Go earns no rent but a cheap street pays for itself.
+     */
+    @Test
+    public void buyTest() {
+        MonopolyModel model = new MonopolyModel(0);
+        AI ai = new AI("AI1", new ROIStrategy());
+        model.addAI(ai);
+        model.addAI("AI2");
+        model.addAI("AI3");
+        model.addAI("AI4");
+        ai.setMoney(1500);
+        assertEquals(0, ai.getPosition());
+
+        ROIStrategy strategy = new ROIStrategy();
+        assertTrue(strategy.buy(model, ai, model.getBoard().getProperty(1)));
+        assertFalse(strategy.buy(model, ai, new Property("Elsewhere", 100, 10)));
+    }
+}
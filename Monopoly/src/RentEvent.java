@@ -0,0 +1,42 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("monopoly.Rent")
+@Label("Rent Paid")
+@Category("Monopoly")
+@Description("Rent paid by the current player to the owner of the square they landed on")
+@StackTrace(false)
+@Threshold("0 ms")
+public class RentEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted by MonopolyModel.payRent.
+     *
+     * @attribute square the board position the rent was paid on
+     * @attribute property the name of the property
+     * @attribute amount the amount of rent paid
+     */
+    @Label("Square")
+    int square;
+
+    @Label("Property")
+    String property;
+
+    @Label("Amount")
+    int amount;
+
+    private static final EventType TYPE = EventType.getEventType(RentEvent.class);
+
+    /**
+     * Returns whether the event is being recorded. It is checked before the event is created so a game that is
+     * not being recorded allocates no events, whether or not the JIT has compiled the caller yet.
+     */
+    static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+public class ResultBatcher extends SubmissionPublisher<List<GameResult>>
+        implements Flow.Processor<GameResult, List<GameResult>> {
+    /**
+     * The ResultBatcher class
+     *
+     * The aggregation stage of the output pipeline: it gathers the GameResults published by the Simulator into
+     * batches and publishes the batches to the ResultWriters subscribed to it. It asks for one result at a time
+     * and only asks for the next once the batch it finished has found room with its subscribers, so a writer that
+     * falls behind stops the batcher, which fills the buffer of the Simulator, which makes the games wait. At most
+     * maxBatches batches and the Simulator's buffer of results are ever held in memory.
+     *
+     * @attribute batchGames the number of results in each batch
+     * @attribute executor the thread the batches are delivered to the subscribers on
+     * @attribute subscription the subscription to the results
+     * @attribute batch the results of the batch being gathered
+     */
+    public static final int DEFAULTBATCHGAMES = 1000;
+    public static final int DEFAULTMAXBATCHES = 8;
+
+    private final int batchGames;
+    private final ExecutorService executor;
+    private Flow.Subscription subscription;
+    private List<GameResult> batch;
+
+    /**
+     * Default constructor for ResultBatcher.
+     */
+    public ResultBatcher() {
+        this(DEFAULTBATCHGAMES, DEFAULTMAXBATCHES);
+    }
+
+    /**
+     * Constructor for a ResultBatcher with batches of a size.
+     * @param batchGames the number of results in each batch
+     * @param maxBatches the number of batches each subscriber can fall behind by before the batcher waits
+     */
+    public ResultBatcher(int batchGames, int maxBatches) {
+        this(batchGames, maxBatches, Executors.newSingleThreadExecutor());
+    }
+
+    private ResultBatcher(int batchGames, int maxBatches, ExecutorService executor) {
+        super(executor, maxBatches);
+        this.batchGames = batchGames;
+        this.executor = executor;
+        this.batch = new ArrayList<>(batchGames);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(GameResult result) {
+        this.batch.add(result);
+        if (this.batch.size() == this.batchGames) {
+            // waits while a subscriber is maxBatches behind
+            submit(this.batch);
+            this.batch = new ArrayList<>(this.batchGames);
+        }
+        this.subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+        this.executor.shutdown();
+    }
+
+    @Override
+    public void onComplete() {
+        if (!this.batch.isEmpty()) {
+            submit(this.batch);
+        }
+        close();
+        this.executor.shutdown();
+    }
+}
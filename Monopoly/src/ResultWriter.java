@@ -0,0 +1,318 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class ResultWriter implements Flow.Subscriber<List<GameResult>> {
+    /**
+     * The ResultWriter class
+     *
+     * The last stage of the output pipeline: it writes the batches of GameResults from a ResultBatcher to a file in
+     * one of three formats.
+     * CSV: a header line, then one line per game with its number, turns, winner (-1 for none), whether it was a
+     * stalemate and whether it was adjudicated (1 or 0) and the net worth of each seat.
+     * BINARY: the magic number, the format and the number of seats, then one record per game of varints: the
+     * difference to the number of the game before, turns, winner + 1, the flags (1 stalemate, 2 adjudicated) and
+     * the net worth of each seat zigzag encoded.
+     * COLUMNAR: the same header, then one block per batch: the number of games, then every game's value of the
+     * first field, then every game's value of the second and so on, which compresses better than records.
+     *
+     * Each batch is encoded into a buffer and written to a FileChannel in one go, through a Deflater writing a gzip
+     * stream when gzip is on. The writer asks for the next batch only once the last one is written, so a slow disk
+     * holds the pipeline back instead of batches piling up in memory.
+     *
+     * @attribute format CSV, BINARY or COLUMNAR
+     * @attribute channel the file written
+     * @attribute deflater compresses the file when gzip is on, null otherwise
+     * @attribute crc the checksum of everything compressed, for the gzip trailer
+     * @attribute encoded the encoding of the batch being written
+     * @attribute compressed the compressed bytes not written yet
+     * @attribute subscription the subscription to the batches
+     * @attribute seats the number of seats, it is known from the first batch
+     * @attribute lastGame the number of the last game written, BINARY and COLUMNAR write differences to it
+     * @attribute games the number of games written
+     * @attribute done completes with the number of games once the file is closed
+     */
+    public static final int CSV = 0;
+    public static final int BINARY = 1;
+    public static final int COLUMNAR = 2;
+
+    static final int MAGIC = 0x4D524553;
+    private static final int BUFFERBYTES = 1 << 16;
+    private static final byte[] GZIPHEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int STALEMATE = 1;
+    private static final int ADJUDICATED = 2;
+
+    private final int format;
+    private final FileChannel channel;
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private ByteBuffer encoded;
+    private final ByteBuffer compressed;
+    private Flow.Subscription subscription;
+    private int seats;
+    private long lastGame;
+    private long games;
+    private final CompletableFuture<Long> done;
+
+    /**
+     * Default constructor for ResultWriter, it creates the file or empties it.
+     * @param path the file written
+     * @param format CSV, BINARY or COLUMNAR
+     * @param gzip whether the file is compressed with gzip
+     */
+    public ResultWriter(Path path, int format, boolean gzip) throws IOException {
+        this.format = format;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.deflater = gzip ? new Deflater(Deflater.DEFAULT_COMPRESSION, true) : null;
+        this.crc = new CRC32();
+        this.encoded = ByteBuffer.allocate(BUFFERBYTES);
+        this.compressed = ByteBuffer.allocateDirect(BUFFERBYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.seats = -1;
+        this.done = new CompletableFuture<>();
+        if (gzip) {
+            this.compressed.put(GZIPHEADER);
+        }
+    }
+
+    /**
+     * Returns a writer for a file whose name picks the format: .csv, .col for COLUMNAR and anything else for
+     * BINARY, with .gz after it for gzip.
+     */
+    public static ResultWriter open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) {
+            name = name.substring(0, name.length() - 3);
+        }
+        int format = name.endsWith(".csv") ? CSV : name.endsWith(".col") ? COLUMNAR : BINARY;
+        return new ResultWriter(path, format, gzip);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<GameResult> batch) {
+        try {
+            if (this.seats < 0) {
+                this.seats = batch.get(0).getSeats();
+                writeHeader();
+            }
+            if (this.format == CSV) {
+                encodeCSV(batch);
+            }
+            else if (this.format == BINARY) {
+                encodeBinary(batch);
+            }
+            else {
+                encodeColumnar(batch);
+            }
+            this.games += batch.size();
+            this.subscription.request(1);
+        } catch (IOException e) {
+            this.subscription.cancel();
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        try {
+            if (this.deflater != null) {
+                this.deflater.finish();
+                while (!this.deflater.finished()) {
+                    deflate();
+                }
+                if (this.compressed.remaining() < 8) {
+                    drain();
+                }
+                this.compressed.putInt((int) this.crc.getValue());
+                this.compressed.putInt((int) this.deflater.getBytesRead());
+                this.deflater.end();
+            }
+            drain();
+            this.channel.close();
+            this.done.complete(this.games);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Waits until the file is written and closed.
+     * @return the number of games written
+     * @throws IOException if the file couldn't be written or the pipeline failed
+     */
+    public long await() throws IOException, InterruptedException {
+        try {
+            return this.done.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    private void fail(Throwable throwable) {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        if (this.deflater != null) {
+            this.deflater.end();
+        }
+        this.done.completeExceptionally(throwable);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer encoded = encoding(64);
+        if (this.format == CSV) {
+            StringBuilder header = new StringBuilder("game,turns,winner,stalemate,adjudicated");
+            for (int seat = 0; seat < this.seats; seat++) {
+                header.append(",netWorth").append(seat);
+            }
+            encoded.put(header.append('\n').toString().getBytes(StandardCharsets.US_ASCII));
+        }
+        else {
+            encoded.putInt(MAGIC);
+            encoded.put((byte) this.format);
+            SnapshotDelta.putVarint(encoded, this.seats);
+        }
+        write(encoded);
+    }
+
+    private void encodeCSV(List<GameResult> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * (24 + 8 * this.seats));
+        for (GameResult result : batch) {
+            lines.append(result.getGame()).append(',')
+                    .append(result.getTurns()).append(',')
+                    .append(result.getWinner()).append(',')
+                    .append(result.isStalemate() ? 1 : 0).append(',')
+                    .append(result.isAdjudicated() ? 1 : 0);
+            for (int seat = 0; seat < this.seats; seat++) {
+                lines.append(',').append(result.getNetWorth(seat));
+            }
+            lines.append('\n');
+        }
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        write(encoding(bytes.length).put(bytes));
+    }
+
+    private void encodeBinary(List<GameResult> batch) throws IOException {
+        ByteBuffer encoded = encoding(batch.size() * (10 + 5 * (3 + this.seats)));
+        for (GameResult result : batch) {
+            putGame(encoded, result.getGame());
+            SnapshotDelta.putVarint(encoded, result.getTurns());
+            SnapshotDelta.putVarint(encoded, result.getWinner() + 1);
+            SnapshotDelta.putVarint(encoded, flagsOf(result));
+            for (int seat = 0; seat < this.seats; seat++) {
+                SnapshotDelta.putVarint(encoded, SnapshotDelta.zigzag(result.getNetWorth(seat)));
+            }
+        }
+        write(encoded);
+    }
+
+    private void encodeColumnar(List<GameResult> batch) throws IOException {
+        ByteBuffer encoded = encoding(5 + batch.size() * (10 + 5 * (3 + this.seats)));
+        SnapshotDelta.putVarint(encoded, batch.size());
+        for (GameResult result : batch) {
+            putGame(encoded, result.getGame());
+        }
+        for (GameResult result : batch) {
+            SnapshotDelta.putVarint(encoded, result.getTurns());
+        }
+        for (GameResult result : batch) {
+            SnapshotDelta.putVarint(encoded, result.getWinner() + 1);
+        }
+        for (GameResult result : batch) {
+            SnapshotDelta.putVarint(encoded, flagsOf(result));
+        }
+        for (int seat = 0; seat < this.seats; seat++) {
+            for (GameResult result : batch) {
+                SnapshotDelta.putVarint(encoded, SnapshotDelta.zigzag(result.getNetWorth(seat)));
+            }
+        }
+        write(encoded);
+    }
+
+    private static int flagsOf(GameResult result) {
+        return (result.isStalemate() ? STALEMATE : 0) | (result.isAdjudicated() ? ADJUDICATED : 0);
+    }
+
+    /**
+     * Writes the difference to the game before zigzag encoded, games finish out of order across threads.
+     */
+    private void putGame(ByteBuffer encoded, long game) {
+        long difference = game - this.lastGame;
+        long value = (difference << 1) ^ (difference >> 63);
+        while ((value & ~0x7FL) != 0) {
+            encoded.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        encoded.put((byte) value);
+        this.lastGame = game;
+    }
+
+    /**
+     * Returns the empty encoding buffer, grown to hold at least a number of bytes.
+     */
+    private ByteBuffer encoding(int bytes) {
+        if (this.encoded.capacity() < bytes) {
+            this.encoded = ByteBuffer.allocate(bytes);
+        }
+        this.encoded.clear();
+        return this.encoded;
+    }
+
+    /**
+     * Writes what was encoded, through the Deflater when gzip is on.
+     */
+    private void write(ByteBuffer encoded) throws IOException {
+        encoded.flip();
+        if (this.deflater == null) {
+            drain();
+            while (encoded.hasRemaining()) {
+                this.channel.write(encoded);
+            }
+            return;
+        }
+        this.crc.update(encoded.duplicate());
+        this.deflater.setInput(encoded);
+        while (!this.deflater.needsInput()) {
+            deflate();
+        }
+    }
+
+    private void deflate() throws IOException {
+        this.deflater.deflate(this.compressed);
+        if (!this.compressed.hasRemaining()) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        this.compressed.flip();
+        while (this.compressed.hasRemaining()) {
+            this.channel.write(this.compressed);
+        }
+        this.compressed.clear();
+    }
+}
@@ -0,0 +1,251 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultWriterTest {
+    /**
+     * These tests verify that the results of a Simulator batch flow through a ResultBatcher into files that read
+     * back the same as the statistics of the batch, and that a slow subscriber slows the games down.
+     */
+    private final static int GAMES = 3000;
+    private final static int MAXTURNS = 200;
+
+    private static Simulator newSimulator() {
+        Simulator simulator = new Simulator(0, 3, GAMES);
+        simulator.setMaxTurns(MAXTURNS);
+        simulator.setThreads(2);
+        simulator.setStalemateWindow(100);
+        simulator.setAdjudicate(true);
+        return simulator;
+    }
+
+    private static File tempFile(String suffix) throws Exception {
+        File file = File.createTempFile("results", suffix);
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * This test verifies that a gzip CSV file and a binary file hold one result for every game of the batch with
+     * the winners counted by the statistics.
+     */
+    @Test
+    public void writeTest() throws Exception {
+        File csv = tempFile(".csv.gz");
+        File binary = tempFile(".bin");
+        ResultBatcher batcher = new ResultBatcher(100, 2);
+        ResultWriter csvWriter = ResultWriter.open(csv.toPath());
+        ResultWriter binaryWriter = ResultWriter.open(binary.toPath());
+        batcher.subscribe(csvWriter);
+        batcher.subscribe(binaryWriter);
+        Simulator simulator = newSimulator();
+        simulator.setResults(batcher);
+        SimulationStatistics statistics = simulator.run();
+        assertEquals(GAMES, csvWriter.await());
+        assertEquals(GAMES, binaryWriter.await());
+
+        long[] wins = new long[3];
+        long stalemates = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(csv.toPath()))))) {
+            assertTrue(reader.readLine().startsWith("game,turns,winner"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                assertEquals(8, fields.length);
+                int winner = Integer.parseInt(fields[2]);
+                if (winner >= 0) {
+                    wins[winner]++;
+                }
+                stalemates += Integer.parseInt(fields[3]);
+            }
+        }
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(statistics.getWins(seat), wins[seat]);
+        }
+        assertEquals(statistics.getStalemates(), stalemates);
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(binary.toPath()));
+        assertEquals(ResultWriter.MAGIC, buffer.getInt());
+        assertEquals(ResultWriter.BINARY, buffer.get());
+        assertEquals(3, SnapshotDelta.getVarint(buffer));
+        long game = 0;
+        long gameSum = 0;
+        long turnSum = 0;
+        for (int i = 0; i < GAMES; i++) {
+            game += SnapshotDelta.unzigzag(SnapshotDelta.getVarint(buffer));
+            gameSum += game;
+            turnSum += SnapshotDelta.getVarint(buffer);
+            SnapshotDelta.getVarint(buffer);
+            SnapshotDelta.getVarint(buffer);
+            for (int seat = 0; seat < 3; seat++) {
+                SnapshotDelta.getVarint(buffer);
+            }
+        }
+        assertFalse(buffer.hasRemaining());
+        assertEquals((long) GAMES * (GAMES - 1) / 2, gameSum);
+        assertEquals(statistics.getGameLength().getMean() * GAMES, turnSum, 0.5);
+    }
+
+    /**
+     * This test verifies that the games wait for a subscriber that stops asking for results and carry on once it
+     * asks again.
+     */
+    @Test
+    public void backpressureTest() throws Exception {
+        CountDownLatch subscribed = new CountDownLatch(1);
+        AtomicLong received = new AtomicLong();
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        Simulator simulator = newSimulator();
+        simulator.setResults(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+                subscribed.countDown();
+            }
+
+            @Override
+            public void onNext(GameResult result) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Thread run = new Thread(() -> {
+            try {
+                simulator.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        run.start();
+        subscribed.await();
+        Thread.sleep(1000);
+        assertTrue(run.isAlive());
+        assertEquals(0, received.get());
+
+        subscription[0].request(Long.MAX_VALUE);
+        run.join();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.get() < GAMES && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(GAMES, received.get());
+    }
+
+    /**
+     * This test verifies that a batch stopped by its stopping rule while the buffer is full still publishes every
+     * game in its statistics.
+     */
+    @Test
+    public void stoppedTest() throws Exception {
+        AtomicLong received = new AtomicLong();
+        CountDownLatch closed = new CountDownLatch(1);
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        SimulationStatistics[] statistics = new SimulationStatistics[1];
+        Simulator simulator = newSimulator();
+        StoppingRule rule = new StoppingRule(1, 1000);
+        rule.setMinGames(Simulator.RESULTBUFFER - 24);
+        simulator.setStoppingRule(rule);
+        simulator.setResults(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(GameResult result) {
+                received.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                closed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                closed.countDown();
+            }
+        });
+        Thread run = new Thread(() -> {
+            try {
+                statistics[0] = simulator.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        run.start();
+        // the rule is met and the threads wait for room in the full buffer
+        Thread.sleep(1000);
+        subscription[0].request(Long.MAX_VALUE);
+        run.join();
+        closed.await();
+        assertTrue(rule.isMet());
+        assertTrue(statistics[0].getGames() < GAMES);
+        assertEquals(statistics[0].getGames(), received.get());
+    }
+
+    /**
+     * This test verifies that a failed batch completes its subscriber exceptionally rather than normally, and that
+     * a batch with a checkpoint refuses to publish results.
+     */
+    @Test
+    public void failureTest() throws Exception {
+        CountDownLatch closed = new CountDownLatch(1);
+        Throwable[] error = new Throwable[1];
+        Simulator simulator = newSimulator();
+        simulator.setAI(1, name -> new AI(name, new DefaultStrategy() {
+            @Override
+            public boolean buy(MonopolyModel model, AI ai, Property property) {
+                throw new UnsupportedOperationException("broken strategy");
+            }
+        }));
+        simulator.setResults(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(GameResult result) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error[0] = throwable;
+                closed.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                closed.countDown();
+            }
+        });
+        assertThrows(ExecutionException.class, simulator::run);
+        closed.await();
+        assertNotNull(error[0]);
+
+        Simulator checkpointed = newSimulator();
+        checkpointed.setCheckpoint(tempFile(".checkpoint").getPath());
+        checkpointed.setResults(new ResultBatcher());
+        assertThrows(IllegalStateException.class, checkpointed::run);
+    }
+}
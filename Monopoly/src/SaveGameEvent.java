@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("monopoly.SaveGame")
+@Label("Save Game")
+@Category({"Monopoly", "Persistence"})
+@Description("A game exported to the save files by MonopolyModel.exportToXmlFile")
+@StackTrace(true)
+@Threshold("0 ms")
+public class SaveGameEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted by MonopolyModel.exportToXmlFile, the event duration is the save time.
+     *
+     * @attribute bytes the total size of the three save files
+     * @attribute players the number of players saved
+     */
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Players")
+    int players;
+}
@@ -0,0 +1,102 @@
+public class SeedSchedule {
+    /**
+     * The SeedSchedule class
+     *
+     * Decides how each game of a simulation batch is played so batches are reproducible and comparisons between
+     * AIs have less variance. Games are grouped by seed, every game of a group rolls the same dice:
+     *
+     * - with antithetic dice every seed is played a second time with every die mirrored (7 minus the value),
+     * - with seat rotation every seed is played once with each seat going first.
+     *
+     * Game number n is always played the same way, no matter which thread plays it.
+     *
+     * @attribute seed the seed of the first group of games
+     * @attribute antithetic whether every seed is also played with antithetic dice
+     * @attribute seatRotation whether every seed is played once with each seat going first
+     */
+    private long seed;
+    private boolean antithetic;
+    private boolean seatRotation;
+
+    /**
+     * Default constructor for SeedSchedule.
+     * @param seed the seed of the first group of games
+     */
+    public SeedSchedule(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Setter for the seed of the first group of games.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Getter for the seed of the first group of games.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Setter for antithetic.
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Getter for antithetic.
+     */
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    /**
+     * Setter for seatRotation.
+     */
+    public void setSeatRotation(boolean seatRotation) {
+        this.seatRotation = seatRotation;
+    }
+
+    /**
+     * Getter for seatRotation.
+     */
+    public boolean isSeatRotation() {
+        return seatRotation;
+    }
+
+    /**
+     * Returns the number of games played with each seed.
+     * @param seats the number of seats in each game
+     */
+    public int gamesPerSeed(int seats) {
+        return (this.seatRotation ? seats : 1) * (this.antithetic ? 2 : 1);
+    }
+
+    /**
+     * Returns the seed game number n is played with.
+     */
+    public long seedOf(long game, int seats) {
+        return this.seed + game / gamesPerSeed(seats);
+    }
+
+    /**
+     * Resets the model for game number n, the dice are seeded, mirrored for antithetic games and the turn order is
+     * rotated.
+     * @param model the model the game is played on
+     * @param game the number of the game in the batch
+     */
+    public void startGame(MonopolyModel model, long game) {
+        int seats = model.getSeats().size();
+        int variant = (int) (game % gamesPerSeed(seats));
+        boolean mirrored = this.antithetic && variant % 2 == 1;
+        int firstSeat = this.seatRotation ? (this.antithetic ? variant / 2 : variant) : 0;
+
+        model.reset(firstSeat);
+        model.getDice().setSeed(seedOf(game, seats));
+        model.getDice().setAntithetic(mirrored);
+    }
+}
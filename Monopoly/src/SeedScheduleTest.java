@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeedScheduleTest {
+    /**
+     * These tests verify that a SeedSchedule gives every seat the same number of games going first and that the
+     * antithetic game of a seed rolls the mirror of its dice.
+     */
+    private final static long SEED = 42;
+    private final static int SEATS = 3;
+    private final static int ROLLS = 100;
+
+    private static MonopolyModel newModel() {
+        MonopolyModel model = new MonopolyModel(0);
+        for (int i = 0; i < SEATS; i++) {
+            model.addAI("AI" + (i + 1));
+        }
+        return model;
+    }
+
+    /**
+     * This test verifies that with seat rotation every seat goes first once for each seed and that the games of
+     * one seed are played with the same dice.
+     */
+    @Test
+    public void seatRotationTest() {
+        SeedSchedule schedule = new SeedSchedule(SEED);
+        schedule.setSeatRotation(true);
+        schedule.setAntithetic(true);
+        MonopolyModel model = newModel();
+        assertEquals(2 * SEATS, schedule.gamesPerSeed(SEATS));
+
+        int seeds = 100;
+        int[] first = new int[SEATS];
+        for (long game = 0; game < (long) seeds * schedule.gamesPerSeed(SEATS); game++) {
+            schedule.startGame(model, game);
+            first[model.getSeats().indexOf(model.getPlayer())]++;
+            assertEquals(SEED + game / schedule.gamesPerSeed(SEATS), schedule.seedOf(game, SEATS));
+        }
+        for (int seat = 0; seat < SEATS; seat++) {
+            assertEquals(2 * seeds, first[seat]);
+        }
+    }
+
+    /**
+     * This test verifies that the antithetic game of a seed rolls 14 minus every roll of the first game, and that
+     * without antithetic dice both games of a seed roll the same.
+     */
+    @Test
+    public void antitheticDiceTest() {
+        SeedSchedule schedule = new SeedSchedule(SEED);
+        schedule.setAntithetic(true);
+        MonopolyModel model = newModel();
+        int[] rolls = new int[ROLLS];
+
+        schedule.startGame(model, 0);
+        for (int i = 0; i < ROLLS; i++) {
+            rolls[i] = model.roll();
+        }
+        schedule.startGame(model, 1);
+        for (int i = 0; i < ROLLS; i++) {
+            assertEquals(14 - rolls[i], model.roll());
+        }
+
+        schedule.setAntithetic(false);
+        schedule.startGame(model, 0);
+        for (int i = 0; i < ROLLS; i++) {
+            assertEquals(rolls[i], model.roll());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SessionArena {
+    /**
+     * The SessionArena class
+     *
+     * Direct memory, outside of the Java heap, that hibernated games are stored in. The memory is allocated in
+     * slabs of SLABBYTES that are split into slots of a few sizes, a game is stored in the smallest slot it fits
+     * in. Freed slots are kept in a list for their size and reused, so the arena never gets fragmented and never
+     * gives memory back.
+     *
+     * The arena is shared by every session of a server, allocating and freeing are synchronized. A session reads
+     * and writes its own slot without a lock since only that session's thread uses it.
+     *
+     * @attribute slabs the slabs of each slot size
+     * @attribute free the freed slots of each slot size
+     * @attribute freeCounts the number of freed slots of each slot size
+     * @attribute next the slot after the last one ever used, for each slot size
+     * @attribute used the number of slots in use
+     */
+    static final int[] SLOTBYTES = {256, 512, 1024, 4096};
+    private static final int SLABBYTES = 1 << 20;
+    private static final int SIZEBITS = 2;
+
+    private final List<List<ByteBuffer>> slabs;
+    private final int[][] free;
+    private final int[] freeCounts;
+    private final int[] next;
+    private int used;
+
+    public SessionArena() {
+        this.slabs = new ArrayList<>();
+        for (int size = 0; size < SLOTBYTES.length; size++) {
+            this.slabs.add(new ArrayList<>());
+        }
+        this.free = new int[SLOTBYTES.length][16];
+        this.freeCounts = new int[SLOTBYTES.length];
+        this.next = new int[SLOTBYTES.length];
+    }
+
+    /**
+     * Copies the remaining bytes of a buffer into a slot.
+     * @param data the bytes to store, its position is moved to its limit
+     * @return the slot the bytes were stored in, used to load and free them
+     * @throws IllegalArgumentException if the bytes don't fit in the largest slot
+     */
+    public long store(ByteBuffer data) {
+        int length = data.remaining();
+        int size = 0;
+        while (size < SLOTBYTES.length && SLOTBYTES[size] < length + Integer.BYTES) {
+            size++;
+        }
+        if (size == SLOTBYTES.length) {
+            throw new IllegalArgumentException("Too large to store: " + length + " bytes");
+        }
+        long slot = allocate(size);
+        ByteBuffer buffer = slice(slot);
+        buffer.putInt(length);
+        buffer.put(data);
+        return slot;
+    }
+
+    /**
+     * Returns the bytes stored in a slot, the buffer shares the slot's memory so it must be read before the slot
+     * is freed.
+     */
+    public ByteBuffer load(long slot) {
+        ByteBuffer buffer = slice(slot);
+        int length = buffer.getInt();
+        buffer.limit(buffer.position() + length);
+        return buffer;
+    }
+
+    /**
+     * Frees a slot so it can be reused.
+     */
+    public synchronized void free(long slot) {
+        int size = (int) (slot & ((1 << SIZEBITS) - 1));
+        if (freeCounts[size] == free[size].length) {
+            free[size] = Arrays.copyOf(free[size], free[size].length * 2);
+        }
+        free[size][freeCounts[size]++] = (int) (slot >>> SIZEBITS);
+        used--;
+    }
+
+    private synchronized long allocate(int size) {
+        int index;
+        if (freeCounts[size] > 0) {
+            index = free[size][--freeCounts[size]];
+        }
+        else {
+            index = next[size]++;
+            if (index % (SLABBYTES / SLOTBYTES[size]) == 0) {
+                slabs.get(size).add(ByteBuffer.allocateDirect(SLABBYTES));
+            }
+        }
+        used++;
+        return (long) index << SIZEBITS | size;
+    }
+
+    /**
+     * Returns a buffer over the memory of a slot.
+     */
+    private ByteBuffer slice(long slot) {
+        int size = (int) (slot & ((1 << SIZEBITS) - 1));
+        int index = (int) (slot >>> SIZEBITS);
+        int perSlab = SLABBYTES / SLOTBYTES[size];
+        ByteBuffer slab;
+        synchronized (this) {
+            slab = slabs.get(size).get(index / perSlab);
+        }
+        int offset = index % perSlab * SLOTBYTES[size];
+        return slab.duplicate().position(offset).limit(offset + SLOTBYTES[size]).slice();
+    }
+
+    /**
+     * Returns the number of slots in use.
+     */
+    public synchronized int getUsed() {
+        return used;
+    }
+
+    /**
+     * Returns the bytes of direct memory the arena has allocated.
+     */
+    public synchronized long getBytes() {
+        long bytes = 0;
+        for (int size = 0; size < SLOTBYTES.length; size++) {
+            bytes += (long) slabs.get(size).size() * SLABBYTES;
+        }
+        return bytes;
+    }
+}
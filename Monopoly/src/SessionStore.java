@@ -0,0 +1,351 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+public class SessionStore implements Closeable {
+    /**
+     * The SessionStore class
+     *
+     * Keeps the games of a GameServer on disk. Saving a game only puts its latest state in memory, a writer thread
+     * then writes every game saved during the last durability window to the end of a log file with one write and
+     * one force. A game saved many times in a window is written once, and a window costs one disk sync whether
+     * it holds one game or thousands, so the more games are played the more are written per sync.
+     *
+     * Each record of the log is the session id, the length of the state, the state and a CRC32 of the record. The
+     * last record of a session is its state, a record that was only partly written when the server stopped is
+     * cut off when the log is opened again. When the log has grown past minCompactBytes and to COMPACTRATIO times
+     * the size of the latest records it is rewritten with only those records.
+     *
+     * A record only becomes the latest of its session once it has been forced to disk. When a write fails the log
+     * is cut back to where the write started, the futures of the window fail and its states are saved again in
+     * the next window unless a newer state has been saved since.
+     *
+     * @attribute path the log file
+     * @attribute channel writes the log
+     * @attribute windowMillis how long saved games wait before they are written, the most play that can be lost
+     * @attribute pending the latest state of every game saved since the last write, by session id
+     * @attribute written completes when the pending games have been written and forced to disk
+     * @attribute records where the latest record of every session starts in the log
+     * @attribute recordBytes the size of the latest record of every session
+     * @attribute liveBytes the size of the latest records added together
+     * @attribute minCompactBytes the size the log must grow past before it is compacted
+     * @attribute writer writes the pending games every window
+     * @attribute open whether the store is open
+     * @attribute fileLock held while the log is written or read, saving never waits for it
+     */
+    private static final int HEADERBYTES = Long.BYTES + Integer.BYTES;
+    private static final int COMPACTRATIO = 4;
+    private static final long DEFAULTMINCOMPACTBYTES = 1 << 20;
+    private static final long DEFAULTWINDOWMILLIS = 10;
+
+    private final Path path;
+    private FileChannel channel;
+    private long windowMillis;
+    private Map<Long, byte[]> pending;
+    private CompletableFuture<Void> written;
+    private final Map<Long, Long> records;
+    private final Map<Long, Integer> recordBytes;
+    private long liveBytes;
+    private long minCompactBytes;
+    private Thread writer;
+    private volatile boolean open;
+    private final Object fileLock = new Object();
+
+    /**
+     * Opens the log, cutting off a record that was only partly written.
+     * @param path the log file, it is created if it doesn't exist
+     */
+    public SessionStore(String path) throws IOException {
+        this.path = Paths.get(path);
+        if (this.path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(this.path.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.windowMillis = DEFAULTWINDOWMILLIS;
+        this.minCompactBytes = DEFAULTMINCOMPACTBYTES;
+        this.pending = new HashMap<>();
+        this.written = new CompletableFuture<>();
+        this.records = new HashMap<>();
+        this.recordBytes = new HashMap<>();
+        scan();
+    }
+
+    /**
+     * Setter for the durability window, it must be set before the store is started.
+     */
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Setter for the size the log must grow past before it is compacted.
+     */
+    public void setMinCompactBytes(long minCompactBytes) {
+        this.minCompactBytes = minCompactBytes;
+    }
+
+    /**
+     * Starts the thread that writes the saved games.
+     */
+    public void start() {
+        open = true;
+        writer = new Thread(this::writeLoop, "session store");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Finds the latest record of every session and cuts off a partly written record at the end of the log.
+     */
+    private void scan() throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADERBYTES);
+        while (position + HEADERBYTES + Integer.BYTES <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            long id = header.getLong();
+            int length = header.getInt();
+            int bytes = HEADERBYTES + length + Integer.BYTES;
+            if (length < 0 || position + bytes > size || read(position, bytes) == null) {
+                break;
+            }
+            put(id, position, bytes);
+            position += bytes;
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+        channel.position(position);
+    }
+
+    /**
+     * Reads a record and returns its state, or null if its CRC doesn't match.
+     */
+    private byte[] read(long position, int bytes) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(bytes);
+        readFully(record, position);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, bytes - Integer.BYTES);
+        if ((int) crc.getValue() != record.getInt(bytes - Integer.BYTES)) {
+            return null;
+        }
+        byte[] state = new byte[bytes - HEADERBYTES - Integer.BYTES];
+        System.arraycopy(record.array(), HEADERBYTES, state, 0, state.length);
+        return state;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + path);
+            }
+        }
+    }
+
+    private void put(long id, long position, int bytes) {
+        Integer old = recordBytes.put(id, bytes);
+        liveBytes += bytes - (old == null ? 0 : old);
+        records.put(id, position);
+    }
+
+    /**
+     * Returns the latest state of every session in the log, by session id.
+     * @throws IOException if the latest record of a session no longer matches its CRC
+     */
+    public Map<Long, byte[]> load() throws IOException {
+        synchronized (fileLock) {
+            Map<Long, byte[]> states = new HashMap<>();
+            for (Map.Entry<Long, Long> entry : records.entrySet()) {
+                byte[] state = read(entry.getValue(), recordBytes.get(entry.getKey()));
+                if (state == null) {
+                    throw new IOException("The record of session " + entry.getKey() + " in " + path + " is corrupt");
+                }
+                states.put(entry.getKey(), state);
+            }
+            return states;
+        }
+    }
+
+    /**
+     * Saves the state of a session, it is written at the end of the current durability window.
+     * @param id the session id
+     * @param state the remaining bytes of the buffer are copied
+     * @return completes once the state is on disk
+     */
+    public CompletableFuture<Void> save(long id, ByteBuffer state) {
+        byte[] bytes = new byte[state.remaining()];
+        state.get(bytes);
+        synchronized (this) {
+            pending.put(id, bytes);
+            return written;
+        }
+    }
+
+    private void writeLoop() {
+        while (open) {
+            try {
+                Thread.sleep(windowMillis);
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes every pending state to the end of the log with one write and forces it to disk, the states are only
+     * made the latest of their sessions once the force has returned.
+     */
+    public void flush() {
+        synchronized (fileLock) {
+            Map<Long, byte[]> batch;
+            CompletableFuture<Void> done;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                done = written;
+                pending = new HashMap<>();
+                written = new CompletableFuture<>();
+            }
+
+            int size = 0;
+            for (byte[] state : batch.values()) {
+                size += HEADERBYTES + state.length + Integer.BYTES;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            CRC32 crc = new CRC32();
+            for (Map.Entry<Long, byte[]> entry : batch.entrySet()) {
+                int start = buffer.position();
+                buffer.putLong(entry.getKey());
+                buffer.putInt(entry.getValue().length);
+                buffer.put(entry.getValue());
+                crc.reset();
+                crc.update(buffer.array(), start, buffer.position() - start);
+                buffer.putInt((int) crc.getValue());
+            }
+            buffer.flip();
+
+            long position = 0;
+            try {
+                position = channel.position();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                e.printStackTrace();
+                retry(batch, position);
+                done.completeExceptionally(e);
+                return;
+            }
+            int start = 0;
+            for (Map.Entry<Long, byte[]> entry : batch.entrySet()) {
+                int bytes = HEADERBYTES + entry.getValue().length + Integer.BYTES;
+                put(entry.getKey(), position + start, bytes);
+                start += bytes;
+            }
+            done.complete(null);
+
+            try {
+                if (channel.size() > minCompactBytes && channel.size() > COMPACTRATIO * liveBytes) {
+                    compact();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Cuts the log back to where a failed write started and saves the states of the write again, unless a newer
+     * state of the session has been saved since.
+     */
+    private void retry(Map<Long, byte[]> batch, long position) {
+        try {
+            channel.truncate(position);
+            channel.position(position);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        synchronized (this) {
+            for (Map.Entry<Long, byte[]> entry : batch.entrySet()) {
+                pending.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest record of every session, the new log replaces the old one in one move.
+     * If the move fails the old log is opened again and kept.
+     */
+    private void compact() throws IOException {
+        Path compacted = Paths.get(path + ".compact");
+        Map<Long, Long> moved = new HashMap<>();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Map.Entry<Long, Long> entry : records.entrySet()) {
+                moved.put(entry.getKey(), out.position());
+                long position = entry.getValue();
+                long end = position + recordBytes.get(entry.getKey());
+                while (position < end) {
+                    position += channel.transferTo(position, end - position, out);
+                }
+            }
+            out.force(false);
+        }
+        channel.close();
+        try {
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records.putAll(moved);
+        } finally {
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    /**
+     * Returns the size of the log file.
+     */
+    public long getBytes() throws IOException {
+        synchronized (fileLock) {
+            return channel.size();
+        }
+    }
+
+    /**
+     * Writes the pending states and closes the log.
+     */
+    @Override
+    public void close() throws IOException {
+        open = false;
+        if (writer != null) {
+            // interrupting the writer would close the channel if it was in the middle of forcing a write, it
+            // stops by itself within a window instead
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        synchronized (fileLock) {
+            channel.close();
+        }
+    }
+}
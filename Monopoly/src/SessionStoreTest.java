@@ -0,0 +1,121 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionStoreTest {
+    /**
+     * These tests verify that the SessionStore keeps the latest state of every session across restarts.
+     */
+    private File file;
+
+    @BeforeEach
+    public void init() throws IOException {
+        file = File.createTempFile("sessions", ".log");
+        file.deleteOnExit();
+    }
+
+    private static ByteBuffer state(int value, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) value);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * This test verifies that only the latest state saved for a session is loaded after the store is reopened.
+     */
+    @Test
+    public void latestStateTest() throws Exception {
+        SessionStore store = new SessionStore(file.getPath());
+        store.save(1, state(1, 10));
+        store.save(2, state(2, 20));
+        store.flush();
+        store.save(1, state(3, 30));
+        store.save(1, state(4, 40));
+        store.close();
+
+        SessionStore reopened = new SessionStore(file.getPath());
+        Map<Long, byte[]> states = reopened.load();
+        assertEquals(2, states.size());
+        assertEquals(40, states.get(1L).length);
+        assertEquals(4, states.get(1L)[0]);
+        assertEquals(20, states.get(2L).length);
+        reopened.close();
+    }
+
+    /**
+     * This test verifies that a record that was only partly written is cut off and the ones before it are kept.
+     */
+    @Test
+    public void tornRecordTest() throws Exception {
+        SessionStore store = new SessionStore(file.getPath());
+        store.save(1, state(1, 10));
+        store.flush();
+        store.save(1, state(2, 100));
+        store.close();
+        long written = file.length();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(written - 7);
+        }
+
+        SessionStore reopened = new SessionStore(file.getPath());
+        assertEquals(1, reopened.load().get(1L)[0]);
+        assertTrue(reopened.getBytes() < written - 100);
+        reopened.close();
+    }
+
+    /**
+     * This test verifies that the saves of a durability window are written by the store's own thread.
+     */
+    @Test
+    public void writeBehindTest() throws Exception {
+        SessionStore store = new SessionStore(file.getPath());
+        store.setWindowMillis(5);
+        store.start();
+        for (int i = 0; i < 100; i++) {
+            store.save(i % 10, state(i, 50));
+        }
+        store.save(99, state(99, 50)).get();
+        assertEquals(11, store.load().size());
+        store.close();
+    }
+
+    /**
+     * This test verifies that every session is loaded with its latest state after the log was compacted and the
+     * store reopened.
+     */
+    @Test
+    public void compactTest() throws Exception {
+        SessionStore store = new SessionStore(file.getPath());
+        store.setMinCompactBytes(0);
+        long largest = 0;
+        for (int i = 0; i < 50; i++) {
+            for (int id = 0; id < 5; id++) {
+                store.save(id, state(i + id, 100));
+            }
+            store.flush();
+            largest = Math.max(largest, store.getBytes());
+        }
+        long compacted = store.getBytes();
+        store.close();
+        assertTrue(compacted < largest);
+
+        SessionStore reopened = new SessionStore(file.getPath());
+        Map<Long, byte[]> states = reopened.load();
+        assertEquals(5, states.size());
+        for (int id = 0; id < 5; id++) {
+            assertEquals(100, states.get((long) id).length);
+            assertEquals(49 + id, states.get((long) id)[0]);
+        }
+        reopened.close();
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public class SimulationCheckpoint {
+    /**
+     * The SimulationCheckpoint class
+     *
+     * The progress of a batch of headless games saved to a file: the settings of the batch, the seed, how many
+     * games are in each chunk, the chunks that are done and the merged statistics of those chunks. Games are
+     * numbered by the SeedSchedule and always play the same way, so a batch that starts again from its checkpoint
+     * and plays the chunks that aren't done ends with the same statistics as if it had never stopped.
+     *
+     * The file is written to a temporary file that is forced to disk and then replaces the checkpoint in one move,
+     * so a run that is killed or a machine that loses power while it writes leaves the last checkpoint whole.
+     *
+     * @attribute batch the settings of the batch, a checkpoint is only read by the same batch
+     * @attribute seed the seed of the batch
+     * @attribute chunkGames the number of games in each chunk
+     * @attribute done the chunks that are done
+     * @attribute statistics the merged statistics of the chunks that are done
+     */
+    private static final int MAGIC = 0x4D434B50;
+
+    private final byte[] batch;
+    private final long seed;
+    private final long chunkGames;
+    private final BitSet done;
+    private final SimulationStatistics statistics;
+
+    /**
+     * Default constructor for SimulationCheckpoint.
+     * @param batch the settings of the batch from batch()
+     * @param seed the seed of the batch
+     * @param chunkGames the number of games in each chunk
+     * @param done the chunks that are done
+     * @param statistics the merged statistics of the chunks that are done
+     */
+    public SimulationCheckpoint(byte[] batch, long seed, long chunkGames, BitSet done, SimulationStatistics statistics) {
+        this.batch = batch;
+        this.seed = seed;
+        this.chunkGames = chunkGames;
+        this.done = done;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Encodes the settings of a batch, everything but the seed has to be the same for a checkpoint to be read.
+     * @param boardType the board the games are played on
+     * @param games the number of games in the batch
+     * @param firstGame the number of the first game
+     * @param strategies the name of the strategy of each seat
+     * @param maxTurns the turn cap
+     * @param stalemateWindow the window of the StalemateDetector, 0 for none
+     * @param adjudicate whether games without a winner are won on net worth
+     * @param netWorthTurn the turn the net worth of every seat is recorded at
+     * @param schedule the schedule of the batch
+     */
+    public static byte[] batch(int boardType, long games, long firstGame, List<String> strategies, int maxTurns,
+                               int stalemateWindow, boolean adjudicate, int netWorthTurn, SeedSchedule schedule) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(boardType);
+            out.writeLong(games);
+            out.writeLong(firstGame);
+            out.writeInt(strategies.size());
+            for (String strategy : strategies) {
+                out.writeUTF(strategy);
+            }
+            out.writeInt(maxTurns);
+            out.writeInt(stalemateWindow);
+            out.writeBoolean(adjudicate);
+            out.writeInt(netWorthTurn);
+            out.writeBoolean(schedule.isAntithetic());
+            out.writeBoolean(schedule.isSeatRotation());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the checkpoint, it is forced to disk before it replaces the file in one move.
+     * @param path the checkpoint file
+     */
+    public void write(Path path) throws IOException {
+        Path written = Paths.get(path + ".tmp");
+        try (FileChannel channel = FileChannel.open(written, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(batch.length);
+            out.write(batch);
+            out.writeLong(seed);
+            out.writeLong(chunkGames);
+            byte[] chunks = done.toByteArray();
+            out.writeInt(chunks.length);
+            out.write(chunks);
+            statistics.writeTo(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(written, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint written by the same batch.
+     * @param path the checkpoint file
+     * @param batch the settings of the batch from batch()
+     * @throws IOException if the file isn't a checkpoint or is the checkpoint of a different batch
+     */
+    public static SimulationCheckpoint read(Path path, byte[] batch) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a checkpoint");
+            }
+            byte[] written = new byte[in.readInt()];
+            in.readFully(written);
+            if (!Arrays.equals(written, batch)) {
+                throw new IOException(path + " is the checkpoint of a different batch");
+            }
+            long seed = in.readLong();
+            long chunkGames = in.readLong();
+            byte[] chunks = new byte[in.readInt()];
+            in.readFully(chunks);
+            return new SimulationCheckpoint(batch, seed, chunkGames, BitSet.valueOf(chunks),
+                    SimulationStatistics.readFrom(in));
+        }
+    }
+
+    /**
+     * Getter for seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Getter for the number of games in each chunk.
+     */
+    public long getChunkGames() {
+        return chunkGames;
+    }
+
+    /**
+     * Getter for the chunks that are done.
+     */
+    public BitSet getDone() {
+        return done;
+    }
+
+    /**
+     * Getter for the merged statistics of the chunks that are done.
+     */
+    public SimulationStatistics getStatistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,476 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SimulationCoordinator {
+    /**
+     * The SimulationCoordinator class
+     *
+     * Plays a batch of headless games across many JVMs. The batch is split into shards of shardGames consecutive
+     * game numbers of the SeedSchedule, so every shard rolls its own seeds and the merged statistics are the same as
+     * if one Simulator had played the whole batch. The coordinator starts a number of SimulationWorker processes on
+     * its own machine, workers on other hosts can connect too, and hands out the shards one at a time. Each worker
+     * sends back the statistics of its shard in the binary form of SimulationStatistics.writeTo() and they are
+     * merged as they arrive.
+     *
+     * The protocol is a stream of big-endian numbers: on connecting a worker is sent MAGIC and the batch, then
+     * each shard as its first game and number of games, and answers each with its statistics. A shard of 0 games
+     * tells the worker there is nothing left.
+     *
+     * A worker that crashes or disconnects gives its shard back to be played by another worker, and a local worker
+     * process that dies is started again. With a checkpoint file a SimulationCheckpoint is written after every
+     * shard, so a batch that is stopped carries on from where it was when it is run again. A checkpoint that can't
+     * be written is a failure of the coordinator, not the worker, so the batch is stopped.
+     *
+     * @attribute boardType the board the games are played on
+     * @attribute players the number of AI players in each game
+     * @attribute games the number of games in the batch
+     * @attribute shardGames the number of games in each shard, a whole number of seeds
+     * @attribute maxTurns games are stopped without a winner after this many turns
+     * @attribute stalemateWindow games are stopped early as stalemates after this many unchanged turns, 0 never
+     * @attribute adjudicate whether games stopped without a winner are won on net worth instead of drawn
+     * @attribute netWorthTurn the turn the net worth of every seat is recorded at
+     * @attribute schedule decides the seed, dice and turn order of every game
+     * @attribute strategies the strategy of the AI in each seat
+     * @attribute workers the number of worker processes started on this machine
+     * @attribute workerThreads the number of threads each worker plays games on
+     * @attribute address the address workers connect to, loopback unless workers on other hosts are wanted
+     * @attribute port the port workers connect to, 0 picks a free port
+     * @attribute checkpoint the file progress is saved to, it can be null
+     * @attribute serverSocket accepts workers, null until the coordinator is started
+     * @attribute processes the local worker processes
+     * @attribute restarts the number of local workers started again after dying
+     * @attribute givenUp whether the local workers died more than MAXRESTARTS times, the batch is stopped
+     * @attribute failure why the checkpoint couldn't be written, the batch is stopped, null if it could
+     * @attribute pending the shards waiting for a worker
+     * @attribute done the shards whose statistics have been merged
+     * @attribute statistics the merged statistics of the shards that are done
+     */
+    static final int MAGIC = 0x4D53494D;
+    private static final int DEFAULTSHARDGAMES = 10000;
+    private static final int DEFAULTMAXTURNS = 1000;
+    private static final int DEFAULTNETWORTHTURN = 100;
+    private static final int MAXRESTARTS = 8;
+
+    private final int boardType;
+    private final int players;
+    private final long games;
+    private long shardGames;
+    private int maxTurns;
+    private int stalemateWindow;
+    private boolean adjudicate;
+    private int netWorthTurn;
+    private final SeedSchedule schedule;
+    private final List<String> strategies;
+    private int workers;
+    private int workerThreads;
+    private InetAddress address;
+    private int port;
+    private Path checkpoint;
+    private ServerSocket serverSocket;
+    private final List<Process> processes;
+    private int restarts;
+    private boolean givenUp;
+    private IOException failure;
+    private final Deque<Long> pending;
+    private final BitSet done;
+    private SimulationStatistics statistics;
+
+    /**
+     * Default constructor for SimulationCoordinator.
+     * @param boardType the board the games are played on
+     * @param players the number of AI players in each game (2-4)
+     * @param games the number of games to play
+     */
+    public SimulationCoordinator(int boardType, int players, long games) {
+        if (players < 2 || players > 4) {
+            throw new IllegalArgumentException("Invalid number of players, must be between 2 to 4 players");
+        }
+        this.boardType = boardType;
+        this.players = players;
+        this.games = games;
+        this.shardGames = DEFAULTSHARDGAMES;
+        this.maxTurns = DEFAULTMAXTURNS;
+        this.netWorthTurn = DEFAULTNETWORTHTURN;
+        this.schedule = new SeedSchedule(ThreadLocalRandom.current().nextLong());
+        this.strategies = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            this.strategies.add("default");
+        }
+        this.workers = Runtime.getRuntime().availableProcessors();
+        this.workerThreads = 1;
+        this.address = InetAddress.getLoopbackAddress();
+        this.processes = new ArrayList<>();
+        this.pending = new ArrayDeque<>();
+        this.done = new BitSet();
+    }
+
+    /**
+     * Setter for the number of games in each shard, it is rounded up to a whole number of seeds.
+     */
+    public void setShardGames(long shardGames) {
+        this.shardGames = shardGames;
+    }
+
+    /**
+     * Setter for the turn cap.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Setter for the number of turns a game has to stay unchanged to be stopped as a stalemate, 0 never stops it.
+     */
+    public void setStalemateWindow(int stalemateWindow) {
+        this.stalemateWindow = stalemateWindow;
+    }
+
+    /**
+     * Setter for whether games stopped by the turn cap or as a stalemate are won on net worth.
+     */
+    public void setAdjudicate(boolean adjudicate) {
+        this.adjudicate = adjudicate;
+    }
+
+    /**
+     * Setter for the turn the net worth of every seat is recorded at.
+     */
+    public void setNetWorthTurn(int netWorthTurn) {
+        this.netWorthTurn = netWorthTurn;
+    }
+
+    /**
+     * Setter for the strategy of the AI in a seat.
+     * @param seat the index of the seat
+     * @param strategy the name the strategy is loaded by
+     */
+    public void setStrategy(int seat, String strategy) {
+        this.strategies.set(seat, strategy);
+    }
+
+    /**
+     * Setter for the number of worker processes started on this machine, 0 when the workers are started by hand.
+     */
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Setter for the number of threads each worker plays games on.
+     */
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Setter for the address and port workers connect to, the address must be reachable from other hosts for
+     * workers to run there.
+     */
+    public void setAddress(InetAddress address, int port) {
+        this.address = address;
+        this.port = port;
+    }
+
+    /**
+     * Setter for the checkpoint file, it must be set before the coordinator is started.
+     */
+    public void setCheckpoint(String checkpoint) {
+        this.checkpoint = Paths.get(checkpoint);
+    }
+
+    /**
+     * Getter for the SeedSchedule, it is used to set the seed, antithetic dice and seat rotation of the batch.
+     */
+    public SeedSchedule getSeedSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Returns the port workers connect to.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the number of shards in the batch.
+     */
+    private long getShards() {
+        return (games + shardGames - 1) / shardGames;
+    }
+
+    /**
+     * Plays the batch and returns the merged statistics.
+     */
+    public SimulationStatistics run() throws IOException, InterruptedException {
+        start();
+        return await();
+    }
+
+    /**
+     * Reads the checkpoint, starts listening for workers and starts the local workers.
+     */
+    public void start() throws IOException {
+        long perSeed = schedule.gamesPerSeed(players);
+        shardGames = (Math.max(1, shardGames) + perSeed - 1) / perSeed * perSeed;
+        statistics = new SimulationStatistics(boardType, players);
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            readCheckpoint();
+        }
+        for (long shard = 0; shard < getShards(); shard++) {
+            if (!done.get((int) shard)) {
+                pending.add(shard);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        serverSocket = new ServerSocket(port, 0, address);
+        Thread acceptor = new Thread(this::accept, "coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        for (int i = 0; i < workers; i++) {
+            startWorker();
+        }
+    }
+
+    /**
+     * Waits until every shard is done, then stops listening.
+     * @return the merged statistics of the batch
+     * @throws IOException if the local workers kept dying or the checkpoint couldn't be written
+     */
+    public SimulationStatistics await() throws IOException, InterruptedException {
+        boolean failed;
+        IOException checkpointFailure;
+        synchronized (this) {
+            while (done.cardinality() < getShards() && !givenUp && failure == null) {
+                wait();
+            }
+            checkpointFailure = failure;
+            failed = done.cardinality() < getShards() || checkpointFailure != null;
+        }
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        synchronized (processes) {
+            for (Process process : processes) {
+                if (failed) {
+                    process.destroy();
+                }
+                process.waitFor();
+            }
+        }
+        if (checkpointFailure != null) {
+            throw new IOException("The checkpoint couldn't be written, the batch was stopped", checkpointFailure);
+        }
+        if (failed) {
+            throw new IOException("The workers died " + MAXRESTARTS + " times, the batch was stopped");
+        }
+        return statistics;
+    }
+
+    /**
+     * Starts a worker process on this machine with the same Java and classpath, it is started again if it dies
+     * before the batch is done.
+     */
+    private void startWorker() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "SimulationWorker",
+                address.getHostAddress(), String.valueOf(getPort())).inheritIO().start();
+        synchronized (processes) {
+            processes.add(process);
+        }
+        process.onExit().thenAccept(exited -> {
+            boolean restart;
+            synchronized (this) {
+                restart = exited.exitValue() != 0 && done.cardinality() < getShards() && restarts < MAXRESTARTS;
+                if (restart) {
+                    restarts++;
+                }
+                else if (exited.exitValue() != 0 && restarts == MAXRESTARTS) {
+                    givenUp = true;
+                    notifyAll();
+                }
+            }
+            if (restart) {
+                try {
+                    startWorker();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread thread = new Thread(() -> serve(socket), "coordinator worker");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives shards to one worker until there are none left, a shard the worker doesn't finish is given back.
+     */
+    private void serve(Socket socket) {
+        Long shard = null;
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            writeBatch(out);
+            while ((shard = takeShard()) != null) {
+                long firstGame = shard * shardGames;
+                out.writeLong(firstGame);
+                out.writeLong(Math.min(shardGames, games - firstGame));
+                out.flush();
+                SimulationStatistics result = SimulationStatistics.readFrom(in);
+                finishShard(shard, result);
+                shard = null;
+            }
+            out.writeLong(0);
+            out.writeLong(0);
+            out.flush();
+        } catch (IOException e) {
+            // the worker crashed or disconnected, its shard is played by another worker
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (shard != null) {
+                synchronized (this) {
+                    pending.addFirst(shard);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private void writeBatch(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(boardType);
+        out.writeInt(players);
+        for (String strategy : strategies) {
+            out.writeUTF(strategy);
+        }
+        out.writeInt(maxTurns);
+        out.writeInt(stalemateWindow);
+        out.writeBoolean(adjudicate);
+        out.writeInt(netWorthTurn);
+        out.writeLong(schedule.getSeed());
+        out.writeBoolean(schedule.isAntithetic());
+        out.writeBoolean(schedule.isSeatRotation());
+        out.writeInt(workerThreads);
+    }
+
+    /**
+     * Waits for a shard to play.
+     * @return the shard, null once every shard is done or the batch has failed
+     */
+    private synchronized Long takeShard() throws InterruptedException {
+        while (pending.isEmpty() && done.cardinality() < getShards() && failure == null) {
+            // the shards left are being played, wait in case a worker gives one back
+            wait();
+        }
+        return failure == null ? pending.poll() : null;
+    }
+
+    /**
+     * Merges the statistics of a shard and saves the checkpoint, the batch fails if the checkpoint can't be
+     * written.
+     */
+    private synchronized void finishShard(long shard, SimulationStatistics result) {
+        if (done.get((int) shard)) {
+            return;
+        }
+        statistics.merge(result);
+        done.set((int) shard);
+        if (checkpoint != null && failure == null) {
+            try {
+                writeCheckpoint();
+            } catch (IOException e) {
+                e.printStackTrace();
+                failure = e;
+            }
+        }
+        notifyAll();
+    }
+
+    /**
+     * Saves the shards that are done and their merged statistics, each shard is a chunk of the checkpoint.
+     */
+    private void writeCheckpoint() throws IOException {
+        new SimulationCheckpoint(batch(), schedule.getSeed(), shardGames, (BitSet) done.clone(), statistics)
+                .write(checkpoint);
+    }
+
+    /**
+     * Reads the checkpoint of an earlier run of the same batch, its seed and shard size are used.
+     */
+    private void readCheckpoint() throws IOException {
+        SimulationCheckpoint saved = SimulationCheckpoint.read(checkpoint, batch());
+        schedule.setSeed(saved.getSeed());
+        shardGames = saved.getChunkGames();
+        done.or(saved.getDone());
+        statistics = saved.getStatistics();
+    }
+
+    private byte[] batch() {
+        return SimulationCheckpoint.batch(boardType, games, 0, strategies, maxTurns, stalemateWindow, adjudicate,
+                netWorthTurn, schedule);
+    }
+
+    /**
+     * Runs a batch from the command line and prints the statistics.
+     * Arguments: boardType players games [workers [checkpoint [seed]]]
+     */
+    public static void main(String[] args) {
+        int boardType = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long games = args.length > 2 ? Long.parseLong(args[2]) : 100000;
+
+        SimulationCoordinator coordinator = new SimulationCoordinator(boardType, players, games);
+        if (args.length > 3) {
+            coordinator.setWorkers(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            coordinator.setCheckpoint(args[4]);
+        }
+        if (args.length > 5) {
+            coordinator.getSeedSchedule().setSeed(Long.parseLong(args[5]));
+        }
+        try {
+            System.out.println(coordinator.run());
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationCoordinatorTest {
+    /**
+     * These tests verify that a batch split into shards across workers gives the same statistics as one Simulator.
+     */
+    private final static int GAMES = 300;
+    private final static int MAXTURNS = 300;
+    private final static long SEED = 7;
+
+    private static SimulationCoordinator newCoordinator() {
+        SimulationCoordinator coordinator = new SimulationCoordinator(0, 2, GAMES);
+        coordinator.setShardGames(40);
+        coordinator.setMaxTurns(MAXTURNS);
+        coordinator.setWorkers(0);
+        coordinator.getSeedSchedule().setSeed(SEED);
+        return coordinator;
+    }
+
+    private static Thread startWorker(int port) {
+        Thread worker = new Thread(() -> {
+            try {
+                SimulationWorker.run("localhost", port);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        worker.start();
+        return worker;
+    }
+
+    /**
+     * This test verifies that the shards of a worker that disconnects are played by the others and the merged
+     * statistics are those of the whole batch played in one Simulator.
+     */
+    @Test
+    public void shardedTest() throws Exception {
+        Simulator simulator = new Simulator(0, 2, GAMES);
+        simulator.setMaxTurns(MAXTURNS);
+        simulator.setThreads(1);
+        simulator.getSeedSchedule().setSeed(SEED);
+        SimulationStatistics expected = simulator.run();
+
+        SimulationCoordinator coordinator = newCoordinator();
+        coordinator.start();
+        try (Socket crashed = new Socket("localhost", coordinator.getPort())) {
+            // the batch and the first shard are sent together, the worker disconnects without playing it
+            assertTrue(crashed.getInputStream().read() >= 0);
+        }
+        List<Thread> workers = new ArrayList<>();
+        workers.add(startWorker(coordinator.getPort()));
+        workers.add(startWorker(coordinator.getPort()));
+        SimulationStatistics statistics = coordinator.await();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(GAMES, statistics.getGames());
+        assertEquals(expected.getDraws(), statistics.getDraws());
+        assertEquals(expected.getWins(0), statistics.getWins(0));
+        assertEquals(expected.getWins(1), statistics.getWins(1));
+        assertEquals(expected.getGameLength().getQuantile(0.5), statistics.getGameLength().getQuantile(0.5));
+        assertEquals(expected.getNetWorth(0).getMean(), statistics.getNetWorth(0).getMean(), 0.0001);
+    }
+
+    /**
+     * This test verifies that a batch run again with its checkpoint doesn't play the shards that are done.
+     */
+    @Test
+    public void checkpointTest() throws Exception {
+        File file = File.createTempFile("simulation", ".checkpoint");
+        file.delete();
+        file.deleteOnExit();
+        SimulationCoordinator coordinator = newCoordinator();
+        coordinator.setCheckpoint(file.getPath());
+        coordinator.start();
+        Thread worker = startWorker(coordinator.getPort());
+        SimulationStatistics statistics = coordinator.await();
+        worker.join();
+        assertTrue(file.exists());
+
+        SimulationCoordinator resumed = newCoordinator();
+        resumed.getSeedSchedule().setSeed(SEED + 1);
+        resumed.setCheckpoint(file.getPath());
+        SimulationStatistics restored = resumed.run();
+        assertEquals(SEED, resumed.getSeedSchedule().getSeed());
+        assertEquals(statistics.getGames(), restored.getGames());
+        assertEquals(statistics.getWins(0), restored.getWins(0));
+        assertEquals(statistics.getGameLength().getMean(), restored.getGameLength().getMean(), 0.0001);
+    }
+
+    /**
+     * This test verifies that a checkpoint that can't be written stops the batch instead of giving the shard to
+     * another worker.
+     */
+    @Test
+    public void checkpointFailureTest() throws Exception {
+        File directory = File.createTempFile("simulation", "");
+        directory.delete();
+        SimulationCoordinator coordinator = newCoordinator();
+        coordinator.setCheckpoint(new File(directory, "checkpoint").getPath());
+        coordinator.start();
+        Thread worker = startWorker(coordinator.getPort());
+        IOException e = assertThrows(IOException.class, coordinator::await);
+        worker.join();
+        assertNotNull(e.getCause());
+    }
+}
@@ -0,0 +1,367 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+public class SimulationStatistics implements GameObserver {
+    /**
+     * The SimulationStatistics class
+     *
+     * Collects the outcome of headless games played on one board. Distributions are kept in QuantileSketches so the
+     * memory used does not grow with the number of games. Each simulation thread observes its own games with its
+     * own SimulationStatistics and the results are merged when the batch is done.
+     *
+     * @attribute boardType the board the games were played on
+     * @attribute seats the players of the game being observed, their index is their seat
+     * @attribute games the number of games finished
+     * @attribute draws the number of games that hit the turn cap without a winner
+     * @attribute stalemates the number of games stopped early by a StalemateDetector
+     * @attribute adjudicated the number of games without a bankrupt winner that were won on net worth
+     * @attribute wins the number of games won from each seat
+     * @attribute gameLength the number of turns each game lasted
+     * @attribute firstBankruptcy the turn of the first bankruptcy, for games with one
+     * @attribute netWorth the net worth of each seat at the net worth turn
+     * @attribute rentPerSquare the rent collected on each square in each game
+     */
+    private final int boardType;
+    private List<Player> seats;
+    private long games;
+    private long draws;
+    private long stalemates;
+    private long adjudicated;
+    private final long[] wins;
+    private final QuantileSketch gameLength;
+    private final QuantileSketch firstBankruptcy;
+    private final QuantileSketch[] netWorth;
+    private final QuantileSketch[] rentPerSquare;
+
+    private final long[] gameRent;
+    private int gameFirstBankruptcy;
+    private int gameWinner;
+    private boolean gameStalemate;
+    private boolean gameAdjudicated;
+
+    private static final int BOARDSIZE = 32;
+
+    /**
+     * Default constructor for SimulationStatistics.
+     * @param boardType the board the games are played on
+     * @param numberOfSeats the number of players in each game
+     */
+    public SimulationStatistics(int boardType, int numberOfSeats) {
+        this.boardType = boardType;
+        this.wins = new long[numberOfSeats];
+        this.gameLength = new QuantileSketch();
+        this.firstBankruptcy = new QuantileSketch();
+        this.netWorth = new QuantileSketch[numberOfSeats];
+        for (int i = 0; i < numberOfSeats; i++) {
+            this.netWorth[i] = new QuantileSketch();
+        }
+        this.rentPerSquare = new QuantileSketch[BOARDSIZE];
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.rentPerSquare[i] = new QuantileSketch();
+        }
+        this.gameRent = new long[BOARDSIZE];
+    }
+
+    /**
+     * Starts observing a new game of the given model.
+     * @param model the game about to be played
+     */
+    public void startGame(MonopolyModel model) {
+        this.seats = model.getSeats();
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.gameRent[i] = 0;
+        }
+        this.gameFirstBankruptcy = 0;
+        this.gameWinner = -1;
+        this.gameStalemate = false;
+        this.gameAdjudicated = false;
+    }
+
+    /**
+     * Records that the game being observed was stopped early as a stalemate.
+     */
+    public void recordStalemate() {
+        this.gameStalemate = true;
+    }
+
+    /**
+     * Decides the game being observed on net worth, the player still in the game with the highest net worth wins.
+     * A tie for the highest net worth is a draw.
+     * @param model the game being observed, it must not be over
+     */
+    public void adjudicate(MonopolyModel model) {
+        int best = -1;
+        int bestWorth = Integer.MIN_VALUE;
+        boolean tied = false;
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            int worth = model.getPlayers().get(i).getNetWorth();
+            if (worth > bestWorth) {
+                best = i;
+                bestWorth = worth;
+                tied = false;
+            }
+            else if (worth == bestWorth) {
+                tied = true;
+            }
+        }
+        if (best >= 0 && !tied) {
+            this.gameWinner = this.seats.indexOf(model.getPlayers().get(best));
+            this.gameAdjudicated = true;
+        }
+    }
+
+    /**
+     * Records the net worth of every seat, eliminated players are worth nothing. An eliminated player still lists
+     * the properties they lost, so their own net worth can't be used.
+     * @param model the game being observed
+     */
+    public void recordNetWorth(MonopolyModel model) {
+        for (int i = 0; i < this.seats.size(); i++) {
+            Player seat = this.seats.get(i);
+            this.netWorth[i].record(model.getPlayers().contains(seat) ? seat.getNetWorth() : 0);
+        }
+    }
+
+    /**
+     * Finishes the game being observed.
+     * @param turns the number of turns the game lasted
+     */
+    public void endGame(int turns) {
+        this.games++;
+        this.gameLength.record(turns);
+        if (this.gameStalemate) {
+            this.stalemates++;
+        }
+        if (this.gameAdjudicated) {
+            this.adjudicated++;
+        }
+        if (this.gameFirstBankruptcy > 0) {
+            this.firstBankruptcy.record(this.gameFirstBankruptcy);
+        }
+        if (this.gameWinner >= 0) {
+            this.wins[this.gameWinner]++;
+        }
+        else {
+            this.draws++;
+        }
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.rentPerSquare[i].record(this.gameRent[i]);
+        }
+    }
+
+    @Override
+    public void rentPaid(Player payer, Player owner, int square, int amount) {
+        this.gameRent[square] += amount;
+    }
+
+    @Override
+    public void playerEliminated(Player player, int turn) {
+        if (this.gameFirstBankruptcy == 0) {
+            this.gameFirstBankruptcy = turn;
+        }
+    }
+
+    @Override
+    public void playerWon(Player player, int turn) {
+        this.gameWinner = this.seats.indexOf(player);
+    }
+
+    /**
+     * Adds the results of another SimulationStatistics for the same board to this one.
+     * @param other the statistics to merge in, it is not changed
+     */
+    public void merge(SimulationStatistics other) {
+        if (other.boardType != this.boardType || other.wins.length != this.wins.length) {
+            throw new IllegalArgumentException("Cannot merge statistics of different boards or number of seats");
+        }
+        this.games += other.games;
+        this.draws += other.draws;
+        this.stalemates += other.stalemates;
+        this.adjudicated += other.adjudicated;
+        for (int i = 0; i < this.wins.length; i++) {
+            this.wins[i] += other.wins[i];
+            this.netWorth[i].merge(other.netWorth[i]);
+        }
+        this.gameLength.merge(other.gameLength);
+        this.firstBankruptcy.merge(other.firstBankruptcy);
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.rentPerSquare[i].merge(other.rentPerSquare[i]);
+        }
+    }
+
+    /**
+     * Removes the results of every game finished so far, the game being observed carries on.
+     */
+    public void clear() {
+        this.games = 0;
+        this.draws = 0;
+        this.stalemates = 0;
+        this.adjudicated = 0;
+        for (int i = 0; i < this.wins.length; i++) {
+            this.wins[i] = 0;
+            this.netWorth[i].clear();
+        }
+        this.gameLength.clear();
+        this.firstBankruptcy.clear();
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.rentPerSquare[i].clear();
+        }
+    }
+
+    /**
+     * Writes the results in a compact binary form that readFrom() reads back, it is how the statistics of games
+     * played in other processes are sent to be merged.
+     * @param out where the results are written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(this.boardType);
+        out.writeInt(this.wins.length);
+        out.writeLong(this.games);
+        out.writeLong(this.draws);
+        out.writeLong(this.stalemates);
+        out.writeLong(this.adjudicated);
+        for (int i = 0; i < this.wins.length; i++) {
+            out.writeLong(this.wins[i]);
+            this.netWorth[i].writeTo(out);
+        }
+        this.gameLength.writeTo(out);
+        this.firstBankruptcy.writeTo(out);
+        for (int i = 0; i < BOARDSIZE; i++) {
+            this.rentPerSquare[i].writeTo(out);
+        }
+    }
+
+    /**
+     * Reads results written by writeTo(), they can be merged like the results of any other SimulationStatistics.
+     * @param in where the results are read from
+     */
+    public static SimulationStatistics readFrom(DataInput in) throws IOException {
+        SimulationStatistics statistics = new SimulationStatistics(in.readInt(), in.readInt());
+        statistics.games = in.readLong();
+        statistics.draws = in.readLong();
+        statistics.stalemates = in.readLong();
+        statistics.adjudicated = in.readLong();
+        for (int i = 0; i < statistics.wins.length; i++) {
+            statistics.wins[i] = in.readLong();
+            statistics.netWorth[i].merge(QuantileSketch.readFrom(in));
+        }
+        statistics.gameLength.merge(QuantileSketch.readFrom(in));
+        statistics.firstBankruptcy.merge(QuantileSketch.readFrom(in));
+        for (int i = 0; i < BOARDSIZE; i++) {
+            statistics.rentPerSquare[i].merge(QuantileSketch.readFrom(in));
+        }
+        return statistics;
+    }
+
+    /**
+     * Getter for boardType.
+     */
+    public int getBoardType() {
+        return boardType;
+    }
+
+    /**
+     * Getter for the number of games finished.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Getter for the number of games without a winner.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Getter for the number of games stopped early as stalemates.
+     */
+    public long getStalemates() {
+        return stalemates;
+    }
+
+    /**
+     * Getter for the number of games won on net worth.
+     */
+    public long getAdjudicated() {
+        return adjudicated;
+    }
+
+    /**
+     * Getter for the number of games won from a seat.
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Getter for the seat that won the last game observed, -1 if nobody won.
+     */
+    public int getGameWinner() {
+        return gameWinner;
+    }
+
+    /**
+     * Getter for whether the last game observed was stopped as a stalemate.
+     */
+    public boolean isGameStalemate() {
+        return gameStalemate;
+    }
+
+    /**
+     * Getter for whether the last game observed was won on net worth.
+     */
+    public boolean isGameAdjudicated() {
+        return gameAdjudicated;
+    }
+
+    /**
+     * Getter for the game length sketch.
+     */
+    public QuantileSketch getGameLength() {
+        return gameLength;
+    }
+
+    /**
+     * Getter for the first bankruptcy sketch.
+     */
+    public QuantileSketch getFirstBankruptcy() {
+        return firstBankruptcy;
+    }
+
+    /**
+     * Getter for the net worth sketch of a seat.
+     */
+    public QuantileSketch getNetWorth(int seat) {
+        return netWorth[seat];
+    }
+
+    /**
+     * Getter for the rent collected per game sketch of a square.
+     */
+    public QuantileSketch getRentPerSquare(int square) {
+        return rentPerSquare[square];
+    }
+
+    /**
+     * Overrides the toString() default method to output a summary of the statistics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append("Board ").append(boardType).append(": ").append(games).append(" games, ").append(draws).append(" draws");
+        if (stalemates > 0 || adjudicated > 0) {
+            s.append(", ").append(stalemates).append(" stalemates, ").append(adjudicated).append(" won on net worth");
+        }
+        s.append("\n");
+        s.append("Game length: ").append(gameLength).append("\n");
+        s.append("First bankruptcy: ").append(firstBankruptcy).append("\n");
+        for (int i = 0; i < wins.length; i++) {
+            s.append("Seat ").append(i).append(": ").append(wins[i]).append(" wins, net worth ").append(netWorth[i]).append("\n");
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,34 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationStatisticsTest {
+    /**
+     * These tests verify what SimulationStatistics records about the seats of a game.
+     */
+
+    /**
+     * This test verifies that a seat eliminated before the net worth is recorded is worth nothing, even though the
+     * player still lists the properties they lost.
+     */
+    @Test
+    public void eliminatedNetWorthTest() {
+        MonopolyModel model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        model.addAI("AI3");
+        SimulationStatistics statistics = new SimulationStatistics(0, 3);
+        statistics.startGame(model);
+
+        Player eliminated = model.getSeats().get(0);
+        eliminated.buy(model.getBoard().getProperty(1));
+        eliminated.setMoney(0);
+        model.removePlayer();
+        assertTrue(eliminated.getNetWorth() > 0);
+
+        statistics.recordNetWorth(model);
+        assertEquals(0, statistics.getNetWorth(0).getMean(), 0);
+        assertEquals(1500, statistics.getNetWorth(1).getMean(), 0);
+        assertEquals(1500, statistics.getNetWorth(2).getMean(), 0);
+    }
+}
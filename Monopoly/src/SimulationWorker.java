@@ -0,0 +1,98 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+
+public class SimulationWorker {
+    /**
+     * The SimulationWorker class
+     *
+     * Plays shards of a batch for a SimulationCoordinator. A worker connects to the coordinator, reads the batch,
+     * then plays the shards it is given one after another with a Simulator and sends back the statistics of each,
+     * until the coordinator has no more shards. Workers are started by the coordinator on its own machine or by
+     * hand on other hosts, they hold nothing the coordinator can't give to another worker so a worker that
+     * crashes only loses the shard it was playing.
+     */
+
+    private SimulationWorker() {
+    }
+
+    /**
+     * Plays shards for a coordinator until it has no more.
+     * @param host the host the coordinator runs on
+     * @param port the port the coordinator listens on
+     * @return the number of shards played
+     */
+    public static int run(String host, int port) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            if (in.readInt() != SimulationCoordinator.MAGIC) {
+                throw new IOException("Not a simulation coordinator");
+            }
+            int boardType = in.readInt();
+            int players = in.readInt();
+            String[] strategies = new String[players];
+            for (int i = 0; i < players; i++) {
+                strategies[i] = in.readUTF();
+            }
+            int maxTurns = in.readInt();
+            int stalemateWindow = in.readInt();
+            boolean adjudicate = in.readBoolean();
+            int netWorthTurn = in.readInt();
+            long seed = in.readLong();
+            boolean antithetic = in.readBoolean();
+            boolean seatRotation = in.readBoolean();
+            int threads = in.readInt();
+
+            int shards = 0;
+            while (true) {
+                long firstGame = in.readLong();
+                long games = in.readLong();
+                if (games == 0) {
+                    return shards;
+                }
+                Simulator simulator = new Simulator(boardType, players, games);
+                simulator.setFirstGame(firstGame);
+                simulator.setThreads(threads);
+                simulator.setMaxTurns(maxTurns);
+                simulator.setStalemateWindow(stalemateWindow);
+                simulator.setAdjudicate(adjudicate);
+                simulator.setNetWorthTurn(netWorthTurn);
+                simulator.getSeedSchedule().setSeed(seed);
+                simulator.getSeedSchedule().setAntithetic(antithetic);
+                simulator.getSeedSchedule().setSeatRotation(seatRotation);
+                for (int i = 0; i < players; i++) {
+                    String strategy = strategies[i];
+                    simulator.setAI(i, name -> new AI(name, Strategy.forName(strategy)));
+                }
+                try {
+                    simulator.run().writeTo(out);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return shards;
+                } catch (ExecutionException e) {
+                    throw new IOException("A game of the shard failed", e.getCause());
+                }
+                out.flush();
+                shards++;
+            }
+        }
+    }
+
+    /**
+     * Runs a worker from the command line.
+     * Arguments: host port
+     */
+    public static void main(String[] args) {
+        try {
+            run(args[0], Integer.parseInt(args[1]));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class Simulator {
+    /**
+     * The Simulator class
+     *
+     * Plays batches of headless AI only games on one board across all cores. Every thread plays its games on its own
+     * MonopolyModel, which is reset between games, and records the outcomes in its own SimulationStatistics. The
+     * games are handed out in chunks of consecutive game numbers and a thread merges its statistics into the
+     * batch's each time it finishes a chunk.
+     *
+     * With a checkpoint file a SimulationCheckpoint of the chunks that are done is written every checkpointMillis
+     * and when the batch ends. A batch that is started again with the same settings and checkpoint skips those
+     * chunks and ends with the same statistics as a batch that was never stopped. A stopping rule only counts the
+     * games played since the batch was last started. The games of a chunk the stopping rule cut short are in the
+     * statistics run returns but not in the checkpoint, a resumed batch plays that chunk again from its start.
+     *
+     * With a results subscriber the GameResult of every game is published to it, usually a ResultBatcher feeding
+     * ResultWriters. The results wait in a buffer of RESULTBUFFER games and a game that finds the buffer full waits
+     * for room, so a pipeline that can't keep up slows the games down instead of filling the heap.
+     *
+     * @attribute boardType the board the games are played on
+     * @attribute players the number of AI players in each game
+     * @attribute games the number of games to play, the most games played when there is a stopping rule
+     * @attribute firstGame the number of the first game in the SeedSchedule, a batch plays the games numbered
+     * firstGame to firstGame + games - 1 so batches with different game numbers never roll the same dice
+     * @attribute threads the number of threads playing games
+     * @attribute maxTurns games are stopped without a winner after this many turns
+     * @attribute stalemateWindow games are stopped early when a StalemateDetector checking this often finds a
+     * stalemate, 0 never stops them
+     * @attribute adjudicate whether games stopped without a winner are won on net worth instead of drawn
+     * @attribute netWorthTurn the turn the net worth of every seat is recorded at
+     * @attribute events every event of the games played is written to this store, it can be null
+     * @attribute results the GameResult of every game played is published to this subscriber, it can be null
+     * @attribute schedule decides the seed, dice and turn order of every game
+     * @attribute ais creates the AI playing in each seat
+     * @attribute stoppingRule stops the batch early once the results are precise enough, it can be null
+     * @attribute checkpoint the file progress is saved to, it can be null
+     * @attribute checkpointMillis how often the checkpoint is written
+     */
+    private final int boardType;
+    private final int players;
+    private final long games;
+    private long firstGame;
+    private int threads;
+    private int maxTurns;
+    private int stalemateWindow;
+    private boolean adjudicate;
+    private int netWorthTurn;
+    private GameEventStore events;
+    private Flow.Subscriber<GameResult> results;
+    private final SeedSchedule schedule;
+    private final List<Function<String, AI>> ais;
+    private StoppingRule stoppingRule;
+    private Path checkpoint;
+    private long checkpointMillis;
+
+    private static final int DEFAULTMAXTURNS = 1000;
+    private static final int DEFAULTNETWORTHTURN = 100;
+    private static final long CHECKINTERVALMILLIS = 50;
+    private static final long DEFAULTCHECKPOINTMILLIS = 5000;
+    private static final long CHUNKGAMES = 1000;
+    private static final int CHUNKSPERTHREAD = 4;
+    static final int RESULTBUFFER = 1024;
+
+    /**
+     * Default constructor for Simulator.
+     * @param boardType the board the games are played on
+     * @param players the number of AI players in each game (2-4)
+     * @param games the number of games to play
+     */
+    public Simulator(int boardType, int players, long games) {
+        if (players < 2 || players > 4) {
+            throw new IllegalArgumentException("Invalid number of players, must be between 2 to 4 players");
+        }
+        this.boardType = boardType;
+        this.players = players;
+        this.games = games;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.maxTurns = DEFAULTMAXTURNS;
+        this.netWorthTurn = DEFAULTNETWORTHTURN;
+        this.schedule = new SeedSchedule(ThreadLocalRandom.current().nextLong());
+        this.ais = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            this.ais.add(AI::new);
+        }
+        this.checkpointMillis = DEFAULTCHECKPOINTMILLIS;
+    }
+
+    /**
+     * Setter for the number of threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Setter for the number of the first game, it is 0 unless the batch is one shard of a larger one.
+     */
+    public void setFirstGame(long firstGame) {
+        this.firstGame = firstGame;
+    }
+
+    /**
+     * Setter for the turn cap.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Setter for the number of turns a game has to stay unchanged to be stopped as a stalemate, 0 never stops it.
+     */
+    public void setStalemateWindow(int stalemateWindow) {
+        this.stalemateWindow = stalemateWindow;
+    }
+
+    /**
+     * Setter for whether games stopped by the turn cap or as a stalemate are won on net worth.
+     */
+    public void setAdjudicate(boolean adjudicate) {
+        this.adjudicate = adjudicate;
+    }
+
+    /**
+     * Setter for the store every event of the games played is written to, games resumed from a checkpoint are not
+     * played again so their events are not written.
+     */
+    public void setEvents(GameEventStore events) {
+        this.events = events;
+    }
+
+    /**
+     * Setter for the subscriber the GameResult of every game played is published to, it is completed when the
+     * batch ends and completed exceptionally when the batch fails. A batch with results can't have a checkpoint,
+     * the games resumed from it would be missing and the games played since it would be published twice.
+     */
+    public void setResults(Flow.Subscriber<GameResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Setter for the turn the net worth of every seat is recorded at.
+     */
+    public void setNetWorthTurn(int netWorthTurn) {
+        this.netWorthTurn = netWorthTurn;
+    }
+
+    /**
+     * Setter for the AI playing in a seat.
+     * @param seat the index of the seat
+     * @param ai creates the AI from its name
+     */
+    public void setAI(int seat, Function<String, AI> ai) {
+        this.ais.set(seat, ai);
+    }
+
+    /**
+     * Setter for the stopping rule, with a rule the batch stops as soon as it is met or after the number of games
+     * it was created with, whichever comes first.
+     */
+    public void setStoppingRule(StoppingRule stoppingRule) {
+        this.stoppingRule = stoppingRule;
+    }
+
+    /**
+     * Setter for the checkpoint file, if it exists the batch carries on from it with its seed. A batch with a
+     * checkpoint can't publish its results.
+     */
+    public void setCheckpoint(String checkpoint) {
+        this.checkpoint = Paths.get(checkpoint);
+    }
+
+    /**
+     * Setter for how often the checkpoint is written.
+     */
+    public void setCheckpointMillis(long checkpointMillis) {
+        this.checkpointMillis = checkpointMillis;
+    }
+
+    /**
+     * Getter for the SeedSchedule, it is used to set the seed, antithetic dice and seat rotation of the batch.
+     */
+    public SeedSchedule getSeedSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Creates the model a simulation thread plays its games on.
+     */
+    private MonopolyModel createModel() {
+        MonopolyModel model = new MonopolyModel(boardType);
+        for (int i = 0; i < players; i++) {
+            model.addAI(ais.get(i).apply("AI" + (i + 1)));
+        }
+        return model;
+    }
+
+    /**
+     * Plays one game from the start and records the outcome.
+     * @param detector stops the game if it is a stalemate, it can be null
+     */
+    private void playGame(MonopolyModel model, SimulationStatistics statistics, StalemateDetector detector, long game) {
+        schedule.startGame(model, game);
+        statistics.startGame(model);
+        if (detector != null) {
+            detector.startGame(model);
+        }
+        while (!model.isGameOver() && model.getTurnCount() < maxTurns) {
+            model.playAITurn();
+            if (model.getTurnCount() == netWorthTurn) {
+                statistics.recordNetWorth(model);
+            }
+            if (detector != null && detector.isStalemate(model)) {
+                statistics.recordStalemate();
+                break;
+            }
+        }
+        if (adjudicate && !model.isGameOver()) {
+            statistics.adjudicate(model);
+        }
+        statistics.endGame(model.getTurnCount());
+        if (stoppingRule != null) {
+            stoppingRule.recordGame(statistics.getGameWinner(), model.getTurnCount());
+        }
+    }
+
+    /**
+     * Plays every game of the batch and returns the merged statistics. When there is a stopping rule it is checked
+     * while the games are played and the threads stop starting new games once it is met.
+     * @return the statistics of all the games
+     * @throws IllegalStateException if the batch has both a checkpoint and a results subscriber
+     */
+    public SimulationStatistics run() throws InterruptedException, ExecutionException {
+        if (checkpoint != null && results != null) {
+            throw new IllegalStateException("A batch with a checkpoint can't publish its results");
+        }
+        long perSeed = schedule.gamesPerSeed(players);
+        long chunkGames = Math.min(CHUNKGAMES, games / ((long) threads * CHUNKSPERTHREAD));
+        chunkGames = (Math.max(1, chunkGames) + perSeed - 1) / perSeed * perSeed;
+        SimulationStatistics statistics = new SimulationStatistics(boardType, players);
+        BitSet done = new BitSet();
+        byte[] batch = checkpoint == null ? null : batch();
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            try {
+                SimulationCheckpoint saved = SimulationCheckpoint.read(checkpoint, batch);
+                schedule.setSeed(saved.getSeed());
+                chunkGames = saved.getChunkGames();
+                done.or(saved.getDone());
+                statistics = saved.getStatistics();
+            } catch (IOException e) {
+                throw new ExecutionException(e);
+            }
+        }
+        long chunks = (games + chunkGames - 1) / chunkGames;
+        long gamesPerChunk = chunkGames;
+        BitSet skipped = (BitSet) done.clone();
+        SimulationStatistics merged = statistics;
+        SimulationStatistics stopped = new SimulationStatistics(boardType, players);
+
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        if (stoppingRule != null) {
+            stoppingRule.start(players);
+        }
+        ExecutorService delivery = results == null ? null : Executors.newSingleThreadExecutor();
+        SubmissionPublisher<GameResult> publisher = results == null ? null
+                : new SubmissionPublisher<>(delivery, RESULTBUFFER);
+        if (publisher != null) {
+            publisher.subscribe(results);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Throwable failure = null;
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<Void> worker = () -> {
+                    MonopolyModel model = createModel();
+                    SimulationStatistics chunkStatistics = new SimulationStatistics(boardType, players);
+                    GameEventStore.Recorder recorder = events == null ? null
+                            : events.recorder(model, chunkStatistics);
+                    model.addGameObserver(recorder == null ? chunkStatistics : recorder);
+                    StalemateDetector detector = stalemateWindow > 0
+                            ? new StalemateDetector(stalemateWindow, players) : null;
+                    long chunk;
+                    while (!stop.get() && (chunk = nextChunk.getAndIncrement()) < chunks) {
+                        if (skipped.get((int) chunk)) {
+                            continue;
+                        }
+                        long game = chunk * gamesPerChunk;
+                        long end = Math.min(games, game + gamesPerChunk);
+                        for (; game < end && !stop.get(); game++) {
+                            if (recorder != null) {
+                                recorder.setGame(firstGame + game);
+                            }
+                            playGame(model, chunkStatistics, detector, firstGame + game);
+                            if (publisher != null) {
+                                publish(publisher, new GameResult(firstGame + game, model, chunkStatistics));
+                            }
+                        }
+                        synchronized (merged) {
+                            if (game == end) {
+                                merged.merge(chunkStatistics);
+                                done.set((int) chunk);
+                            }
+                            else {
+                                stopped.merge(chunkStatistics);
+                            }
+                        }
+                        chunkStatistics.clear();
+                    }
+                    if (recorder != null) {
+                        recorder.flush();
+                    }
+                    return null;
+                };
+                workers.add(executor.submit(worker));
+            }
+
+            long nextCheckpoint = System.currentTimeMillis() + checkpointMillis;
+            for (Future<?> playing : workers) {
+                while (!playing.isDone()) {
+                    if (stoppingRule != null && stoppingRule.isMet()) {
+                        stop.set(true);
+                    }
+                    if (checkpoint != null && System.currentTimeMillis() >= nextCheckpoint) {
+                        writeCheckpoint(batch, merged, done, gamesPerChunk);
+                        nextCheckpoint = System.currentTimeMillis() + checkpointMillis;
+                    }
+                    try {
+                        playing.get(CHECKINTERVALMILLIS, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        // keep checking the stopping rule and the checkpoint until the thread is done
+                    }
+                }
+                playing.get();
+            }
+            if (checkpoint != null) {
+                writeCheckpoint(batch, merged, done, gamesPerChunk);
+            }
+            merged.merge(stopped);
+            return merged;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            stop.set(true);
+            executor.shutdownNow();
+            if (publisher != null) {
+                if (failure == null) {
+                    publisher.close();
+                }
+                else {
+                    publisher.closeExceptionally(failure);
+                }
+                delivery.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Publishes the result of a game, it waits while the buffer is full until there is room. A game that is in the
+     * statistics is always published, even when the batch has been stopped, it is only given up when the thread is
+     * interrupted or the subscriber has failed and cancelled, after which offer() finds no subscribers.
+     */
+    private static void publish(SubmissionPublisher<GameResult> publisher, GameResult result) {
+        while (publisher.offer(result, CHECKINTERVALMILLIS, TimeUnit.MILLISECONDS,
+                (subscriber, dropped) -> false) < 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the chunks that are done and their merged statistics. A chunk stopped by the stopping rule is neither
+     * done nor in the statistics, so resuming plays it once.
+     */
+    private void writeCheckpoint(byte[] batch, SimulationStatistics statistics, BitSet done, long chunkGames)
+            throws ExecutionException {
+        try {
+            synchronized (statistics) {
+                new SimulationCheckpoint(batch, schedule.getSeed(), chunkGames, done, statistics).write(checkpoint);
+            }
+        } catch (IOException e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    /**
+     * Returns the settings of the batch a checkpoint has to match.
+     */
+    private byte[] batch() {
+        List<String> strategies = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            strategies.add(ais.get(i).apply("AI" + (i + 1)).getStrategy().getName());
+        }
+        return SimulationCheckpoint.batch(boardType, games, firstGame, strategies, maxTurns, stalemateWindow, adjudicate,
+                netWorthTurn, schedule);
+    }
+
+    /**
+     * Runs a batch from the command line and prints the statistics.
+     * Arguments: boardType players games [maxTurns [seed [checkpoint [stalemateWindow [output]]]]], with a
+     * stalemate window the games stopped without a winner are won on net worth, "-" skips a checkpoint or window.
+     * The result of every game is written to the output file, ResultWriter.open() picks its format by name. A
+     * batch can't have both a checkpoint and an output file, resuming it would start the file again.
+     */
+    public static void main(String[] args) {
+        int boardType = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long games = args.length > 2 ? Long.parseLong(args[2]) : 10000;
+
+        Simulator simulator = new Simulator(boardType, players, games);
+        if (args.length > 3) {
+            simulator.setMaxTurns(Integer.parseInt(args[3]));
+        }
+        if (args.length > 4) {
+            simulator.getSeedSchedule().setSeed(Long.parseLong(args[4]));
+        }
+        if (args.length > 5 && !args[5].equals("-")) {
+            if (args.length > 7) {
+                throw new IllegalArgumentException("A batch with a checkpoint can't write an output file");
+            }
+            simulator.setCheckpoint(args[5]);
+        }
+        if (args.length > 6 && !args[6].equals("-")) {
+            simulator.setStalemateWindow(Integer.parseInt(args[6]));
+            simulator.setAdjudicate(true);
+        }
+        try {
+            ResultWriter writer = null;
+            if (args.length > 7) {
+                ResultBatcher batcher = new ResultBatcher();
+                writer = ResultWriter.open(Paths.get(args[7]));
+                batcher.subscribe(writer);
+                simulator.setResults(batcher);
+            }
+            System.out.println(simulator.run());
+            if (writer != null) {
+                writer.await();
+            }
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorTest {
+    /**
+     * These tests verify that a Simulator batch that is stopped carries on from its checkpoint and that games
+     * that have stopped going anywhere are cut short.
+     */
+    private final static int GAMES = 2000;
+    private final static int MAXTURNS = 300;
+    private final static long SEED = 11;
+    private final static int STOPGAMES = 300;
+
+    private static Simulator newSimulator() {
+        Simulator simulator = new Simulator(1, 2, GAMES);
+        simulator.setMaxTurns(MAXTURNS);
+        simulator.setThreads(2);
+        simulator.getSeedSchedule().setSeed(SEED);
+        return simulator;
+    }
+
+    /**
+     * This test verifies that a batch interrupted part way ends with the same statistics as one that wasn't once
+     * it is run again with its checkpoint.
+     */
+    @Test
+    public void resumeTest() throws Exception {
+        SimulationStatistics expected = newSimulator().run();
+
+        File file = File.createTempFile("simulator", ".checkpoint");
+        file.delete();
+        file.deleteOnExit();
+        Simulator interrupted = newSimulator();
+        interrupted.setCheckpoint(file.getPath());
+        interrupted.setCheckpointMillis(10);
+        Thread run = new Thread(() -> {
+            try {
+                interrupted.run();
+            } catch (Exception e) {
+                // the batch is stopped part way on purpose
+            }
+        });
+        run.start();
+        while (!file.exists()) {
+            Thread.sleep(5);
+        }
+        run.interrupt();
+        run.join();
+
+        Simulator resumed = newSimulator();
+        resumed.getSeedSchedule().setSeed(SEED + 1);
+        resumed.setCheckpoint(file.getPath());
+        SimulationStatistics statistics = resumed.run();
+        assertEquals(SEED, resumed.getSeedSchedule().getSeed());
+        assertEquals(GAMES, statistics.getGames());
+        assertEquals(expected.getDraws(), statistics.getDraws());
+        assertEquals(expected.getWins(0), statistics.getWins(0));
+        assertEquals(expected.getWins(1), statistics.getWins(1));
+        assertEquals(expected.getGameLength().getMean(), statistics.getGameLength().getMean(), 0.0001);
+        assertEquals(expected.getRentPerSquare(5).getMean(), statistics.getRentPerSquare(5).getMean(), 0.0001);
+    }
+
+    /**
+     * This test verifies that a batch stopped by its stopping rule part way through a chunk ends with the same
+     * statistics as one that wasn't once it is run again with its checkpoint.
+     */
+    @Test
+    public void resumeStoppedTest() throws Exception {
+        SimulationStatistics expected = newSimulator().run();
+
+        File file = File.createTempFile("simulator", ".checkpoint");
+        file.delete();
+        file.deleteOnExit();
+        Simulator stopped = newSimulator();
+        StoppingRule rule = new StoppingRule(1, 1000);
+        rule.setMinGames(STOPGAMES);
+        stopped.setStoppingRule(rule);
+        stopped.setCheckpoint(file.getPath());
+        SimulationStatistics partial = stopped.run();
+        assertTrue(partial.getGames() >= STOPGAMES && partial.getGames() < GAMES);
+
+        Simulator resumed = newSimulator();
+        resumed.setCheckpoint(file.getPath());
+        SimulationStatistics statistics = resumed.run();
+        assertEquals(GAMES, statistics.getGames());
+        assertEquals(expected.getDraws(), statistics.getDraws());
+        assertEquals(expected.getWins(0), statistics.getWins(0));
+        assertEquals(expected.getWins(1), statistics.getWins(1));
+        assertEquals(expected.getGameLength().getMean(), statistics.getGameLength().getMean(), 0.0001);
+    }
+
+    /**
+     * This test verifies that stalemates are stopped early and won on net worth, and that games that end in a
+     * bankruptcy are played the same way.
+     */
+    @Test
+    public void stalemateTest() throws Exception {
+        SimulationStatistics capped = newSimulator().run();
+
+        Simulator simulator = newSimulator();
+        simulator.setStalemateWindow(100);
+        simulator.setAdjudicate(true);
+        SimulationStatistics statistics = simulator.run();
+        assertTrue(statistics.getStalemates() > 0);
+        assertTrue(statistics.getAdjudicated() > capped.getDraws() / 2);
+        assertTrue(statistics.getGameLength().getMean() < capped.getGameLength().getMean());
+        assertEquals(GAMES, statistics.getWins(0) + statistics.getWins(1) + statistics.getDraws());
+        assertEquals(GAMES - capped.getDraws(), statistics.getFirstBankruptcy().getCount());
+        assertEquals(capped.getFirstBankruptcy().getMean(), statistics.getFirstBankruptcy().getMean(), 0.0001);
+    }
+}
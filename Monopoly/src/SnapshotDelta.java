@@ -0,0 +1,314 @@
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class SnapshotDelta {
+    /**
+     * The SnapshotDelta class
+     *
+     * Encodes the GameSnapshots of a game for spectators. A spectator is first sent a full frame with the whole
+     * snapshot and then a delta frame for every turn with only what changed: the players whose money, position or
+     * jail state changed and the squares whose owner, buildings or rent changed. Every number is a varint, seven
+     * bits a byte, and changes of money are zigzag encoded so losing money is as short as gaining it, so a typical
+     * turn takes ten to twenty bytes.
+     *
+     * Every frame starts with its length as a varint so frames can be read one after another from a stream. When
+     * a player is eliminated the players move up in turn order and a full frame is sent instead of a delta.
+     */
+    static final int FULL = 0;
+    static final int DELTA = 1;
+    private static final int MONEY = 1;
+    private static final int POSITION = 2;
+    private static final int JAILED = 4;
+    private static final int MAXFRAME = 4096;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAXFRAME));
+
+    private SnapshotDelta() {
+    }
+
+    /**
+     * Encodes a whole snapshot.
+     * @return the frame, starting with its length
+     */
+    public static byte[] encodeFull(GameSnapshot snapshot) {
+        ByteBuffer buffer = SCRATCH.get();
+        buffer.clear();
+        putVarint(buffer, FULL);
+        putVarint(buffer, snapshot.getTurnCount());
+        putVarint(buffer, snapshot.getPlayerTurn());
+        putVarint(buffer, snapshot.getPlayers());
+        for (int i = 0; i < snapshot.getPlayers(); i++) {
+            byte[] name = snapshot.getName(i).getBytes(StandardCharsets.UTF_8);
+            putVarint(buffer, name.length);
+            buffer.put(name);
+            putVarint(buffer, zigzag(snapshot.getMoney(i)));
+            putVarint(buffer, snapshot.getPosition(i));
+            putVarint(buffer, (snapshot.isJailed(i) ? 1 : 0) | (snapshot.isAI(i) ? 2 : 0));
+        }
+        putVarint(buffer, snapshot.getSquares());
+        for (int square = 0; square < snapshot.getSquares(); square++) {
+            putSquare(buffer, snapshot, square);
+        }
+        return frame(buffer);
+    }
+
+    /**
+     * Encodes what changed from one snapshot of a game to the next.
+     * @param from the snapshot the spectators have
+     * @param to the new snapshot
+     * @return the frame, starting with its length, a full frame if a player was eliminated, or null if nothing
+     * changed
+     */
+    public static byte[] encodeDelta(GameSnapshot from, GameSnapshot to) {
+        if (from.getPlayers() != to.getPlayers() || from.getSquares() != to.getSquares()
+                || to.getTurnCount() < from.getTurnCount()) {
+            return encodeFull(to);
+        }
+        int changes = 0;
+        for (int i = 0; i < to.getPlayers(); i++) {
+            if (changes(from, to, i) != 0) {
+                changes++;
+            }
+        }
+        int squares = 0;
+        for (int square = 0; square < to.getSquares(); square++) {
+            if (changed(from, to, square)) {
+                squares++;
+            }
+        }
+        if (changes == 0 && squares == 0 && to.getTurnCount() == from.getTurnCount()
+                && to.getPlayerTurn() == from.getPlayerTurn()) {
+            return null;
+        }
+
+        ByteBuffer buffer = SCRATCH.get();
+        buffer.clear();
+        putVarint(buffer, DELTA);
+        putVarint(buffer, to.getTurnCount() - from.getTurnCount());
+        putVarint(buffer, to.getPlayerTurn());
+        putVarint(buffer, changes);
+        for (int i = 0; i < to.getPlayers(); i++) {
+            int mask = changes(from, to, i);
+            if (mask != 0) {
+                putVarint(buffer, i);
+                putVarint(buffer, mask);
+                if ((mask & MONEY) != 0) {
+                    putVarint(buffer, zigzag(to.getMoney(i) - from.getMoney(i)));
+                }
+                if ((mask & POSITION) != 0) {
+                    putVarint(buffer, to.getPosition(i));
+                }
+            }
+        }
+        putVarint(buffer, squares);
+        for (int square = 0; square < to.getSquares(); square++) {
+            if (changed(from, to, square)) {
+                putVarint(buffer, square);
+                putSquare(buffer, to, square);
+            }
+        }
+        return frame(buffer);
+    }
+
+    /**
+     * Returns which of MONEY, POSITION and JAILED changed for a player.
+     */
+    private static int changes(GameSnapshot from, GameSnapshot to, int player) {
+        return (from.getMoney(player) != to.getMoney(player) ? MONEY : 0)
+                | (from.getPosition(player) != to.getPosition(player) ? POSITION : 0)
+                | (from.isJailed(player) != to.isJailed(player) ? JAILED : 0);
+    }
+
+    private static boolean changed(GameSnapshot from, GameSnapshot to, int square) {
+        return from.getOwner(square) != to.getOwner(square) || from.getBuildings(square) != to.getBuildings(square)
+                || from.getRent(square) != to.getRent(square);
+    }
+
+    private static void putSquare(ByteBuffer buffer, GameSnapshot snapshot, int square) {
+        putVarint(buffer, snapshot.getOwner(square) + 1);
+        putVarint(buffer, snapshot.getBuildings(square));
+        putVarint(buffer, snapshot.getRent(square));
+    }
+
+    /**
+     * Copies the encoded bytes into a new array with their length in front of them.
+     */
+    private static byte[] frame(ByteBuffer buffer) {
+        int length = buffer.position();
+        byte[] frame = new byte[varintBytes(length) + length];
+        ByteBuffer out = ByteBuffer.wrap(frame);
+        putVarint(out, length);
+        out.put(buffer.array(), 0, length);
+        return frame;
+    }
+
+    /**
+     * Reads the next frame from a stream and applies it.
+     * @param in the stream of frames
+     * @param snapshot the snapshot the last frame gave, null before the first frame
+     * @return the new snapshot, null if the stream ended before the next frame
+     * @throws IOException if the stream ends inside a frame or the frame is a delta without a snapshot to apply
+     * it to
+     */
+    public static GameSnapshot read(InputStream in, GameSnapshot snapshot) throws IOException {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.read();
+            if (b < 0 && shift == 0) {
+                return null;
+            }
+            if (b < 0) {
+                throw new EOFException("The stream of frames ended inside a frame");
+            }
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        byte[] frame = new byte[length];
+        new DataInputStream(in).readFully(frame);
+        return apply(snapshot, ByteBuffer.wrap(frame));
+    }
+
+    /**
+     * Applies one frame, without its length, to a snapshot.
+     * @param snapshot the snapshot the last frame gave, null before the first frame
+     * @param frame the frame
+     * @return the new snapshot
+     * @throws IOException if the frame is a delta without a snapshot to apply it to
+     */
+    public static GameSnapshot apply(GameSnapshot snapshot, ByteBuffer frame) throws IOException {
+        int kind = getVarint(frame);
+        if (kind == FULL) {
+            return readFull(frame);
+        }
+        if (kind != DELTA || snapshot == null) {
+            throw new IOException("Unexpected frame " + kind);
+        }
+
+        int turnCount = snapshot.getTurnCount() + getVarint(frame);
+        int playerTurn = getVarint(frame);
+        int players = snapshot.getPlayers();
+        String[] names = new String[players];
+        int[] money = new int[players];
+        int[] positions = new int[players];
+        boolean[] jailed = new boolean[players];
+        boolean[] ai = new boolean[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = snapshot.getName(i);
+            money[i] = snapshot.getMoney(i);
+            positions[i] = snapshot.getPosition(i);
+            jailed[i] = snapshot.isJailed(i);
+            ai[i] = snapshot.isAI(i);
+        }
+        for (int changes = getVarint(frame); changes > 0; changes--) {
+            int i = getVarint(frame);
+            int mask = getVarint(frame);
+            if ((mask & MONEY) != 0) {
+                money[i] += unzigzag(getVarint(frame));
+            }
+            if ((mask & POSITION) != 0) {
+                positions[i] = getVarint(frame);
+            }
+            if ((mask & JAILED) != 0) {
+                jailed[i] = !jailed[i];
+            }
+        }
+
+        int squares = snapshot.getSquares();
+        int[] owners = new int[squares];
+        int[] buildings = new int[squares];
+        int[] rents = new int[squares];
+        for (int square = 0; square < squares; square++) {
+            owners[square] = snapshot.getOwner(square);
+            buildings[square] = snapshot.getBuildings(square);
+            rents[square] = snapshot.getRent(square);
+        }
+        for (int changes = getVarint(frame); changes > 0; changes--) {
+            int square = getVarint(frame);
+            owners[square] = getVarint(frame) - 1;
+            buildings[square] = getVarint(frame);
+            rents[square] = getVarint(frame);
+        }
+        return new GameSnapshot(turnCount, playerTurn, names, money, positions, jailed, ai, owners, buildings, rents);
+    }
+
+    private static GameSnapshot readFull(ByteBuffer frame) {
+        int turnCount = getVarint(frame);
+        int playerTurn = getVarint(frame);
+        int players = getVarint(frame);
+        String[] names = new String[players];
+        int[] money = new int[players];
+        int[] positions = new int[players];
+        boolean[] jailed = new boolean[players];
+        boolean[] ai = new boolean[players];
+        for (int i = 0; i < players; i++) {
+            byte[] name = new byte[getVarint(frame)];
+            frame.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            money[i] = unzigzag(getVarint(frame));
+            positions[i] = getVarint(frame);
+            int flags = getVarint(frame);
+            jailed[i] = (flags & 1) != 0;
+            ai[i] = (flags & 2) != 0;
+        }
+        int squares = getVarint(frame);
+        int[] owners = new int[squares];
+        int[] buildings = new int[squares];
+        int[] rents = new int[squares];
+        for (int square = 0; square < squares; square++) {
+            owners[square] = getVarint(frame) - 1;
+            buildings[square] = getVarint(frame);
+            rents[square] = getVarint(frame);
+        }
+        return new GameSnapshot(turnCount, playerTurn, names, money, positions, jailed, ai, owners, buildings, rents);
+    }
+
+    /**
+     * Writes a number that isn't negative in as few bytes as it needs, seven bits a byte, lowest first.
+     */
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a number written by putVarint().
+     */
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /**
+     * Maps small negative and positive numbers to small positive ones: 0, -1, 1, -2, 2 become 0, 1, 2, 3, 4.
+     */
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,107 @@
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+public class SpectatorClient implements Closeable {
+    /**
+     * The SpectatorClient class
+     *
+     * Watches a game on a GameServer. The client opens its own connection, sends watch and then reads the frames
+     * of SnapshotDelta, keeping the snapshot they add up to. Running the class prints every turn of a game.
+     *
+     * @attribute socket the connection to the server
+     * @attribute in reads the frames
+     * @attribute snapshot the state of the game after the last frame, null before the first one
+     */
+    private final Socket socket;
+    private final InputStream in;
+    private GameSnapshot snapshot;
+
+    /**
+     * Connects to a server and starts watching a session.
+     * @param host the host the server runs on
+     * @param port the port the server listens on
+     * @param session the id of the session to watch
+     * @throws IOException if the server refuses to stream the session
+     */
+    public SpectatorClient(String host, int port, long session) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new BufferedInputStream(socket.getInputStream());
+        OutputStream out = socket.getOutputStream();
+        out.write(("watch " + session + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        String reply = readLine();
+        if (!reply.startsWith("OK")) {
+            socket.close();
+            throw new IOException(reply);
+        }
+    }
+
+    /**
+     * Reads the reply to watch a byte at a time so none of the frames after it are read with it.
+     */
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new IOException("The server closed the connection");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Waits for the next turn of the game.
+     * @return the state of the game after it, null once the game is over and the server has closed the stream
+     */
+    public GameSnapshot next() throws IOException {
+        GameSnapshot next = SnapshotDelta.read(in, snapshot);
+        if (next != null) {
+            snapshot = next;
+        }
+        return next;
+    }
+
+    /**
+     * Getter for the state of the game after the last frame.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Prints every turn of a game.
+     * @param args the session and, optionally, the host and port of the server
+     */
+    public static void main(String[] args) {
+        long session = Long.parseLong(args[0]);
+        String host = args.length > 1 ? args[1] : "localhost";
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 5150;
+        try (SpectatorClient client = new SpectatorClient(host, port, session)) {
+            GameSnapshot snapshot;
+            while ((snapshot = client.next()) != null) {
+                StringBuilder line = new StringBuilder("Turn " + snapshot.getTurnCount() + ":");
+                for (int i = 0; i < snapshot.getPlayers(); i++) {
+                    line.append(' ').append(snapshot.getName(i)).append(' ').append(snapshot.getMoney(i))
+                            .append(" on ").append(snapshot.getPosition(i));
+                }
+                System.out.println(line);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SpectatorFeed {
+    /**
+     * The SpectatorFeed class
+     *
+     * Streams one game to its spectators. The game gives the feed every GameSnapshot it publishes, the feed encodes
+     * what changed since the last one once with SnapshotDelta and puts the same frame in the queue of every
+     * spectator, so a turn costs one encoding however many spectators are watching. A spectator that subscribes is
+     * first given a full frame, which is also encoded once and shared by everyone who subscribes before the next
+     * turn.
+     *
+     * The game never waits for a spectator. A spectator that falls MAXBEHIND frames behind loses the frames it
+     * hasn't read and is given a full frame instead, so it catches up with the game however slow it is. Once the
+     * game is over every spectator is given END after the last frame.
+     *
+     * @attribute subscriptions the spectators watching
+     * @attribute last the last snapshot of the game, null until the first one
+     * @attribute full the full frame of the last snapshot, null until someone needs it
+     */
+    static final int MAXBEHIND = 256;
+    static final byte[] END = new byte[0];
+
+    private final List<Subscription> subscriptions;
+    private GameSnapshot last;
+    private byte[] full;
+
+    public SpectatorFeed() {
+        this.subscriptions = new ArrayList<>();
+    }
+
+    /**
+     * Sends what changed in the game to every spectator, it is called on the thread playing the game.
+     * @param snapshot the new snapshot of the game
+     */
+    public synchronized void publish(GameSnapshot snapshot) {
+        if (last == null || subscriptions.isEmpty()) {
+            last = snapshot;
+            full = null;
+            return;
+        }
+        byte[] delta = SnapshotDelta.encodeDelta(last, snapshot);
+        if (delta == null) {
+            return;
+        }
+        last = snapshot;
+        full = null;
+        for (int i = 0; i < subscriptions.size(); i++) {
+            Subscription subscription = subscriptions.get(i);
+            if (!subscription.frames.offer(delta) || snapshot.isGameOver() && !subscription.frames.offer(END)) {
+                subscription.frames.clear();
+                subscription.frames.offer(getFull());
+                if (snapshot.isGameOver()) {
+                    subscription.frames.offer(END);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a spectator, its first frame is the whole game.
+     */
+    public synchronized Subscription subscribe() {
+        Subscription subscription = new Subscription(this);
+        if (last != null) {
+            subscription.frames.offer(getFull());
+            if (last.isGameOver()) {
+                subscription.frames.offer(END);
+            }
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private byte[] getFull() {
+        if (full == null) {
+            full = SnapshotDelta.encodeFull(last);
+        }
+        return full;
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Returns the number of spectators watching.
+     */
+    public synchronized int getSpectators() {
+        return subscriptions.size();
+    }
+
+    public static class Subscription implements Closeable {
+        /**
+         * The frames waiting to be sent to one spectator.
+         *
+         * @attribute feed the feed the spectator is watching
+         * @attribute frames the frames the spectator hasn't read yet, shared with the other spectators
+         */
+        private final SpectatorFeed feed;
+        private final BlockingQueue<byte[]> frames;
+
+        private Subscription(SpectatorFeed feed) {
+            this.feed = feed;
+            this.frames = new ArrayBlockingQueue<>(MAXBEHIND);
+        }
+
+        /**
+         * Waits for the next frame, starting with its length. The arrays are shared and must not be changed.
+         * @return the frame, END once the game is over, or null if there was no frame in time
+         */
+        public byte[] poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return frames.poll(timeout, unit);
+        }
+
+        /**
+         * Returns the next frame without waiting, null if there is none.
+         */
+        public byte[] poll() {
+            return frames.poll();
+        }
+
+        /**
+         * Stops watching.
+         */
+        @Override
+        public void close() {
+            feed.unsubscribe(this);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpectatorFeedTest {
+    /**
+     * These tests verify that spectators rebuild every turn of a game from the frames of a SpectatorFeed.
+     */
+
+    private static MonopolyModel newGame(SpectatorFeed feed) {
+        MonopolyModel model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        model.addAI("AI3");
+        model.setSnapshotListener(feed::publish);
+        model.setPublishing(true);
+        return model;
+    }
+
+    /**
+     * Applies a frame, starting with its length, to a snapshot.
+     */
+    private static GameSnapshot apply(GameSnapshot snapshot, byte[] frame) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        SnapshotDelta.getVarint(buffer);
+        return SnapshotDelta.apply(snapshot, buffer);
+    }
+
+    private static void assertSameState(GameSnapshot expected, GameSnapshot actual) {
+        assertEquals(expected.getTurnCount(), actual.getTurnCount());
+        assertEquals(expected.getPlayerTurn(), actual.getPlayerTurn());
+        assertEquals(expected.getPlayers(), actual.getPlayers());
+        for (int i = 0; i < expected.getPlayers(); i++) {
+            assertEquals(expected.getName(i), actual.getName(i));
+            assertEquals(expected.getMoney(i), actual.getMoney(i));
+            assertEquals(expected.getPosition(i), actual.getPosition(i));
+            assertEquals(expected.isJailed(i), actual.isJailed(i));
+            assertEquals(expected.isAI(i), actual.isAI(i));
+        }
+        assertEquals(expected.getSquares(), actual.getSquares());
+        for (int square = 0; square < expected.getSquares(); square++) {
+            assertEquals(expected.getOwner(square), actual.getOwner(square));
+            assertEquals(expected.getBuildings(square), actual.getBuildings(square));
+            assertEquals(expected.getRent(square), actual.getRent(square));
+        }
+    }
+
+    /**
+     * This test verifies that a spectator rebuilds the game after every turn, through eliminations, until the
+     * feed ends it, and that every spectator is sent the same frames.
+     */
+    @Test
+    public void everyTurnTest() throws IOException {
+        SpectatorFeed feed = new SpectatorFeed();
+        MonopolyModel model = newGame(feed);
+        SpectatorFeed.Subscription first = feed.subscribe();
+        SpectatorFeed.Subscription second = feed.subscribe();
+
+        GameSnapshot snapshot = null;
+        for (int turn = 0; turn < 2000 && !model.isGameOver(); turn++) {
+            byte[] frame;
+            while ((frame = first.poll()) != null && frame != SpectatorFeed.END) {
+                assertSame(frame, second.poll());
+                snapshot = apply(snapshot, frame);
+            }
+            assertSameState(model.getSnapshot(), snapshot);
+            model.playAITurn();
+        }
+        if (model.isGameOver()) {
+            byte[] frame;
+            while ((frame = first.poll()) != SpectatorFeed.END) {
+                snapshot = apply(snapshot, frame);
+            }
+            assertSameState(model.getSnapshot(), snapshot);
+        }
+        first.close();
+        second.close();
+        assertEquals(0, feed.getSpectators());
+    }
+
+    /**
+     * This test verifies that a spectator that falls behind is sent the whole game and carries on from there.
+     */
+    @Test
+    public void slowSpectatorTest() throws IOException {
+        SpectatorFeed feed = new SpectatorFeed();
+        MonopolyModel model = newGame(feed);
+        SpectatorFeed.Subscription subscription = feed.subscribe();
+        for (int turn = 0; turn < 2 * SpectatorFeed.MAXBEHIND && !model.isGameOver(); turn++) {
+            model.playAITurn();
+        }
+
+        GameSnapshot snapshot = null;
+        byte[] frame;
+        while ((frame = subscription.poll()) != null && frame != SpectatorFeed.END) {
+            snapshot = apply(snapshot, frame);
+        }
+        assertSameState(model.getSnapshot(), snapshot);
+    }
+}
@@ -0,0 +1,80 @@
+public class StalemateDetector {
+    /**
+     * The StalemateDetector class
+     *
+     * Spots headless games that have stopped going anywhere. Once every property has been bought and nobody builds,
+     * the rent paid is less than the salary collected at Go and every player's money grows forever, so the game
+     * runs until the turn cap without anybody going bankrupt. The detector looks at the game every window turns: a
+     * game in which no property changed hands, nothing was built and nobody was eliminated, and in which no
+     * player has less money than at the start of the window, is a stalemate.
+     *
+     * Checking the game never allocates so headless turns stay allocation free.
+     *
+     * @attribute window the number of turns between checks
+     * @attribute windowStart the turn the current window started at
+     * @attribute startBoard the owners and buildings of every square at the start of the window
+     * @attribute startMoney the money of each seat at the start of the window
+     */
+    private final int window;
+    private int windowStart;
+    private long startBoard;
+    private final int[] startMoney;
+
+    /**
+     * Default constructor for StalemateDetector.
+     * @param window the number of turns between checks, a game has to stay unchanged this long
+     * @param seats the number of seats in each game
+     */
+    public StalemateDetector(int window, int seats) {
+        this.window = window;
+        this.startMoney = new int[seats];
+    }
+
+    /**
+     * Starts watching a new game, it is called once the game has been reset.
+     */
+    public void startGame(MonopolyModel model) {
+        startWindow(model, boardOf(model));
+    }
+
+    private void startWindow(MonopolyModel model, long board) {
+        this.windowStart = model.getTurnCount();
+        this.startBoard = board;
+        for (int i = 0; i < this.startMoney.length; i++) {
+            this.startMoney[i] = model.getSeats().get(i).getMoney();
+        }
+    }
+
+    /**
+     * Checks the game at the end of a turn, a new window starts every window turns.
+     * @return whether the window that just ended shows a stalemate
+     */
+    public boolean isStalemate(MonopolyModel model) {
+        if (model.getTurnCount() - this.windowStart < this.window) {
+            return false;
+        }
+        long board = boardOf(model);
+        boolean stalemate = board == this.startBoard;
+        for (int i = 0; i < this.startMoney.length && stalemate; i++) {
+            Player seat = model.getSeats().get(i);
+            if (model.getPlayers().contains(seat) && seat.getMoney() < this.startMoney[i]) {
+                stalemate = false;
+            }
+        }
+        startWindow(model, board);
+        return stalemate;
+    }
+
+    /**
+     * Returns a hash of the owner and buildings of every square and the number of players left.
+     */
+    private static long boardOf(MonopolyModel model) {
+        long board = model.getPlayers().size();
+        for (int i = 0; i < model.getBoard().getProperties().size(); i++) {
+            Property property = model.getBoard().getProperty(i);
+            int owner = property.getOwner() == null ? 0 : model.getSeats().indexOf(property.getOwner()) + 1;
+            board = board * 31 + owner * 4 + (property.hasHouse() ? 1 : 0) + (property.hasHotel() ? 2 : 0);
+        }
+        return board;
+    }
+}
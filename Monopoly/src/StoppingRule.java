@@ -0,0 +1,224 @@
+import java.util.concurrent.atomic.LongAdder;
+
+public class StoppingRule {
+    /**
+     * The StoppingRule class
+     *
+     * Lets a simulation batch stop as soon as its results are precise enough instead of after a fixed number of
+     * games. The rule tracks the win rate of every seat and the mean game length, and is met once the confidence
+     * interval of every one of them is narrower than its target width.
+     *
+     * The simulation threads record every finished game into shared LongAdders, which is cheap even when many threads
+     * finish games at the same time, and the thread running the batch checks the rule while they play.
+     *
+     * An interval checked after every game would miss its true value far more often than its confidence level
+     * says, so the rule only looks at a fixed number of points: after minGames games, then every time the number
+     * of games has doubled, at most maxLooks times. If none of the looks is met the batch plays all of its games.
+     * The confidence level is split evenly between the looks (Bonferroni), so each interval the rule stops on
+     * still holds its value with at least the confidence level, 95% by default. That guarantee is for each interval
+     * on its own, the intervals of the seats and the game length are not corrected for each other.
+     *
+     * @attribute winRateWidth the target width of the confidence interval of each seat's win rate
+     * @attribute gameLengthWidth the target width, in turns, of the confidence interval of the mean game length
+     * @attribute confidence the confidence level the intervals hold at over every look together
+     * @attribute maxLooks the number of times the rule is checked
+     * @attribute z the z score each look is checked with
+     * @attribute minGames the number of games played before the first look
+     * @attribute looks the number of looks taken since the batch started
+     * @attribute nextLook the number of games the next look is taken at
+     * @attribute met whether a look has been met
+     * @attribute games the number of games recorded
+     * @attribute wins the number of games won from each seat
+     * @attribute lengthSum the sum of the game lengths
+     * @attribute lengthSquares the sum of the squared game lengths
+     */
+    private final double winRateWidth;
+    private final double gameLengthWidth;
+    private double confidence;
+    private int maxLooks;
+    private double z;
+    private long minGames;
+    private int looks;
+    private long nextLook;
+    private boolean met;
+    private final LongAdder games;
+    private LongAdder[] wins;
+    private final LongAdder lengthSum;
+    private final LongAdder lengthSquares;
+
+    private static final double NINETYFIVEPERCENT = 0.95;
+    private static final int DEFAULTMAXLOOKS = 10;
+    private static final long DEFAULTMINGAMES = 1000;
+
+    /**
+     * Default constructor for a StoppingRule at 95% confidence.
+     * @param winRateWidth the target width of the confidence interval of each seat's win rate, e.g. 0.01
+     * @param gameLengthWidth the target width, in turns, of the confidence interval of the mean game length
+     */
+    public StoppingRule(double winRateWidth, double gameLengthWidth) {
+        this.winRateWidth = winRateWidth;
+        this.gameLengthWidth = gameLengthWidth;
+        this.confidence = NINETYFIVEPERCENT;
+        this.maxLooks = DEFAULTMAXLOOKS;
+        this.z = zScore(this.confidence, this.maxLooks);
+        this.minGames = DEFAULTMINGAMES;
+        this.nextLook = this.minGames;
+        this.games = new LongAdder();
+        this.wins = new LongAdder[0];
+        this.lengthSum = new LongAdder();
+        this.lengthSquares = new LongAdder();
+    }
+
+    /**
+     * Setter for the confidence level the intervals hold at over every look together, e.g. 0.95.
+     */
+    public void setConfidence(double confidence) {
+        this.confidence = confidence;
+        this.z = zScore(confidence, this.maxLooks);
+    }
+
+    /**
+     * Setter for the number of times the rule is checked.
+     */
+    public void setMaxLooks(int maxLooks) {
+        this.maxLooks = maxLooks;
+        this.z = zScore(this.confidence, maxLooks);
+    }
+
+    /**
+     * Getter for the z score each look is checked with.
+     */
+    public double getZ() {
+        return z;
+    }
+
+    /**
+     * Setter for the number of games played before the first look.
+     */
+    public void setMinGames(long minGames) {
+        this.minGames = minGames;
+        this.nextLook = minGames;
+    }
+
+    /**
+     * Returns the z score of a two sided interval that holds at the confidence level over the given number of looks.
+     */
+    static double zScore(double confidence, int looks) {
+        return normalQuantile(1 - (1 - confidence) / (2 * looks));
+    }
+
+    /**
+     * Returns the quantile of the standard normal distribution, using Acklam's rational approximation which is
+     * accurate to about 1e-9.
+     * @param p the probability, between 0 and 1
+     */
+    static double normalQuantile(double p) {
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * Clears everything recorded, it is called at the start of a batch.
+     * @param seats the number of seats in each game
+     */
+    public void start(int seats) {
+        this.games.reset();
+        this.lengthSum.reset();
+        this.lengthSquares.reset();
+        this.looks = 0;
+        this.nextLook = this.minGames;
+        this.met = false;
+        this.wins = new LongAdder[seats];
+        for (int i = 0; i < seats; i++) {
+            this.wins[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a finished game, it is called by the simulation threads.
+     * @param winner the seat that won, -1 if nobody won
+     * @param turns the number of turns the game lasted
+     */
+    public void recordGame(int winner, int turns) {
+        if (winner >= 0) {
+            this.wins[winner].increment();
+        }
+        this.lengthSum.add(turns);
+        this.lengthSquares.add((long) turns * turns);
+        this.games.increment();
+    }
+
+    /**
+     * Returns the width of the confidence interval of the win rate of a seat.
+     */
+    public double getWinRateWidth(int seat) {
+        long n = this.games.sum();
+        if (n == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double p = (double) this.wins[seat].sum() / n;
+        return 2 * this.z * Math.sqrt(p * (1 - p) / n);
+    }
+
+    /**
+     * Returns the width of the confidence interval of the mean game length.
+     */
+    public double getGameLengthWidth() {
+        long n = this.games.sum();
+        if (n < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double mean = (double) this.lengthSum.sum() / n;
+        double variance = Math.max(0, ((double) this.lengthSquares.sum() - n * mean * mean) / (n - 1));
+        return 2 * this.z * Math.sqrt(variance / n);
+    }
+
+    /**
+     * Checks whether the batch can stop, it is called by the thread running the batch as often as it likes. The
+     * intervals are only compared with their targets when the number of games reaches the next look.
+     * @return true once every tracked confidence interval was narrower than its target at a look
+     */
+    public boolean isMet() {
+        long n = this.games.sum();
+        if (this.met || this.looks >= this.maxLooks || n < this.nextLook) {
+            return this.met;
+        }
+        this.looks++;
+        while (this.nextLook <= n) {
+            this.nextLook *= 2;
+        }
+        for (int i = 0; i < this.wins.length; i++) {
+            if (getWinRateWidth(i) > this.winRateWidth) {
+                return false;
+            }
+        }
+        this.met = getGameLengthWidth() <= this.gameLengthWidth;
+        return this.met;
+    }
+
+    /**
+     * Getter for the number of looks taken since the batch started.
+     */
+    public int getLooks() {
+        return looks;
+    }
+}
@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoppingRuleTest {
+    /**
+     * These tests verify that a StoppingRule stops a batch at the first look its intervals are narrow enough, and
+     * never stops one whose intervals stay wide.
+     */
+    private final static int SEATS = 2;
+
+    /**
+     * Records games where the seats win in turn and the games last 100 or 120 turns.
+     */
+    private static void recordGames(StoppingRule rule, long from, long to) {
+        for (long game = from; game < to; game++) {
+            rule.recordGame((int) (game % SEATS), game % 2 == 0 ? 100 : 120);
+        }
+    }
+
+    /**
+     * This test verifies the z score of the default 95% over ten looks and the normal quantile it is built on.
+     */
+    @Test
+    public void zScoreTest() {
+        assertEquals(1.959964, StoppingRule.normalQuantile(0.975), 1e-6);
+        assertEquals(-1.959964, StoppingRule.normalQuantile(0.025), 1e-6);
+        assertEquals(0, StoppingRule.normalQuantile(0.5), 1e-9);
+        assertEquals(2.807034, new StoppingRule(0.01, 1).getZ(), 1e-6);
+        assertEquals(1.959964, StoppingRule.zScore(0.95, 1), 1e-6);
+    }
+
+    /**
+     * This test verifies that a rule whose win rate interval is narrow enough from 19,700 games on stops at the
+     * look after 32,000 games and not before, however often it is checked.
+     */
+    @Test
+    public void narrowIntervalTest() {
+        StoppingRule rule = new StoppingRule(0.02, 5);
+        rule.start(SEATS);
+        long stoppedAt = -1;
+        for (long game = 0; game < 100_000 && stoppedAt < 0; game++) {
+            recordGames(rule, game, game + 1);
+            if (rule.isMet()) {
+                stoppedAt = game + 1;
+            }
+        }
+        assertEquals(32_000, stoppedAt);
+        assertEquals(6, rule.getLooks());
+        assertTrue(rule.getWinRateWidth(0) <= 0.02);
+    }
+
+    /**
+     * This test verifies that a rule whose intervals never get narrow enough takes its ten looks and then lets the
+     * batch play all of its games.
+     */
+    @Test
+    public void wideIntervalTest() {
+        StoppingRule rule = new StoppingRule(0.001, 5);
+        rule.start(SEATS);
+        for (long game = 0; game < 2_000_000; game += 1000) {
+            recordGames(rule, game, game + 1000);
+            assertFalse(rule.isMet());
+        }
+        assertEquals(10, rule.getLooks());
+
+        rule.start(SEATS);
+        assertEquals(0, rule.getLooks());
+        recordGames(rule, 0, 1000);
+        assertFalse(rule.isMet());
+        assertEquals(1, rule.getLooks());
+    }
+}
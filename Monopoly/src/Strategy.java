@@ -0,0 +1,80 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+public interface Strategy {
+    /**
+     * The Strategy interface
+     *
+     * A Strategy makes the decisions of an AI player. The AI plays its own turn and asks the strategy at each
+     * decision point: whether to pay to leave jail, whether to buy the property it landed on and which houses and
+     * hotels to build. The AI checks that every decision is legal before acting on it.
+     *
+     * Strategies only decide, they must never change the model. Strategies are found by name with the
+     * ServiceLoader, new strategies are added by listing them in META-INF/services/Strategy.
+     */
+
+    /**
+     * Returns the name the strategy is loaded by.
+     */
+    String getName();
+
+    /**
+     * Decides whether the AI pays the fine to leave jail before rolling.
+     * @param model the game being played
+     * @param ai the AI whose turn it is, it is in jail and can afford the fine
+     * @return whether to pay the fine
+     */
+    boolean leaveJail(MonopolyModel model, AI ai);
+
+    /**
+     * Decides whether the AI buys the unowned property it landed on.
+     * @param model the game being played
+     * @param ai the AI whose turn it is
+     * @param property the property the AI landed on
+     * @return whether to buy the property
+     */
+    boolean buy(MonopolyModel model, AI ai, Property property);
+
+    /**
+     * Decides which property the AI builds its next house on, it is asked again after every house.
+     * @param model the game being played
+     * @param ai the AI whose turn it is
+     * @return the property to build a house on, or null to stop building houses
+     */
+    Property buildHouse(MonopolyModel model, AI ai);
+
+    /**
+     * Decides which property the AI builds its next hotel on, it is asked again after every hotel.
+     * @param model the game being played
+     * @param ai the AI whose turn it is
+     * @return the property to build a hotel on, or null to stop building hotels
+     */
+    Property buildHotel(MonopolyModel model, AI ai);
+
+    /**
+     * Loads a new instance of the strategy with the given name.
+     * @param name the name of the strategy
+     * @return the strategy
+     * @throws IllegalArgumentException if there is no strategy with that name
+     */
+    static Strategy forName(String name) {
+        for (Strategy strategy : ServiceLoader.load(Strategy.class)) {
+            if (strategy.getName().equals(name)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+
+    /**
+     * Returns the names of every strategy that can be loaded.
+     */
+    static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (Strategy strategy : ServiceLoader.load(Strategy.class)) {
+            names.add(strategy.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class StrategyComparison {
+    /**
+     * The StrategyComparison class
+     *
+     * Compares two AIs by playing each of them in the first seat against the same opponents. Both AIs play every
+     * game with the same seed so they see the same dice (common random numbers), and the SeedSchedule can add
+     * antithetic dice and seat rotation on top. Each thread plays its games on two models, one for each AI, and
+     * the results are merged once every game has been played.
+     *
+     * @attribute boardType the board the games are played on
+     * @attribute players the number of AI players in each game
+     * @attribute games the number of games each AI plays, rounded up to whole seed groups
+     * @attribute strategyA creates the first AI being compared
+     * @attribute strategyB creates the second AI being compared
+     * @attribute opponent creates the AIs in the other seats
+     * @attribute threads the number of threads playing games
+     * @attribute maxTurns games are stopped after this many turns
+     * @attribute schedule decides the seed, dice and turn order of every game
+     */
+    private final int boardType;
+    private final int players;
+    private final long games;
+    private final Function<String, AI> strategyA;
+    private final Function<String, AI> strategyB;
+    private Function<String, AI> opponent;
+    private int threads;
+    private int maxTurns;
+    private final SeedSchedule schedule;
+
+    private static final int CANDIDATESEAT = 0;
+    private static final int DEFAULTMAXTURNS = 1000;
+
+    /**
+     * Default constructor for StrategyComparison, the opponents are the default AI.
+     * @param boardType the board the games are played on
+     * @param players the number of AI players in each game (2-4)
+     * @param games the number of games each AI plays
+     * @param strategyA creates the first AI being compared
+     * @param strategyB creates the second AI being compared
+     */
+    public StrategyComparison(int boardType, int players, long games,
+                              Function<String, AI> strategyA, Function<String, AI> strategyB) {
+        if (players < 2 || players > 4) {
+            throw new IllegalArgumentException("Invalid number of players, must be between 2 to 4 players");
+        }
+        this.boardType = boardType;
+        this.players = players;
+        this.games = games;
+        this.strategyA = strategyA;
+        this.strategyB = strategyB;
+        this.opponent = AI::new;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.maxTurns = DEFAULTMAXTURNS;
+        this.schedule = new SeedSchedule(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Setter for the AI playing in the other seats.
+     */
+    public void setOpponent(Function<String, AI> opponent) {
+        this.opponent = opponent;
+    }
+
+    /**
+     * Setter for the number of threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Setter for the turn cap.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Getter for the SeedSchedule, it is used to set the seed, antithetic dice and seat rotation of the comparison.
+     */
+    public SeedSchedule getSeedSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Creates a model with the given AI in the candidate seat.
+     */
+    private MonopolyModel createModel(Function<String, AI> candidate) {
+        MonopolyModel model = new MonopolyModel(boardType);
+        model.addAI(candidate.apply("Candidate"));
+        for (int i = 1; i < players; i++) {
+            model.addAI(opponent.apply("AI" + (i + 1)));
+        }
+        return model;
+    }
+
+    /**
+     * Plays game number n on the model and returns the equity of the candidate seat.
+     */
+    private double playGame(MonopolyModel model, long game) {
+        schedule.startGame(model, game);
+        while (!model.isGameOver() && model.getTurnCount() < maxTurns) {
+            model.playAITurn();
+        }
+        return equity(model, model.getSeats().get(CANDIDATESEAT));
+    }
+
+    /**
+     * Returns the equity of a player at the end of a game: 1 if they won, 0 if they were eliminated and otherwise
+     * their share of the net worth of the players still in the game.
+     */
+    static double equity(MonopolyModel model, Player player) {
+        if (!model.getPlayers().contains(player)) {
+            return 0;
+        }
+        if (model.isGameOver()) {
+            return 1;
+        }
+        double total = 0;
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            total += Math.max(0, model.getPlayers().get(i).getNetWorth());
+        }
+        return total == 0 ? 0 : Math.max(0, player.getNetWorth()) / total;
+    }
+
+    /**
+     * Plays every game of the comparison and returns the merged result.
+     * @return the result of the comparison
+     */
+    public ComparisonResult run() throws InterruptedException, ExecutionException {
+        int gamesPerSeed = schedule.gamesPerSeed(players);
+        long groups = (games + gamesPerSeed - 1) / gamesPerSeed;
+        AtomicLong nextGroup = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ComparisonResult>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<ComparisonResult> worker = () -> {
+                    MonopolyModel modelA = createModel(strategyA);
+                    MonopolyModel modelB = createModel(strategyB);
+                    ComparisonResult result = new ComparisonResult();
+                    long group;
+                    while ((group = nextGroup.getAndIncrement()) < groups) {
+                        double difference = 0;
+                        for (long game = group * gamesPerSeed; game < (group + 1) * gamesPerSeed; game++) {
+                            double scoreA = playGame(modelA, game);
+                            double scoreB = playGame(modelB, game);
+                            result.recordGame(scoreA, scoreB);
+                            difference += scoreA - scoreB;
+                        }
+                        result.recordGroup(difference / gamesPerSeed);
+                    }
+                    return result;
+                };
+                results.add(executor.submit(worker));
+            }
+
+            ComparisonResult result = new ComparisonResult();
+            for (Future<ComparisonResult> partial : results) {
+                result.merge(partial.get());
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
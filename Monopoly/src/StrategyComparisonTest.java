@@ -0,0 +1,55 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyComparisonTest {
+    /**
+     * These tests verify that the variance reduction techniques of a StrategyComparison make the comparison of two
+     * AIs more precise. The seed is fixed and one thread plays every game so the results are the same every run.
+     */
+    private final static long SEED = 42;
+    private final static int GAMES = 400;
+    private final static int MAXTURNS = 300;
+
+    private static ComparisonResult compare(boolean antithetic, boolean seatRotation) throws Exception {
+        StrategyComparison comparison = new StrategyComparison(0, 2, GAMES,
+                name -> new AI(name, new ROIStrategy()), AI::new);
+        comparison.setThreads(1);
+        comparison.setMaxTurns(MAXTURNS);
+        comparison.getSeedSchedule().setSeed(SEED);
+        comparison.getSeedSchedule().setAntithetic(antithetic);
+        comparison.getSeedSchedule().setSeatRotation(seatRotation);
+        return comparison.run();
+    }
+
+    /**
+     * This test verifies that the same seed gives the same result.
+     */
+    @Test
+    public void deterministicTest() throws Exception {
+        ComparisonResult first = compare(true, true);
+        ComparisonResult second = compare(true, true);
+        assertEquals(first.getMeanA(), second.getMeanA());
+        assertEquals(first.getMeanB(), second.getMeanB());
+        assertEquals(first.getStandardError(), second.getStandardError());
+    }
+
+    /**
+     * This test verifies that playing both AIs on the same dice gives a smaller standard error than independent
+     * games would, and that antithetic dice and seat rotation each make it smaller again for the same number of
+     * games.
+     */
+    @Test
+    public void varianceReductionTest() throws Exception {
+        ComparisonResult paired = compare(false, false);
+        ComparisonResult antithetic = compare(true, false);
+        ComparisonResult rotated = compare(true, true);
+
+        assertEquals(GAMES, paired.getGames());
+        assertEquals(GAMES, rotated.getGames());
+        assertTrue(paired.getVarianceReduction() > 1, paired.toString());
+        assertTrue(antithetic.getStandardError() < paired.getStandardError(), antithetic.toString());
+        assertTrue(rotated.getStandardError() < antithetic.getStandardError(), rotated.toString());
+        assertTrue(rotated.getVarianceReduction() > 1.5, rotated.toString());
+    }
+}
@@ -0,0 +1,37 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyTest {
+    /**
+     * These tests verify that strategies are found by the names listed in META-INF/services/Strategy.
+     */
+
+    /**
+     * This test verifies that every strategy is listed once and loads by its name as a new instance.
+     */
+    @Test
+    public void forNameTest() {
+        List<String> names = Strategy.names();
+        assertTrue(names.contains("default"));
+        assertTrue(names.contains("tuned"));
+        assertTrue(names.contains("roi"));
+        for (String name : names) {
+            assertEquals(1, names.stream().filter(name::equals).count(), name);
+            Strategy strategy = Strategy.forName(name);
+            assertEquals(name, strategy.getName());
+            assertNotSame(strategy, Strategy.forName(name));
+        }
+        assertEquals(DefaultStrategy.class, Strategy.forName("default").getClass());
+    }
+
+    /**
+     * This test verifies that an unknown name is refused.
+     */
+    @Test
+    public void unknownNameTest() {
+        assertThrows(IllegalArgumentException.class, () -> Strategy.forName("nobody"));
+    }
+}
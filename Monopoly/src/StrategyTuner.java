@@ -0,0 +1,280 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class StrategyTuner {
+    /**
+     * The StrategyTuner class
+     *
+     * Tunes the parameters of a ParameterizedStrategy for a board with a genetic algorithm. Every generation each
+     * candidate plays the same games (the same seeds, with seat rotation) in the first seat against default AIs, and
+     * its fitness is its mean equity: 1 for a win, 0 when it is eliminated and its share of the net worth still in
+     * the game when the game hits the turn cap. The games of the whole population are split into chunks that are
+     * played on all cores.
+     *
+     * The next generation keeps the best candidates and fills the rest with children of tournament winners, made
+     * by blending two parents and mutating some of their parameters.
+     *
+     * @attribute boardType the board the AI is tuned for
+     * @attribute players the number of AI players in each game
+     * @attribute populationSize the number of candidates in each generation
+     * @attribute generations the number of generations
+     * @attribute gamesPerCandidate the number of games each candidate plays each generation
+     * @attribute maxTurns games are stopped after this many turns
+     * @attribute threads the number of threads playing games
+     * @attribute random decides the starting population, selection, crossover and mutation
+     * @attribute seed the seed of the first generation's games
+     * @attribute best the best parameters found so far
+     * @attribute bestFitness the fitness of the best parameters in the generation they were found
+     */
+    private final int boardType;
+    private final int players;
+    private int populationSize;
+    private int generations;
+    private int gamesPerCandidate;
+    private int maxTurns;
+    private int threads;
+    private final Random random;
+    private final long seed;
+    private double[] best;
+    private double bestFitness;
+
+    private static final int DEFAULTPOPULATION = 16;
+    private static final int DEFAULTGENERATIONS = 20;
+    private static final int DEFAULTGAMES = 400;
+    private static final int DEFAULTMAXTURNS = 300;
+    private static final int ELITES = 2;
+    private static final int TOURNAMENTSIZE = 3;
+    private static final double MUTATIONRATE = 0.2;
+    private static final double MUTATIONSCALE = 0.1;
+    private static final double BLENDEXTENSION = 0.25;
+    private static final int GAMESPERCHUNK = 100;
+
+    /**
+     * Default constructor for StrategyTuner.
+     * @param boardType the board the AI is tuned for
+     * @param players the number of AI players in each game (2-4)
+     * @param seed the seed of the tuner, the same seed always finds the same parameters
+     */
+    public StrategyTuner(int boardType, int players, long seed) {
+        if (players < 2 || players > 4) {
+            throw new IllegalArgumentException("Invalid number of players, must be between 2 to 4 players");
+        }
+        this.boardType = boardType;
+        this.players = players;
+        this.populationSize = DEFAULTPOPULATION;
+        this.generations = DEFAULTGENERATIONS;
+        this.gamesPerCandidate = DEFAULTGAMES;
+        this.maxTurns = DEFAULTMAXTURNS;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.random = new Random(seed);
+        this.seed = seed;
+    }
+
+    /**
+     * Setter for the number of candidates in each generation.
+     */
+    public void setPopulationSize(int populationSize) {
+        this.populationSize = Math.max(ELITES + 1, populationSize);
+    }
+
+    /**
+     * Setter for the number of generations.
+     */
+    public void setGenerations(int generations) {
+        this.generations = generations;
+    }
+
+    /**
+     * Setter for the number of games each candidate plays each generation.
+     */
+    public void setGamesPerCandidate(int gamesPerCandidate) {
+        this.gamesPerCandidate = gamesPerCandidate;
+    }
+
+    /**
+     * Setter for the turn cap.
+     */
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Setter for the number of threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Getter for the fitness of the best parameters.
+     */
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * Returns a random candidate within the bounds of every parameter.
+     */
+    private double[] randomCandidate() {
+        double[] candidate = new double[ParameterizedStrategy.PARAMETERS];
+        for (int i = 0; i < candidate.length; i++) {
+            candidate[i] = ParameterizedStrategy.LOWERBOUNDS[i]
+                    + random.nextDouble() * (ParameterizedStrategy.UPPERBOUNDS[i] - ParameterizedStrategy.LOWERBOUNDS[i]);
+        }
+        return candidate;
+    }
+
+    /**
+     * Plays a chunk of a candidate's games and returns the sum of its equity.
+     */
+    private double playGames(double[] candidate, SeedSchedule schedule, long firstGame, long lastGame) {
+        MonopolyModel model = new MonopolyModel(Board.copyOf(boardType), new ArrayList<>(), 0);
+        model.addAI(new AI("Candidate", new ParameterizedStrategy(candidate)));
+        for (int i = 1; i < players; i++) {
+            model.addAI("AI" + (i + 1));
+        }
+
+        double equity = 0;
+        for (long game = firstGame; game < lastGame; game++) {
+            schedule.startGame(model, game);
+            while (!model.isGameOver() && model.getTurnCount() < maxTurns) {
+                model.playAITurn();
+            }
+            equity += StrategyComparison.equity(model, model.getSeats().get(0));
+        }
+        return equity;
+    }
+
+    /**
+     * Plays the games of every candidate of a generation on all cores and returns their fitness.
+     */
+    private double[] evaluate(ExecutorService executor, List<double[]> population, int generation)
+            throws InterruptedException, ExecutionException {
+        SeedSchedule schedule = new SeedSchedule(seed + (long) generation * gamesPerCandidate);
+        schedule.setSeatRotation(true);
+
+        List<Future<Double>> chunks = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int c = 0; c < population.size(); c++) {
+            double[] candidate = population.get(c);
+            for (long first = 0; first < gamesPerCandidate; first += GAMESPERCHUNK) {
+                long start = first;
+                long end = Math.min(gamesPerCandidate, first + GAMESPERCHUNK);
+                Callable<Double> chunk = () -> playGames(candidate, schedule, start, end);
+                chunks.add(executor.submit(chunk));
+                owners.add(c);
+            }
+        }
+
+        double[] fitness = new double[population.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            fitness[owners.get(i)] += chunks.get(i).get();
+        }
+        for (int c = 0; c < fitness.length; c++) {
+            fitness[c] /= gamesPerCandidate;
+        }
+        return fitness;
+    }
+
+    /**
+     * Picks the fittest of a few random candidates.
+     */
+    private double[] tournament(List<double[]> population, double[] fitness) {
+        int winner = random.nextInt(population.size());
+        for (int i = 1; i < TOURNAMENTSIZE; i++) {
+            int challenger = random.nextInt(population.size());
+            if (fitness[challenger] > fitness[winner]) {
+                winner = challenger;
+            }
+        }
+        return population.get(winner);
+    }
+
+    /**
+     * Creates a child by blending two parents and mutating some of its parameters, the child stays within bounds.
+     */
+    double[] child(double[] mother, double[] father) {
+        double[] child = new double[ParameterizedStrategy.PARAMETERS];
+        for (int i = 0; i < child.length; i++) {
+            double range = ParameterizedStrategy.UPPERBOUNDS[i] - ParameterizedStrategy.LOWERBOUNDS[i];
+            double blend = -BLENDEXTENSION + random.nextDouble() * (1 + 2 * BLENDEXTENSION);
+            child[i] = mother[i] + blend * (father[i] - mother[i]);
+            if (random.nextDouble() < MUTATIONRATE) {
+                child[i] += random.nextGaussian() * MUTATIONSCALE * range;
+            }
+            child[i] = Math.max(ParameterizedStrategy.LOWERBOUNDS[i], Math.min(ParameterizedStrategy.UPPERBOUNDS[i], child[i]));
+        }
+        return child;
+    }
+
+    /**
+     * Runs the genetic algorithm and returns the best parameters found.
+     * @return the best parameters
+     */
+    public double[] run() throws InterruptedException, ExecutionException {
+        List<double[]> population = new ArrayList<>();
+        // start from the default AI, which buys everything and never builds
+        population.add(new double[]{0, 1, 1, 1, ParameterizedStrategy.UPPERBOUNDS[ParameterizedStrategy.HOUSETHRESHOLD],
+                ParameterizedStrategy.UPPERBOUNDS[ParameterizedStrategy.HOTELTHRESHOLD]});
+        while (population.size() < populationSize) {
+            population.add(randomCandidate());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int generation = 0; generation < generations; generation++) {
+                double[] fitness = evaluate(executor, population, generation);
+
+                Integer[] order = new Integer[population.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Double.compare(fitness[b], fitness[a]));
+                best = population.get(order[0]);
+                bestFitness = fitness[order[0]];
+
+                List<double[]> next = new ArrayList<>();
+                for (int i = 0; i < ELITES; i++) {
+                    next.add(population.get(order[i]));
+                }
+                while (next.size() < populationSize) {
+                    next.add(child(tournament(population, fitness), tournament(population, fitness)));
+                }
+                population = next;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return best.clone();
+    }
+
+    /**
+     * Tunes an AI for every board and prints the parameters found.
+     * Arguments: [players [generations [gamesPerCandidate [seed]]]]
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULTGENERATIONS;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULTGAMES;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 3110;
+
+        for (int boardType = 0; boardType < 4; boardType++) {
+            StrategyTuner tuner = new StrategyTuner(boardType, players, seed);
+            tuner.setGenerations(generations);
+            tuner.setGamesPerCandidate(games);
+            try {
+                double[] best = tuner.run();
+                System.out.println("Board " + boardType + ": " + Arrays.toString(best) + " fitness " + tuner.getBestFitness());
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
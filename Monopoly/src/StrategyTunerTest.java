@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategyTunerTest {
+    /**
+     * These tests verify that the StrategyTuner keeps every candidate within the bounds of the parameters and that
+     * the same seed always finds the same parameters.
+     */
+    private final static long SEED = 3110;
+    private final static int CHILDREN = 1000;
+
+    private static StrategyTuner newTuner(int threads) {
+        StrategyTuner tuner = new StrategyTuner(0, 2, SEED);
+        tuner.setPopulationSize(4);
+        tuner.setGenerations(2);
+        tuner.setGamesPerCandidate(40);
+        tuner.setMaxTurns(100);
+        tuner.setThreads(threads);
+        return tuner;
+    }
+
+    private static void assertWithinBounds(double[] parameters) {
+        assertEquals(ParameterizedStrategy.PARAMETERS, parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            assertTrue(parameters[i] >= ParameterizedStrategy.LOWERBOUNDS[i], "parameter " + i + " below its bound");
+            assertTrue(parameters[i] <= ParameterizedStrategy.UPPERBOUNDS[i], "parameter " + i + " above its bound");
+        }
+    }
+
+    /**
+     * This test verifies that the children of parents on opposite bounds are clamped to the bounds, blending and
+     * mutation can both push them past.
+     */
+    @Test
+    public void boundsTest() {
+        StrategyTuner tuner = new StrategyTuner(0, 2, SEED);
+        int clamped = 0;
+        for (int i = 0; i < CHILDREN; i++) {
+            double[] child = tuner.child(ParameterizedStrategy.LOWERBOUNDS, ParameterizedStrategy.UPPERBOUNDS);
+            assertWithinBounds(child);
+            for (int p = 0; p < child.length; p++) {
+                if (child[p] == ParameterizedStrategy.LOWERBOUNDS[p] || child[p] == ParameterizedStrategy.UPPERBOUNDS[p]) {
+                    clamped++;
+                }
+            }
+        }
+        assertTrue(clamped > 0);
+    }
+
+    /**
+     * This test verifies that the same seed finds the same parameters with the same fitness, however many threads
+     * play the games.
+     */
+    @Test
+    public void deterministicTest() throws Exception {
+        StrategyTuner first = newTuner(1);
+        StrategyTuner second = newTuner(2);
+        double[] best = first.run();
+
+        assertWithinBounds(best);
+        assertArrayEquals(best, second.run());
+        assertEquals(first.getBestFitness(), second.getBestFitness());
+        assertTrue(first.getBestFitness() >= 0 && first.getBestFitness() <= 1);
+    }
+}
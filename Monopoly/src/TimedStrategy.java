@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TimedStrategy implements Strategy {
+    /**
+     * The TimedStrategy class
+     *
+     * Wraps a strategy so it can never stall a live game. Every decision is made on a decision thread and the AI
+     * waits for it for at most the latency budget. When the budget is exceeded, or the strategy throws, the decision
+     * of the fallback strategy is used instead. A strategy that exceeds its budget too many times is not asked
+     * again and the fallback makes the rest of its decisions.
+     *
+     * A decision that exceeds its budget is cancelled, but a strategy that ignores interrupts keeps running. So
+     * every decision is made on a private copy of the game, which the live game can't change under it, and no new
+     * decision is handed to the strategy until the last one has returned, the fallback decides in the meantime.
+     * The strategy is therefore never asked two things at once.
+     *
+     * Handing every decision to another thread costs a few microseconds, headless simulations use strategies
+     * directly.
+     *
+     * @attribute strategy the strategy making the decisions
+     * @attribute fallback the strategy used when the budget is exceeded
+     * @attribute budgetNanos the latency budget of each decision
+     * @attribute overruns the number of decisions that exceeded the budget
+     * @attribute deciding whether the strategy is still making a decision, even one that was abandoned
+     * @attribute copy the copy of the game the strategy decides on
+     */
+    private final Strategy strategy;
+    private final Strategy fallback;
+    private final long budgetNanos;
+    private int overruns;
+    private final AtomicBoolean deciding;
+    private MonopolyModel copy;
+
+    static final long LIVEBUDGETMILLIS = 50;
+    private static final int MAXOVERRUNS = 3;
+
+    private static final ExecutorService DECISIONS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "strategy-decision");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Default constructor for TimedStrategy, the fallback is the DefaultStrategy.
+     * @param strategy the strategy making the decisions
+     * @param budget the latency budget of each decision
+     * @param unit the unit of the budget
+     */
+    public TimedStrategy(Strategy strategy, long budget, TimeUnit unit) {
+        this.strategy = strategy;
+        this.fallback = new DefaultStrategy();
+        this.budgetNanos = unit.toNanos(budget);
+        this.deciding = new AtomicBoolean();
+    }
+
+    /**
+     * Loads a strategy by name and wraps it with the latency budget of live games.
+     * @param name the name of the strategy
+     */
+    public static TimedStrategy forLiveGame(String name) {
+        return new TimedStrategy(Strategy.forName(name), LIVEBUDGETMILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Getter for the number of decisions that exceeded the budget.
+     */
+    public int getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Copies the live game into the copy the strategy decides on, it is called on the game's thread before the
+     * decision is handed over.
+     * @return the copy
+     */
+    private MonopolyModel copyOf(MonopolyModel model) {
+        if (copy == null || copy.getBoard().getBoardType() != model.getBoard().getBoardType()
+                || copy.getSeats().size() < model.getPlayers().size()) {
+            copy = new MonopolyModel(Board.copyOf(model.getBoard().getBoardType()), new ArrayList<>(), 0);
+            for (int i = 0; i < model.getPlayers().size(); i++) {
+                copy.addAI("Copy " + i);
+            }
+        }
+        copy.copyFrom(model);
+        return copy;
+    }
+
+    /**
+     * Returns the AI in the copy that plays the seat of an AI in the live game.
+     */
+    private AI copyOf(MonopolyModel model, AI ai) {
+        return (AI) copy.getPlayers().get(model.getPlayers().indexOf(ai));
+    }
+
+    /**
+     * Returns the property on one board at the position of a property on another board.
+     */
+    private static Property propertyOn(MonopolyModel to, MonopolyModel from, Property property) {
+        return property == null ? null : to.getBoard().getProperty(from.getBoard().getProperties().indexOf(property));
+    }
+
+    /**
+     * Returns whether the strategy can be asked for a decision, it can't once it has exceeded the budget too many
+     * times or while it is still busy with an earlier decision.
+     */
+    private boolean available() {
+        return overruns < MAXOVERRUNS && !deciding.get();
+    }
+
+    /**
+     * Makes a decision within the budget, or returns the fallback decision. It must only be called when the
+     * strategy is available.
+     */
+    private <T> T decide(Callable<T> decision, Callable<T> fallbackDecision) {
+        try {
+            if (deciding.compareAndSet(false, true)) {
+                // whichever of the decision thread and this thread claims the decision first owns it, so a
+                // decision abandoned before it started never runs and the strategy is free again
+                AtomicBoolean claimed = new AtomicBoolean();
+                Future<T> result = DECISIONS.submit(() -> {
+                    if (!claimed.compareAndSet(false, true)) {
+                        return null;
+                    }
+                    try {
+                        return decision.call();
+                    } finally {
+                        deciding.set(false);
+                    }
+                });
+                try {
+                    return result.get(budgetNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (claimed.compareAndSet(false, true)) {
+                        deciding.set(false);
+                    }
+                    else {
+                        result.cancel(true);
+                    }
+                    overruns++;
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+            return fallbackDecision.call();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            throw new IllegalStateException("The fallback strategy failed", e);
+        }
+    }
+
+    /**
+     * Returns the name of the wrapped strategy.
+     */
+    @Override
+    public String getName() {
+        return strategy.getName();
+    }
+
+    /**
+     * Returns whether the strategy is still making a decision.
+     */
+    boolean isDeciding() {
+        return deciding.get();
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        Boolean leave;
+        if (!available()) {
+            leave = fallback.leaveJail(model, ai);
+        }
+        else {
+            MonopolyModel game = copyOf(model);
+            AI player = copyOf(model, ai);
+            leave = decide(() -> strategy.leaveJail(game, player), () -> fallback.leaveJail(model, ai));
+        }
+        return leave != null && leave;
+    }
+
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        Boolean buy;
+        if (!available()) {
+            buy = fallback.buy(model, ai, property);
+        }
+        else {
+            MonopolyModel game = copyOf(model);
+            AI player = copyOf(model, ai);
+            Property square = propertyOn(game, model, property);
+            buy = decide(() -> strategy.buy(game, player, square), () -> fallback.buy(model, ai, property));
+        }
+        return buy != null && buy;
+    }
+
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        if (!available()) {
+            return fallback.buildHouse(model, ai);
+        }
+        MonopolyModel game = copyOf(model);
+        AI player = copyOf(model, ai);
+        return decide(() -> propertyOn(model, game, strategy.buildHouse(game, player)),
+                () -> fallback.buildHouse(model, ai));
+    }
+
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        if (!available()) {
+            return fallback.buildHotel(model, ai);
+        }
+        MonopolyModel game = copyOf(model);
+        AI player = copyOf(model, ai);
+        return decide(() -> propertyOn(model, game, strategy.buildHotel(game, player)),
+                () -> fallback.buildHotel(model, ai));
+    }
+}
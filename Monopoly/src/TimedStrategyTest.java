@@ -0,0 +1,153 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedStrategyTest {
+    /**
+     * These tests verify that a TimedStrategy decides on a copy of the game, falls back when the strategy is too
+     * slow or fails and never asks a strategy that is still busy for another decision.
+     */
+    private final static long BUDGETMILLIS = 20;
+    private final static int STREET = 1;
+
+    private MonopolyModel model;
+    private AI ai;
+
+    /**
+     * A strategy that passes on every property unless it is told to wait, then it waits without noticing
+     * interrupts until it is released.
+     */
+    private static class SlowStrategy extends DefaultStrategy {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean slow;
+        volatile MonopolyModel seen;
+        volatile AI seenAI;
+
+        @Override
+        public boolean buy(MonopolyModel model, AI ai, Property property) {
+            calls.incrementAndGet();
+            seen = model;
+            seenAI = ai;
+            while (slow) {
+                try {
+                    release.await();
+                    slow = false;
+                } catch (InterruptedException e) {
+                    // keep waiting, like a strategy that ignores interrupts
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Property buildHouse(MonopolyModel model, AI ai) {
+            calls.incrementAndGet();
+            return ai.getPropertiesOwned().isEmpty() ? null : ai.getPropertiesOwned().get(0);
+        }
+    }
+
+    /**
+     * This method initializes the MonopolyModel with two AI players, the first owns a street.
+     */
+    @BeforeEach
+    public void initEach() {
+        model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        ai = (AI) model.getPlayers().get(0);
+        ai.buy(model.getBoard().getProperty(STREET));
+    }
+
+    /**
+     * This test verifies that the strategy is given a copy of the game and the AI, and that a property it picks in
+     * the copy is returned as the property of the live game.
+     */
+    @Test
+    public void copyTest() {
+        SlowStrategy slow = new SlowStrategy();
+        TimedStrategy timed = new TimedStrategy(slow, 1, TimeUnit.SECONDS);
+
+        assertFalse(timed.buy(model, ai, model.getBoard().getProperty(STREET + 1)));
+        assertNotSame(model, slow.seen);
+        assertNotSame(ai, slow.seenAI);
+        assertEquals(ai.getMoney(), slow.seenAI.getMoney());
+
+        assertSame(model.getBoard().getProperty(STREET), timed.buildHouse(model, ai));
+        assertEquals(0, timed.getOverruns());
+    }
+
+    /**
+     * This test verifies that a decision over budget falls back, that the fallback decides straight away while the
+     * abandoned decision is still running, and that the strategy is asked again once it has returned.
+     */
+    @Test
+    public void busyTest() throws Exception {
+        SlowStrategy slow = new SlowStrategy();
+        TimedStrategy timed = new TimedStrategy(slow, BUDGETMILLIS, TimeUnit.MILLISECONDS);
+        Property square = model.getBoard().getProperty(STREET + 1);
+
+        slow.slow = true;
+        assertTrue(timed.buy(model, ai, square));
+        assertEquals(1, timed.getOverruns());
+        assertTrue(timed.isDeciding());
+
+        long start = System.nanoTime();
+        assertTrue(timed.buy(model, ai, square));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(BUDGETMILLIS));
+        assertEquals(1, slow.calls.get());
+        assertEquals(1, timed.getOverruns());
+
+        slow.release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (timed.isDeciding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(timed.isDeciding());
+        assertFalse(timed.buy(model, ai, square));
+        assertEquals(2, slow.calls.get());
+    }
+
+    /**
+     * This test verifies that a strategy that throws is replaced by the fallback for that decision only, and that
+     * a strategy over budget too many times is not asked again.
+     */
+    @Test
+    public void fallbackTest() throws Exception {
+        TimedStrategy failing = new TimedStrategy(new DefaultStrategy() {
+            @Override
+            public boolean buy(MonopolyModel model, AI ai, Property property) {
+                throw new IllegalStateException("broken strategy");
+            }
+        }, 1, TimeUnit.SECONDS);
+        assertTrue(failing.buy(model, ai, model.getBoard().getProperty(STREET + 1)));
+        assertEquals(0, failing.getOverruns());
+
+        AtomicInteger calls = new AtomicInteger();
+        TimedStrategy sleepy = new TimedStrategy(new DefaultStrategy() {
+            @Override
+            public boolean buy(MonopolyModel model, AI ai, Property property) {
+                calls.incrementAndGet();
+                try {
+                    Thread.sleep(10 * BUDGETMILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        }, BUDGETMILLIS, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sleepy.buy(model, ai, model.getBoard().getProperty(STREET + 1)));
+            while (sleepy.isDeciding()) {
+                Thread.sleep(1);
+            }
+        }
+        assertEquals(3, sleepy.getOverruns());
+        assertEquals(3, calls.get());
+    }
+}
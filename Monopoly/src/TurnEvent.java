@@ -0,0 +1,61 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+@Name("monopoly.Turn")
+@Label("Turn")
+@Category("Monopoly")
+@Description("One player turn played through MonopolyModel.playTurn, split into phases")
+@StackTrace(false)
+@Threshold("0 ms")
+public class TurnEvent extends Event {
+    /**
+     * JDK Flight Recorder event emitted once per player turn by MonopolyModel.playTurn.
+     *
+     * The phase timings are only measured when the event is enabled so a game that is not being
+     * recorded pays nothing more than the enabled check.
+     *
+     * @attribute player the name of the player whose turn it was
+     * @attribute ai whether the player is an AI
+     * @attribute boardType the board the game is played on
+     * @attribute moveTime time spent moving the player and resolving the square they landed on
+     * @attribute jailTime time spent handling jail
+     * @attribute settleTime time spent checking eliminations, the winner and updating the view
+     */
+    @Label("Player")
+    String player;
+
+    @Label("AI")
+    boolean ai;
+
+    @Label("Board Type")
+    int boardType;
+
+    @Label("Move Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long moveTime;
+
+    @Label("Jail Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long jailTime;
+
+    @Label("Settle Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long settleTime;
+
+    private static final EventType TYPE = EventType.getEventType(TurnEvent.class);
+
+    /**
+     * Returns whether the event is being recorded. It is checked before the event is created so a game that is
+     * not being recorded allocates no events, whether or not the JIT has compiled the caller yet.
+     */
+    static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
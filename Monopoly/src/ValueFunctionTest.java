@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueFunctionTest {
+    /**
+     * These tests verify that the value function can be saved and loaded and that training makes it better.
+     */
+
+    /**
+     * This test verifies that a loaded network gives the same values as the one that was saved.
+     */
+    @Test
+    public void saveLoadTest() throws IOException {
+        ValueFunction network = new ValueFunction(GameEncoding.OBSERVATIONSIZE, 8, 3);
+        MonopolyModel model = new MonopolyModel(0);
+        model.addAI("AI1");
+        model.addAI("AI2");
+        float[] observation = new float[GameEncoding.OBSERVATIONSIZE];
+        GameEncoding.encode(model, model.getPlayer(), observation, 0);
+
+        File file = File.createTempFile("value", ".bin");
+        file.deleteOnExit();
+        network.save(file.getPath());
+        ValueFunction loaded = ValueFunction.load(file.getPath());
+
+        float value = network.evaluate(observation, 0, new float[8]);
+        assertTrue(value > 0 && value < 1);
+        assertEquals(value, loaded.evaluate(observation, 0, new float[8]), 0);
+    }
+
+    /**
+     * This test verifies that training on a few self play games predicts held out games better than an untrained
+     * network.
+     */
+    @Test
+    public void trainingTest() {
+        ValueTrainer trainer = new ValueTrainer(100, 8, 5);
+        trainer.setThreads(1);
+        trainer.setMaxTurns(100);
+        trainer.setEpochs(3);
+        ValueTrainer.Samples[] samples = trainer.play();
+        assertTrue(samples[0].count > samples[1].count && samples[1].count > 0);
+
+        ValueFunction untrained = new ValueFunction(GameEncoding.OBSERVATIONSIZE, 8, 5);
+        ValueFunction trained = trainer.train(samples[0], samples[1]);
+        assertTrue(ValueTrainer.squaredError(trained, samples[1]) < ValueTrainer.squaredError(untrained, samples[1]));
+    }
+}
@@ -0,0 +1,163 @@
+public class ValueStrategy implements Strategy {
+    /**
+     * The ValueStrategy class
+     *
+     * A greedy strategy that asks the trained ValueFunction instead of playing games out. For each decision the
+     * AI encodes the game once, changes the few values of the observation the decision would change (the owner
+     * or buildings of a square, its money and whether it is in jail) and scores each choice with the network.
+     * A decision costs a few network evaluations of a few microseconds each.
+     *
+     * The network predicts how a game ends far better than it tells apart choices that change the equity by a
+     * fraction of a percent, so the ROIStrategy makes the decision unless the network prefers the other choice
+     * by more than MARGIN. Without the trained weights the AI plays like the ROIStrategy.
+     *
+     * @attribute observation the AI's observation of the game
+     * @attribute activations scratch space for the network
+     * @attribute fallback the strategy played without the trained weights
+     * @attribute network the network the strategy plays with, null for the trained one
+     */
+    private static final float MARGIN = 0.03f;
+
+    private final float[] observation = new float[GameEncoding.OBSERVATIONSIZE];
+    private float[] activations;
+    private final Strategy fallback = new ROIStrategy();
+    private final ValueFunction network;
+
+    /**
+     * Holds the shared network, it is loaded the first time it is needed.
+     */
+    private static class Network {
+        static final ValueFunction VALUE = ValueFunction.load();
+    }
+
+    /**
+     * Default constructor for ValueStrategy, it plays with the trained network.
+     */
+    public ValueStrategy() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a ValueStrategy that plays with the given network instead of the trained one.
+     */
+    ValueStrategy(ValueFunction network) {
+        this.network = network;
+    }
+
+    /**
+     * Returns the network the strategy plays with, the trained one is loaded the first time it is needed.
+     */
+    private ValueFunction network() {
+        return network == null ? Network.VALUE : network;
+    }
+
+    @Override
+    public String getName() {
+        return "value";
+    }
+
+    /**
+     * Encodes the game for the AI and returns its value.
+     */
+    private float encode(MonopolyModel model, AI ai) {
+        if (activations == null) {
+            activations = new float[network().hidden];
+        }
+        GameEncoding.encode(model, ai, observation, 0);
+        return network().evaluate(observation, 0, activations);
+    }
+
+    /**
+     * Returns the value of the observation with one feature set and the AI's money lowered by a cost, the
+     * observation is put back afterwards.
+     */
+    private float valueOf(int feature, float value, int cost) {
+        int money = GameEncoding.moneyIndex();
+        float oldFeature = observation[feature];
+        float oldMoney = observation[money];
+        observation[feature] = value;
+        observation[money] -= GameEncoding.money(cost);
+        float result = network().evaluate(observation, 0, activations);
+        observation[feature] = oldFeature;
+        observation[money] = oldMoney;
+        return result;
+    }
+
+    /**
+     * Returns the choice of the fallback strategy unless the network scores the other choice higher by the margin.
+     */
+    private static boolean decide(boolean fallback, float yes, float no) {
+        return fallback ? no - yes <= MARGIN : yes - no > MARGIN;
+    }
+
+    @Override
+    public boolean leaveJail(MonopolyModel model, AI ai) {
+        boolean leave = fallback.leaveJail(model, ai);
+        if (network() == null) {
+            return leave;
+        }
+        float stay = encode(model, ai);
+        return decide(leave, valueOf(GameEncoding.jailedIndex(), 0, Jail.FINE), stay);
+    }
+
+    @Override
+    public boolean buy(MonopolyModel model, AI ai, Property property) {
+        boolean buy = fallback.buy(model, ai, property);
+        if (network() == null) {
+            return buy;
+        }
+        float pass = encode(model, ai);
+        int square = model.getBoard().getProperties().indexOf(property);
+        if (square < 0) {
+            return buy;
+        }
+        return decide(buy, valueOf(GameEncoding.ownedIndex(square), 1, property.getCost()), pass);
+    }
+
+    @Override
+    public Property buildHouse(MonopolyModel model, AI ai) {
+        if (network() == null) {
+            return fallback.buildHouse(model, ai);
+        }
+        return best(model, ai, fallback.buildHouse(model, ai), false);
+    }
+
+    @Override
+    public Property buildHotel(MonopolyModel model, AI ai) {
+        if (network() == null) {
+            return fallback.buildHotel(model, ai);
+        }
+        return best(model, ai, fallback.buildHotel(model, ai), true);
+    }
+
+    /**
+     * Returns the property whose next house or hotel the network scores highest, if it beats the fallback's choice
+     * by the margin, otherwise the fallback's choice.
+     */
+    private Property best(MonopolyModel model, AI ai, Property suggested, boolean hotel) {
+        float none = encode(model, ai);
+        int cost = hotel ? Player.HOTELCOST : Player.HOUSECOST;
+        Property choice = suggested;
+        float best = suggested == null ? none : valueOf(feature(model, suggested, hotel), 1, cost);
+        for (int i = 0; i < GameEncoding.SQUARES; i++) {
+            Property property = model.getBoard().getProperty(i);
+            if (!GameEncoding.canBuild(property, ai) || property.hasHouse() != hotel || property == suggested) {
+                continue;
+            }
+            float value = valueOf(hotel ? GameEncoding.hotelIndex(i) : GameEncoding.houseIndex(i), 1, cost);
+            if (value - best > MARGIN) {
+                best = value;
+                choice = property;
+            }
+        }
+        if (choice != null && none - best > MARGIN) {
+            return null;
+        }
+        return choice;
+    }
+
+    private static int feature(MonopolyModel model, Property property, boolean hotel) {
+        int square = model.getBoard().getProperties().indexOf(property);
+        return hotel ? GameEncoding.hotelIndex(square) : GameEncoding.houseIndex(square);
+    }
+}
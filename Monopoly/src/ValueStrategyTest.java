@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValueStrategyTest {
+    /**
+     * These tests verify the decisions of the ValueStrategy with a network whose preferences are known.
+     */
+    private final static int WANTED = 1;
+    private final static int UNWANTED = 2;
+
+    /**
+     * Returns a network with one hidden unit that only values owning the wanted square.
+     */
+    private static ValueFunction wantsSquare(int square) {
+        ValueFunction network = new ValueFunction(GameEncoding.OBSERVATIONSIZE, 1, 0);
+        Arrays.fill(network.inputWeights, 0);
+        network.inputWeights[GameEncoding.ownedIndex(square)] = 5;
+        network.outputWeights[0] = 1;
+        return network;
+    }
+
+    /**
+     * This test verifies that the network overrules the ROIStrategy when it prefers buying by more than the margin,
+     * and that it is asked about the property it is offered rather than the square the AI stands on.
+     */
+    @Test
+    public void buyTest() {
+        MonopolyModel model = new MonopolyModel(0);
+        AI ai = new AI("AI1");
+        model.addAI(ai);
+        model.addAI("AI2");
+        Property wanted = model.getBoard().getProperty(WANTED);
+        Property unwanted = model.getBoard().getProperty(UNWANTED);
+        assertEquals(0, ai.getPosition());
+        assertFalse(new ROIStrategy().buy(model, ai, wanted));
+
+        ValueStrategy strategy = new ValueStrategy(wantsSquare(WANTED));
+        assertTrue(strategy.buy(model, ai, wanted));
+        assertFalse(strategy.buy(model, ai, unwanted));
+    }
+}
@@ -0,0 +1,383 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ValueTrainer {
+    /**
+     * The ValueTrainer class
+     *
+     * Trains a ValueFunction on games the headless engine plays against itself. Every game is played on one of
+     * the boards by two to four AIs with strategies picked at random, some of them making random decisions, every
+     * few turns the observation of each player still in the game is recorded and once the game is over each
+     * observation is labelled with that player's equity (StrategyComparison.equity). The games are played on a
+     * thread for every processor.
+     *
+     * The network is then trained with Adam on minibatches to minimise the cross entropy between its output and
+     * the equity, a tenth of the games are held out to report how well it predicts games it hasn't seen.
+     *
+     * @attribute games the number of self play games
+     * @attribute hidden the number of hidden units of the network
+     * @attribute seed the seed of the games and the training
+     * @attribute threads the number of threads playing games
+     * @attribute maxTurns games are stopped after this many turns
+     * @attribute sampleEvery the number of turns between recorded observations
+     * @attribute epochs the number of passes over the training games
+     * @attribute learningRate the step size of Adam
+     * @attribute strategies the names of the strategies the AIs play, EXPLORING for random decisions
+     */
+    private static final int DEFAULTHIDDEN = 32;
+    private static final int BATCH = 64;
+    private static final float BETA1 = 0.9f;
+    private static final float BETA2 = 0.999f;
+    private static final float EPSILON = 1e-8f;
+    private static final int HOLDOUT = 10;
+    private static final int BUILDODDS = 3;
+    static final String EXPLORING = "exploring";
+
+    private final int games;
+    private final int hidden;
+    private final long seed;
+    private int threads;
+    private int maxTurns;
+    private int sampleEvery;
+    private int epochs;
+    private float learningRate;
+    private String[] strategies;
+
+    /**
+     * The observations recorded from some games and the equity each one ended with.
+     */
+    static class Samples {
+        float[] observations = new float[0];
+        float[] labels = new float[0];
+        int count;
+
+        void add(float[] observation, float label) {
+            reserve(count + 1);
+            System.arraycopy(observation, 0, observations, count * GameEncoding.OBSERVATIONSIZE, GameEncoding.OBSERVATIONSIZE);
+            labels[count++] = label;
+        }
+
+        void addAll(Samples other) {
+            reserve(count + other.count);
+            System.arraycopy(other.observations, 0, observations, count * GameEncoding.OBSERVATIONSIZE,
+                    other.count * GameEncoding.OBSERVATIONSIZE);
+            System.arraycopy(other.labels, 0, labels, count, other.count);
+            count += other.count;
+        }
+
+        private void reserve(int size) {
+            if (size > labels.length) {
+                int capacity = Math.max(size, Math.max(1024, 2 * labels.length));
+                observations = Arrays.copyOf(observations, capacity * GameEncoding.OBSERVATIONSIZE);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+        }
+    }
+
+    /**
+     * An AI that makes random decisions, so the games show the network what buying, building and leaving jail
+     * early are worth rather than only what the other strategies always do.
+     */
+    private static class ExploringStrategy implements Strategy {
+        private final Random random;
+
+        ExploringStrategy(long seed) {
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public String getName() {
+            return "exploring";
+        }
+
+        @Override
+        public boolean leaveJail(MonopolyModel model, AI ai) {
+            return random.nextBoolean();
+        }
+
+        @Override
+        public boolean buy(MonopolyModel model, AI ai, Property property) {
+            return random.nextBoolean();
+        }
+
+        @Override
+        public Property buildHouse(MonopolyModel model, AI ai) {
+            return randomBuild(model, ai, false);
+        }
+
+        @Override
+        public Property buildHotel(MonopolyModel model, AI ai) {
+            return randomBuild(model, ai, true);
+        }
+
+        private Property randomBuild(MonopolyModel model, AI ai, boolean hotel) {
+            if (random.nextInt(BUILDODDS) != 0) {
+                return null;
+            }
+            Property property = model.getBoard().getProperty(random.nextInt(GameEncoding.SQUARES));
+            return GameEncoding.canBuild(property, ai) && property.hasHouse() == hotel ? property : null;
+        }
+    }
+
+    public ValueTrainer(int games, long seed) {
+        this(games, DEFAULTHIDDEN, seed);
+    }
+
+    public ValueTrainer(int games, int hidden, long seed) {
+        this.games = games;
+        this.hidden = hidden;
+        this.seed = seed;
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.maxTurns = 300;
+        this.sampleEvery = 20;
+        this.epochs = 10;
+        this.learningRate = 1e-3f;
+        this.strategies = new String[] {"default", "tuned", "roi", EXPLORING, EXPLORING};
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setMaxTurns(int maxTurns) {
+        this.maxTurns = maxTurns;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    public void setEpochs(int epochs) {
+        this.epochs = epochs;
+    }
+
+    public void setLearningRate(float learningRate) {
+        this.learningRate = learningRate;
+    }
+
+    public void setStrategies(String[] strategies) {
+        this.strategies = strategies;
+    }
+
+    /**
+     * Plays the self play games and returns their samples, the games whose number is in the hold out are
+     * returned in the second Samples.
+     * @throws IllegalStateException if a game failed, training on the games that didn't would skew the samples
+     */
+    Samples[] play() {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        List<Future<Samples[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            Callable<Samples[]> task = () -> {
+                Samples[] samples = {new Samples(), new Samples()};
+                for (int g = first; g < games; g += threads) {
+                    playGame(g, samples[g % HOLDOUT == 0 ? 1 : 0]);
+                }
+                return samples;
+            };
+            futures.add(workers.submit(task));
+        }
+
+        Samples[] samples = {new Samples(), new Samples()};
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Samples[] part = futures.get(i).get();
+                samples[0].addAll(part[0]);
+                samples[1].addAll(part[1]);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A self play game failed", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        return samples;
+    }
+
+    /**
+     * Plays game number g and adds its observations to the samples.
+     */
+    private void playGame(long g, Samples samples) {
+        Random random = new Random(seed * 31 + g);
+        MonopolyModel model = new MonopolyModel((int) (g % GameEncoding.BOARDS));
+        int players = 2 + random.nextInt(GameEncoding.SEATS - 1);
+        for (int i = 0; i < players; i++) {
+            String name = strategies[random.nextInt(strategies.length)];
+            Strategy strategy = name.equals(EXPLORING) ? new ExploringStrategy(random.nextLong()) : Strategy.forName(name);
+            model.addAI(new AI("AI" + i, strategy));
+        }
+        model.getDice().setSeed(random.nextLong());
+
+        List<float[]> observations = new ArrayList<>();
+        List<Player> owners = new ArrayList<>();
+        while (!model.isGameOver() && model.getTurnCount() < maxTurns) {
+            if (model.getTurnCount() % sampleEvery == 0) {
+                for (int i = 0; i < model.getPlayers().size(); i++) {
+                    float[] observation = new float[GameEncoding.OBSERVATIONSIZE];
+                    GameEncoding.encode(model, model.getPlayers().get(i), observation, 0);
+                    observations.add(observation);
+                    owners.add(model.getPlayers().get(i));
+                }
+            }
+            model.playAITurn();
+        }
+        for (int i = 0; i < observations.size(); i++) {
+            samples.add(observations.get(i), (float) StrategyComparison.equity(model, owners.get(i)));
+        }
+    }
+
+    /**
+     * Trains a network on the training samples and prints its loss on the held out samples after every epoch.
+     */
+    ValueFunction train(Samples training, Samples holdout) {
+        int inputs = GameEncoding.OBSERVATIONSIZE;
+        ValueFunction network = new ValueFunction(inputs, hidden, seed);
+        float[][] parameters = {network.inputWeights, network.hiddenBias, network.outputWeights, new float[1]};
+        float[][] gradients = new float[parameters.length][];
+        float[][] moments = new float[parameters.length][];
+        float[][] velocities = new float[parameters.length][];
+        for (int k = 0; k < parameters.length; k++) {
+            gradients[k] = new float[parameters[k].length];
+            moments[k] = new float[parameters[k].length];
+            velocities[k] = new float[parameters[k].length];
+        }
+        parameters[3][0] = network.outputBias;
+
+        float[] activations = new float[hidden];
+        float[] hiddenGradient = new float[hidden];
+        int[] order = new int[training.count];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Random random = new Random(seed);
+        int step = 0;
+
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            for (int start = 0; start < order.length; start += BATCH) {
+                int end = Math.min(order.length, start + BATCH);
+                for (int k = 0; k < gradients.length; k++) {
+                    Arrays.fill(gradients[k], 0);
+                }
+                for (int b = start; b < end; b++) {
+                    int offset = order[b] * inputs;
+                    float error = ValueFunction.sigmoid(network.forward(training.observations, offset, activations))
+                            - training.labels[order[b]];
+                    gradients[3][0] += error;
+                    for (int h = 0; h < hidden; h++) {
+                        gradients[2][h] += error * activations[h];
+                        hiddenGradient[h] = activations[h] > 0 ? error * network.outputWeights[h] : 0;
+                        gradients[1][h] += hiddenGradient[h];
+                    }
+                    for (int x = 0; x < inputs; x++) {
+                        float value = training.observations[offset + x];
+                        if (value == 0) {
+                            continue;
+                        }
+                        int row = x * hidden;
+                        for (int h = 0; h < hidden; h++) {
+                            gradients[0][row + h] += value * hiddenGradient[h];
+                        }
+                    }
+                }
+
+                step++;
+                float scale = 1f / (end - start);
+                float correction1 = 1 - (float) Math.pow(BETA1, step);
+                float correction2 = 1 - (float) Math.pow(BETA2, step);
+                for (int k = 0; k < parameters.length; k++) {
+                    for (int p = 0; p < parameters[k].length; p++) {
+                        float gradient = gradients[k][p] * scale;
+                        moments[k][p] = BETA1 * moments[k][p] + (1 - BETA1) * gradient;
+                        velocities[k][p] = BETA2 * velocities[k][p] + (1 - BETA2) * gradient * gradient;
+                        parameters[k][p] -= learningRate * (moments[k][p] / correction1)
+                                / ((float) Math.sqrt(velocities[k][p] / correction2) + EPSILON);
+                    }
+                }
+                network.outputBias = parameters[3][0];
+            }
+            System.out.printf("epoch %d: held out loss %.4f, mean squared error %.4f%n", epoch + 1,
+                    loss(network, holdout), squaredError(network, holdout));
+        }
+        return network;
+    }
+
+    /**
+     * Returns the mean cross entropy of the network on some samples.
+     */
+    static double loss(ValueFunction network, Samples samples) {
+        float[] activations = new float[network.hidden];
+        double total = 0;
+        for (int i = 0; i < samples.count; i++) {
+            double p = Math.min(1 - 1e-7, Math.max(1e-7,
+                    network.evaluate(samples.observations, i * network.inputs, activations)));
+            double y = samples.labels[i];
+            total -= y * Math.log(p) + (1 - y) * Math.log(1 - p);
+        }
+        return samples.count == 0 ? 0 : total / samples.count;
+    }
+
+    /**
+     * Returns the mean squared error of the network on some samples.
+     */
+    static double squaredError(ValueFunction network, Samples samples) {
+        float[] activations = new float[network.hidden];
+        double total = 0;
+        for (int i = 0; i < samples.count; i++) {
+            double error = network.evaluate(samples.observations, i * network.inputs, activations) - samples.labels[i];
+            total += error * error;
+        }
+        return samples.count == 0 ? 0 : total / samples.count;
+    }
+
+    /**
+     * Plays the games, trains the network and returns it.
+     */
+    public ValueFunction run() {
+        Samples[] samples = play();
+        double mean = 0;
+        double variance = 0;
+        for (int i = 0; i < samples[1].count; i++) {
+            mean += samples[1].labels[i];
+        }
+        mean /= Math.max(1, samples[1].count);
+        for (int i = 0; i < samples[1].count; i++) {
+            variance += (samples[1].labels[i] - mean) * (samples[1].labels[i] - mean);
+        }
+        variance /= Math.max(1, samples[1].count);
+        System.out.printf("%d training and %d held out observations, guessing the mean has a squared error of %.4f%n",
+                samples[0].count, samples[1].count, variance);
+        return train(samples[0], samples[1]);
+    }
+
+    /**
+     * Trains a value function and saves it.
+     * Usage: ValueTrainer [games [seed [file]]]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        String file = args.length > 2 ? args[2] : ValueFunction.WEIGHTSFILE;
+        ValueFunction network = new ValueTrainer(games, seed).run();
+        try {
+            network.save(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
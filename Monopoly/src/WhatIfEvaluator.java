@@ -0,0 +1,231 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class WhatIfEvaluator {
+    /**
+     * The WhatIfEvaluator class
+     *
+     * Estimates what each action open to the current player is worth by playing short rollouts from the live game.
+     * The current player has moved and is deciding, they can buy or pass on the square they are on or build a
+     * house or hotel on a street they own. The live game is copied once on the calling thread, each rollout copies
+     * that copy into a scratch game, takes the action, finishes the turn and plays the next turns with AIs in every
+     * seat. Rollouts still running after the deadline only ever read their own copy, so the live game can move on.
+     *
+     * The rollouts run on a pool of worker threads that each keep their own scratch game, every action is played
+     * with the same dice seeds so the differences between actions aren't hidden by luck. Whatever has been
+     * played when the deadline passes is returned, so a hint never holds up the game.
+     *
+     * @attribute workers the threads the rollouts run on
+     * @attribute threads the number of worker threads
+     * @attribute turns the number of turns each rollout plays after the action
+     * @attribute rollouts the most rollouts played for each action
+     * @attribute strategy the name of the strategy every player uses in the rollouts
+     * @attribute scratch the game each worker thread plays its rollouts in
+     */
+    static final int BUY = 0;
+    static final int PASS = 1;
+    static final int HOUSE = 2;
+    static final int HOTEL = 3;
+
+    private static final int DEFAULTTURNS = 20;
+    private static final int DEFAULTROLLOUTS = 2000;
+
+    private final ExecutorService workers;
+    private final int threads;
+    private int turns;
+    private int rollouts;
+    private String strategy;
+    private final ThreadLocal<MonopolyModel> scratch;
+
+    /**
+     * Default constructor for WhatIfEvaluator, there is a worker thread for every processor.
+     */
+    public WhatIfEvaluator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public WhatIfEvaluator(int threads) {
+        this.threads = threads;
+        this.turns = DEFAULTTURNS;
+        this.rollouts = DEFAULTROLLOUTS;
+        this.strategy = "roi";
+        this.scratch = new ThreadLocal<>();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "what-if");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Setter for the number of turns each rollout plays after the action.
+     */
+    public void setTurns(int turns) {
+        this.turns = turns;
+    }
+
+    /**
+     * Setter for the most rollouts played for each action.
+     */
+    public void setRollouts(int rollouts) {
+        this.rollouts = rollouts;
+    }
+
+    /**
+     * Setter for the name of the strategy every player uses in the rollouts, it is used from the next evaluation
+     * on.
+     */
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Lists the actions open to the current player: buying or passing on the square they are on if it is for sale,
+     * and every house and hotel they can afford.
+     * @param model the live game
+     * @return a result for each action with no rollouts recorded
+     */
+    public List<WhatIfResult> candidates(MonopolyModel model) {
+        List<WhatIfResult> candidates = new ArrayList<>();
+        Player player = model.getPlayer();
+        Property square = model.getBoard().getProperty(player.getPosition());
+        if (square.getOwner() == null && square.getCost() > 0) {
+            if (player.getMoney() >= square.getCost()) {
+                candidates.add(new WhatIfResult(BUY, square));
+            }
+            candidates.add(new WhatIfResult(PASS, null));
+        }
+        else {
+            candidates.add(new WhatIfResult(PASS, null));
+        }
+        for (int i = 0; i < player.getPropertiesOwned().size(); i++) {
+            Property property = player.getPropertiesOwned().get(i);
+            if (!AI.canHaveBuildings(property)) {
+                continue;
+            }
+            if (!property.hasHouse() && player.getMoney() >= Player.HOUSECOST) {
+                candidates.add(new WhatIfResult(HOUSE, property));
+            }
+            else if (property.hasHouse() && !property.hasHotel() && player.getMoney() >= Player.HOTELCOST) {
+                candidates.add(new WhatIfResult(HOTEL, property));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Plays rollouts of every action open to the current player until the deadline and returns what they found.
+     * The live game is only read before the rollouts start and may change as soon as this returns.
+     * @param model the live game
+     * @param deadline the most milliseconds to spend
+     * @return a result for each action
+     */
+    public List<WhatIfResult> evaluate(MonopolyModel model, long deadline) {
+        return evaluateLater(model, deadline).join();
+    }
+
+    /**
+     * Starts rollouts of every action open to the current player and returns without waiting for them. The live
+     * game is copied before this returns and may change from then on, so a view can call it on its own thread and
+     * show the results when they come.
+     * @param model the live game
+     * @param deadline the most milliseconds to spend
+     * @return completes with a result for each action once every rollout is played or the deadline passes
+     */
+    public CompletableFuture<List<WhatIfResult>> evaluateLater(MonopolyModel model, long deadline) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadline);
+        List<WhatIfResult> candidates = candidates(model);
+        MonopolyModel origin = copyOf(model);
+        String name = strategy;
+        long seed = ThreadLocalRandom.current().nextLong();
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            futures[t] = CompletableFuture.runAsync(() -> {
+                for (int r = first; r < rollouts && System.nanoTime() < end; r += threads) {
+                    for (int c = 0; c < candidates.size() && System.nanoTime() < end; c++) {
+                        rollout(origin, name, candidates.get(c), seed + r);
+                    }
+                }
+            }, workers).exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
+        }
+
+        return CompletableFuture.allOf(futures)
+                .completeOnTimeout(null, Math.max(0, end - System.nanoTime()), TimeUnit.NANOSECONDS)
+                .thenApply(done -> {
+                    List<WhatIfResult> results = new ArrayList<>();
+                    for (int i = 0; i < candidates.size(); i++) {
+                        results.add(candidates.get(i).snapshot());
+                    }
+                    return results;
+                });
+    }
+
+    /**
+     * Returns a new copy of the live game for the rollouts of one evaluation to start from, it is never changed
+     * after it is made.
+     */
+    private static MonopolyModel copyOf(MonopolyModel model) {
+        MonopolyModel origin = new MonopolyModel(Board.copyOf(model.getBoard().getBoardType()), new ArrayList<>(), 0);
+        for (int i = 0; i < model.getPlayers().size(); i++) {
+            origin.addAI("Origin " + i);
+        }
+        origin.copyFrom(model);
+        return origin;
+    }
+
+    /**
+     * Plays one rollout of an action on this thread's scratch game and records how the player did.
+     * @param model the copy of the live game the evaluation started from
+     * @param name the name of the strategy every player uses
+     */
+    private void rollout(MonopolyModel model, String name, WhatIfResult candidate, long seed) {
+        MonopolyModel game = scratchFor(model, name);
+        game.copyFrom(model);
+        game.getDice().setSeed(seed);
+        Player player = game.getPlayer();
+        if (candidate.getAction() == BUY) {
+            player.buy(game.getBoard().getProperty(player.getPosition()));
+        }
+        else if (candidate.getAction() == HOUSE) {
+            player.buyHouse(candidate.getProperty().getName());
+        }
+        else if (candidate.getAction() == HOTEL) {
+            player.buyHotel(candidate.getProperty().getName());
+        }
+        game.finishTurn();
+
+        for (int i = 0; i < turns && !game.isGameOver() && game.getPlayers().contains(player); i++) {
+            game.playAITurn();
+        }
+        boolean bankrupt = !game.getPlayers().contains(player);
+        candidate.recordRollout(bankrupt ? 0 : player.getNetWorth(), bankrupt);
+    }
+
+    /**
+     * Returns this thread's scratch game, making a new one when the live game has a different board or more
+     * players, or the rollouts are played with a different strategy.
+     */
+    private MonopolyModel scratchFor(MonopolyModel model, String name) {
+        MonopolyModel game = scratch.get();
+        if (game == null || game.getBoard().getBoardType() != model.getBoard().getBoardType()
+                || game.getSeats().size() < model.getPlayers().size()
+                || !((AI) game.getSeats().get(0)).getStrategy().getName().equals(name)) {
+            game = new MonopolyModel(Board.copyOf(model.getBoard().getBoardType()), new ArrayList<>(), 0);
+            for (int i = 0; i < model.getPlayers().size(); i++) {
+                game.addAI(new AI("Rollout " + i, Strategy.forName(name)));
+            }
+            scratch.set(game);
+        }
+        return game;
+    }
+}
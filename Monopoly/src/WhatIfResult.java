@@ -0,0 +1,113 @@
+public class WhatIfResult {
+    /**
+     * The WhatIfResult class
+     *
+     * What a WhatIfEvaluator found out about one action, how much the player is worth and how often they went
+     * bankrupt a few turns after taking it.
+     *
+     * @attribute action the kind of action, one of the WhatIfEvaluator action constants
+     * @attribute property the property that is bought or built on, or null when passing
+     * @attribute rollouts the number of rollouts that were played
+     * @attribute sumNetWorth the sum of the player's net worth at the end of each rollout
+     * @attribute sumSquaresNetWorth the sum of the squared net worths
+     * @attribute bankruptcies the number of rollouts the player went bankrupt in
+     */
+    private final int action;
+    private final Property property;
+    private long rollouts;
+    private double sumNetWorth;
+    private double sumSquaresNetWorth;
+    private long bankruptcies;
+
+    public WhatIfResult(int action, Property property) {
+        this.action = action;
+        this.property = property;
+    }
+
+    /**
+     * Records the end of one rollout, a bankrupt player is worth nothing.
+     */
+    public synchronized void recordRollout(int netWorth, boolean bankrupt) {
+        this.rollouts++;
+        this.sumNetWorth += netWorth;
+        this.sumSquaresNetWorth += (double) netWorth * netWorth;
+        if (bankrupt) {
+            this.bankruptcies++;
+        }
+    }
+
+    /**
+     * Returns a copy of the rollouts recorded so far.
+     */
+    public synchronized WhatIfResult snapshot() {
+        WhatIfResult copy = new WhatIfResult(action, property);
+        copy.rollouts = this.rollouts;
+        copy.sumNetWorth = this.sumNetWorth;
+        copy.sumSquaresNetWorth = this.sumSquaresNetWorth;
+        copy.bankruptcies = this.bankruptcies;
+        return copy;
+    }
+
+    public int getAction() {
+        return action;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public long getRollouts() {
+        return rollouts;
+    }
+
+    /**
+     * Returns the expected net worth of the player after the rollouts.
+     */
+    public double getMeanNetWorth() {
+        return rollouts == 0 ? 0 : sumNetWorth / rollouts;
+    }
+
+    /**
+     * Returns the standard error of the expected net worth.
+     */
+    public double getStandardError() {
+        if (rollouts < 2) {
+            return 0;
+        }
+        double mean = getMeanNetWorth();
+        double variance = (sumSquaresNetWorth - rollouts * mean * mean) / (rollouts - 1);
+        return Math.sqrt(Math.max(0, variance) / rollouts);
+    }
+
+    /**
+     * Returns the share of rollouts the player went bankrupt in.
+     */
+    public double getBankruptcyRisk() {
+        return rollouts == 0 ? 0 : (double) bankruptcies / rollouts;
+    }
+
+    /**
+     * Describes the action.
+     */
+    public String getDescription() {
+        switch (action) {
+            case WhatIfEvaluator.BUY:
+                return "Buy " + property.getName();
+            case WhatIfEvaluator.HOUSE:
+                return "House on " + property.getName();
+            case WhatIfEvaluator.HOTEL:
+                return "Hotel on " + property.getName();
+            default:
+                return "Pass";
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (rollouts == 0) {
+            return getDescription() + ": no estimate in time";
+        }
+        return String.format("%s: net worth %.0f +/- %.0f, %.1f%% bankruptcy risk (%d rollouts)",
+                getDescription(), getMeanNetWorth(), 1.96 * getStandardError(), 100 * getBankruptcyRisk(), rollouts);
+    }
+}